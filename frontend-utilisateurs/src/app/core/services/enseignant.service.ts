@@ -2,6 +2,7 @@ import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { Enseignant } from '../../features/enseignants/enseignant.model';
+import { lireToutesLesPages } from './pagination-curseur';
 
 @Injectable({ providedIn: 'root' })
 export class EnseignantService {
@@ -9,8 +10,11 @@ export class EnseignantService {
 
   constructor(private http: HttpClient) {}
 
+  /**
+   * Retourne la liste complète, lue page par page (l'API pagine par curseur)
+   */
   getAll(): Observable<Enseignant[]> {
-    return this.http.get<Enseignant[]>(this.apiUrl);
+    return lireToutesLesPages<Enseignant>(this.http, this.apiUrl);
   }
 
   getById(id: number): Observable<Enseignant> {
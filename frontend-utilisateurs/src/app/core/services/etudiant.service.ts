@@ -2,6 +2,7 @@ import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { Etudiant } from '../../features/etudiants/etudiant.model';
+import { lireToutesLesPages } from './pagination-curseur';
 
 @Injectable({ providedIn: 'root' })
 export class EtudiantService {
@@ -9,8 +10,11 @@ export class EtudiantService {
 
   constructor(private http: HttpClient) {}
 
+  /**
+   * Retourne la liste complète, lue page par page (l'API pagine par curseur)
+   */
   getAll(): Observable<Etudiant[]> {
-    return this.http.get<Etudiant[]>(this.apiUrl);
+    return lireToutesLesPages<Etudiant>(this.http, this.apiUrl);
   }
 
   getById(id: number): Observable<Etudiant> {
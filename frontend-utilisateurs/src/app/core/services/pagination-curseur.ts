@@ -0,0 +1,29 @@
+import { HttpClient, HttpParams, HttpResponse } from '@angular/common/http';
+import { EMPTY, Observable, expand, reduce } from 'rxjs';
+
+/** En-tête portant le curseur de la page suivante ; absent sur la dernière page. */
+export const EN_TETE_CURSEUR_SUIVANT = 'X-Next-Cursor';
+
+/** Taille de page maximale acceptée par l'API (au-delà, elle est bornée côté serveur). */
+export const TAILLE_PAGE_MAX = 200;
+
+/**
+ * Lit toutes les pages d'une liste paginée par curseur et renvoie leurs éléments concaténés.
+ * Les pages sont demandées l'une après l'autre, tant que l'API renvoie un curseur suivant.
+ */
+export function lireToutesLesPages<T>(http: HttpClient, url: string): Observable<T[]> {
+  const lirePage = (curseur?: string): Observable<HttpResponse<T[]>> => {
+    let params = new HttpParams().set('taille', TAILLE_PAGE_MAX);
+    if (curseur) {
+      params = params.set('curseur', curseur);
+    }
+    return http.get<T[]>(url, { params, observe: 'response' });
+  };
+  return lirePage().pipe(
+    expand(reponse => {
+      const suivant = reponse.headers.get(EN_TETE_CURSEUR_SUIVANT);
+      return suivant ? lirePage(suivant) : EMPTY;
+    }),
+    reduce((elements: T[], reponse) => elements.concat(reponse.body ?? []), [])
+  );
+}
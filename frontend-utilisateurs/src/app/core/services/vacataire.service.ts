@@ -2,6 +2,7 @@ import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { Vacataire } from '../../features/vacataires/vacataire.model';
+import { lireToutesLesPages } from './pagination-curseur';
 
 @Injectable({ providedIn: 'root' })
 export class VacataireService {
@@ -9,8 +10,11 @@ export class VacataireService {
 
   constructor(private http: HttpClient) {}
 
+  /**
+   * Retourne tous les vacataires actifs, lus page par page (l'API pagine par curseur)
+   */
   getAll(): Observable<Vacataire[]> {
-    return this.http.get<Vacataire[]>(this.apiUrl);
+    return lireToutesLesPages<Vacataire>(this.http, this.apiUrl);
   }
 
   getById(id: number): Observable<Vacataire> {
@@ -38,9 +42,9 @@ export class VacataireService {
   }
 
   /**
-   * Retourne TOUS les vacataires (actifs et inactifs)
+   * Retourne TOUS les vacataires (actifs et inactifs), lus page par page
    */
   getAllWithInactifs(): Observable<Vacataire[]> {
-    return this.http.get<Vacataire[]>(`${this.apiUrl}/all`);
+    return lireToutesLesPages<Vacataire>(this.http, `${this.apiUrl}/all`);
   }
 }
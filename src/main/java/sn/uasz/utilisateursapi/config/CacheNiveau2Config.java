@@ -0,0 +1,82 @@
+package sn.uasz.utilisateursapi.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import sn.uasz.utilisateursapi.entities.Role;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Configuration du cache de second niveau Hibernate (JCache, fournisseur Caffeine en mémoire locale).
+ *
+ * <p>Les régions sont déclarées ici, avec une taille maximale chacune ; Hibernate refuse de
+ * démarrer si une région utilisée n'est pas déclarée
+ * ({@code hibernate.javax.cache.missing_cache_strategy=fail}). Les statistiques JCache de chaque
+ * région (accès réussis, échecs, insertions, évictions) sont publiées dans Actuator sous
+ * {@code /actuator/metrics/cache.*}, en complément des métriques {@code hibernate.*}.</p>
+ */
+@Configuration
+public class CacheNiveau2Config {
+
+    /** Régions du cache de second niveau et nombre maximal d'entrées de chacune. */
+    static final Map<String, Long> REGIONS = regions();
+
+    private static Map<String, Long> regions() {
+        Map<String, Long> regions = new LinkedHashMap<>();
+        regions.put(Role.REGION_CACHE, 500L);
+        regions.put("etudiant_roles", 50_000L);
+        regions.put("enseignant_roles", 10_000L);
+        regions.put(Role.REGION_CACHE_LIBELLE, 100L);
+        // Régions techniques du cache de requêtes
+        regions.put("default-query-results-region", 1_000L);
+        regions.put("default-update-timestamps-region", 1_000L);
+        return regions;
+    }
+
+    /**
+     * Gestionnaire JCache propre au contexte Spring, fermé avec lui.
+     * Une URI unique évite de partager les régions entre plusieurs contextes (ex. tests).
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheNiveau2Manager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-niveau2-" + UUID.randomUUID()), getClass().getClassLoader());
+        REGIONS.forEach((region, tailleMax) -> {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(tailleMax));
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+        });
+        return cacheManager;
+    }
+
+    /**
+     * Transmet le gestionnaire JCache à Hibernate.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer cacheNiveau2Hibernate(CacheManager cacheNiveau2Manager) {
+        return proprietes -> proprietes.put(ConfigSettings.CACHE_MANAGER, cacheNiveau2Manager);
+    }
+
+    /**
+     * Publie les statistiques de chaque région dans le registre de métriques d'Actuator.
+     */
+    @Bean
+    public MeterBinder cacheNiveau2Metriques(CacheManager cacheNiveau2Manager) {
+        return registre -> REGIONS.keySet().forEach(region -> JCacheMetrics.monitor(
+                registre, cacheNiveau2Manager.getCache(region), Tags.of("niveau", "hibernate-l2")));
+    }
+}
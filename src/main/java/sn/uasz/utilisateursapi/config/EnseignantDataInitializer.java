@@ -7,8 +7,10 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Configuration;
 import sn.uasz.utilisateursapi.dtos.EnseignantDTO;
 import sn.uasz.utilisateursapi.entities.Role;
+import sn.uasz.utilisateursapi.enums.CleUnique;
 import sn.uasz.utilisateursapi.repositories.EnseignantRepository;
 import sn.uasz.utilisateursapi.services.EnseignantService;
+import sn.uasz.utilisateursapi.services.RegistreClesUniques;
 import sn.uasz.utilisateursapi.enums.Grade;
 
 import java.time.LocalDate;
@@ -27,6 +29,7 @@ public class EnseignantDataInitializer implements CommandLineRunner {
 
     private final EnseignantService enseignantService;
     private final EnseignantRepository enseignantRepository;
+    private final RegistreClesUniques registreClesUniques;
 
     /**
      * Méthode appelée automatiquement au démarrage de l'application.
@@ -53,8 +56,8 @@ public class EnseignantDataInitializer implements CommandLineRunner {
     private boolean creerEnseignantTest(String nom, String prenom, String email, String telephone,
                                         String matricule, Grade grade, List<Role> roles, String createdBy) {
         try {
-            // Vérification d'existence par email
-            if (enseignantRepository.existsByEmail(email)) {
+            // Vérification d'existence par email (filtre de Bloom, puis base si nécessaire)
+            if (registreClesUniques.peutExister(CleUnique.ENSEIGNANT_EMAIL, email) && enseignantRepository.existsByEmail(email)) {
                 logger.info("Enseignant avec l'email {} existe déjà. Insertion ignorée.", email);
                 return true;
             }
@@ -71,7 +74,8 @@ public class EnseignantDataInitializer implements CommandLineRunner {
                     roles,
                     createdBy,
                     LocalDate.now(),
-                    true
+                    true,
+                    null
             );
 
             // Insertion via le service
@@ -0,0 +1,76 @@
+package sn.uasz.utilisateursapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Routage des lectures vers des répliques, activé par la propriété {@code lecture.replicas.urls}
+ * (URLs JDBC des répliques, séparées par des virgules). Sans cette propriété, la source de données
+ * unique de Spring Boot est utilisée.
+ *
+ * <p>Les méthodes exécutées en {@code @Transactional(readOnly = true)} (dont les méthodes de
+ * lecture des repositories Spring Data) lisent sur une réplique dont le retard est inférieur à
+ * {@code lecture.replicas.retard-max} ; tout le reste (écritures, accès hors transaction,
+ * initialisation du schéma) passe par la primaire, configurée par {@code spring.datasource.*}.
+ * Les répliques utilisent le pilote et les identifiants de la primaire.</p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "lecture.replicas.urls")
+public class RoutageLecturesConfig {
+
+    /**
+     * Pool de connexions de la base primaire.
+     */
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource sourcePrimaire(DataSourceProperties proprietes) {
+        return proprietes.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Pools des répliques et mesure de leur retard.
+     */
+    @Bean(destroyMethod = "close")
+    public SurveillanceReplicas surveillanceReplicas(@Qualifier("sourcePrimaire") DataSource primaire,
+                                                     DataSourceProperties proprietes,
+                                                     @Value("${lecture.replicas.urls}") String[] urls,
+                                                     @Value("${lecture.replicas.retard-max:5000}") long retardMax,
+                                                     @Value("${lecture.replicas.intervalle-verification:1000}") long intervalle) {
+        Map<String, DataSource> repliques = new LinkedHashMap<>();
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource replique = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(proprietes.determineDriverClassName())
+                    .url(urls[i].trim())
+                    .username(proprietes.determineUsername())
+                    .password(proprietes.determinePassword())
+                    .build();
+            replique.setPoolName("replique-" + (i + 1));
+            replique.setReadOnly(true);
+            repliques.put(replique.getPoolName(), replique);
+        }
+        return new SurveillanceReplicas(primaire, repliques, retardMax, intervalle);
+    }
+
+    /**
+     * Source de données utilisée par JPA : primaire ou réplique selon la transaction en cours.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("sourcePrimaire") DataSource primaire, SurveillanceReplicas surveillanceReplicas) {
+        return new LazyConnectionDataSourceProxy(new SourceDonneesRoutee(primaire, surveillanceReplicas));
+    }
+}
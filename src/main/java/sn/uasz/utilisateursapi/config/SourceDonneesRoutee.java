@@ -0,0 +1,82 @@
+package sn.uasz.utilisateursapi.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Optional;
+
+/**
+ * Source de données qui envoie les transactions {@code @Transactional(readOnly = true)} vers une
+ * réplique et tout le reste vers la primaire.
+ *
+ * <p>La décision est prise à l'obtention de la connexion physique ; elle doit donc être retardée
+ * jusqu'à la première requête SQL, une fois la transaction déclarée en lecture seule : cette
+ * source est toujours enveloppée dans un
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.</p>
+ *
+ * <p>Lecture de ses propres écritures : dès qu'une transaction en écriture obtient une connexion
+ * pendant une requête HTTP, les lectures suivantes de cette même requête restent sur la primaire,
+ * pour ne pas lire sur une réplique qui n'a pas encore reçu l'écriture.</p>
+ */
+final class SourceDonneesRoutee extends AbstractDataSource {
+
+    /** Attribut de requête posé après une écriture : les lectures suivantes restent sur la primaire. */
+    static final String ATTRIBUT_ECRITURE = SourceDonneesRoutee.class.getName() + ".ecriture";
+
+    private final DataSource primaire;
+    private final SurveillanceReplicas surveillance;
+
+    SourceDonneesRoutee(DataSource primaire, SurveillanceReplicas surveillance) {
+        this.primaire = primaire;
+        this.surveillance = surveillance;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (!ecritureDansLaRequete()) {
+                Optional<SurveillanceReplicas.Replique> replique;
+                while ((replique = surveillance.choisir()).isPresent()) {
+                    try {
+                        Connection connexion = replique.get().source().getConnection();
+                        surveillance.compterLecture(true);
+                        return connexion;
+                    } catch (SQLException e) {
+                        // Réplique écartée jusqu'à la prochaine vérification : on essaie la suivante
+                        surveillance.signalerEchec(replique.get(), e);
+                    }
+                }
+            }
+            surveillance.compterLecture(false);
+        } else if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            marquerEcriture();
+        }
+        return primaire.getConnection();
+    }
+
+    /**
+     * Non pris en charge : les identifiants sont ceux de chaque pool.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Identifiants fixés par les pools primaire et répliques");
+    }
+
+    private static boolean ecritureDansLaRequete() {
+        RequestAttributes requete = RequestContextHolder.getRequestAttributes();
+        return requete != null && requete.getAttribute(ATTRIBUT_ECRITURE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    private static void marquerEcriture() {
+        RequestAttributes requete = RequestContextHolder.getRequestAttributes();
+        if (requete != null) {
+            requete.setAttribute(ATTRIBUT_ECRITURE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
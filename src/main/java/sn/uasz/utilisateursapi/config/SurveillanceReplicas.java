@@ -0,0 +1,236 @@
+package sn.uasz.utilisateursapi.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import sn.uasz.utilisateursapi.entities.BattementReplication;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool de répliques en lecture et mesure périodique de leur retard sur la base primaire.
+ *
+ * <p>À chaque vérification, un battement horodaté ({@link BattementReplication}) est écrit sur la
+ * primaire, puis relu sur chaque réplique : le retard d'une réplique est l'âge du dernier battement
+ * qu'elle a reçu. Une réplique injoignable, sans battement, ou dont le retard dépasse
+ * {@code retardMax} n'est plus choisie jusqu'à la vérification suivante ; les lectures retombent
+ * alors sur la primaire. Tant qu'aucune mesure n'a été faite (démarrage), aucune réplique n'est
+ * choisie. Le retard d'une réplique à jour peut atteindre l'intervalle entre deux vérifications :
+ * {@code retardMax} doit donc lui être supérieur.</p>
+ *
+ * <p>Les retards, la disponibilité de chaque réplique et le nombre de lectures servies par les
+ * répliques ou par la primaire sont publiés dans Actuator ({@code /actuator/metrics/replicas.*}).</p>
+ */
+@Slf4j
+public class SurveillanceReplicas implements MeterBinder, AutoCloseable {
+
+    private static final String LECTURE_BATTEMENT =
+            "select horodatage from battement_replication where id = " + BattementReplication.ID;
+    private static final String MISE_A_JOUR_BATTEMENT =
+            "update battement_replication set horodatage = ? where id = " + BattementReplication.ID;
+    private static final String INSERTION_BATTEMENT =
+            "insert into battement_replication (id, horodatage) values (" + BattementReplication.ID + ", ?)";
+
+    private final DataSource primaire;
+    private final List<Replique> repliques = new ArrayList<>();
+    private final long retardMax;
+    private final long intervalle;
+    private final AtomicInteger prochaine = new AtomicInteger();
+    private final LongAdder lecturesReplique = new LongAdder();
+    private final LongAdder lecturesPrimaire = new LongAdder();
+    private final ScheduledExecutorService verifications = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "surveillance-replicas");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Réplique du pool et dernier état mesuré.
+     */
+    static final class Replique {
+        private final String nom;
+        private final DataSource source;
+        private volatile boolean disponible;
+        private volatile long retard = -1;
+
+        private Replique(String nom, DataSource source) {
+            this.nom = nom;
+            this.source = source;
+        }
+
+        String nom() {
+            return nom;
+        }
+
+        DataSource source() {
+            return source;
+        }
+
+        private boolean eligible(long retardMax) {
+            return disponible && retard <= retardMax;
+        }
+    }
+
+    /**
+     * @param primaire   source de données primaire, où le battement est écrit
+     * @param repliques  sources de données des répliques, par nom
+     * @param retardMax  retard au-delà duquel une réplique n'est plus choisie (ms)
+     * @param intervalle intervalle entre deux vérifications (ms)
+     */
+    public SurveillanceReplicas(DataSource primaire, Map<String, DataSource> repliques, long retardMax, long intervalle) {
+        this.primaire = primaire;
+        repliques.forEach((nom, source) -> this.repliques.add(new Replique(nom, source)));
+        this.retardMax = retardMax;
+        this.intervalle = intervalle;
+        if (retardMax <= intervalle) {
+            log.warn("Retard maximal des répliques ({} ms) inférieur à l'intervalle de vérification ({} ms) : "
+                    + "les répliques seront souvent écartées", retardMax, intervalle);
+        }
+    }
+
+    /**
+     * Lance les vérifications périodiques une fois l'application démarrée.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void demarrer() {
+        verifications.scheduleWithFixedDelay(this::verifier, intervalle, intervalle, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Écrit un battement sur la primaire puis mesure le retard de chaque réplique.
+     */
+    public void verifier() {
+        long maintenant = System.currentTimeMillis();
+        ecrireBattement(maintenant);
+        for (Replique replique : repliques) {
+            mesurer(replique, maintenant);
+        }
+    }
+
+    /**
+     * Choisit, à tour de rôle, une réplique dont le retard est acceptable.
+     *
+     * @return la réplique choisie, ou vide si aucune ne convient (la lecture se fait sur la primaire)
+     */
+    Optional<Replique> choisir() {
+        int depart = Math.floorMod(prochaine.getAndIncrement(), Math.max(repliques.size(), 1));
+        for (int i = 0; i < repliques.size(); i++) {
+            Replique replique = repliques.get((depart + i) % repliques.size());
+            if (replique.eligible(retardMax)) {
+                return Optional.of(replique);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Écarte une réplique dont une connexion n'a pu être obtenue, jusqu'à la vérification suivante.
+     */
+    void signalerEchec(Replique replique, SQLException e) {
+        if (replique.disponible) {
+            log.warn("Réplique {} écartée : {}", replique.nom, e.getMessage());
+        }
+        replique.disponible = false;
+    }
+
+    /**
+     * Compte une connexion en lecture seule servie par une réplique ou par la primaire.
+     */
+    void compterLecture(boolean surReplique) {
+        (surReplique ? lecturesReplique : lecturesPrimaire).increment();
+    }
+
+    private void ecrireBattement(long maintenant) {
+        try (Connection connexion = primaire.getConnection();
+             PreparedStatement miseAJour = connexion.prepareStatement(MISE_A_JOUR_BATTEMENT)) {
+            miseAJour.setLong(1, maintenant);
+            if (miseAJour.executeUpdate() == 0) {
+                try (PreparedStatement insertion = connexion.prepareStatement(INSERTION_BATTEMENT)) {
+                    insertion.setLong(1, maintenant);
+                    insertion.executeUpdate();
+                }
+            }
+            if (!connexion.getAutoCommit()) {
+                connexion.commit();
+            }
+        } catch (SQLException e) {
+            log.warn("Écriture du battement de réplication impossible : {}", e.getMessage());
+        }
+    }
+
+    private void mesurer(Replique replique, long maintenant) {
+        boolean etaitEligible = replique.eligible(retardMax);
+        try (Connection connexion = replique.source.getConnection();
+             PreparedStatement lecture = connexion.prepareStatement(LECTURE_BATTEMENT);
+             ResultSet resultat = lecture.executeQuery()) {
+            // Sans battement, le retard est inconnu : la réplique n'est pas choisie
+            replique.retard = resultat.next() ? Math.max(0, maintenant - resultat.getLong(1)) : Long.MAX_VALUE;
+            replique.disponible = true;
+        } catch (SQLException e) {
+            replique.disponible = false;
+            replique.retard = -1;
+            if (etaitEligible) {
+                log.warn("Réplique {} injoignable : {}", replique.nom, e.getMessage());
+            }
+        }
+        boolean eligible = replique.eligible(retardMax);
+        if (eligible && !etaitEligible) {
+            log.info("Réplique {} choisie pour les lectures (retard {} ms)", replique.nom, replique.retard);
+        } else if (!eligible && etaitEligible && replique.disponible) {
+            log.warn("Réplique {} écartée : retard de {} ms", replique.nom, replique.retard);
+        }
+    }
+
+    /**
+     * Publie, par réplique, le dernier retard mesuré (-1 si inconnu) et sa disponibilité, ainsi que
+     * le nombre de lectures en transaction {@code readOnly} servies par les répliques et par la primaire.
+     */
+    @Override
+    public void bindTo(MeterRegistry registre) {
+        for (Replique replique : repliques) {
+            Gauge.builder("replicas.retard", replique, r -> r.retard == Long.MAX_VALUE ? -1 : r.retard)
+                    .description("Dernier retard mesuré de la réplique sur la primaire")
+                    .baseUnit("milliseconds")
+                    .tag("replique", replique.nom).register(registre);
+            Gauge.builder("replicas.disponible", replique, r -> r.eligible(retardMax) ? 1 : 0)
+                    .description("1 si la réplique reçoit des lectures, 0 sinon")
+                    .tag("replique", replique.nom).register(registre);
+        }
+        FunctionCounter.builder("replicas.lectures", lecturesReplique, LongAdder::sum)
+                .description("Connexions en lecture seule servies par une réplique")
+                .tag("cible", "replique").register(registre);
+        FunctionCounter.builder("replicas.lectures", lecturesPrimaire, LongAdder::sum)
+                .description("Connexions en lecture seule servies par la primaire (écriture récente, ou aucune réplique à jour)")
+                .tag("cible", "primaire").register(registre);
+    }
+
+    /**
+     * Arrête les vérifications et ferme les pools des répliques.
+     */
+    @Override
+    public void close() throws Exception {
+        verifications.shutdownNow();
+        for (Replique replique : repliques) {
+            if (replique.source instanceof AutoCloseable fermable) {
+                fermable.close();
+            }
+        }
+    }
+}
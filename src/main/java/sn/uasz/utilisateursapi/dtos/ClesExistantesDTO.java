@@ -0,0 +1,22 @@
+package sn.uasz.utilisateursapi.dtos;
+
+import sn.uasz.utilisateursapi.enums.CleUnique;
+
+import java.util.List;
+
+/**
+ * Réponse du contrôle groupé d'existence de clés uniques
+ * ({@code POST /api/cles-uniques/{cle}/existantes}).
+ *
+ * @param cle             la clé unique contrôlée
+ * @param demandees       nombre de valeurs distinctes reçues
+ * @param verifieesEnBase nombre de valeurs que le filtre de Bloom n'a pas pu écarter
+ * @param existantes      les valeurs déjà présentes en base, dans l'ordre de la requête
+ */
+public record ClesExistantesDTO(
+        CleUnique cle,
+        int demandees,
+        int verifieesEnBase,
+        List<String> existantes
+) {
+}
@@ -0,0 +1,19 @@
+package sn.uasz.utilisateursapi.dtos;
+
+import java.util.List;
+
+/**
+ * Ligne du rapport de doublons : deux fiches qui désignent probablement la même personne.
+ *
+ * @param score    similarité pondérée, entre 0 et 1
+ * @param premiere première fiche
+ * @param seconde  seconde fiche
+ * @param criteres critères concordants (nom, prenom, email, telephone, dateNaissance)
+ */
+public record DoublonDTO(
+        double score,
+        FichePersonneDTO premiere,
+        FichePersonneDTO seconde,
+        List<String> criteres
+) {
+}
@@ -18,12 +18,14 @@ import java.util.List;
  * @param prenom     Le prénom de l'enseignant (entre 2 et 50 caractères, non vide).
  * @param email      L’adresse e-mail de l’enseignant (format valide, non vide).
  * @param telephone  Le numéro de téléphone de l'enseignant (doit correspondre à un format international valide).
- * @param matricule  Le matricule de l'enseignant (obligatoire).
+ * @param matricule  Le matricule de l'enseignant (attribué par le serveur s'il est laissé vide à la création).
  * @param grade      Le grade de l’enseignant (ne peut pas être nul).
  * @param roles      La liste des rôles associés à l'enseignant (optionnelle).
  * @param createBy   Le nom de l'utilisateur ayant créé cet enseignant (optionnel).
  * @param createAt   La date de création de l'enregistrement (optionnelle).
  * @param actif      Indique si l'enseignant est actif (true ou false, optionnel).
+ * @param version    La version de l'enseignant, également transmise dans l'en-tête {@code ETag}
+ *                   (ignorée en entrée : la version attendue d'une modification est lue dans {@code If-Match}).
  */
 public record EnseignantDTO(
         Long id,
@@ -35,14 +37,14 @@ public record EnseignantDTO(
         String email,
         @Pattern(regexp = "^\\+?\\d{9,15}$")
         String telephone,
-        @NotBlank
         String matricule,
         @NotNull
         Grade grade,
         List<Role> roles,
         String createBy,
         LocalDate createAt,
-        Boolean actif
+        Boolean actif,
+        Long version
 
 ) {
     /**
@@ -0,0 +1,41 @@
+package sn.uasz.utilisateursapi.dtos;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import sn.uasz.utilisateursapi.entities.EntreeAudit;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.enums.TypeEvenement;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entrée du journal d'audit renvoyée par {@code GET /api/audit}.
+ *
+ * @param id            identifiant de l'entrée
+ * @param entite        type d'utilisateur concerné
+ * @param idEntite      identifiant de l'utilisateur
+ * @param version       version de l'utilisateur après le changement
+ * @param action        nature du changement
+ * @param auteur        auteur du changement
+ * @param date          date du changement
+ * @param modifications champs modifiés, avec leurs valeurs avant et après (JSON)
+ */
+public record EntreeAuditDTO(
+        Long id,
+        TypeAgregat entite,
+        Long idEntite,
+        Long version,
+        TypeEvenement action,
+        String auteur,
+        LocalDateTime date,
+        @JsonRawValue String modifications
+) {
+
+    /**
+     * @param entree entrée lue dans le journal
+     * @return l'entrée à renvoyer
+     */
+    public static EntreeAuditDTO depuis(EntreeAudit entree) {
+        return new EntreeAuditDTO(entree.getId(), entree.getEntite(), entree.getIdEntite(), entree.getVersion(),
+                entree.getAction(), entree.getAuteur(), entree.getDate(), entree.getModifications());
+    }
+}
@@ -22,7 +22,8 @@ import java.util.List;
  *
  * <p><strong>Validation des champs :</strong></p>
  * <ul>
- *     <li><code>nom</code>, <code>prenom</code>, <code>matricule</code>, <code>email</code>, <code>lieuNaissance</code> : ne doivent pas être vides</li>
+ *     <li><code>nom</code>, <code>prenom</code>, <code>email</code>, <code>lieuNaissance</code> : ne doivent pas être vides</li>
+ *     <li><code>matricule</code> : attribué par le serveur s'il est laissé vide à la création</li>
  *     <li><code>email</code> : doit avoir un format valide</li>
  *     <li><code>dateNaissance</code> : peut être annotée avec {@code @Past} si nécessaire</li>
  * </ul>
@@ -58,9 +59,8 @@ public class EtudiantDTO {
 
     /**
      * Matricule unique de l'étudiant.
-     * Ce champ est obligatoire.
+     * Laissé vide à la création, il est attribué par le serveur (ex. 202500001).
      */
-    @NotBlank(message = "Le matricule est obligatoire.")
     private String matricule;
 
     /**
@@ -89,4 +89,10 @@ public class EtudiantDTO {
      * Ce champ peut contenir un ou plusieurs rôles selon les droits accordés.
      */
     private List<Role> roles;
+
+    /**
+     * Version de l'étudiant, également transmise dans l'en-tête {@code ETag}.
+     * Ignorée en entrée : la version attendue d'une modification est lue dans {@code If-Match}.
+     */
+    private Long version;
 }
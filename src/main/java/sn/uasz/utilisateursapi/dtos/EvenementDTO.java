@@ -0,0 +1,40 @@
+package sn.uasz.utilisateursapi.dtos;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import sn.uasz.utilisateursapi.entities.EvenementOutbox;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.enums.TypeEvenement;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement publié aux systèmes en aval. La livraison est « au moins une fois » : un destinataire
+ * reconnaît un doublon à son {@code id}, ou à la paire ({@code agregat}, {@code idAgregat}, {@code version}).
+ *
+ * @param id        identifiant de l'événement, croissant pour un même utilisateur
+ * @param agregat   type d'utilisateur concerné
+ * @param idAgregat identifiant de l'utilisateur
+ * @param version   version de l'utilisateur après le changement
+ * @param type      nature du changement
+ * @param date      date du changement
+ * @param donnees   état de l'utilisateur après le changement (JSON)
+ */
+public record EvenementDTO(
+        Long id,
+        TypeAgregat agregat,
+        Long idAgregat,
+        Long version,
+        TypeEvenement type,
+        LocalDateTime date,
+        @JsonRawValue String donnees
+) {
+
+    /**
+     * @param evenement événement lu dans l'outbox
+     * @return l'événement à publier
+     */
+    public static EvenementDTO depuis(EvenementOutbox evenement) {
+        return new EvenementDTO(evenement.getId(), evenement.getAgregat(), evenement.getIdAgregat(),
+                evenement.getVersionAgregat(), evenement.getType(), evenement.getDateCreation(), evenement.getDonnees());
+    }
+}
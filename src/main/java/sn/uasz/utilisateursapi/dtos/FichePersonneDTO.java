@@ -0,0 +1,29 @@
+package sn.uasz.utilisateursapi.dtos;
+
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+
+import java.time.LocalDate;
+
+/**
+ * Personne comparée par la détection des doublons, tous types d'utilisateurs confondus. Les
+ * champs que le type ne connaît pas sont null (téléphone des étudiants, date de naissance des
+ * enseignants et vacataires).
+ *
+ * @param type          type d'utilisateur (ENSEIGNANT, ETUDIANT ou VACATAIRE)
+ * @param id            identifiant de l'utilisateur dans son type
+ * @param nom           nom
+ * @param prenom        prénom
+ * @param email         email
+ * @param telephone     téléphone
+ * @param dateNaissance date de naissance
+ */
+public record FichePersonneDTO(
+        TypeAgregat type,
+        Long id,
+        String nom,
+        String prenom,
+        String email,
+        String telephone,
+        LocalDate dateNaissance
+) {
+}
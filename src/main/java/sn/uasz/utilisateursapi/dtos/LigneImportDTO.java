@@ -0,0 +1,21 @@
+package sn.uasz.utilisateursapi.dtos;
+
+import java.util.List;
+
+/**
+ * Résultat de l'import d'une ligne lors d'un import en masse.
+ *
+ * @param ligne   numéro de la ligne dans le lot reçu (à partir de 1)
+ * @param succes  true si l'enregistrement a été créé
+ * @param id      identifiant attribué, ou null en cas d'échec
+ * @param email   email généré pour l'enregistrement, ou null en cas d'échec
+ * @param erreurs messages d'erreur de validation ou d'insertion (vide en cas de succès)
+ */
+public record LigneImportDTO(
+        int ligne,
+        boolean succes,
+        Long id,
+        String email,
+        List<String> erreurs
+) {
+}
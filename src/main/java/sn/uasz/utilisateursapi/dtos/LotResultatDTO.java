@@ -0,0 +1,19 @@
+package sn.uasz.utilisateursapi.dtos;
+
+import java.util.List;
+
+/**
+ * Résultat d'une lecture groupée par identifiants ({@code POST /api/{type}/batch-get}).
+ *
+ * <p>Les éléments trouvés sont restitués dans l'ordre de la requête ; les identifiants
+ * sans correspondance sont listés à part au lieu de faire échouer toute la lecture.</p>
+ *
+ * @param trouves   les éléments trouvés, dans l'ordre des identifiants demandés
+ * @param manquants les identifiants demandés sans élément correspondant, dans l'ordre de la requête
+ * @param <T>       type des éléments lus
+ */
+public record LotResultatDTO<T>(
+        List<T> trouves,
+        List<Long> manquants
+) {
+}
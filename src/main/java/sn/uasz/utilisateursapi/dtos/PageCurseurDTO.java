@@ -0,0 +1,28 @@
+package sn.uasz.utilisateursapi.dtos;
+
+import java.util.List;
+
+/**
+ * Représente une page de résultats obtenue par pagination par curseur (keyset).
+ *
+ * <p>Le curseur {@code suivant} est opaque pour le client : il suffit de le renvoyer
+ * tel quel pour obtenir la page suivante. Il vaut {@code null} lorsque la dernière
+ * page a été atteinte.</p>
+ *
+ * @param elements les éléments de la page courante
+ * @param suivant  curseur opaque de la page suivante, ou {@code null} s'il n'y en a plus
+ * @param <T>      type des éléments de la page
+ */
+public record PageCurseurDTO<T>(
+        List<T> elements,
+        String suivant
+) {
+    /**
+     * Indique s'il existe une page après la page courante.
+     *
+     * @return true si un curseur suivant est disponible
+     */
+    public boolean aSuivant() {
+        return suivant != null;
+    }
+}
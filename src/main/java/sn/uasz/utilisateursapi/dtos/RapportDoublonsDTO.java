@@ -0,0 +1,25 @@
+package sn.uasz.utilisateursapi.dtos;
+
+/**
+ * Bilan d'une détection des doublons.
+ *
+ * @param personnes     nombre de fiches lues (enseignants, étudiants et vacataires)
+ * @param blocs         nombre de blocs d'au moins deux fiches partageant une clé de blocage
+ * @param blocsFenetres nombre de blocs trop grands, comparés par fenêtre glissante plutôt que deux à deux
+ * @param comparaisons  nombre de paires comparées
+ * @param doublons      nombre de paires dont le score atteint le seuil
+ * @param retenus       nombre de paires écrites dans le rapport (les mieux classées)
+ * @param dureeMs       durée totale de la détection, en millisecondes
+ * @param fichier       chemin du rapport NDJSON, par score décroissant
+ */
+public record RapportDoublonsDTO(
+        long personnes,
+        long blocs,
+        long blocsFenetres,
+        long comparaisons,
+        long doublons,
+        int retenus,
+        long dureeMs,
+        String fichier
+) {
+}
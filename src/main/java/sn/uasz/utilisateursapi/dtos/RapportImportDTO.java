@@ -0,0 +1,23 @@
+package sn.uasz.utilisateursapi.dtos;
+
+import java.util.List;
+
+/**
+ * Rapport renvoyé à l'issue d'un import en masse.
+ *
+ * @param total            nombre de lignes reçues
+ * @param succes           nombre de lignes insérées
+ * @param echecs           nombre de lignes rejetées
+ * @param dureeMs          durée totale de l'import, en millisecondes
+ * @param lignesParSeconde débit observé (lignes reçues traitées par seconde)
+ * @param lignes           résultat détaillé ligne par ligne, dans l'ordre du lot
+ */
+public record RapportImportDTO(
+        int total,
+        int succes,
+        int echecs,
+        long dureeMs,
+        double lignesParSeconde,
+        List<LigneImportDTO> lignes
+) {
+}
@@ -0,0 +1,27 @@
+package sn.uasz.utilisateursapi.dtos;
+
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+
+/**
+ * Personne trouvée par {@code GET /api/annuaire/search}, tous types d'utilisateurs confondus.
+ *
+ * @param type      type d'utilisateur (ENSEIGNANT, ETUDIANT ou VACATAIRE)
+ * @param id        identifiant de l'utilisateur dans son type
+ * @param nom       nom
+ * @param prenom    prénom
+ * @param email     email
+ * @param matricule matricule (enseignants et étudiants)
+ * @param detail    grade (enseignant), lieu de naissance (étudiant) ou spécialité (vacataire)
+ * @param score     pertinence du résultat, décroissante d'un résultat au suivant
+ */
+public record ResultatAnnuaireDTO(
+        TypeAgregat type,
+        Long id,
+        String nom,
+        String prenom,
+        String email,
+        String matricule,
+        String detail,
+        float score
+) {
+}
@@ -0,0 +1,14 @@
+package sn.uasz.utilisateursapi.dtos;
+
+/**
+ * Résultat d'une activation ou d'une désactivation en masse.
+ *
+ * @param actif           état appliqué
+ * @param lignesModifiees nombre d'enregistrements dont l'état a effectivement changé
+ *                        (ceux déjà dans l'état demandé ne sont pas comptés)
+ */
+public record ResultatMasseDTO(
+        boolean actif,
+        int lignesModifiees
+) {
+}
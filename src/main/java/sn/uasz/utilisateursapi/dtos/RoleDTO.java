@@ -46,4 +46,10 @@ public class RoleDTO {
      */
     @Size(max = 255, message = "La description ne doit pas dépasser 255 caractères.")
     private String description;
+
+    /**
+     * Version du rôle, également transmise dans l'en-tête {@code ETag}.
+     * Ignorée en entrée : la version attendue d'une modification est lue dans {@code If-Match}.
+     */
+    private Long version;
 }
@@ -0,0 +1,28 @@
+package sn.uasz.utilisateursapi.dtos;
+
+import sn.uasz.utilisateursapi.enums.Grade;
+
+import java.util.List;
+
+/**
+ * Sélection des enregistrements visés par une opération en masse (activation, désactivation).
+ *
+ * <p>La sélection se fait soit par liste d'identifiants, soit par filtre, jamais les deux :
+ * une sélection vide est refusée pour éviter de modifier toute la table par erreur.</p>
+ *
+ * @param ids        identifiants visés
+ * @param specialite filtre sur la spécialité (vacataires)
+ * @param grade      filtre sur le grade (enseignants)
+ */
+public record SelectionMasseDTO(
+        List<Long> ids,
+        String specialite,
+        Grade grade
+) {
+    /**
+     * @return true si la sélection se fait par identifiants
+     */
+    public boolean parIdentifiants() {
+        return ids != null && !ids.isEmpty();
+    }
+}
@@ -0,0 +1,37 @@
+package sn.uasz.utilisateursapi.dtos;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Statistiques des utilisateurs renvoyées par {@code GET /api/stats}.
+ *
+ * <p>Les répartitions sont triées par valeur ; les valeurs absentes (spécialité, lieu ou date de
+ * naissance non renseignés) sont regroupées sous {@code "non renseigné"}.</p>
+ *
+ * @param enseignants                     nombre d'enseignants
+ * @param vacatairesActifs                nombre de vacataires actifs
+ * @param vacatairesInactifs              nombre de vacataires inactifs
+ * @param etudiants                       nombre d'étudiants
+ * @param enseignantsParGrade             enseignants par grade
+ * @param vacatairesActifsParSpecialite   vacataires actifs par spécialité
+ * @param vacatairesInactifsParSpecialite vacataires inactifs par spécialité
+ * @param etudiantsParLieuNaissance       étudiants par lieu de naissance
+ * @param etudiantsParAnneeNaissance      étudiants par année de naissance
+ * @param membresParRole                  enseignants et étudiants titulaires de chaque rôle, par libellé
+ * @param derniereReconciliation          date du dernier recalcul complet depuis la base
+ */
+public record StatistiquesDTO(
+        long enseignants,
+        long vacatairesActifs,
+        long vacatairesInactifs,
+        long etudiants,
+        Map<String, Long> enseignantsParGrade,
+        Map<String, Long> vacatairesActifsParSpecialite,
+        Map<String, Long> vacatairesInactifsParSpecialite,
+        Map<String, Long> etudiantsParLieuNaissance,
+        Map<String, Long> etudiantsParAnneeNaissance,
+        Map<String, Long> membresParRole,
+        LocalDateTime derniereReconciliation
+) {
+}
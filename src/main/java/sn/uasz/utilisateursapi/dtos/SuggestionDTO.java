@@ -0,0 +1,22 @@
+package sn.uasz.utilisateursapi.dtos;
+
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+
+/**
+ * Suggestion de {@code GET /api/autocomplete} : une personne dont le nom complet (prénom nom ou
+ * nom prénom) ou l'email commence par le texte saisi.
+ *
+ * @param type   type d'utilisateur (ENSEIGNANT, ETUDIANT ou VACATAIRE)
+ * @param id     identifiant de l'utilisateur dans son type
+ * @param prenom prénom
+ * @param nom    nom
+ * @param email  email
+ */
+public record SuggestionDTO(
+        TypeAgregat type,
+        Long id,
+        String prenom,
+        String nom,
+        String email
+) {
+}
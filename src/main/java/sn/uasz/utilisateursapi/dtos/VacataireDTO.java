@@ -82,4 +82,10 @@ public class VacataireDTO {
      * true si le vacataire est actif, false s'il est inactif.
      */
     private boolean actif;
+
+    /**
+     * Version du vacataire, également transmise dans l'en-tête {@code ETag}.
+     * Ignorée en entrée : la version attendue d'une modification est lue dans {@code If-Match}.
+     */
+    private Long version;
 }
@@ -0,0 +1,69 @@
+package sn.uasz.utilisateursapi.dtos;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Validateurs HTTP d'une ressource ({@code ETag}, {@code Last-Modified}), calculés en base par
+ * projection ou agrégat, sans charger les entités.
+ *
+ * <p>Pour un enregistrement, {@code nombre} vaut 1 et {@code versions} est sa version. Pour une
+ * collection, ce sont le nombre de lignes et la somme de leurs versions : toute insertion ou
+ * suppression change le nombre, toute modification augmente la somme.</p>
+ *
+ * @param nombre               nombre d'enregistrements couverts
+ * @param versions             version de l'enregistrement, ou somme des versions de la collection
+ * @param derniereModification date de la dernière modification connue, ou null si aucune
+ */
+public record ValidateurDTO(
+        long nombre,
+        long versions,
+        Instant derniereModification
+) {
+
+    /**
+     * Constructeur des projections JPQL sur les entités horodatées en {@link LocalDateTime}.
+     */
+    public ValidateurDTO(Long nombre, Long versions, LocalDateTime derniereModification) {
+        this(nombre, versions, derniereModification == null ? null
+                : derniereModification.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * Constructeur des projections JPQL sur les entités horodatées en {@link Date}.
+     */
+    public ValidateurDTO(Long nombre, Long versions, Date derniereModification) {
+        this(nombre, versions, derniereModification == null ? null : derniereModification.toInstant());
+    }
+
+    /**
+     * Combine les validateurs de deux collections dont dépend une même représentation
+     * (ex. les étudiants et les rôles qu'ils embarquent).
+     *
+     * @param autre validateur de l'autre collection
+     * @return un validateur qui change dès que l'un des deux change
+     */
+    public ValidateurDTO combiner(ValidateurDTO autre) {
+        return new ValidateurDTO(nombre + autre.nombre, versions + autre.versions,
+                plusRecente(derniereModification, autre.derniereModification));
+    }
+
+    /**
+     * Tient compte d'une modification qui n'a laissé aucune trace datée en base (ex. une suppression).
+     *
+     * @param instant date de cette modification, ou null
+     * @return un validateur dont la date de dernière modification est au moins {@code instant}
+     */
+    public ValidateurDTO modifieLe(Instant instant) {
+        return new ValidateurDTO(nombre, versions, plusRecente(derniereModification, instant));
+    }
+
+    private static Instant plusRecente(Instant a, Instant b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,38 @@
+package sn.uasz.utilisateursapi.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Battement de cœur écrit périodiquement sur la base primaire pour mesurer le retard des répliques.
+ *
+ * Une réplique qui lit un horodatage vieux de {@code n} millisecondes a au moins {@code n}
+ * millisecondes de retard sur la primaire. La table ne contient qu'une ligne.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class BattementReplication {
+
+    /** Identifiant de l'unique ligne de la table. */
+    public static final int ID = 1;
+
+    /**
+     * Identifiant de la ligne (toujours {@link #ID}).
+     */
+    @Id
+    private Integer id;
+
+    /**
+     * Instant d'écriture du battement sur la primaire, en millisecondes depuis l'époque Unix.
+     */
+    @Column(nullable = false)
+    private long horodatage;
+}
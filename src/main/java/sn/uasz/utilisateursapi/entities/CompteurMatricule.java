@@ -0,0 +1,36 @@
+package sn.uasz.utilisateursapi.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Compteur partagé des matricules d'un type d'utilisateur pour une année universitaire.
+ *
+ * Chaque ligne mémorise le prochain bloc de numéros à réserver (schéma hi/lo) : un nœud
+ * réserve un bloc en incrémentant ce compteur sous verrou, puis distribue les numéros
+ * du bloc en mémoire sans autre accès à la base.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class CompteurMatricule {
+
+    /**
+     * Clé du compteur : type de matricule et année (ex. {@code ETUDIANT-2025}).
+     */
+    @Id
+    private String cle;
+
+    /**
+     * Prochain bloc à réserver (partie haute des numéros).
+     */
+    @Column(nullable = false)
+    private long prochainBloc;
+}
@@ -2,7 +2,16 @@ package sn.uasz.utilisateursapi.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
+import sn.uasz.utilisateursapi.services.ClesRechercheEcouteur;
+import sn.uasz.utilisateursapi.services.ClesUniquesEcouteur;
+import sn.uasz.utilisateursapi.services.SuppressionsEcouteur;
+import sn.uasz.utilisateursapi.utils.PaginationKeyset;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import sn.uasz.utilisateursapi.enums.Grade;
@@ -19,6 +28,15 @@ import sn.uasz.utilisateursapi.enums.Grade;
  * setters, et builder.
  */
 @Entity
+@EntityListeners({ClesUniquesEcouteur.class, SuppressionsEcouteur.class, ClesRechercheEcouteur.class})
+@Table(indexes = {
+        @Index(name = "idx_enseignant_nom_normalise", columnList = "nom_normalise, id"),
+        @Index(name = "idx_enseignant_prenom_normalise", columnList = "prenom_normalise, id"),
+        @Index(name = "idx_enseignant_email_normalise", columnList = "email_normalise, id"),
+        @Index(name = "idx_enseignant_nom_phonetique", columnList = "nom_phonetique, id"),
+        @Index(name = "idx_enseignant_prenom_phonetique", columnList = "prenom_phonetique, id")
+})
+@NamedEntityGraph(name = Enseignant.GRAPHE_ROLES, attributeNodes = @NamedAttributeNode("roles"))
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -26,14 +44,26 @@ import sn.uasz.utilisateursapi.enums.Grade;
 @Builder
 public class Enseignant {
 
+    /** Graphe de chargement de l'enseignant avec ses rôles (une seule requête avec jointure). */
+    public static final String GRAPHE_ROLES = "Enseignant.roles";
+
     /**
      * Identifiant unique de l'enseignant.
-     * Généré automatiquement par la base de données.
+     * Généré par une séquence réservée par blocs de 50 (optimiseur pooled),
+     * ce qui permet à Hibernate de regrouper les insertions en lots JDBC.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "enseignant_seq")
+    @SequenceGenerator(name = "enseignant_seq", sequenceName = "enseignant_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Version de l'enregistrement (verrouillage optimiste), incrémentée à chaque modification,
+     * y compris par les mises à jour en masse, et exposée aux clients dans l'en-tête {@code ETag}.
+     */
+    @Version
+    private long version;
+
     /**
      * Nom de famille de l'enseignant.
      */
@@ -85,7 +115,47 @@ public class Enseignant {
      */
     @Builder.Default
     private boolean actif = true;
+
+    /**
+     * Date de dernière modification de l'enregistrement.
+     * Renseignée à la création puis à chaque mise à jour, y compris par les mises à jour en masse.
+     */
+    private LocalDateTime dateModification;
+
+    /**
+     * Clés de recherche normalisées (sans accents ni casse, blancs réduits) du nom, du prénom et
+     * de l'email de l'enseignant, tenues par {@link ClesRechercheEcouteur}. Indexées : une recherche
+     * exacte ou par préfixe est un parcours d'index borné.
+     */
+    @Column(name = "nom_normalise")
+    private String nomNormalise;
+
+    @Column(name = "prenom_normalise")
+    private String prenomNormalise;
+
+    @Column(name = "email_normalise")
+    private String emailNormalise;
+
+    /**
+     * Clés phonétiques du nom et du prénom ({@link sn.uasz.utilisateursapi.utils.PhonetiqueFrancaise}),
+     * tenues par {@link ClesRechercheEcouteur}. Indexées : une recherche phonétique est une égalité.
+     */
+    @Column(name = "nom_phonetique")
+    private String nomPhonetique;
+
+    @Column(name = "prenom_phonetique")
+    private String prenomPhonetique;
+
+    /**
+     * Rôles attribués à l'enseignant, chargés en mode paresseux : en liste, ceux de toute
+     * une page sont lus en une seule requête groupée ; en détail, via le graphe {@link #GRAPHE_ROLES}.
+     * Exclus du verrouillage optimiste : ils ne sont remplacés qu'après la mise à jour versionnée
+     * de l'enseignant, dans la même transaction.
+     */
     @ManyToMany(fetch = FetchType.LAZY)
+    @OptimisticLock(excluded = true)
+    @BatchSize(size = PaginationKeyset.TAILLE_MAX)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "enseignant_roles")
     @JoinTable(
             name = "enseignant_roles",
             joinColumns = @JoinColumn(name = "enseignant_id"),
@@ -93,6 +163,15 @@ public class Enseignant {
     )
     private List<Role> roles;
 
+    /**
+     * Méthode appelée automatiquement par JPA lors de l'insertion ou de la mise à jour d'un enregistrement.
+     */
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        dateModification = LocalDateTime.now();
+    }
+
     /**
      * Getter explicite de l'état actif.
      * (Note : présence de deux méthodes `isActif()` et `getActif()`)
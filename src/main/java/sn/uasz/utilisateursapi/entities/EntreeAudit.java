@@ -0,0 +1,97 @@
+package sn.uasz.utilisateursapi.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.enums.TypeEvenement;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entrée du journal d'audit : un changement d'un utilisateur, champ par champ. Le journal est en
+ * ajout seul : les entrées ne sont jamais modifiées ni supprimées par l'application.
+ *
+ * L'état complet après le changement est conservé avec les modifications : l'entrée suivante du
+ * même utilisateur est calculée par comparaison avec lui, sans relire l'utilisateur.
+ * L'index {@code (entite, id_entite, id)} sert l'historique d'un utilisateur, du plus récent au plus ancien.
+ */
+@Entity
+@Table(name = "journal_audit", indexes = @Index(name = "idx_journal_audit_entite", columnList = "entite, id_entite, id"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class EntreeAudit {
+
+    /**
+     * Identifiant de l'entrée, croissant dans l'ordre d'écriture. Réservé par blocs : les entrées
+     * sont insérées par lots JDBC.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "journal_audit_seq")
+    @SequenceGenerator(name = "journal_audit_seq", sequenceName = "journal_audit_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Type d'utilisateur concerné.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TypeAgregat entite;
+
+    /**
+     * Identifiant de l'utilisateur concerné.
+     */
+    @Column(name = "id_entite", nullable = false)
+    private Long idEntite;
+
+    /**
+     * Version de l'utilisateur après le changement.
+     */
+    private Long version;
+
+    /**
+     * Nature du changement.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TypeEvenement action;
+
+    /**
+     * Auteur du changement (en-tête {@code X-Utilisateur} de la requête).
+     */
+    @Column(nullable = false, length = 100)
+    private String auteur;
+
+    /**
+     * Date du changement (validation de la transaction).
+     */
+    @Column(nullable = false)
+    private LocalDateTime date;
+
+    /**
+     * Champs modifiés, en JSON : {@code {"champ": {"avant": ..., "apres": ...}}}.
+     */
+    @Column(nullable = false, length = 4000)
+    private String modifications;
+
+    /**
+     * État complet de l'utilisateur après le changement, en JSON (null après une suppression).
+     */
+    @Column(length = 4000)
+    private String etat;
+}
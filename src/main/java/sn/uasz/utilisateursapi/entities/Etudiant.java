@@ -2,8 +2,17 @@ package sn.uasz.utilisateursapi.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
+import sn.uasz.utilisateursapi.services.ClesRechercheEcouteur;
+import sn.uasz.utilisateursapi.services.ClesUniquesEcouteur;
+import sn.uasz.utilisateursapi.services.SuppressionsEcouteur;
+import sn.uasz.utilisateursapi.utils.PaginationKeyset;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -24,8 +33,19 @@ import java.util.List;
  * - roles : liste des rôles associés à l'étudiant
  * - createdBy : nom ou identifiant de l'utilisateur ayant créé la fiche
  * - createdAt : date de création de la fiche
+ * - dateModification : date de dernière modification de la fiche (création incluse)
+ * - nomNormalise, prenomNormalise, emailNormalise : clés de recherche normalisées et indexées
  */
 @Entity
+@EntityListeners({ClesUniquesEcouteur.class, SuppressionsEcouteur.class, ClesRechercheEcouteur.class})
+@Table(indexes = {
+        @Index(name = "idx_etudiant_nom_normalise", columnList = "nom_normalise, id"),
+        @Index(name = "idx_etudiant_prenom_normalise", columnList = "prenom_normalise, id"),
+        @Index(name = "idx_etudiant_email_normalise", columnList = "email_normalise, id"),
+        @Index(name = "idx_etudiant_nom_phonetique", columnList = "nom_phonetique, id"),
+        @Index(name = "idx_etudiant_prenom_phonetique", columnList = "prenom_phonetique, id")
+})
+@NamedEntityGraph(name = Etudiant.GRAPHE_ROLES, attributeNodes = @NamedAttributeNode("roles"))
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -33,13 +53,21 @@ import java.util.List;
 @Builder
 public class Etudiant {
 
+    /** Graphe de chargement de l'étudiant avec ses rôles (une seule requête avec jointure). */
+    public static final String GRAPHE_ROLES = "Etudiant.roles";
+
     /**
-     * Identifiant unique de l'étudiant (généré automatiquement).
+     * Identifiant unique de l'étudiant.
+     * Généré par une séquence réservée par blocs de 50 (optimiseur pooled) pour autoriser les insertions par lots.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "etudiant_seq")
+    @SequenceGenerator(name = "etudiant_seq", sequenceName = "etudiant_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    private long version;
+
     /**
      * Nom de l'étudiant.
      * Ce champ est obligatoire.
@@ -85,9 +113,13 @@ public class Etudiant {
     /**
      * Liste des rôles attribués à l'étudiant.
      * Association Many-to-Many avec l'entité Role.
-     * Les rôles sont chargés en mode paresseux (lazy loading).
+     * Les rôles sont chargés en mode paresseux (lazy loading) : en liste, ceux de toute
+     * une page sont lus en une seule requête groupée ; en détail, via le graphe {@link #GRAPHE_ROLES}.
      */
     @ManyToMany(fetch = FetchType.LAZY)
+    @OptimisticLock(excluded = true)
+    @BatchSize(size = PaginationKeyset.TAILLE_MAX)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "etudiant_roles")
     @JoinTable(
             name = "etudiant_roles",
             joinColumns = @JoinColumn(name = "etudiant_id"),
@@ -105,4 +137,43 @@ public class Etudiant {
      */
     @Column(name = "created_at")
     private LocalDate createdAt;
+
+    /**
+     * Date de dernière modification de la fiche, renseignée à la création puis à chaque
+     * mise à jour, y compris par les mises à jour en masse.
+     */
+    private LocalDateTime dateModification;
+
+    /**
+     * Clés de recherche normalisées (sans accents ni casse, blancs réduits) du nom, du prénom et
+     * de l'email de l'étudiant, tenues par {@link ClesRechercheEcouteur}. Indexées : une recherche
+     * exacte ou par préfixe est un parcours d'index borné.
+     */
+    @Column(name = "nom_normalise")
+    private String nomNormalise;
+
+    @Column(name = "prenom_normalise")
+    private String prenomNormalise;
+
+    @Column(name = "email_normalise")
+    private String emailNormalise;
+
+    /**
+     * Clés phonétiques du nom et du prénom ({@link sn.uasz.utilisateursapi.utils.PhonetiqueFrancaise}),
+     * tenues par {@link ClesRechercheEcouteur}. Indexées : une recherche phonétique est une égalité.
+     */
+    @Column(name = "nom_phonetique")
+    private String nomPhonetique;
+
+    @Column(name = "prenom_phonetique")
+    private String prenomPhonetique;
+
+    /**
+     * Méthode appelée automatiquement par JPA lors de l'insertion ou de la mise à jour d'un enregistrement.
+     */
+    @PrePersist
+    @PreUpdate
+    protected void horodater() {
+        dateModification = LocalDateTime.now();
+    }
 }
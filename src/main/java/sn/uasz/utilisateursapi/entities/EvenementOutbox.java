@@ -0,0 +1,96 @@
+package sn.uasz.utilisateursapi.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.enums.TypeEvenement;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement en attente de publication aux systèmes en aval (outbox transactionnelle).
+ *
+ * Chaque événement est inséré dans la transaction qui modifie l'utilisateur : il n'existe que si
+ * le changement est validé. Le relais ({@code RelaisOutbox}) le publie puis le supprime.
+ *
+ * L'identifiant est tiré de la séquence à l'insertion, sans réservation par blocs : l'insertion
+ * suit la modification de la ligne de l'utilisateur (verrouillée jusqu'à la validation), donc les
+ * événements d'un même utilisateur reçoivent des identifiants croissants, même entre plusieurs nœuds.
+ */
+@Entity
+@Table(name = "evenements_outbox")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class EvenementOutbox {
+
+    /**
+     * Identifiant de l'événement, qui fixe l'ordre de publication.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "evenement_outbox_seq")
+    @SequenceGenerator(name = "evenement_outbox_seq", sequenceName = "evenement_outbox_seq", allocationSize = 1)
+    private Long id;
+
+    /**
+     * Type d'utilisateur concerné.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TypeAgregat agregat;
+
+    /**
+     * Identifiant de l'utilisateur concerné.
+     */
+    @Column(nullable = false)
+    private Long idAgregat;
+
+    /**
+     * Version de l'utilisateur après le changement (permet aux destinataires d'ignorer un doublon).
+     */
+    private Long versionAgregat;
+
+    /**
+     * Nature du changement.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TypeEvenement type;
+
+    /**
+     * État de l'utilisateur après le changement, en JSON (identifiant seul pour une suppression).
+     */
+    @Column(nullable = false, length = 4000)
+    private String donnees;
+
+    /**
+     * Date d'enregistrement de l'événement.
+     */
+    @Column(nullable = false)
+    private LocalDateTime dateCreation;
+
+    /**
+     * Nombre de tentatives de publication échouées.
+     */
+    private int tentatives;
+
+    /**
+     * Message de la dernière erreur de publication.
+     */
+    @Column(length = 500)
+    private String derniereErreur;
+}
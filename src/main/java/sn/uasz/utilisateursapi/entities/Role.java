@@ -2,6 +2,11 @@ package sn.uasz.utilisateursapi.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import sn.uasz.utilisateursapi.services.SuppressionsEcouteur;
+
+import java.time.LocalDateTime;
 
 /**
  * Entité JPA représentant un rôle attribuable à un utilisateur dans le système.
@@ -9,6 +14,9 @@ import lombok.*;
  * Elle utilise les annotations Lombok pour générer automatiquement les constructeurs, getters, setters et le builder.
  */
 @Entity // Indique que cette classe est une entité persistante JPA
+@Cacheable // Table de référence quasi statique : conservée dans le cache de second niveau
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Role.REGION_CACHE)
+@EntityListeners(SuppressionsEcouteur.class)
 @NoArgsConstructor // Génère un constructeur sans argument
 @AllArgsConstructor // Génère un constructeur avec tous les arguments
 @Getter // Génère automatiquement les getters pour tous les champs
@@ -16,14 +24,28 @@ import lombok.*;
 @Builder // Permet l'utilisation du design pattern Builder
 public class Role {
 
+    /** Région du cache de second niveau contenant les rôles. */
+    public static final String REGION_CACHE = "roles";
+
+    /** Région du cache de requêtes pour la recherche par libellé. */
+    public static final String REGION_CACHE_LIBELLE = "roles_par_libelle";
+
     /**
      * Identifiant unique du rôle.
-     * Généré automatiquement par la base de données (auto-incrémentation).
+     * Généré par une séquence réservée par blocs (optimiseur pooled), compatible avec les insertions par lots.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "role_seq")
+    @SequenceGenerator(name = "role_seq", sequenceName = "role_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Version de l'enregistrement (verrouillage optimiste), incrémentée à chaque modification
+     * et exposée aux clients dans l'en-tête {@code ETag}.
+     */
+    @Version
+    private long version;
+
     /**
      * Libellé du rôle (ex : "ADMIN", "ETUDIANT", etc.).
      */
@@ -33,4 +55,19 @@ public class Role {
      * Description textuelle du rôle permettant d’en préciser l’usage ou les permissions.
      */
     private String description;
+
+    /**
+     * Date de dernière modification de l'enregistrement (création incluse),
+     * exposée aux clients dans l'en-tête {@code Last-Modified}.
+     */
+    private LocalDateTime dateModification;
+
+    /**
+     * Méthode appelée automatiquement par JPA lors de l'insertion ou de la mise à jour d'un enregistrement.
+     */
+    @PrePersist
+    @PreUpdate
+    protected void horodater() {
+        dateModification = LocalDateTime.now();
+    }
 }
@@ -4,6 +4,9 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.util.Date;
 import lombok.Data;
+import sn.uasz.utilisateursapi.services.ClesRechercheEcouteur;
+import sn.uasz.utilisateursapi.services.ClesUniquesEcouteur;
+import sn.uasz.utilisateursapi.services.SuppressionsEcouteur;
 
 /**
  * Entité représentant un vacataire dans le système.
@@ -34,16 +37,32 @@ import lombok.Data;
  */
 @Data
 @Entity
-@Table(name = "vacataires")
+@EntityListeners({ClesUniquesEcouteur.class, SuppressionsEcouteur.class, ClesRechercheEcouteur.class})
+@Table(name = "vacataires", indexes = {
+        @Index(name = "idx_vacataire_nom_normalise", columnList = "nom_normalise, id"),
+        @Index(name = "idx_vacataire_prenom_normalise", columnList = "prenom_normalise, id"),
+        @Index(name = "idx_vacataire_email_normalise", columnList = "email_normalise, id"),
+        @Index(name = "idx_vacataire_nom_phonetique", columnList = "nom_phonetique, id"),
+        @Index(name = "idx_vacataire_prenom_phonetique", columnList = "prenom_phonetique, id")
+})
 public class Vacataire {
     /**
      * Identifiant unique du vacataire.
-     * Généré automatiquement par la base de données.
+     * Généré par une séquence réservée par blocs de 50 (optimiseur pooled),
+     * ce qui permet le regroupement des insertions en lots JDBC.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vacataire_seq")
+    @SequenceGenerator(name = "vacataire_seq", sequenceName = "vacataire_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Version du vacataire (verrouillage optimiste).
+     * Incrémentée à chaque modification et exposée aux clients dans l'en-tête {@code ETag}.
+     */
+    @Version
+    private long version;
+
     /**
      * Nom du vacataire.
      * Obligatoire, ne doit pas être vide.
@@ -94,17 +113,42 @@ public class Vacataire {
 
     /**
      * Date de dernière modification du vacataire.
-     * Générée automatiquement lors de chaque mise à jour.
+     * Générée automatiquement lors de la création puis de chaque mise à jour.
      */
     @Temporal(TemporalType.TIMESTAMP)
     private Date dateModification;
 
+    /**
+     * Clés de recherche normalisées (sans accents ni casse, blancs réduits) du nom, du prénom et
+     * de l'email du vacataire, tenues par {@link ClesRechercheEcouteur}. Indexées : une recherche
+     * exacte ou par préfixe est un parcours d'index borné.
+     */
+    @Column(name = "nom_normalise")
+    private String nomNormalise;
+
+    @Column(name = "prenom_normalise")
+    private String prenomNormalise;
+
+    @Column(name = "email_normalise")
+    private String emailNormalise;
+
+    /**
+     * Clés phonétiques du nom et du prénom ({@link sn.uasz.utilisateursapi.utils.PhonetiqueFrancaise}),
+     * tenues par {@link ClesRechercheEcouteur}. Indexées : une recherche phonétique est une égalité.
+     */
+    @Column(name = "nom_phonetique")
+    private String nomPhonetique;
+
+    @Column(name = "prenom_phonetique")
+    private String prenomPhonetique;
+
     /**
      * Méthode appelée automatiquement par JPA lors de la création d'un nouvel enregistrement.
      */
     @PrePersist
     protected void onCreate() {
         dateCreation = new Date();
+        dateModification = dateCreation;
     }
 
     /**
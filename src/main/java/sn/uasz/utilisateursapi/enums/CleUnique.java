@@ -0,0 +1,22 @@
+package sn.uasz.utilisateursapi.enums;
+
+/**
+ * Clés soumises à une contrainte d'unicité en base, suivies par un filtre de Bloom en mémoire.
+ *
+ * Chaque valeur désigne une colonne unique d'une entité ; elle sert aussi de segment
+ * d'URL pour le contrôle groupé d'existence ({@code POST /api/cles-uniques/{cle}/existantes}).
+ */
+public enum CleUnique {
+
+    /** Email d'un enseignant */
+    ENSEIGNANT_EMAIL,
+
+    /** Matricule d'un étudiant */
+    ETUDIANT_MATRICULE,
+
+    /** Email (généré) d'un étudiant */
+    ETUDIANT_EMAIL,
+
+    /** Email d'un vacataire */
+    VACATAIRE_EMAIL
+}
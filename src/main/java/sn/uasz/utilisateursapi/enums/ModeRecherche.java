@@ -0,0 +1,47 @@
+package sn.uasz.utilisateursapi.enums;
+
+import java.util.Locale;
+
+/**
+ * Manière de comparer le texte recherché aux clés normalisées des noms, prénoms et emails, ou
+ * aux clés phonétiques des noms et prénoms (paramètre {@code mode} des recherches). Accepté sans casse, en français ou en anglais.
+ */
+public enum ModeRecherche {
+
+    /** Clé égale au texte normalisé ({@code exact}). */
+    EXACT("exact"),
+
+    /** Clé commençant par le texte normalisé ({@code prefixe} ou {@code prefix}). */
+    PREFIXE("prefixe", "prefix"),
+
+    /**
+     * Nom ou prénom prononcé comme le texte ({@code phonetique} ou {@code phonetic}) : clés
+     * phonétiques françaises, voir {@link sn.uasz.utilisateursapi.utils.PhonetiqueFrancaise}.
+     */
+    PHONETIQUE("phonetique", "phonetic");
+
+    private final String[] noms;
+
+    ModeRecherche(String... noms) {
+        this.noms = noms;
+    }
+
+    /**
+     * Lit un mode de recherche.
+     *
+     * @param valeur valeur du paramètre {@code mode}
+     * @return le mode correspondant
+     * @throws IllegalArgumentException si la valeur ne désigne aucun mode
+     */
+    public static ModeRecherche lire(String valeur) {
+        String nom = valeur.trim().toLowerCase(Locale.ROOT);
+        for (ModeRecherche mode : values()) {
+            for (String accepte : mode.noms) {
+                if (accepte.equals(nom)) {
+                    return mode;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Mode de recherche inconnu : " + valeur);
+    }
+}
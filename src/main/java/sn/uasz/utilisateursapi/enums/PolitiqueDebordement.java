@@ -0,0 +1,19 @@
+package sn.uasz.utilisateursapi.enums;
+
+/**
+ * Conduite à tenir quand la file du journal d'audit est pleine (l'écriture en base ne suit pas).
+ *
+ * Une entrée écartée n'efface pas le changement de l'historique : l'état complet étant conservé à
+ * chaque entrée, l'entrée suivante du même utilisateur porte les modifications cumulées.
+ */
+public enum PolitiqueDebordement {
+
+    /** La nouvelle entrée est écartée ; l'appelant n'est jamais ralenti. */
+    REJETER,
+
+    /** L'entrée la plus ancienne de la file est écartée au profit de la nouvelle. */
+    ECARTER_ANCIENNE,
+
+    /** L'appelant attend qu'une place se libère, au plus {@code audit.file.attente-max} ms, puis la nouvelle entrée est écartée. */
+    ATTENDRE
+}
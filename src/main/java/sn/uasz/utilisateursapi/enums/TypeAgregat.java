@@ -0,0 +1,20 @@
+package sn.uasz.utilisateursapi.enums;
+
+/**
+ * Types d'entités suivies : changements publiés aux systèmes en aval (outbox, utilisateurs seulement)
+ * et journal d'audit.
+ */
+public enum TypeAgregat {
+
+    /** Enseignant permanent */
+    ENSEIGNANT,
+
+    /** Étudiant */
+    ETUDIANT,
+
+    /** Vacataire */
+    VACATAIRE,
+
+    /** Rôle (journal d'audit uniquement) */
+    ROLE
+}
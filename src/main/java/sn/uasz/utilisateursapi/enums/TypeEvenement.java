@@ -0,0 +1,22 @@
+package sn.uasz.utilisateursapi.enums;
+
+/**
+ * Nature d'un changement publié aux systèmes en aval (outbox).
+ */
+public enum TypeEvenement {
+
+    /** Enregistrement créé */
+    CREATION,
+
+    /** Données modifiées */
+    MODIFICATION,
+
+    /** Enregistrement activé ou réactivé */
+    ACTIVATION,
+
+    /** Enregistrement désactivé */
+    DESACTIVATION,
+
+    /** Enregistrement supprimé */
+    SUPPRESSION
+}
@@ -0,0 +1,69 @@
+package sn.uasz.utilisateursapi.enums;
+
+/**
+ * Formats de matricule attribués par le serveur, par type d'utilisateur.
+ *
+ * Un matricule se compose d'un préfixe tiré de l'année universitaire, d'un numéro d'ordre
+ * complété par des zéros et d'un suffixe éventuel (ex. {@code 202202898}, {@code 181185/D}).
+ */
+public enum TypeMatricule {
+
+    /** Étudiant : année sur 4 chiffres puis numéro sur 5 chiffres (ex. 202202898) */
+    ETUDIANT(4, 5, ""),
+
+    /** Enseignant : année sur 2 chiffres, numéro sur 4 chiffres, suffixe /D (ex. 181185/D) */
+    ENSEIGNANT(2, 4, "/D");
+
+    private final int chiffresAnnee;
+    private final int chiffresNumero;
+    private final String suffixe;
+
+    TypeMatricule(int chiffresAnnee, int chiffresNumero, String suffixe) {
+        this.chiffresAnnee = chiffresAnnee;
+        this.chiffresNumero = chiffresNumero;
+        this.suffixe = suffixe;
+    }
+
+    /**
+     * @param annee année de début de l'année universitaire (ex. 2022 pour 2022-2023)
+     * @return le début commun des matricules de l'année
+     */
+    public String prefixe(int annee) {
+        return chiffresAnnee == 4 ? String.valueOf(annee) : String.format("%02d", annee % 100);
+    }
+
+    /**
+     * @return le plus grand numéro d'ordre représentable
+     */
+    public long numeroMax() {
+        return (long) Math.pow(10, chiffresNumero) - 1;
+    }
+
+    /**
+     * Construit le matricule d'un numéro d'ordre.
+     *
+     * @param annee  année de début de l'année universitaire
+     * @param numero numéro d'ordre (1 à {@link #numeroMax()})
+     * @return le matricule formaté
+     */
+    public String formater(int annee, long numero) {
+        return prefixe(annee) + String.format("%0" + chiffresNumero + "d", numero) + suffixe;
+    }
+
+    /**
+     * Extrait le numéro d'ordre d'un matricule de l'année.
+     *
+     * @param annee     année de début de l'année universitaire
+     * @param matricule matricule à analyser
+     * @return le numéro d'ordre, ou -1 si le matricule n'a pas le format de cette année
+     */
+    public long numero(int annee, String matricule) {
+        String prefixe = prefixe(annee);
+        if (matricule == null || !matricule.startsWith(prefixe) || !matricule.endsWith(suffixe)
+                || matricule.length() != prefixe.length() + chiffresNumero + suffixe.length()) {
+            return -1;
+        }
+        String numero = matricule.substring(prefixe.length(), prefixe.length() + chiffresNumero);
+        return numero.chars().allMatch(c -> c >= '0' && c <= '9') ? Long.parseLong(numero) : -1;
+    }
+}
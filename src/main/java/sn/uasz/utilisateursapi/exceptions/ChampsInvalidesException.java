@@ -0,0 +1,16 @@
+package sn.uasz.utilisateursapi.exceptions;
+
+/**
+ * Exception levée lorsque le paramètre {@code fields} d'une requête
+ * est vide ou désigne un champ inconnu ou non projetable.
+ */
+public class ChampsInvalidesException extends RuntimeException {
+
+    /**
+     * Crée une exception avec un message d'erreur.
+     * @param message Message décrivant l'erreur.
+     */
+    public ChampsInvalidesException(String message) {
+        super(message);
+    }
+}
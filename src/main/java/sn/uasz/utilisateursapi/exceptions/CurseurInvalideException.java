@@ -0,0 +1,25 @@
+package sn.uasz.utilisateursapi.exceptions;
+
+/**
+ * Exception levée lorsqu'un curseur de pagination fourni par le client
+ * est illisible ou a été altéré.
+ */
+public class CurseurInvalideException extends RuntimeException {
+
+    /**
+     * Crée une exception avec un message d'erreur.
+     * @param message Message décrivant l'erreur.
+     */
+    public CurseurInvalideException(String message) {
+        super(message);
+    }
+
+    /**
+     * Crée une exception avec un message et une cause sous-jacente.
+     * @param message Message décrivant l'erreur.
+     * @param cause Exception d'origine.
+     */
+    public CurseurInvalideException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
@@ -48,6 +49,63 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.BAD_REQUEST, "Erreur liée à un enseignant", ex.getMessage());
     }
 
+    /**
+     * Gestion des curseurs de pagination illisibles ou altérés.
+     */
+    @ExceptionHandler(CurseurInvalideException.class)
+    public ResponseEntity<Object> handleCurseurInvalideException(CurseurInvalideException ex) {
+        return buildResponse(HttpStatus.BAD_REQUEST, "Curseur de pagination invalide", ex.getMessage());
+    }
+
+    /**
+     * Gestion des erreurs métier liées aux vacataires.
+     */
+    @ExceptionHandler(VacataireException.class)
+    public ResponseEntity<Object> handleVacataireException(VacataireException ex) {
+        return buildResponse(HttpStatus.BAD_REQUEST, "Erreur liée à un vacataire", ex.getMessage());
+    }
+
+    /**
+     * Gestion des listes de champs ({@code fields}) vides ou inconnues.
+     */
+    @ExceptionHandler(ChampsInvalidesException.class)
+    public ResponseEntity<Object> handleChampsInvalidesException(ChampsInvalidesException ex) {
+        return buildResponse(HttpStatus.BAD_REQUEST, "Liste de champs invalide", ex.getMessage());
+    }
+
+    /**
+     * Gestion des transitions d'état impossibles (ex. activer un enregistrement déjà actif).
+     */
+    @ExceptionHandler(ConflitEtatException.class)
+    public ResponseEntity<Object> handleConflitEtatException(ConflitEtatException ex) {
+        return buildResponse(HttpStatus.CONFLICT, "Conflit d'état", ex.getMessage());
+    }
+
+    /**
+     * Gestion des modifications conditionnelles dont la version attendue ({@code If-Match}) est obsolète.
+     */
+    @ExceptionHandler(VersionObsoleteException.class)
+    public ResponseEntity<Object> handleVersionObsoleteException(VersionObsoleteException ex) {
+        return buildResponse(HttpStatus.PRECONDITION_FAILED, "Version obsolète", ex.getMessage());
+    }
+
+    /**
+     * Gestion des lectures groupées mal formées (identifiant nul, lot trop grand).
+     */
+    @ExceptionHandler(LotInvalideException.class)
+    public ResponseEntity<Object> handleLotInvalideException(LotInvalideException ex) {
+        return buildResponse(HttpStatus.BAD_REQUEST, "Lecture groupée invalide", ex.getMessage());
+    }
+
+    /**
+     * Gestion des paramètres de chemin ou de requête non convertibles (ex. clé unique inconnue).
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Object> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        return buildResponse(HttpStatus.BAD_REQUEST, "Paramètre invalide",
+                "Valeur invalide pour " + ex.getName() + " : " + ex.getValue());
+    }
+
     /**
      * Gestion générique des exceptions inattendues.
      */
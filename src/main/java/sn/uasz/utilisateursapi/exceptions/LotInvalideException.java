@@ -0,0 +1,16 @@
+package sn.uasz.utilisateursapi.exceptions;
+
+/**
+ * Exception levée lorsqu'une lecture groupée par identifiants est mal formée
+ * (identifiant nul ou nombre d'identifiants supérieur à la limite du serveur).
+ */
+public class LotInvalideException extends RuntimeException {
+
+    /**
+     * Crée une exception avec un message d'erreur.
+     * @param message Message décrivant l'erreur.
+     */
+    public LotInvalideException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package sn.uasz.utilisateursapi.exceptions;
+
+/**
+ * Exception levée lorsqu'une opération sur un vacataire viole une règle métier
+ * (ex. email déjà attribué à un autre vacataire).
+ */
+public class VacataireException extends RuntimeException {
+
+    /**
+     * Crée une exception avec un message d'erreur.
+     * @param message Message décrivant l'erreur.
+     */
+    public VacataireException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package sn.uasz.utilisateursapi.exceptions;
+
+/**
+ * Exception levée lorsqu'une modification conditionnelle ({@code If-Match}) vise une version
+ * qui n'est plus celle de l'enregistrement : une autre écriture est passée entre-temps.
+ */
+public class VersionObsoleteException extends RuntimeException {
+
+    /**
+     * Crée une exception avec un message d'erreur.
+     * @param message Message décrivant l'erreur.
+     */
+    public VersionObsoleteException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,7 @@
 package sn.uasz.utilisateursapi.mappers;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import sn.uasz.utilisateursapi.dtos.EnseignantDTO;
 import sn.uasz.utilisateursapi.entities.Enseignant;
@@ -14,6 +15,9 @@ import sn.uasz.utilisateursapi.entities.Enseignant;
  * - La transformation Entité → DTO (exposable via API)
  * - La mise à jour partielle d’une entité à partir d’un DTO
 
+ * La date de modification et les clés de recherche ne viennent jamais du DTO :
+ * elles sont tenues par l'entité et ses écouteurs.
+
  * MapStruct génère automatiquement l’implémentation à la compilation.
  */
 @Mapper(componentModel = "spring")
@@ -26,6 +30,13 @@ public interface EnseignantMapper {
      * @param dto l'objet DTO représentant l'enseignant
      * @return l'entité `Enseignant` correspondante
      */
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "dateModification", ignore = true)
+    @Mapping(target = "nomNormalise", ignore = true)
+    @Mapping(target = "prenomNormalise", ignore = true)
+    @Mapping(target = "emailNormalise", ignore = true)
+    @Mapping(target = "nomPhonetique", ignore = true)
+    @Mapping(target = "prenomPhonetique", ignore = true)
     Enseignant toEntity(EnseignantDTO dto);
 
     /**
@@ -44,5 +55,12 @@ public interface EnseignantMapper {
      * @param dto     données source
      * @param entity  entité cible à modifier (annotée avec @MappingTarget)
      */
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "dateModification", ignore = true)
+    @Mapping(target = "nomNormalise", ignore = true)
+    @Mapping(target = "prenomNormalise", ignore = true)
+    @Mapping(target = "emailNormalise", ignore = true)
+    @Mapping(target = "nomPhonetique", ignore = true)
+    @Mapping(target = "prenomPhonetique", ignore = true)
     void updateEnseignantFromDTO(EnseignantDTO dto, @MappingTarget Enseignant entity);
 }
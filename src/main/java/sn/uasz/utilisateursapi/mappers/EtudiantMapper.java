@@ -35,6 +35,7 @@ public class EtudiantMapper {
         dto.setEmail(etudiant.getEmail());
         dto.setDateNaissance(etudiant.getDateNaissance());
         dto.setLieuNaissance(etudiant.getLieuNaissance());
+        dto.setVersion(etudiant.getVersion());
 
         // Copie des rôles s'ils existent
         if (etudiant.getRoles() != null) {
@@ -36,6 +36,7 @@ public class RoleMapper {
         dto.setId(role.getId());
         dto.setLibelle(role.getLibelle());
         dto.setDescription(role.getDescription());
+        dto.setVersion(role.getVersion());
         return dto;
     }
 
@@ -36,6 +36,7 @@ public class VacataireMapper {
         dto.setTelephone(vacataire.getTelephone());
         dto.setSpecialite(vacataire.getSpecialite());
         dto.setActif(vacataire.isActif());
+        dto.setVersion(vacataire.getVersion());
         return dto;
     }
 
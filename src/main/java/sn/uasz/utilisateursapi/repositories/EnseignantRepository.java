@@ -1,9 +1,24 @@
 package sn.uasz.utilisateursapi.repositories;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import sn.uasz.utilisateursapi.dtos.ValidateurDTO;
 import sn.uasz.utilisateursapi.entities.Enseignant;
+import sn.uasz.utilisateursapi.enums.Grade;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository Spring Data JPA pour l'entité {@link Enseignant}.
@@ -19,19 +34,43 @@ import java.util.List;
 public interface EnseignantRepository extends JpaRepository<Enseignant, Long> {
 
     /**
-     * Recherche tous les enseignants dont le nom contient
-     * la chaîne spécifiée (sans sensibilité à la casse).
+     * Charge un enseignant et ses rôles en une seule requête.
+     *
+     * @param id identifiant recherché
+     * @return l'entité trouvée, rôles initialisés
+     */
+    @Override
+    @EntityGraph(Enseignant.GRAPHE_ROLES)
+    Optional<Enseignant> findById(Long id);
+
+    /**
+     * Charge tous les enseignants et leurs rôles en une seule requête.
+     *
+     * @return toutes les entités, rôles initialisés
+     */
+    @Override
+    @EntityGraph(Enseignant.GRAPHE_ROLES)
+    List<Enseignant> findAll();
 
-     * Requête SQL équivalente :
-     * <pre>
-     * SELECT * FROM enseignant
-     * WHERE LOWER(nom) LIKE LOWER('%:nom%')
-     * </pre>
+    /**
+     * Lit en une requête {@code IN} les enseignants dont l'identifiant figure dans la liste.
      *
-     * @param nom chaîne partielle du nom à rechercher
+     * @param ids identifiants recherchés
+     * @return les entités trouvées (ordre quelconque), rôles initialisés
+     */
+    @EntityGraph(Enseignant.GRAPHE_ROLES)
+    List<Enseignant> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Recherche tous les enseignants dont le nom ou le prénom contient
+     * la chaîne spécifiée (sans sensibilité à la casse).
+     * Sert de repli lorsque l'index de recherche en mémoire n'est pas disponible.
+     *
+     * @param nom    chaîne partielle recherchée dans le nom
+     * @param prenom chaîne partielle recherchée dans le prénom
      * @return liste des enseignants correspondants
      */
-    List<Enseignant> findByNomContainingIgnoreCase(String nom);
+    List<Enseignant> findByNomContainingIgnoreCaseOrPrenomContainingIgnoreCase(String nom, String prenom);
 
     /**
      * Vérifie si un enseignant existe déjà avec l’adresse email donnée.
@@ -41,4 +80,277 @@ public interface EnseignantRepository extends JpaRepository<Enseignant, Long> {
      * @return true si un enseignant existe avec cet email, false sinon
      */
     boolean existsByEmail(String email);
+
+    /**
+     * Retourne, parmi les emails fournis, ceux déjà attribués à un enseignant.
+     * Permet de vérifier l'unicité d'un lot entier en une seule requête.
+     *
+     * @param emails les adresses email à tester
+     * @return les adresses déjà présentes en base
+     */
+    @Query("select e.email from Enseignant e where e.email in :emails")
+    List<String> findEmailsExistants(@Param("emails") Collection<String> emails);
+
+    /**
+     * Change l'état actif d'un enseignant s'il n'est pas déjà dans l'état demandé (compare-and-set).
+     * Requête JPQL : les écouteurs de l'entité ne sont pas appelés, ce qui est sans effet ici car
+     * aucune colonne qu'ils maintiennent (clés de recherche, clés uniques) ne dépend de l'état actif.
+     *
+     * @param id         identifiant de l'enseignant
+     * @param actif      état à appliquer
+     * @param maintenant date de modification à enregistrer
+     * @return 1 si l'état a changé, 0 si l'enseignant est introuvable ou déjà dans cet état
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Enseignant e set e.actif = :actif, e.dateModification = :maintenant, e.version = e.version + 1 "
+            + "where e.id = :id and e.actif <> :actif")
+    int modifierActif(@Param("id") Long id, @Param("actif") boolean actif,
+                      @Param("maintenant") LocalDateTime maintenant);
+
+    /**
+     * Lit et verrouille, parmi les enseignants désignés, ceux qui ne sont pas déjà dans l'état demandé.
+     * Le verrou est tenu jusqu'au commit : une mise à jour de ces identifiants modifie exactement ces lignes.
+     *
+     * @param ids   identifiants visés
+     * @param actif état à appliquer
+     * @return les identifiants des enseignants à modifier
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e.id from Enseignant e where e.id in :ids and e.actif <> :actif")
+    List<Long> findIdsAModifierParIds(@Param("ids") Collection<Long> ids, @Param("actif") boolean actif);
+
+    /**
+     * Lit et verrouille les enseignants d'un grade qui ne sont pas déjà dans l'état demandé,
+     * voir {@link #findIdsAModifierParIds}.
+     *
+     * @param grade grade visé
+     * @param actif état à appliquer
+     * @return les identifiants des enseignants à modifier
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e.id from Enseignant e where e.grade = :grade and e.actif <> :actif")
+    List<Long> findIdsAModifierParGrade(@Param("grade") Grade grade, @Param("actif") boolean actif);
+
+    /**
+     * Change l'état actif des enseignants désignés en une seule requête {@code UPDATE}.
+     * Les enseignants déjà dans l'état demandé ne sont pas modifiés ; écouteurs non appelés, voir {@link #modifierActif}.
+     *
+     * @param ids        identifiants visés
+     * @param actif      état à appliquer
+     * @param maintenant date de modification à enregistrer
+     * @return le nombre d'enseignants modifiés
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Enseignant e set e.actif = :actif, e.dateModification = :maintenant, e.version = e.version + 1 "
+            + "where e.id in :ids and e.actif <> :actif")
+    int modifierActifParIds(@Param("ids") Collection<Long> ids, @Param("actif") boolean actif,
+                            @Param("maintenant") LocalDateTime maintenant);
+
+    /**
+     * Retourne les matricules commençant par le préfixe donné (création d'un compteur de matricules).
+     * Les caractères génériques du préfixe sont échappés.
+     *
+     * @param prefixe début de matricule recherché
+     * @return les matricules correspondants
+     */
+    @Query("select e.matricule from Enseignant e where e.matricule like ?#{escape([0])}% escape ?#{escapeCharacter()}")
+    List<String> findMatriculesParPrefixe(String prefixe);
+
+    /**
+     * Parcourt les emails de tous les enseignants (chargement du filtre de Bloom).
+     * Le flux doit être consommé dans une transaction et fermé après usage.
+     *
+     * @return flux des emails, lus par lots de 1000 lignes
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select e.email from Enseignant e where e.email is not null")
+    Stream<String> streamEmails();
+
+    /**
+     * Parcourt l'identifiant, la version et le grade de tous les enseignants (réconciliation des statistiques).
+     * Le flux doit être consommé dans une transaction et fermé après usage.
+     *
+     * @return flux de tuples {@code [id, version, grade]}, lus par lots de 1000 lignes
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select e.id, e.version, e.grade from Enseignant e")
+    Stream<Object[]> streamGrades();
+
+    /**
+     * Parcourt les rôles de tous les enseignants (réconciliation des statistiques).
+     * Le flux doit être consommé dans une transaction et fermé après usage.
+     *
+     * @return flux de tuples {@code [id de l'enseignant, id du rôle]}, lus par lots de 1000 lignes
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select e.id, r.id from Enseignant e join e.roles r")
+    Stream<Object[]> streamRoles();
+
+    /**
+     * Parcourt l'identifiant, la version, le nom, le prénom, l'email et la date de dernière
+     * modification de tous les enseignants (chargement de l'autocomplétion). Le flux doit être consommé
+     * dans une transaction et fermé après usage.
+     *
+     * @return flux de tuples {@code [id, version, nom, prenom, email, dateModification]}, lus par lots de 1000 lignes
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select e.id, e.version, e.nom, e.prenom, e.email, e.dateModification from Enseignant e")
+    Stream<Object[]> streamPourAutocompletion();
+
+    /**
+     * Parcourt l'identifiant, le nom, le prénom, l'email et le téléphone de tous les enseignants
+     * (détection des doublons). Le flux doit être consommé dans une transaction et fermé après usage.
+     *
+     * @return flux de tuples {@code [id, nom, prenom, email, telephone]}, lus par lots de 1000 lignes
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select e.id, e.nom, e.prenom, e.email, e.telephone from Enseignant e")
+    Stream<Object[]> streamPourDoublons();
+
+    /**
+     * @return le plus petit identifiant des enseignants, ou null s'il n'y en a aucun
+     */
+    @Query("select min(e.id) from Enseignant e")
+    Long idMin();
+
+    /**
+     * @return le plus grand identifiant des enseignants, ou null s'il n'y en a aucun
+     */
+    @Query("select max(e.id) from Enseignant e")
+    Long idMax();
+
+    /**
+     * Lit les champs indexés dans l'annuaire des enseignants dont l'identifiant est compris entre
+     * deux bornes (reconstruction de l'index par tranches, en parallèle).
+     *
+     * @param debut première valeur d'identifiant (incluse)
+     * @param fin   dernière valeur d'identifiant (incluse)
+     * @return tuples {@code [id, version, nom, prenom, email, matricule, grade]}
+     */
+    @Query("select e.id, e.version, e.nom, e.prenom, e.email, e.matricule, e.grade from Enseignant e where e.id between :debut and :fin")
+    List<Object[]> findPourAnnuaire(@Param("debut") long debut, @Param("fin") long fin);
+
+    /**
+     * Parcourt tous les enseignants via un curseur JDBC, sans matérialiser la table en mémoire.
+     * Le flux doit être consommé dans une transaction et fermé après usage.
+     *
+     * @return flux des enseignants, lus par lots de 500 lignes
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("select e from Enseignant e")
+    Stream<Enseignant> streamAll();
+
+    /**
+     * Lit la version et la date de modification d'un enseignant, sans charger l'entité.
+     *
+     * @param id identifiant de l'enseignant
+     * @return les validateurs de l'enseignant, ou vide s'il n'existe pas
+     */
+    @Query("select new sn.uasz.utilisateursapi.dtos.ValidateurDTO(1L, e.version, e.dateModification) "
+            + "from Enseignant e where e.id = :id")
+    Optional<ValidateurDTO> trouverValidateur(@Param("id") Long id);
+
+    /**
+     * Calcule en un seul agrégat les validateurs de la table des enseignants :
+     * nombre de lignes, somme des versions et date de dernière modification.
+     *
+     * @return les validateurs de la collection des enseignants
+     */
+    @Query("select new sn.uasz.utilisateursapi.dtos.ValidateurDTO(count(e), coalesce(sum(e.version), 0L), "
+            + "max(e.dateModification)) from Enseignant e")
+    ValidateurDTO calculerValidateur();
+
+    /**
+     * Recherche exacte sur le nom normalisé, servie par l'index {@code nom_normalise}.
+     *
+     * @param cle    clé normalisée
+     * @param limite nombre maximal de résultats
+     * @return les enseignants dont le nom normalisé vaut la clé, par identifiant
+     */
+    List<Enseignant> findByNomNormaliseOrderById(String cle, Limit limite);
+
+    /**
+     * Recherche exacte sur le prénom normalisé, servie par l'index {@code prenom_normalise}.
+     *
+     * @param cle    clé normalisée
+     * @param limite nombre maximal de résultats
+     * @return les enseignants dont le prénom normalisé vaut la clé, par identifiant
+     */
+    List<Enseignant> findByPrenomNormaliseOrderById(String cle, Limit limite);
+
+    /**
+     * Recherche exacte sur l'email normalisé, servie par l'index {@code email_normalise}.
+     *
+     * @param cle    clé normalisée
+     * @param limite nombre maximal de résultats
+     * @return les enseignants dont l'email normalisé vaut la clé, par identifiant
+     */
+    List<Enseignant> findByEmailNormaliseOrderById(String cle, Limit limite);
+
+    /**
+     * Recherche phonétique sur le nom, servie par l'index {@code nom_phonetique}.
+     *
+     * @param cle    clé phonétique
+     * @param limite nombre maximal de résultats
+     * @return les enseignants dont le nom se prononce comme la clé, par identifiant
+     */
+    List<Enseignant> findByNomPhonetiqueOrderById(String cle, Limit limite);
+
+    /**
+     * Recherche phonétique sur le prénom, servie par l'index {@code prenom_phonetique}.
+     *
+     * @param cle    clé phonétique
+     * @param limite nombre maximal de résultats
+     * @return les enseignants dont le prénom se prononce comme la clé, par identifiant
+     */
+    List<Enseignant> findByPrenomPhonetiqueOrderById(String cle, Limit limite);
+
+    /**
+     * Recherche par préfixe du nom normalisé : parcours de l'index {@code nom_normalise} sur
+     * l'intervalle {@code [debut, fin)}.
+     *
+     * @param debut  préfixe normalisé
+     * @param fin    borne exclusive ({@link sn.uasz.utilisateursapi.utils.ClesRecherche#finPrefixe})
+     * @param limite nombre maximal de résultats
+     * @return les enseignants dont le nom normalisé commence par le préfixe
+     */
+    @Query("select e from Enseignant e where e.nomNormalise >= :debut and e.nomNormalise < :fin order by e.nomNormalise, e.id")
+    List<Enseignant> findParPrefixeNom(@Param("debut") String debut, @Param("fin") String fin, Limit limite);
+
+    /**
+     * Recherche par préfixe du prénom normalisé (index {@code prenom_normalise}).
+     *
+     * @param debut  préfixe normalisé
+     * @param fin    borne exclusive
+     * @param limite nombre maximal de résultats
+     * @return les enseignants dont le prénom normalisé commence par le préfixe
+     */
+    @Query("select e from Enseignant e where e.prenomNormalise >= :debut and e.prenomNormalise < :fin order by e.prenomNormalise, e.id")
+    List<Enseignant> findParPrefixePrenom(@Param("debut") String debut, @Param("fin") String fin, Limit limite);
+
+    /**
+     * Recherche par préfixe de l'email normalisé (index {@code email_normalise}).
+     *
+     * @param debut  préfixe normalisé
+     * @param fin    borne exclusive
+     * @param limite nombre maximal de résultats
+     * @return les enseignants dont l'email normalisé commence par le préfixe
+     */
+    @Query("select e from Enseignant e where e.emailNormalise >= :debut and e.emailNormalise < :fin order by e.emailNormalise, e.id")
+    List<Enseignant> findParPrefixeEmail(@Param("debut") String debut, @Param("fin") String fin, Limit limite);
+
+    /**
+     * Lit, par identifiant croissant, les enseignants dont une clé de recherche (normalisée ou phonétique)
+     * manque alors que le champ source est renseigné (lignes écrites hors JPA ou antérieures aux clés).
+     *
+     * @param apres  identifiant après lequel reprendre
+     * @param limite taille de la tranche
+     * @return tuples {@code [id, nom, prenom, email]}
+     */
+    @Query("select e.id, e.nom, e.prenom, e.email from Enseignant e where e.id > :apres and ("
+            + "(e.nom is not null and e.nomNormalise is null) or (e.prenom is not null and e.prenomNormalise is null) "
+            + "or (e.email is not null and e.emailNormalise is null) "
+            + "or (e.nom is not null and e.nomPhonetique is null) or (e.prenom is not null and e.prenomPhonetique is null)) "
+            + "order by e.id")
+    List<Object[]> findSansClesRecherche(@Param("apres") long apres, Limit limite);
 }
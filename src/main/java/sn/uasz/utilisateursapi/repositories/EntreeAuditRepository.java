@@ -0,0 +1,51 @@
+package sn.uasz.utilisateursapi.repositories;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import sn.uasz.utilisateursapi.entities.EntreeAudit;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+
+import java.util.Optional;
+
+/**
+ * Accès au journal d'audit.
+ */
+public interface EntreeAuditRepository extends JpaRepository<EntreeAudit, Long> {
+
+    /**
+     * Lit une page de l'historique d'un utilisateur, du plus récent au plus ancien (pagination keyset).
+     *
+     * @param entite   type d'utilisateur
+     * @param idEntite identifiant de l'utilisateur
+     * @param position position de départ (début de liste ou curseur décodé)
+     * @param limite   nombre maximal d'entrées à renvoyer
+     * @return la fenêtre d'entrées
+     */
+    Window<EntreeAudit> findByEntiteAndIdEntiteOrderByIdDesc(TypeAgregat entite, Long idEntite,
+                                                             ScrollPosition position, Limit limite);
+
+    /**
+     * Lit une page des changements d'un type d'utilisateur, du plus récent au plus ancien (pagination keyset).
+     *
+     * @param entite   type d'utilisateur
+     * @param position position de départ (début de liste ou curseur décodé)
+     * @param limite   nombre maximal d'entrées à renvoyer
+     * @return la fenêtre d'entrées
+     */
+    Window<EntreeAudit> findByEntiteOrderByIdDesc(TypeAgregat entite, ScrollPosition position, Limit limite);
+
+    /**
+     * Lit l'état enregistré par la dernière entrée d'un utilisateur (base du calcul des modifications suivantes).
+     *
+     * @param entite   type d'utilisateur
+     * @param idEntite identifiant de l'utilisateur
+     * @return l'état JSON, vide si l'utilisateur n'a pas d'historique ou a été supprimé
+     */
+    @Query("select a.etat from EntreeAudit a where a.id = (select max(b.id) from EntreeAudit b "
+            + "where b.entite = :entite and b.idEntite = :idEntite) and a.etat is not null")
+    Optional<String> trouverDernierEtat(@Param("entite") TypeAgregat entite, @Param("idEntite") Long idEntite);
+}
@@ -1,8 +1,22 @@
 package sn.uasz.utilisateursapi.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import sn.uasz.utilisateursapi.dtos.ValidateurDTO;
 import sn.uasz.utilisateursapi.entities.Etudiant;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 /**
  * Interface pour la gestion des opérations de persistance des étudiants.
  * Étend JpaRepository pour faciliter les opérations CRUD (Create, Read, Update, Delete) sur les étudiants.
@@ -11,6 +25,34 @@ import sn.uasz.utilisateursapi.entities.Etudiant;
  */
 public interface EtudiantRepository extends JpaRepository<Etudiant, Long> {
 
+    /**
+     * Charge un étudiant et ses rôles en une seule requête.
+     *
+     * @param id identifiant recherché
+     * @return l'entité trouvée, rôles initialisés
+     */
+    @Override
+    @EntityGraph(Etudiant.GRAPHE_ROLES)
+    Optional<Etudiant> findById(Long id);
+
+    /**
+     * Charge tous les étudiants et leurs rôles en une seule requête.
+     *
+     * @return toutes les entités, rôles initialisés
+     */
+    @Override
+    @EntityGraph(Etudiant.GRAPHE_ROLES)
+    List<Etudiant> findAll();
+
+    /**
+     * Lit en une requête {@code IN} les etudiants dont l'identifiant figure dans la liste.
+     *
+     * @param ids identifiants recherchés
+     * @return les entités trouvées (ordre quelconque), rôles initialisés
+     */
+    @EntityGraph(Etudiant.GRAPHE_ROLES)
+    List<Etudiant> findByIdIn(Collection<Long> ids);
+
     /**
      * Recherche un étudiant par son nom.
      *
@@ -26,4 +68,250 @@ public interface EtudiantRepository extends JpaRepository<Etudiant, Long> {
      * @return L'étudiant correspondant au matricule, ou null si aucun étudiant n'est trouvé
      */
     Etudiant findByMatricule(String matricule);
+
+    /**
+     * Retourne, parmi les matricules fournis, ceux déjà attribués à un étudiant.
+     *
+     * @param matricules Les matricules à tester
+     * @return Les matricules déjà présents en base
+     */
+    @Query("select e.matricule from Etudiant e where e.matricule in :matricules")
+    List<String> findMatriculesExistants(@Param("matricules") Collection<String> matricules);
+
+    /**
+     * Retourne, parmi les emails fournis, ceux déjà attribués à un étudiant.
+     *
+     * @param emails Les emails à tester
+     * @return Les emails déjà présents en base
+     */
+    @Query("select e.email from Etudiant e where e.email in :emails")
+    List<String> findEmailsExistants(@Param("emails") Collection<String> emails);
+
+    /**
+     * Retourne les matricules commençant par le préfixe donné (création d'un compteur de matricules).
+     * Les caractères génériques du préfixe sont échappés.
+     *
+     * @param prefixe début de matricule recherché
+     * @return les matricules correspondants
+     */
+    @Query("select e.matricule from Etudiant e where e.matricule like ?#{escape([0])}% escape ?#{escapeCharacter()}")
+    List<String> findMatriculesParPrefixe(String prefixe);
+
+    /**
+     * Retourne les emails commençant par le préfixe donné (initialisation de l'allocateur d'emails).
+     * Les caractères génériques du préfixe sont échappés.
+     *
+     * @param prefixe début d'email recherché
+     * @return les emails correspondants
+     */
+    @Query("select e.email from Etudiant e where e.email like ?#{escape([0])}% escape ?#{escapeCharacter()}")
+    List<String> findEmailsParPrefixe(String prefixe);
+
+    /**
+     * Parcourt les matricules de tous les étudiants (chargement du filtre de Bloom).
+     * Le flux doit être consommé dans une transaction et fermé après usage.
+     *
+     * @return flux des matricules, lus par lots de 1000 lignes
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select e.matricule from Etudiant e")
+    Stream<String> streamMatricules();
+
+    /**
+     * Parcourt les emails de tous les étudiants (chargement du filtre de Bloom).
+     * Le flux doit être consommé dans une transaction et fermé après usage.
+     *
+     * @return flux des emails, lus par lots de 1000 lignes
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select e.email from Etudiant e")
+    Stream<String> streamEmails();
+
+    /**
+     * Parcourt l'identifiant, la version, le lieu et la date de naissance de tous les étudiants
+     * (réconciliation des statistiques). Le flux doit être consommé dans une transaction et fermé après usage.
+     *
+     * @return flux de tuples {@code [id, version, lieuNaissance, dateNaissance]}, lus par lots de 1000 lignes
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select e.id, e.version, e.lieuNaissance, e.dateNaissance from Etudiant e")
+    Stream<Object[]> streamNaissances();
+
+    /**
+     * Parcourt les rôles de tous les étudiants (réconciliation des statistiques).
+     * Le flux doit être consommé dans une transaction et fermé après usage.
+     *
+     * @return flux de tuples {@code [id de l'étudiant, id du rôle]}, lus par lots de 1000 lignes
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select e.id, r.id from Etudiant e join e.roles r")
+    Stream<Object[]> streamRoles();
+
+    /**
+     * Parcourt l'identifiant, la version, le nom, le prénom, l'email et la date de dernière
+     * modification de tous les étudiants (chargement de l'autocomplétion). Le flux doit être consommé
+     * dans une transaction et fermé après usage.
+     *
+     * @return flux de tuples {@code [id, version, nom, prenom, email, dateModification]}, lus par lots de 1000 lignes
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select e.id, e.version, e.nom, e.prenom, e.email, e.dateModification from Etudiant e")
+    Stream<Object[]> streamPourAutocompletion();
+
+    /**
+     * Parcourt l'identifiant, le nom, le prénom, l'email et la date de naissance de tous les étudiants
+     * (détection des doublons). Le flux doit être consommé dans une transaction et fermé après usage.
+     *
+     * @return flux de tuples {@code [id, nom, prenom, email, dateNaissance]}, lus par lots de 1000 lignes
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select e.id, e.nom, e.prenom, e.email, e.dateNaissance from Etudiant e")
+    Stream<Object[]> streamPourDoublons();
+
+    /**
+     * @return le plus petit identifiant des étudiants, ou null s'il n'y en a aucun
+     */
+    @Query("select min(e.id) from Etudiant e")
+    Long idMin();
+
+    /**
+     * @return le plus grand identifiant des étudiants, ou null s'il n'y en a aucun
+     */
+    @Query("select max(e.id) from Etudiant e")
+    Long idMax();
+
+    /**
+     * Lit les champs indexés dans l'annuaire des étudiants dont l'identifiant est compris entre
+     * deux bornes (reconstruction de l'index par tranches, en parallèle).
+     *
+     * @param debut première valeur d'identifiant (incluse)
+     * @param fin   dernière valeur d'identifiant (incluse)
+     * @return tuples {@code [id, version, nom, prenom, email, matricule, lieuNaissance]}
+     */
+    @Query("select e.id, e.version, e.nom, e.prenom, e.email, e.matricule, e.lieuNaissance from Etudiant e where e.id between :debut and :fin")
+    List<Object[]> findPourAnnuaire(@Param("debut") long debut, @Param("fin") long fin);
+
+    /**
+     * Lit la version et la date de modification d'un étudiant, sans charger l'entité.
+     *
+     * @param id identifiant de l'étudiant
+     * @return les validateurs de l'étudiant, ou vide s'il n'existe pas
+     */
+    @Query("select new sn.uasz.utilisateursapi.dtos.ValidateurDTO(1L, e.version, e.dateModification) "
+            + "from Etudiant e where e.id = :id")
+    Optional<ValidateurDTO> trouverValidateur(@Param("id") Long id);
+
+    /**
+     * Calcule en un seul agrégat les validateurs de la table des étudiants :
+     * nombre de lignes, somme des versions et date de dernière modification.
+     *
+     * @return les validateurs de la collection des étudiants
+     */
+    @Query("select new sn.uasz.utilisateursapi.dtos.ValidateurDTO(count(e), coalesce(sum(e.version), 0L), "
+            + "max(e.dateModification)) from Etudiant e")
+    ValidateurDTO calculerValidateur();
+
+    /**
+     * Parcourt tous les étudiants via un curseur JDBC, sans matérialiser la table en mémoire.
+     * Le flux doit être consommé dans une transaction et fermé après usage.
+     *
+     * @return flux des étudiants, lus par lots de 500 lignes
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("select e from Etudiant e")
+    Stream<Etudiant> streamAll();
+
+    /**
+     * Recherche exacte sur le nom normalisé, servie par l'index {@code nom_normalise}.
+     *
+     * @param cle    clé normalisée
+     * @param limite nombre maximal de résultats
+     * @return les étudiants dont le nom normalisé vaut la clé, par identifiant
+     */
+    List<Etudiant> findByNomNormaliseOrderById(String cle, Limit limite);
+
+    /**
+     * Recherche exacte sur le prénom normalisé, servie par l'index {@code prenom_normalise}.
+     *
+     * @param cle    clé normalisée
+     * @param limite nombre maximal de résultats
+     * @return les étudiants dont le prénom normalisé vaut la clé, par identifiant
+     */
+    List<Etudiant> findByPrenomNormaliseOrderById(String cle, Limit limite);
+
+    /**
+     * Recherche exacte sur l'email normalisé, servie par l'index {@code email_normalise}.
+     *
+     * @param cle    clé normalisée
+     * @param limite nombre maximal de résultats
+     * @return les étudiants dont l'email normalisé vaut la clé, par identifiant
+     */
+    List<Etudiant> findByEmailNormaliseOrderById(String cle, Limit limite);
+
+    /**
+     * Recherche phonétique sur le nom, servie par l'index {@code nom_phonetique}.
+     *
+     * @param cle    clé phonétique
+     * @param limite nombre maximal de résultats
+     * @return les étudiants dont le nom se prononce comme la clé, par identifiant
+     */
+    List<Etudiant> findByNomPhonetiqueOrderById(String cle, Limit limite);
+
+    /**
+     * Recherche phonétique sur le prénom, servie par l'index {@code prenom_phonetique}.
+     *
+     * @param cle    clé phonétique
+     * @param limite nombre maximal de résultats
+     * @return les étudiants dont le prénom se prononce comme la clé, par identifiant
+     */
+    List<Etudiant> findByPrenomPhonetiqueOrderById(String cle, Limit limite);
+
+    /**
+     * Recherche par préfixe du nom normalisé : parcours de l'index {@code nom_normalise} sur
+     * l'intervalle {@code [debut, fin)}.
+     *
+     * @param debut  préfixe normalisé
+     * @param fin    borne exclusive ({@link sn.uasz.utilisateursapi.utils.ClesRecherche#finPrefixe})
+     * @param limite nombre maximal de résultats
+     * @return les étudiants dont le nom normalisé commence par le préfixe
+     */
+    @Query("select e from Etudiant e where e.nomNormalise >= :debut and e.nomNormalise < :fin order by e.nomNormalise, e.id")
+    List<Etudiant> findParPrefixeNom(@Param("debut") String debut, @Param("fin") String fin, Limit limite);
+
+    /**
+     * Recherche par préfixe du prénom normalisé (index {@code prenom_normalise}).
+     *
+     * @param debut  préfixe normalisé
+     * @param fin    borne exclusive
+     * @param limite nombre maximal de résultats
+     * @return les étudiants dont le prénom normalisé commence par le préfixe
+     */
+    @Query("select e from Etudiant e where e.prenomNormalise >= :debut and e.prenomNormalise < :fin order by e.prenomNormalise, e.id")
+    List<Etudiant> findParPrefixePrenom(@Param("debut") String debut, @Param("fin") String fin, Limit limite);
+
+    /**
+     * Recherche par préfixe de l'email normalisé (index {@code email_normalise}).
+     *
+     * @param debut  préfixe normalisé
+     * @param fin    borne exclusive
+     * @param limite nombre maximal de résultats
+     * @return les étudiants dont l'email normalisé commence par le préfixe
+     */
+    @Query("select e from Etudiant e where e.emailNormalise >= :debut and e.emailNormalise < :fin order by e.emailNormalise, e.id")
+    List<Etudiant> findParPrefixeEmail(@Param("debut") String debut, @Param("fin") String fin, Limit limite);
+
+    /**
+     * Lit, par identifiant croissant, les étudiants dont une clé de recherche (normalisée ou phonétique)
+     * manque alors que le champ source est renseigné (lignes écrites hors JPA ou antérieures aux clés).
+     *
+     * @param apres  identifiant après lequel reprendre
+     * @param limite taille de la tranche
+     * @return tuples {@code [id, nom, prenom, email]}
+     */
+    @Query("select e.id, e.nom, e.prenom, e.email from Etudiant e where e.id > :apres and ("
+            + "(e.nom is not null and e.nomNormalise is null) or (e.prenom is not null and e.prenomNormalise is null) "
+            + "or (e.email is not null and e.emailNormalise is null) "
+            + "or (e.nom is not null and e.nomPhonetique is null) or (e.prenom is not null and e.prenomPhonetique is null)) "
+            + "order by e.id")
+    List<Object[]> findSansClesRecherche(@Param("apres") long apres, Limit limite);
 }
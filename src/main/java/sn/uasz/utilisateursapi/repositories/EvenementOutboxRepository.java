@@ -0,0 +1,33 @@
+package sn.uasz.utilisateursapi.repositories;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import sn.uasz.utilisateursapi.entities.EvenementOutbox;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Accès aux événements en attente de publication (outbox).
+ */
+public interface EvenementOutboxRepository extends JpaRepository<EvenementOutbox, Long> {
+
+    /**
+     * Lit et verrouille les plus anciens événements en attente, dans l'ordre de publication.
+     * Le verrou sérialise les relais de plusieurs nœuds : un second relais attend la fin du lot en cours.
+     *
+     * @param limite taille du lot
+     * @return les événements, par identifiant croissant
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<EvenementOutbox> findAllByOrderByIdAsc(Limit limite);
+
+    /**
+     * @return la date du plus ancien événement en attente, ou null si l'outbox est vide
+     */
+    @Query("select min(e.dateCreation) from EvenementOutbox e")
+    LocalDateTime datePlusAncien();
+}
@@ -1,8 +1,18 @@
 package sn.uasz.utilisateursapi.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import sn.uasz.utilisateursapi.dtos.ValidateurDTO;
 import sn.uasz.utilisateursapi.entities.Role;
 
+import java.time.LocalDateTime;
+import java.util.Optional;
+
 /**
  * Interface pour la gestion des opérations de persistance des rôles.
  * Étend JpaRepository pour faciliter les opérations CRUD (Create, Read, Update, Delete) sur les rôles.
@@ -15,5 +25,60 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
      * @param libelle Le libelle du rôle à rechercher
      * @return Le rôle correspondant au nom, ou null si aucun rôle n'est trouvé
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Role.REGION_CACHE_LIBELLE)
+    })
     Role findByLibelle(String libelle);
+
+    /**
+     * Modifie un rôle en une seule requête {@code UPDATE}, à condition que sa version soit celle
+     * attendue (verrouillage optimiste). La version est incrémentée.
+     *
+     * @param id          identifiant du rôle
+     * @param version     version attendue, ou null pour une mise à jour inconditionnelle
+     * @param libelle     nouveau libellé
+     * @param description nouvelle description
+     * @param maintenant  date de modification à enregistrer
+     * @return 1 si le rôle a été modifié, 0 s'il est introuvable ou a changé de version
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Role r set r.libelle = :libelle, r.description = :description, "
+            + "r.dateModification = :maintenant, r.version = r.version + 1 "
+            + "where r.id = :id and (:version is null or r.version = :version)")
+    int modifierSiVersion(@Param("id") Long id, @Param("version") Long version,
+                          @Param("libelle") String libelle, @Param("description") String description,
+                          @Param("maintenant") LocalDateTime maintenant);
+
+    /**
+     * Relit un rôle en base sans passer par le cache de second niveau, dont l'entrée n'est
+     * invalidée qu'à la validation de la transaction qui l'a modifié par {@link #modifierSiVersion}.
+     * L'entrée du cache est remplacée par la valeur relue.
+     *
+     * @param id identifiant du rôle
+     * @return le rôle tel qu'il est en base
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "REFRESH"))
+    @Query("select r from Role r where r.id = :id")
+    Optional<Role> relireDepuisBase(@Param("id") Long id);
+
+    /**
+     * Lit la version et la date de modification d'un rôle, sans charger l'entité.
+     *
+     * @param id identifiant du rôle
+     * @return les validateurs du rôle, ou vide s'il n'existe pas
+     */
+    @Query("select new sn.uasz.utilisateursapi.dtos.ValidateurDTO(1L, r.version, r.dateModification) "
+            + "from Role r where r.id = :id")
+    Optional<ValidateurDTO> trouverValidateur(@Param("id") Long id);
+
+    /**
+     * Calcule en un seul agrégat les validateurs de la table des rôles :
+     * nombre de lignes, somme des versions et date de dernière modification.
+     *
+     * @return les validateurs de la collection des rôles
+     */
+    @Query("select new sn.uasz.utilisateursapi.dtos.ValidateurDTO(count(r), coalesce(sum(r.version), 0L), "
+            + "max(r.dateModification)) from Role r")
+    ValidateurDTO calculerValidateur();
 }
@@ -9,11 +9,23 @@
  */
 package sn.uasz.utilisateursapi.repositories;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import sn.uasz.utilisateursapi.dtos.ValidateurDTO;
 import sn.uasz.utilisateursapi.entities.Vacataire;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Interface repository pour la gestion des vacataires.
@@ -31,6 +43,89 @@ public interface VacataireRepository extends JpaRepository<Vacataire, Long> {
      */
     Vacataire findByEmail(String email);
 
+    /**
+     * Retourne, parmi les emails fournis, ceux déjà attribués à un vacataire.
+     *
+     * @param emails Les emails à tester
+     * @return Les emails déjà présents en base
+     */
+    @Query("select v.email from Vacataire v where v.email in :emails")
+    List<String> findEmailsExistants(@Param("emails") Collection<String> emails);
+
+    /**
+     * Parcourt les emails de tous les vacataires (chargement du filtre de Bloom).
+     * Le flux doit être consommé dans une transaction et fermé après usage.
+     *
+     * @return flux des emails, lus par lots de 1000 lignes
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select v.email from Vacataire v where v.email is not null")
+    Stream<String> streamEmails();
+
+    /**
+     * Parcourt l'identifiant, la version, la spécialité et l'état d'activation de tous les vacataires
+     * (réconciliation des statistiques). Le flux doit être consommé dans une transaction et fermé après usage.
+     *
+     * @return flux de tuples {@code [id, version, specialite, actif]}, lus par lots de 1000 lignes
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select v.id, v.version, v.specialite, v.actif from Vacataire v")
+    Stream<Object[]> streamSpecialites();
+
+    /**
+     * Parcourt l'identifiant, la version, le nom, le prénom, l'email et la date de dernière
+     * modification de tous les vacataires (chargement de l'autocomplétion). Le flux doit être consommé
+     * dans une transaction et fermé après usage.
+     *
+     * @return flux de tuples {@code [id, version, nom, prenom, email, dateModification]}, lus par lots de 1000 lignes
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select v.id, v.version, v.nom, v.prenom, v.email, v.dateModification from Vacataire v")
+    Stream<Object[]> streamPourAutocompletion();
+
+    /**
+     * Parcourt l'identifiant, le nom, le prénom, l'email et le téléphone de tous les vacataires
+     * (détection des doublons). Le flux doit être consommé dans une transaction et fermé après usage.
+     *
+     * @return flux de tuples {@code [id, nom, prenom, email, telephone]}, lus par lots de 1000 lignes
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select v.id, v.nom, v.prenom, v.email, v.telephone from Vacataire v")
+    Stream<Object[]> streamPourDoublons();
+
+    /**
+     * @return le plus petit identifiant des vacataires, ou null s'il n'y en a aucun
+     */
+    @Query("select min(v.id) from Vacataire v")
+    Long idMin();
+
+    /**
+     * @return le plus grand identifiant des vacataires, ou null s'il n'y en a aucun
+     */
+    @Query("select max(v.id) from Vacataire v")
+    Long idMax();
+
+    /**
+     * Lit les champs indexés dans l'annuaire des vacataires dont l'identifiant est compris entre
+     * deux bornes (reconstruction de l'index par tranches, en parallèle).
+     *
+     * @param debut première valeur d'identifiant (incluse)
+     * @param fin   dernière valeur d'identifiant (incluse)
+     * @return tuples {@code [id, version, nom, prenom, email, specialite]}
+     */
+    @Query("select v.id, v.version, v.nom, v.prenom, v.email, v.specialite from Vacataire v where v.id between :debut and :fin")
+    List<Object[]> findPourAnnuaire(@Param("debut") long debut, @Param("fin") long fin);
+
+    /**
+     * Lit en une requête {@code IN} les vacataires dont l'identifiant figure dans la liste
+     * et dont le statut d'activité correspond.
+     *
+     * @param ids identifiants recherchés
+     * @param actif statut d'activité recherché
+     * @return les vacataires trouvés (ordre quelconque)
+     */
+    List<Vacataire> findByIdInAndActif(Collection<Long> ids, boolean actif);
+
     /**
      * Recherche un vacataire actif par son ID.
      * 
@@ -47,4 +142,182 @@ public interface VacataireRepository extends JpaRepository<Vacataire, Long> {
      * @return La liste des vacataires correspondants
      */
     List<Vacataire> findByActif(boolean actif);
+
+    /**
+     * Change le statut d'activité d'un vacataire s'il n'est pas déjà dans le statut demandé (compare-and-set).
+     * Requête JPQL : les écouteurs de l'entité ne sont pas appelés, ce qui est sans effet ici car
+     * aucune colonne qu'ils maintiennent (clés de recherche, clés uniques) ne dépend du statut.
+     *
+     * @param id         identifiant du vacataire
+     * @param actif      statut à appliquer
+     * @param maintenant date de modification à enregistrer
+     * @return 1 si le statut a changé, 0 si le vacataire est introuvable ou déjà dans ce statut
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Vacataire v set v.actif = :actif, v.dateModification = :maintenant, v.version = v.version + 1 "
+            + "where v.id = :id and v.actif <> :actif")
+    int modifierActif(@Param("id") Long id, @Param("actif") boolean actif, @Param("maintenant") Date maintenant);
+
+    /**
+     * Lit et verrouille, parmi les vacataires désignés, ceux qui ne sont pas déjà dans le statut demandé.
+     * Le verrou est tenu jusqu'au commit : une mise à jour de ces identifiants modifie exactement ces lignes.
+     *
+     * @param ids   identifiants visés
+     * @param actif statut à appliquer
+     * @return les identifiants des vacataires à modifier
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select v.id from Vacataire v where v.id in :ids and v.actif <> :actif")
+    List<Long> findIdsAModifierParIds(@Param("ids") Collection<Long> ids, @Param("actif") boolean actif);
+
+    /**
+     * Lit et verrouille les vacataires d'une spécialité qui ne sont pas déjà dans le statut demandé,
+     * voir {@link #findIdsAModifierParIds}.
+     *
+     * @param specialite spécialité visée
+     * @param actif      statut à appliquer
+     * @return les identifiants des vacataires à modifier
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select v.id from Vacataire v where v.specialite = :specialite and v.actif <> :actif")
+    List<Long> findIdsAModifierParSpecialite(@Param("specialite") String specialite, @Param("actif") boolean actif);
+
+    /**
+     * Change le statut d'activité des vacataires désignés en une seule requête {@code UPDATE}.
+     * Les vacataires déjà dans le statut demandé ne sont pas modifiés ; écouteurs non appelés, voir {@link #modifierActif}.
+     *
+     * @param ids        identifiants visés
+     * @param actif      statut à appliquer
+     * @param maintenant date de modification à enregistrer
+     * @return le nombre de vacataires modifiés
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Vacataire v set v.actif = :actif, v.dateModification = :maintenant, v.version = v.version + 1 "
+            + "where v.id in :ids and v.actif <> :actif")
+    int modifierActifParIds(@Param("ids") Collection<Long> ids, @Param("actif") boolean actif,
+                            @Param("maintenant") Date maintenant);
+
+    /**
+     * Parcourt tous les vacataires via un curseur JDBC, sans matérialiser la table en mémoire.
+     * Le flux doit être consommé dans une transaction et fermé après usage.
+     *
+     * @return flux des vacataires, lus par lots de 500 lignes
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("select v from Vacataire v")
+    Stream<Vacataire> streamAll();
+
+    /**
+     * Lit la version et la date de modification d'un vacataire actif, sans charger l'entité.
+     *
+     * @param id identifiant du vacataire
+     * @return les validateurs du vacataire, ou vide s'il n'existe pas ou est inactif
+     */
+    @Query("select new sn.uasz.utilisateursapi.dtos.ValidateurDTO(1L, v.version, v.dateModification) "
+            + "from Vacataire v where v.id = :id and v.actif = true")
+    Optional<ValidateurDTO> trouverValidateurActif(@Param("id") Long id);
+
+    /**
+     * Calcule en un seul agrégat les validateurs de la table des vacataires :
+     * nombre de lignes, somme des versions et date de dernière modification.
+     *
+     * @return les validateurs de la collection des vacataires
+     */
+    @Query("select new sn.uasz.utilisateursapi.dtos.ValidateurDTO(count(v), coalesce(sum(v.version), 0L), "
+            + "max(v.dateModification)) from Vacataire v")
+    ValidateurDTO calculerValidateur();
+
+    /**
+     * Recherche exacte sur le nom normalisé, servie par l'index {@code nom_normalise}.
+     *
+     * @param cle    clé normalisée
+     * @param limite nombre maximal de résultats
+     * @return les vacataires dont le nom normalisé vaut la clé, par identifiant
+     */
+    List<Vacataire> findByNomNormaliseOrderById(String cle, Limit limite);
+
+    /**
+     * Recherche exacte sur le prénom normalisé, servie par l'index {@code prenom_normalise}.
+     *
+     * @param cle    clé normalisée
+     * @param limite nombre maximal de résultats
+     * @return les vacataires dont le prénom normalisé vaut la clé, par identifiant
+     */
+    List<Vacataire> findByPrenomNormaliseOrderById(String cle, Limit limite);
+
+    /**
+     * Recherche exacte sur l'email normalisé, servie par l'index {@code email_normalise}.
+     *
+     * @param cle    clé normalisée
+     * @param limite nombre maximal de résultats
+     * @return les vacataires dont l'email normalisé vaut la clé, par identifiant
+     */
+    List<Vacataire> findByEmailNormaliseOrderById(String cle, Limit limite);
+
+    /**
+     * Recherche phonétique sur le nom, servie par l'index {@code nom_phonetique}.
+     *
+     * @param cle    clé phonétique
+     * @param limite nombre maximal de résultats
+     * @return les vacataires dont le nom se prononce comme la clé, par identifiant
+     */
+    List<Vacataire> findByNomPhonetiqueOrderById(String cle, Limit limite);
+
+    /**
+     * Recherche phonétique sur le prénom, servie par l'index {@code prenom_phonetique}.
+     *
+     * @param cle    clé phonétique
+     * @param limite nombre maximal de résultats
+     * @return les vacataires dont le prénom se prononce comme la clé, par identifiant
+     */
+    List<Vacataire> findByPrenomPhonetiqueOrderById(String cle, Limit limite);
+
+    /**
+     * Recherche par préfixe du nom normalisé : parcours de l'index {@code nom_normalise} sur
+     * l'intervalle {@code [debut, fin)}.
+     *
+     * @param debut  préfixe normalisé
+     * @param fin    borne exclusive ({@link sn.uasz.utilisateursapi.utils.ClesRecherche#finPrefixe})
+     * @param limite nombre maximal de résultats
+     * @return les vacataires dont le nom normalisé commence par le préfixe
+     */
+    @Query("select v from Vacataire v where v.nomNormalise >= :debut and v.nomNormalise < :fin order by v.nomNormalise, v.id")
+    List<Vacataire> findParPrefixeNom(@Param("debut") String debut, @Param("fin") String fin, Limit limite);
+
+    /**
+     * Recherche par préfixe du prénom normalisé (index {@code prenom_normalise}).
+     *
+     * @param debut  préfixe normalisé
+     * @param fin    borne exclusive
+     * @param limite nombre maximal de résultats
+     * @return les vacataires dont le prénom normalisé commence par le préfixe
+     */
+    @Query("select v from Vacataire v where v.prenomNormalise >= :debut and v.prenomNormalise < :fin order by v.prenomNormalise, v.id")
+    List<Vacataire> findParPrefixePrenom(@Param("debut") String debut, @Param("fin") String fin, Limit limite);
+
+    /**
+     * Recherche par préfixe de l'email normalisé (index {@code email_normalise}).
+     *
+     * @param debut  préfixe normalisé
+     * @param fin    borne exclusive
+     * @param limite nombre maximal de résultats
+     * @return les vacataires dont l'email normalisé commence par le préfixe
+     */
+    @Query("select v from Vacataire v where v.emailNormalise >= :debut and v.emailNormalise < :fin order by v.emailNormalise, v.id")
+    List<Vacataire> findParPrefixeEmail(@Param("debut") String debut, @Param("fin") String fin, Limit limite);
+
+    /**
+     * Lit, par identifiant croissant, les vacataires dont une clé de recherche (normalisée ou phonétique)
+     * manque alors que le champ source est renseigné (lignes écrites hors JPA ou antérieures aux clés).
+     *
+     * @param apres  identifiant après lequel reprendre
+     * @param limite taille de la tranche
+     * @return tuples {@code [id, nom, prenom, email]}
+     */
+    @Query("select v.id, v.nom, v.prenom, v.email from Vacataire v where v.id > :apres and ("
+            + "(v.nom is not null and v.nomNormalise is null) or (v.prenom is not null and v.prenomNormalise is null) "
+            + "or (v.email is not null and v.emailNormalise is null) "
+            + "or (v.nom is not null and v.nomPhonetique is null) or (v.prenom is not null and v.prenomPhonetique is null)) "
+            + "order by v.id")
+    List<Object[]> findSansClesRecherche(@Param("apres") long apres, Limit limite);
 }
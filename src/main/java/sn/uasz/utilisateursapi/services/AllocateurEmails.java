@@ -0,0 +1,165 @@
+package sn.uasz.utilisateursapi.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.uasz.utilisateursapi.repositories.EtudiantRepository;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Attribution des emails étudiants sans collision : {@code <nom><initiale prénom><initiale nom><n>@zig.univ.sn}.
+ *
+ * <p>Chaque préfixe (nom et initiales) dispose d'un compteur atomique ; le suffixe attribué est
+ * la valeur suivante du compteur, si bien que deux appels, concurrents ou non, ne reçoivent jamais
+ * le même email. Les compteurs sont initialisés au démarrage à partir du plus grand suffixe déjà
+ * présent en base pour chaque préfixe. Avant la fin de ce chargement (ex. jeux de données initiaux),
+ * un préfixe encore inconnu est initialisé par une requête sur ce seul préfixe.</p>
+ *
+ * <p>Un numéro attribué dans une transaction finalement annulée est perdu : les suffixes sont
+ * uniques et croissants, mais pas nécessairement contigus.</p>
+ */
+@Component
+@Slf4j
+public class AllocateurEmails {
+
+    /** Domaine des emails étudiants. */
+    public static final String DOMAINE = "@zig.univ.sn";
+
+    // Au-delà, le suffixe ne tient pas dans un long et n'a pas pu être produit par l'allocateur
+    private static final int CHIFFRES_MAX = 18;
+
+    private final EtudiantRepository etudiantRepository;
+    private final TransactionTemplate lectureSeule;
+    private final ConcurrentHashMap<String, AtomicLong> compteurs = new ConcurrentHashMap<>();
+    private volatile boolean pret;
+
+    /**
+     * Constructeur avec injection de dépendances.
+     */
+    public AllocateurEmails(EtudiantRepository etudiantRepository, PlatformTransactionManager transactionManager) {
+        this.etudiantRepository = etudiantRepository;
+        this.lectureSeule = new TransactionTemplate(transactionManager);
+        this.lectureSeule.setReadOnly(true);
+    }
+
+    /**
+     * Relève, en un seul parcours de la table, le plus grand suffixe de chaque préfixe.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialiser() {
+        long debut = System.nanoTime();
+        Map<String, Long> maxima = new HashMap<>();
+        lectureSeule.executeWithoutResult(statut -> {
+            try (Stream<String> emails = etudiantRepository.streamEmails()) {
+                emails.forEach(email -> {
+                    String local = partieLocale(email);
+                    int coupure = debutSuffixe(local);
+                    if (coupure > 0 && coupure < local.length()) {
+                        maxima.merge(local.substring(0, coupure), Long.parseLong(local.substring(coupure)), Math::max);
+                    }
+                });
+            }
+        });
+        maxima.forEach(this::relever);
+        pret = true;
+        log.info("Allocateur d'emails initialisé : {} préfixes en {} ms",
+                maxima.size(), (System.nanoTime() - debut) / 1_000_000);
+    }
+
+    /**
+     * Attribue l'email suivant pour un nom et un prénom.
+     *
+     * @param nom    nom de l'étudiant
+     * @param prenom prénom de l'étudiant
+     * @return un email jamais attribué par cet allocateur ni présent en base à son initialisation
+     */
+    public String allouer(String nom, String prenom) {
+        String prefixe = prefixe(nom, prenom);
+        AtomicLong compteur = compteurs.get(prefixe);
+        if (compteur == null) {
+            compteur = compteurs.computeIfAbsent(prefixe, p -> new AtomicLong(pret ? 0 : maxEnBase(p)));
+        }
+        return prefixe + compteur.incrementAndGet() + DOMAINE;
+    }
+
+    /**
+     * Préfixe commun des emails d'un nom et d'un prénom.
+     *
+     * @param nom    nom de l'étudiant
+     * @param prenom prénom de l'étudiant
+     * @return le nom en minuscules suivi des initiales du prénom et du nom
+     */
+    public static String prefixe(String nom, String prenom) {
+        String premiereLettrePrenom = prenom.substring(0, 1).toLowerCase();
+        String premiereLettreNom = nom.substring(0, 1).toLowerCase();
+        return nom.toLowerCase() + premiereLettrePrenom + premiereLettreNom;
+    }
+
+    /**
+     * Indique si un email a la forme attribuée par l'allocateur pour ce nom et ce prénom.
+     *
+     * @param email  email à tester (peut être null)
+     * @param nom    nom de l'étudiant
+     * @param prenom prénom de l'étudiant
+     * @return true si l'email est le préfixe du nom suivi d'un suffixe numérique
+     */
+    public static boolean correspond(String email, String nom, String prenom) {
+        String prefixe = prefixe(nom, prenom);
+        String local = partieLocale(email);
+        return local.startsWith(prefixe) && debutSuffixe(local) == prefixe.length();
+    }
+
+    /**
+     * @return le nombre de préfixes suivis
+     */
+    public int nombrePrefixes() {
+        return compteurs.size();
+    }
+
+    /**
+     * Porte le compteur d'un préfixe au moins à la valeur donnée (les compteurs ne reculent jamais).
+     */
+    private void relever(String prefixe, long valeur) {
+        compteurs.computeIfAbsent(prefixe, p -> new AtomicLong()).accumulateAndGet(valeur, Math::max);
+    }
+
+    private long maxEnBase(String prefixe) {
+        return etudiantRepository.findEmailsParPrefixe(prefixe).stream()
+                .map(AllocateurEmails::partieLocale)
+                .filter(local -> local.startsWith(prefixe) && debutSuffixe(local) == prefixe.length())
+                .mapToLong(local -> Long.parseLong(local.substring(prefixe.length())))
+                .max()
+                .orElse(0);
+    }
+
+    /**
+     * Partie locale d'un email du domaine étudiant, ou chaîne vide pour tout autre email.
+     */
+    private static String partieLocale(String email) {
+        if (email == null || !email.toLowerCase(Locale.ROOT).endsWith(DOMAINE)) {
+            return "";
+        }
+        return email.substring(0, email.length() - DOMAINE.length());
+    }
+
+    /**
+     * Position du premier chiffre du suffixe numérique final, ou -1 si le suffixe est absent ou trop long.
+     */
+    private static int debutSuffixe(String local) {
+        int i = local.length();
+        while (i > 0 && Character.isDigit(local.charAt(i - 1)) && local.charAt(i - 1) < 128) {
+            i--;
+        }
+        int chiffres = local.length() - i;
+        return chiffres == 0 || chiffres > CHIFFRES_MAX ? -1 : i;
+    }
+}
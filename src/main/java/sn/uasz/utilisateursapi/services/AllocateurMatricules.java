@@ -0,0 +1,181 @@
+package sn.uasz.utilisateursapi.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.uasz.utilisateursapi.entities.CompteurMatricule;
+import sn.uasz.utilisateursapi.enums.TypeMatricule;
+import sn.uasz.utilisateursapi.repositories.EnseignantRepository;
+import sn.uasz.utilisateursapi.repositories.EtudiantRepository;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Attribution des matricules par type d'utilisateur et année universitaire (schéma hi/lo).
+ *
+ * <p>Les numéros sont réservés par blocs de {@code matricule.taille-bloc} sur une ligne
+ * {@link CompteurMatricule} verrouillée, dans une transaction propre validée aussitôt.
+ * Les numéros d'un bloc sont ensuite distribués sans verrou ni accès à la base ; seul
+ * l'épuisement d'un bloc sérialise brièvement les appelants pendant la réservation du suivant.
+ * Plusieurs nœuds peuvent partager la même base : chacun reçoit des blocs disjoints.</p>
+ *
+ * <p>À la création du compteur d'une année, le premier bloc est placé après le plus grand
+ * matricule de même format déjà présent en base (matricules saisis à la main). Les numéros
+ * d'un bloc non épuisé à l'arrêt du nœud sont perdus : les matricules sont uniques et
+ * croissants par nœud, mais pas nécessairement contigus.</p>
+ */
+@Component
+@Slf4j
+public class AllocateurMatricules {
+
+    private static final int TENTATIVES_CREATION = 3;
+
+    private final Map<TypeMatricule, Function<String, List<String>>> existants = new EnumMap<>(TypeMatricule.class);
+    private final ConcurrentHashMap<String, AtomicReference<Plage>> plages = new ConcurrentHashMap<>();
+    private final TransactionTemplate nouvelleTransaction;
+    private final int tailleBloc;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Numéros {@code [suivant, fin)} d'un bloc réservé.
+     */
+    private static final class Plage {
+        private static final Plage VIDE = new Plage(0, 0);
+
+        private final AtomicLong suivant;
+        private final long fin;
+
+        private Plage(long debut, long fin) {
+            this.suivant = new AtomicLong(debut);
+            this.fin = fin;
+        }
+    }
+
+    /**
+     * Constructeur avec injection de dépendances.
+     */
+    public AllocateurMatricules(EtudiantRepository etudiantRepository,
+                                EnseignantRepository enseignantRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${matricule.taille-bloc:50}") int tailleBloc) {
+        if (tailleBloc <= 0) {
+            throw new IllegalArgumentException("Taille de bloc invalide : " + tailleBloc);
+        }
+        existants.put(TypeMatricule.ETUDIANT, etudiantRepository::findMatriculesParPrefixe);
+        existants.put(TypeMatricule.ENSEIGNANT, enseignantRepository::findMatriculesParPrefixe);
+        this.nouvelleTransaction = new TransactionTemplate(transactionManager);
+        this.nouvelleTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.tailleBloc = tailleBloc;
+    }
+
+    /**
+     * Attribue le matricule suivant pour l'année universitaire en cours.
+     *
+     * @param type type de matricule
+     * @return un matricule jamais attribué
+     */
+    public String allouer(TypeMatricule type) {
+        return allouer(type, anneeUniversitaire(LocalDate.now()));
+    }
+
+    /**
+     * Attribue le matricule suivant pour une année universitaire donnée.
+     *
+     * @param type  type de matricule
+     * @param annee année de début de l'année universitaire
+     * @return un matricule jamais attribué
+     * @throws IllegalStateException si tous les numéros de l'année sont épuisés
+     */
+    public String allouer(TypeMatricule type, int annee) {
+        AtomicReference<Plage> courante = plages.computeIfAbsent(cle(type, annee), c -> new AtomicReference<>(Plage.VIDE));
+        while (true) {
+            Plage plage = courante.get();
+            long numero = plage.suivant.getAndIncrement();
+            if (numero < plage.fin) {
+                return type.formater(annee, numero);
+            }
+            synchronized (courante) {
+                if (courante.get() == plage) {
+                    courante.set(reserver(type, annee));
+                }
+            }
+        }
+    }
+
+    /**
+     * Année de début de l'année universitaire d'une date (rentrée en octobre).
+     *
+     * @param date date de référence
+     * @return l'année de rentrée
+     */
+    public static int anneeUniversitaire(LocalDate date) {
+        return date.getMonthValue() >= Month.OCTOBER.getValue() ? date.getYear() : date.getYear() - 1;
+    }
+
+    /**
+     * Réserve le bloc suivant sur le compteur partagé, en le créant au besoin.
+     * Si deux nœuds créent le même compteur en même temps, le perdant relit celui du gagnant.
+     */
+    private Plage reserver(TypeMatricule type, int annee) {
+        String cle = cle(type, annee);
+        for (int tentative = 1; ; tentative++) {
+            try {
+                long bloc = nouvelleTransaction.execute(statut -> {
+                    CompteurMatricule compteur = entityManager.find(CompteurMatricule.class, cle, LockModeType.PESSIMISTIC_WRITE);
+                    if (compteur == null) {
+                        compteur = new CompteurMatricule(cle, premierBloc(type, annee));
+                        entityManager.persist(compteur);
+                        entityManager.flush();
+                    }
+                    long reserve = compteur.getProchainBloc();
+                    compteur.setProchainBloc(reserve + 1);
+                    return reserve;
+                });
+                long debut = bloc * tailleBloc + 1;
+                if (debut > type.numeroMax()) {
+                    throw new IllegalStateException("Plus aucun matricule disponible pour " + cle);
+                }
+                log.debug("Bloc de matricules réservé pour {} : {} à {}", cle, debut, debut + tailleBloc - 1);
+                return new Plage(debut, Math.min(debut + tailleBloc, type.numeroMax() + 1));
+            } catch (DataIntegrityViolationException | PersistenceException e) {
+                if (tentative >= TENTATIVES_CREATION) {
+                    throw e;
+                }
+                log.debug("Compteur {} créé en concurrence, nouvelle lecture", cle);
+            }
+        }
+    }
+
+    /**
+     * Premier bloc dont tous les numéros dépassent le plus grand numéro déjà présent en base.
+     */
+    private long premierBloc(TypeMatricule type, int annee) {
+        long max = existants.get(type).apply(type.prefixe(annee)).stream()
+                .mapToLong(matricule -> type.numero(annee, matricule))
+                .max()
+                .orElse(0);
+        return (Math.max(max, 0) + tailleBloc - 1) / tailleBloc;
+    }
+
+    private static String cle(TypeMatricule type, int annee) {
+        return type.name() + "-" + annee;
+    }
+}
@@ -0,0 +1,697 @@
+package sn.uasz.utilisateursapi.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.util.CharTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.DisjunctionMaxQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.uasz.utilisateursapi.dtos.EnseignantDTO;
+import sn.uasz.utilisateursapi.dtos.EtudiantDTO;
+import sn.uasz.utilisateursapi.dtos.PageCurseurDTO;
+import sn.uasz.utilisateursapi.dtos.ResultatAnnuaireDTO;
+import sn.uasz.utilisateursapi.dtos.VacataireDTO;
+import sn.uasz.utilisateursapi.enums.Grade;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.exceptions.CurseurInvalideException;
+import sn.uasz.utilisateursapi.repositories.EnseignantRepository;
+import sn.uasz.utilisateursapi.repositories.EtudiantRepository;
+import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+import sn.uasz.utilisateursapi.utils.ApresCommit;
+import sn.uasz.utilisateursapi.utils.PaginationKeyset;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Index plein texte, sur disque (Lucene), des enseignants, étudiants et vacataires, servi par
+ * {@code GET /api/annuaire/search}.
+ *
+ * <p>Sont indexés le nom, le prénom, l'email, le matricule, la spécialité et le lieu de naissance,
+ * analysés sans casse ni accents. Chaque mot recherché doit correspondre, exactement, par préfixe
+ * ou à une faute de frappe près, à l'un de ces champs ; les résultats sont classés par pertinence
+ * (BM25, pondérée par champ : le nom compte plus que le lieu de naissance), l'email ou le matricule
+ * saisi en entier passant en tête.</p>
+ *
+ * <p>Les services déclarent chaque changement ({@link #enregistrer}) ; il est écrit dans l'index à
+ * la validation de la transaction, et devient visible au rafraîchissement suivant (toutes les
+ * {@code annuaire.index.rafraichissement} ms, sans attendre l'écriture durable sur disque, faite
+ * toutes les {@code annuaire.index.intervalle-commit} ms). Un changement d'une version antérieure à
+ * la dernière indexée, validé en retard, est ignoré.</p>
+ *
+ * <p>La reconstruction depuis la base découpe chaque type en tranches d'identifiants lues et
+ * indexées en parallèle ; pendant ce temps, les recherches sont servies par l'index tel qu'il était
+ * avant, et les utilisateurs modifiés sont relus à la fin. Sans répertoire configuré
+ * ({@code annuaire.index.repertoire}), l'index est créé dans un répertoire temporaire supprimé à
+ * l'arrêt.</p>
+ */
+@Component
+@Slf4j
+public class AnnuaireIndexRecherche implements MeterBinder {
+
+    static final String CHAMP_NOM = "nom";
+    static final String CHAMP_PRENOM = "prenom";
+    static final String CHAMP_EMAIL = "email";
+    static final String CHAMP_MATRICULE = "matricule";
+    static final String CHAMP_SPECIALITE = "specialite";
+    static final String CHAMP_LIEU_NAISSANCE = "lieuNaissance";
+    private static final String CHAMP_CLE = "cle";
+    private static final String CHAMP_TYPE = "type";
+    private static final String CHAMP_ID = "id";
+    private static final String CHAMP_DETAIL = "detail";
+    /** Email et matricule entiers, normalisés : une saisie complète passe en tête. */
+    private static final String CHAMP_EXACT = "exact";
+
+    /** Poids de chaque champ recherché dans le score. */
+    private static final Map<String, Float> POIDS = Map.of(
+            CHAMP_NOM, 3f, CHAMP_PRENOM, 2.5f, CHAMP_MATRICULE, 2f, CHAMP_EMAIL, 1.5f,
+            CHAMP_SPECIALITE, 1f, CHAMP_LIEU_NAISSANCE, 1f);
+    private static final float POIDS_EXACT = 10f;
+    /** Longueur à partir de laquelle un mot est aussi cherché à une faute de frappe près. */
+    private static final int LONGUEUR_MIN_FLOUE = 4;
+    private static final int MOTS_MAX = 10;
+    private static final int VERSIONS_EN_MEMOIRE = 10_000;
+    private static final Sort TRI = new Sort(SortField.FIELD_SCORE, new SortField(CHAMP_CLE, SortField.Type.STRING));
+
+    private final Map<TypeAgregat, Source> sources = new EnumMap<>(TypeAgregat.class);
+    private final TransactionTemplate lectureSeule;
+    private final Path repertoire;
+    private final boolean temporaire;
+    private final Analyzer analyseur = new AnalyseurAnnuaire();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final boolean reconstructionAuDemarrage;
+    private final int parallelisme;
+    private final int tailleTranche;
+    private final long intervalleRafraichissement;
+    private final long intervalleCommit;
+    private final ScheduledExecutorService taches = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "annuaire-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** Garde les dernières versions indexées et l'état de la reconstruction. */
+    private final Object verrou = new Object();
+    /** Une seule reconstruction à la fois. */
+    private final Object verrouReconstruction = new Object();
+    private final Map<String, Long> dernieresVersions;
+    private final Set<String> modifiesPendantReconstruction = new HashSet<>();
+    private boolean enReconstruction;
+    private volatile Timer dureeRecherche;
+    private volatile Timer dureeReconstruction;
+
+    /**
+     * Utilisateur tel qu'indexé.
+     *
+     * @param detail grade, lieu de naissance ou spécialité, affiché dans les résultats
+     */
+    record Personne(TypeAgregat type, Long id, long version, String nom, String prenom, String email,
+                    String matricule, String specialite, String lieuNaissance, String detail) {
+    }
+
+    /**
+     * Lecture en base d'un type d'utilisateur, par tranches d'identifiants.
+     */
+    private record Source(Supplier<Long> idMin, Supplier<Long> idMax, Lecteur lire, Function<Object[], Personne> convertir) {
+    }
+
+    @FunctionalInterface
+    private interface Lecteur {
+        List<Object[]> lire(long debut, long fin);
+    }
+
+    /**
+     * Découpe sur les caractères autres que lettres et chiffres (les emails et matricules se
+     * cherchent par morceaux), sans casse ni accents.
+     */
+    static final class AnalyseurAnnuaire extends Analyzer {
+        @Override
+        protected TokenStreamComponents createComponents(String champ) {
+            Tokenizer mots = CharTokenizer.fromTokenCharPredicate(Character::isLetterOrDigit);
+            return new TokenStreamComponents(mots, new ASCIIFoldingFilter(new LowerCaseFilter(mots)));
+        }
+
+        @Override
+        protected TokenStream normalize(String champ, TokenStream entree) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(entree));
+        }
+    }
+
+    /**
+     * Constructeur avec injection de dépendances : ouvre (ou crée) l'index sur disque.
+     */
+    public AnnuaireIndexRecherche(EnseignantRepository enseignantRepository,
+                                  EtudiantRepository etudiantRepository,
+                                  VacataireRepository vacataireRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${annuaire.index.repertoire:}") String repertoire,
+                                  @Value("${annuaire.index.reconstruction-au-demarrage:true}") boolean reconstructionAuDemarrage,
+                                  @Value("${annuaire.index.reconstruction.parallelisme:4}") int parallelisme,
+                                  @Value("${annuaire.index.reconstruction.taille-tranche:5000}") int tailleTranche,
+                                  @Value("${annuaire.index.rafraichissement:200}") long intervalleRafraichissement,
+                                  @Value("${annuaire.index.intervalle-commit:10000}") long intervalleCommit) {
+        sources.put(TypeAgregat.ENSEIGNANT, new Source(enseignantRepository::idMin, enseignantRepository::idMax,
+                enseignantRepository::findPourAnnuaire, l -> new Personne(TypeAgregat.ENSEIGNANT, (Long) l[0],
+                version(l[1]), (String) l[2], (String) l[3], (String) l[4], (String) l[5], null, null,
+                l[6] == null ? null : ((Grade) l[6]).name())));
+        sources.put(TypeAgregat.ETUDIANT, new Source(etudiantRepository::idMin, etudiantRepository::idMax,
+                etudiantRepository::findPourAnnuaire, l -> new Personne(TypeAgregat.ETUDIANT, (Long) l[0],
+                version(l[1]), (String) l[2], (String) l[3], (String) l[4], (String) l[5], null, (String) l[6],
+                (String) l[6])));
+        sources.put(TypeAgregat.VACATAIRE, new Source(vacataireRepository::idMin, vacataireRepository::idMax,
+                vacataireRepository::findPourAnnuaire, l -> new Personne(TypeAgregat.VACATAIRE, (Long) l[0],
+                version(l[1]), (String) l[2], (String) l[3], (String) l[4], null, (String) l[5], null,
+                (String) l[5])));
+        this.lectureSeule = new TransactionTemplate(transactionManager);
+        this.lectureSeule.setReadOnly(true);
+        this.reconstructionAuDemarrage = reconstructionAuDemarrage;
+        this.parallelisme = Math.max(1, parallelisme);
+        this.tailleTranche = Math.max(1, tailleTranche);
+        this.intervalleRafraichissement = intervalleRafraichissement;
+        this.intervalleCommit = intervalleCommit;
+        // Accédé sous verrou
+        this.dernieresVersions = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> plusAncienne) {
+                return size() > VERSIONS_EN_MEMOIRE;
+            }
+        };
+        try {
+            this.temporaire = repertoire == null || repertoire.isBlank();
+            this.repertoire = temporaire ? Files.createTempDirectory("annuaire") : Files.createDirectories(Path.of(repertoire));
+            this.directory = FSDirectory.open(this.repertoire);
+            IndexWriterConfig configuration = new IndexWriterConfig(analyseur)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                    .setRAMBufferSizeMB(64);
+            this.writer = new IndexWriter(directory, configuration);
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ouverture de l'index de l'annuaire impossible", e);
+        }
+    }
+
+    /**
+     * Lance les rafraîchissements et les écritures durables périodiques une fois l'application
+     * démarrée, puis, si demandé, la reconstruction de l'index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void demarrer() {
+        taches.scheduleWithFixedDelay(this::rafraichirSansErreur,
+                intervalleRafraichissement, intervalleRafraichissement, TimeUnit.MILLISECONDS);
+        taches.scheduleWithFixedDelay(this::validerSansErreur, intervalleCommit, intervalleCommit, TimeUnit.MILLISECONDS);
+        if (reconstructionAuDemarrage) {
+            taches.execute(() -> {
+                try {
+                    reconstruire();
+                } catch (RuntimeException e) {
+                    log.error("Échec de la construction de l'index de l'annuaire", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Déclare un changement d'utilisateur. Il est écrit dans l'index à la validation de la
+     * transaction en cours (immédiatement hors transaction).
+     *
+     * @param type    type d'utilisateur
+     * @param id      identifiant de l'utilisateur
+     * @param version version de l'utilisateur après le changement
+     * @param etat    état de l'utilisateur après le changement (DTO), ou null pour une suppression
+     */
+    public void enregistrer(TypeAgregat type, Long id, Long version, Object etat) {
+        long v = version == null ? 0 : version;
+        Personne personne = etat == null ? null : personne(id, v, etat);
+        ApresCommit.executer(() -> appliquer(type, id, v, personne));
+    }
+
+    /**
+     * Recherche les utilisateurs correspondant à un texte libre, du plus pertinent au moins pertinent.
+     *
+     * @param texte   mots recherchés (fragments de nom, email, matricule, spécialité, lieu de naissance)
+     * @param type    type d'utilisateur, ou null pour tous
+     * @param curseur curseur opaque de la page précédente, ou null pour la première page
+     * @param taille  taille de page souhaitée (bornée)
+     * @return la page de résultats et le curseur de la suivante
+     */
+    public PageCurseurDTO<ResultatAnnuaireDTO> rechercher(String texte, TypeAgregat type, String curseur, Integer taille) {
+        int limite = PaginationKeyset.limite(taille).max();
+        Query requete = requete(texte, type);
+        if (requete == null) {
+            return new PageCurseurDTO<>(List.of(), null);
+        }
+        long debut = System.nanoTime();
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopFieldDocs trouves = searcher.searchAfter(apres(curseur, searcher), requete, limite + 1, TRI, true);
+                StoredFields champs = searcher.storedFields();
+                List<ResultatAnnuaireDTO> resultats = new ArrayList<>();
+                for (int i = 0; i < Math.min(limite, trouves.scoreDocs.length); i++) {
+                    resultats.add(resultat(champs.document(trouves.scoreDocs[i].doc), trouves.scoreDocs[i].score));
+                }
+                String suivant = trouves.scoreDocs.length > limite
+                        ? encoder((FieldDoc) trouves.scoreDocs[limite - 1]) : null;
+                return new PageCurseurDTO<>(resultats, suivant);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Recherche dans l'annuaire impossible", e);
+        } finally {
+            if (dureeRecherche != null) {
+                dureeRecherche.record(System.nanoTime() - debut, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Rend visibles aux recherches les changements écrits dans l'index (sans attendre le
+     * rafraîchissement périodique). Sans effet pendant une reconstruction.
+     */
+    public void rafraichir() {
+        synchronized (verrou) {
+            if (enReconstruction) {
+                return;
+            }
+        }
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Rafraîchissement de l'index de l'annuaire impossible", e);
+        }
+    }
+
+    /**
+     * Reconstruit l'index depuis la base : tranches d'identifiants lues et indexées en parallèle,
+     * puis relecture des utilisateurs modifiés entre-temps.
+     *
+     * @return le nombre d'utilisateurs indexés
+     */
+    public long reconstruire() {
+        synchronized (verrouReconstruction) {
+            long debut = System.nanoTime();
+            synchronized (verrou) {
+                enReconstruction = true;
+                modifiesPendantReconstruction.clear();
+            }
+            AtomicInteger numero = new AtomicInteger();
+            ExecutorService ouvriers = Executors.newFixedThreadPool(parallelisme, r -> {
+                Thread thread = new Thread(r, "reconstruction-annuaire-" + numero.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                writer.deleteAll();
+                List<Future<Integer>> tranches = new ArrayList<>();
+                for (Map.Entry<TypeAgregat, Source> entree : sources.entrySet()) {
+                    Source source = entree.getValue();
+                    Long min = lectureSeule.execute(statut -> source.idMin().get());
+                    Long max = lectureSeule.execute(statut -> source.idMax().get());
+                    if (min == null || max == null) {
+                        continue;
+                    }
+                    for (long premier = min; premier <= max; premier += tailleTranche) {
+                        long debutTranche = premier;
+                        long finTranche = Math.min(max, premier + tailleTranche - 1);
+                        tranches.add(ouvriers.submit(() -> indexerTranche(source, debutTranche, finTranche)));
+                    }
+                }
+                long documents = 0;
+                for (Future<Integer> tranche : tranches) {
+                    documents += tranche.get();
+                }
+                rattraperModificationsConcurrentes();
+                writer.commit();
+                searcherManager.maybeRefreshBlocking();
+                log.info("Index de l'annuaire construit : {} utilisateurs en {} ms ({} tranches, {} ouvriers)",
+                        documents, (System.nanoTime() - debut) / 1_000_000, tranches.size(), parallelisme);
+                if (dureeReconstruction != null) {
+                    dureeReconstruction.record(System.nanoTime() - debut, TimeUnit.NANOSECONDS);
+                }
+                return documents;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Reconstruction de l'index de l'annuaire impossible", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Reconstruction de l'index de l'annuaire interrompue", e);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause
+                        : new IllegalStateException("Reconstruction de l'index de l'annuaire impossible", e.getCause());
+            } finally {
+                ouvriers.shutdownNow();
+                synchronized (verrou) {
+                    enReconstruction = false;
+                    modifiesPendantReconstruction.clear();
+                }
+            }
+        }
+    }
+
+    private int indexerTranche(Source source, long debut, long fin) throws IOException {
+        List<Object[]> lignes = lectureSeule.execute(statut -> source.lire().lire(debut, fin));
+        for (Object[] ligne : lignes) {
+            Personne personne = source.convertir().apply(ligne);
+            writer.updateDocument(terme(personne.type(), personne.id()), document(personne));
+        }
+        return lignes.size();
+    }
+
+    /**
+     * Relit les utilisateurs modifiés pendant la reconstruction : une tranche a pu lire un état
+     * antérieur à celui indexé par la mise à jour concurrente, ou un utilisateur depuis supprimé.
+     */
+    private void rattraperModificationsConcurrentes() throws IOException {
+        while (true) {
+            Set<String> aRelire;
+            synchronized (verrou) {
+                if (modifiesPendantReconstruction.isEmpty()) {
+                    return;
+                }
+                aRelire = new HashSet<>(modifiesPendantReconstruction);
+                modifiesPendantReconstruction.clear();
+            }
+            for (String cle : aRelire) {
+                TypeAgregat type = TypeAgregat.valueOf(cle.substring(0, cle.indexOf(':')));
+                long id = Long.parseLong(cle.substring(cle.indexOf(':') + 1));
+                Source source = sources.get(type);
+                List<Object[]> lignes = lectureSeule.execute(statut -> source.lire().lire(id, id));
+                Personne personne = lignes.isEmpty() ? null : source.convertir().apply(lignes.get(0));
+                synchronized (verrou) {
+                    Long derniere = dernieresVersions.get(cle);
+                    if (personne == null || derniere == null || personne.version() >= derniere) {
+                        ecrire(type, id, personne);
+                    }
+                }
+            }
+        }
+    }
+
+    private void appliquer(TypeAgregat type, Long id, long version, Personne personne) {
+        String cle = cle(type, id);
+        synchronized (verrou) {
+            Long derniere = dernieresVersions.get(cle);
+            if (derniere != null && version < derniere) {
+                return;
+            }
+            dernieresVersions.put(cle, version);
+            if (enReconstruction) {
+                modifiesPendantReconstruction.add(cle);
+            }
+            try {
+                ecrire(type, id, personne);
+            } catch (IOException e) {
+                log.warn("Mise à jour de {} dans l'index de l'annuaire impossible : {}", cle, e.getMessage());
+            }
+        }
+    }
+
+    private void ecrire(TypeAgregat type, Long id, Personne personne) throws IOException {
+        if (personne == null) {
+            writer.deleteDocuments(terme(type, id));
+        } else {
+            writer.updateDocument(terme(type, id), document(personne));
+        }
+    }
+
+    private Document document(Personne personne) {
+        String cle = cle(personne.type(), personne.id());
+        Document document = new Document();
+        document.add(new StringField(CHAMP_CLE, cle, Field.Store.NO));
+        document.add(new SortedDocValuesField(CHAMP_CLE, new BytesRef(cle)));
+        document.add(new StringField(CHAMP_TYPE, personne.type().name(), Field.Store.YES));
+        document.add(new StoredField(CHAMP_ID, personne.id()));
+        texte(document, CHAMP_NOM, personne.nom());
+        texte(document, CHAMP_PRENOM, personne.prenom());
+        texte(document, CHAMP_EMAIL, personne.email());
+        texte(document, CHAMP_MATRICULE, personne.matricule());
+        texte(document, CHAMP_SPECIALITE, personne.specialite());
+        texte(document, CHAMP_LIEU_NAISSANCE, personne.lieuNaissance());
+        for (String exact : new String[]{personne.email(), personne.matricule()}) {
+            if (exact != null && !exact.isBlank()) {
+                document.add(new StringField(CHAMP_EXACT, analyseur.normalize(CHAMP_EXACT, exact.trim()), Field.Store.NO));
+            }
+        }
+        if (personne.detail() != null) {
+            document.add(new StoredField(CHAMP_DETAIL, personne.detail()));
+        }
+        return document;
+    }
+
+    private static void texte(Document document, String champ, String valeur) {
+        if (valeur != null && !valeur.isBlank()) {
+            document.add(new TextField(champ, valeur, Field.Store.YES));
+        }
+    }
+
+    private static ResultatAnnuaireDTO resultat(Document document, float score) {
+        return new ResultatAnnuaireDTO(TypeAgregat.valueOf(document.get(CHAMP_TYPE)),
+                document.getField(CHAMP_ID).numericValue().longValue(),
+                document.get(CHAMP_NOM), document.get(CHAMP_PRENOM), document.get(CHAMP_EMAIL),
+                document.get(CHAMP_MATRICULE), document.get(CHAMP_DETAIL), score);
+    }
+
+    /**
+     * Chaque mot doit correspondre à un champ (exactement, par préfixe ou à une faute près) ;
+     * le meilleur champ d'un mot fait son score. Un email ou un matricule complet suffit.
+     */
+    private Query requete(String texte, TypeAgregat type) {
+        List<String> mots = mots(texte);
+        if (mots.isEmpty()) {
+            return null;
+        }
+        BooleanQuery.Builder tousLesMots = new BooleanQuery.Builder();
+        for (String mot : mots) {
+            List<Query> variantes = new ArrayList<>();
+            POIDS.forEach((champ, poids) -> {
+                Term terme = new Term(champ, mot);
+                variantes.add(new BoostQuery(new TermQuery(terme), 2 * poids));
+                variantes.add(new BoostQuery(new PrefixQuery(terme), poids));
+                if (mot.length() >= LONGUEUR_MIN_FLOUE) {
+                    variantes.add(new BoostQuery(new FuzzyQuery(terme, 1, 1), poids / 2));
+                }
+            });
+            tousLesMots.add(new DisjunctionMaxQuery(variantes, 0.1f), BooleanClause.Occur.MUST);
+        }
+        Query exact = new TermQuery(new Term(CHAMP_EXACT, analyseur.normalize(CHAMP_EXACT, texte.trim())));
+        Query requete = new BooleanQuery.Builder()
+                .add(tousLesMots.build(), BooleanClause.Occur.SHOULD)
+                .add(new BoostQuery(exact, POIDS_EXACT), BooleanClause.Occur.SHOULD)
+                .setMinimumNumberShouldMatch(1)
+                .build();
+        if (type == null) {
+            return requete;
+        }
+        return new BooleanQuery.Builder()
+                .add(requete, BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(CHAMP_TYPE, type.name())), BooleanClause.Occur.FILTER)
+                .build();
+    }
+
+    private List<String> mots(String texte) {
+        List<String> mots = new ArrayList<>();
+        if (texte == null) {
+            return mots;
+        }
+        try (TokenStream flux = analyseur.tokenStream(CHAMP_NOM, texte)) {
+            CharTermAttribute terme = flux.addAttribute(CharTermAttribute.class);
+            flux.reset();
+            while (flux.incrementToken() && mots.size() < MOTS_MAX) {
+                mots.add(terme.toString());
+            }
+            flux.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return mots;
+    }
+
+    /**
+     * Le curseur porte le score et la clé du dernier résultat renvoyé ; l'ordre (score décroissant,
+     * puis clé) est total.
+     */
+    private static String encoder(FieldDoc dernier) {
+        String brut = dernier.fields[0] + " " + ((BytesRef) dernier.fields[1]).utf8ToString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(brut.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static FieldDoc apres(String curseur, IndexSearcher searcher) {
+        if (curseur == null || curseur.isBlank()) {
+            return null;
+        }
+        try {
+            String brut = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8);
+            int separateur = brut.indexOf(' ');
+            if (separateur <= 0) {
+                throw new CurseurInvalideException("Curseur de pagination invalide");
+            }
+            float score = Float.parseFloat(brut.substring(0, separateur));
+            BytesRef cle = new BytesRef(brut.substring(separateur + 1));
+            // Clé unique : le numéro de document ne départage jamais, il doit seulement exister
+            int document = Math.max(0, searcher.getIndexReader().maxDoc() - 1);
+            return new FieldDoc(document, score, new Object[]{score, cle});
+        } catch (IllegalArgumentException e) {
+            throw new CurseurInvalideException("Curseur de pagination invalide", e);
+        }
+    }
+
+    private static Personne personne(Long id, long version, Object etat) {
+        if (etat instanceof EnseignantDTO enseignant) {
+            return new Personne(TypeAgregat.ENSEIGNANT, id, version, enseignant.nom(), enseignant.prenom(),
+                    enseignant.email(), enseignant.matricule(), null, null,
+                    enseignant.grade() == null ? null : enseignant.grade().name());
+        }
+        if (etat instanceof EtudiantDTO etudiant) {
+            return new Personne(TypeAgregat.ETUDIANT, id, version, etudiant.getNom(), etudiant.getPrenom(),
+                    etudiant.getEmail(), etudiant.getMatricule(), null, etudiant.getLieuNaissance(),
+                    etudiant.getLieuNaissance());
+        }
+        if (etat instanceof VacataireDTO vacataire) {
+            return new Personne(TypeAgregat.VACATAIRE, id, version, vacataire.getNom(), vacataire.getPrenom(),
+                    vacataire.getEmail(), null, vacataire.getSpecialite(), null, vacataire.getSpecialite());
+        }
+        throw new IllegalArgumentException("État non pris en charge par l'annuaire : " + etat.getClass().getName());
+    }
+
+    private static String cle(TypeAgregat type, Long id) {
+        return type.name() + ':' + id;
+    }
+
+    private static Term terme(TypeAgregat type, Long id) {
+        return new Term(CHAMP_CLE, cle(type, id));
+    }
+
+    private static long version(Object version) {
+        return version == null ? 0 : ((Number) version).longValue();
+    }
+
+    private void rafraichirSansErreur() {
+        try {
+            rafraichir();
+        } catch (RuntimeException e) {
+            log.warn("Rafraîchissement de l'index de l'annuaire impossible : {}", e.getMessage());
+        }
+    }
+
+    private void validerSansErreur() {
+        synchronized (verrou) {
+            if (enReconstruction) {
+                return;
+            }
+        }
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Écriture durable de l'index de l'annuaire impossible : {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Arrête les tâches périodiques, écrit l'index sur disque et le ferme ; supprime le répertoire
+     * s'il était temporaire.
+     */
+    @PreDestroy
+    public void arreter() {
+        taches.shutdownNow();
+        try {
+            taches.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        } catch (IOException e) {
+            log.warn("Fermeture de l'index de l'annuaire impossible : {}", e.getMessage());
+        }
+        if (temporaire) {
+            try (Stream<Path> fichiers = Files.walk(repertoire)) {
+                fichiers.sorted(Comparator.reverseOrder()).forEach(fichier -> fichier.toFile().delete());
+            } catch (IOException e) {
+                log.warn("Suppression du répertoire temporaire de l'annuaire impossible : {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Publie le nombre d'utilisateurs indexés, la durée des recherches et celle des reconstructions.
+     */
+    @Override
+    public void bindTo(MeterRegistry registre) {
+        Gauge.builder("annuaire.documents", writer, w -> w.isOpen() ? w.getDocStats().numDocs : 0)
+                .description("Utilisateurs présents dans l'index de l'annuaire")
+                .register(registre);
+        dureeRecherche = Timer.builder("annuaire.recherche")
+                .description("Durée d'une recherche dans l'annuaire")
+                .register(registre);
+        dureeReconstruction = Timer.builder("annuaire.reconstruction.duree")
+                .description("Durée d'une reconstruction de l'index de l'annuaire depuis la base")
+                .register(registre);
+    }
+}
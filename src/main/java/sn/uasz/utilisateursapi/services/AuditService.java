@@ -0,0 +1,42 @@
+package sn.uasz.utilisateursapi.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sn.uasz.utilisateursapi.dtos.EntreeAuditDTO;
+import sn.uasz.utilisateursapi.dtos.PageCurseurDTO;
+import sn.uasz.utilisateursapi.entities.EntreeAudit;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.repositories.EntreeAuditRepository;
+import sn.uasz.utilisateursapi.utils.PaginationKeyset;
+
+/**
+ * Consultation du journal d'audit, écrit en arrière-plan par {@link JournalAudit}.
+ * Un changement apparaît dans le journal quelques centaines de millisecondes après sa validation.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuditService {
+
+    private final EntreeAuditRepository entreeAuditRepository;
+
+    /**
+     * Retourne une page de l'historique d'une entité ou d'un type d'entité, du plus récent au plus
+     * ancien, par pagination keyset.
+     *
+     * @param entite  type d'entité
+     * @param id      identifiant de l'entité, ou null pour tout le type
+     * @param curseur curseur opaque de la page précédente, ou null pour la première page
+     * @param taille  taille de page souhaitée (bornée par {@link PaginationKeyset#TAILLE_MAX})
+     * @return la page d'entrées et le curseur de la page suivante
+     */
+    @Transactional(readOnly = true)
+    public PageCurseurDTO<EntreeAuditDTO> lister(TypeAgregat entite, Long id, String curseur, Integer taille) {
+        return PaginationKeyset.page(id == null
+                        ? entreeAuditRepository.findByEntiteOrderByIdDesc(entite,
+                                PaginationKeyset.position(curseur), PaginationKeyset.limite(taille))
+                        : entreeAuditRepository.findByEntiteAndIdEntiteOrderByIdDesc(entite, id,
+                                PaginationKeyset.position(curseur), PaginationKeyset.limite(taille)),
+                EntreeAuditDTO::depuis, EntreeAudit::getId);
+    }
+}
@@ -0,0 +1,46 @@
+package sn.uasz.utilisateursapi.services;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import sn.uasz.utilisateursapi.entities.Enseignant;
+import sn.uasz.utilisateursapi.entities.Etudiant;
+import sn.uasz.utilisateursapi.entities.Vacataire;
+import sn.uasz.utilisateursapi.utils.ClesRecherche;
+import sn.uasz.utilisateursapi.utils.PhonetiqueFrancaise;
+
+/**
+ * Écouteur JPA qui tient à jour les clés de recherche normalisées (nom, prénom, email) et les
+ * clés phonétiques (nom, prénom) de chaque entité avant son insertion ou sa mise à jour, quel que soit le chemin d'écriture. Les lignes
+ * écrites hors JPA sont complétées par {@link RattrapageClesRecherche}.
+ */
+public class ClesRechercheEcouteur {
+
+    /**
+     * Recalcule les clés de recherche d'une entité sur le point d'être écrite.
+     *
+     * @param entite entité écrite
+     */
+    @PrePersist
+    @PreUpdate
+    public void normaliser(Object entite) {
+        if (entite instanceof Enseignant enseignant) {
+            enseignant.setNomNormalise(ClesRecherche.normaliser(enseignant.getNom()));
+            enseignant.setPrenomNormalise(ClesRecherche.normaliser(enseignant.getPrenom()));
+            enseignant.setEmailNormalise(ClesRecherche.normaliser(enseignant.getEmail()));
+            enseignant.setNomPhonetique(PhonetiqueFrancaise.cle(enseignant.getNom()));
+            enseignant.setPrenomPhonetique(PhonetiqueFrancaise.cle(enseignant.getPrenom()));
+        } else if (entite instanceof Etudiant etudiant) {
+            etudiant.setNomNormalise(ClesRecherche.normaliser(etudiant.getNom()));
+            etudiant.setPrenomNormalise(ClesRecherche.normaliser(etudiant.getPrenom()));
+            etudiant.setEmailNormalise(ClesRecherche.normaliser(etudiant.getEmail()));
+            etudiant.setNomPhonetique(PhonetiqueFrancaise.cle(etudiant.getNom()));
+            etudiant.setPrenomPhonetique(PhonetiqueFrancaise.cle(etudiant.getPrenom()));
+        } else if (entite instanceof Vacataire vacataire) {
+            vacataire.setNomNormalise(ClesRecherche.normaliser(vacataire.getNom()));
+            vacataire.setPrenomNormalise(ClesRecherche.normaliser(vacataire.getPrenom()));
+            vacataire.setEmailNormalise(ClesRecherche.normaliser(vacataire.getEmail()));
+            vacataire.setNomPhonetique(PhonetiqueFrancaise.cle(vacataire.getNom()));
+            vacataire.setPrenomPhonetique(PhonetiqueFrancaise.cle(vacataire.getPrenom()));
+        }
+    }
+}
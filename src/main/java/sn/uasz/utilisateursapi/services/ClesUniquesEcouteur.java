@@ -0,0 +1,53 @@
+package sn.uasz.utilisateursapi.services;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import sn.uasz.utilisateursapi.entities.Enseignant;
+import sn.uasz.utilisateursapi.entities.Etudiant;
+import sn.uasz.utilisateursapi.entities.Vacataire;
+import sn.uasz.utilisateursapi.enums.CleUnique;
+
+/**
+ * Écouteur JPA qui reporte dans {@link RegistreClesUniques} les clés uniques de chaque entité
+ * insérée ou mise à jour, quel que soit le chemin d'écriture (services, import en masse,
+ * initialisation des données).
+ *
+ * <p>Le registre est résolu à la demande : il dépend des repositories, eux-mêmes construits
+ * après cet écouteur par Hibernate.</p>
+ */
+@Component
+public class ClesUniquesEcouteur {
+
+    private final ObjectProvider<RegistreClesUniques> registre;
+
+    /**
+     * Constructeur avec injection de dépendances.
+     */
+    public ClesUniquesEcouteur(ObjectProvider<RegistreClesUniques> registre) {
+        this.registre = registre;
+    }
+
+    /**
+     * Enregistre les clés uniques d'une entité qui vient d'être insérée ou modifiée.
+     *
+     * @param entite entité écrite
+     */
+    @PostPersist
+    @PostUpdate
+    public void enregistrer(Object entite) {
+        RegistreClesUniques cles = registre.getIfAvailable();
+        if (cles == null) {
+            return;
+        }
+        if (entite instanceof Enseignant enseignant) {
+            cles.enregistrer(CleUnique.ENSEIGNANT_EMAIL, enseignant.getEmail());
+        } else if (entite instanceof Etudiant etudiant) {
+            cles.enregistrer(CleUnique.ETUDIANT_MATRICULE, etudiant.getMatricule());
+            cles.enregistrer(CleUnique.ETUDIANT_EMAIL, etudiant.getEmail());
+        } else if (entite instanceof Vacataire vacataire) {
+            cles.enregistrer(CleUnique.VACATAIRE_EMAIL, vacataire.getEmail());
+        }
+    }
+}
@@ -0,0 +1,496 @@
+package sn.uasz.utilisateursapi.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.uasz.utilisateursapi.dtos.DoublonDTO;
+import sn.uasz.utilisateursapi.dtos.FichePersonneDTO;
+import sn.uasz.utilisateursapi.dtos.RapportDoublonsDTO;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.exceptions.ConflitEtatException;
+import sn.uasz.utilisateursapi.repositories.EnseignantRepository;
+import sn.uasz.utilisateursapi.repositories.EtudiantRepository;
+import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+import sn.uasz.utilisateursapi.utils.SimilaritePersonnes;
+import sn.uasz.utilisateursapi.utils.SimilaritePersonnes.Profil;
+import sn.uasz.utilisateursapi.utils.TriExterne;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Détection des doublons de personnes, tous types d'utilisateurs confondus : même personne saisie
+ * deux fois sous des graphies voisines, ou à la fois vacataire et enseignant.
+ *
+ * <p>Comparer toutes les paires est hors de portée (5·10<sup>11</sup> paires pour un million de
+ * fiches) : la détection procède par blocage. Chaque fiche lue en base produit une ligne par clé
+ * de blocage ({@link Profil#clesBlocage()}) ; les lignes sont triées par clé en mémoire bornée
+ * ({@link TriExterne}), ce qui regroupe les fiches de chaque bloc. Les blocs sont comparés en
+ * parallèle sur un {@link ForkJoinPool} ({@code doublons.parallelisme}), le nombre de blocs en
+ * attente étant borné : la mémoire occupée ne dépend pas du nombre de fiches.</p>
+ *
+ * <p>Dans un bloc, les fiches sont triées par nom et prénom ; un bloc plus grand que la fenêtre
+ * ({@code doublons.fenetre}) n'est pas comparé deux à deux, chaque fiche l'est avec ses voisines
+ * dans la fenêtre (voisinage trié). Une paire présente dans plusieurs blocs n'est retenue que dans
+ * celui de sa plus petite clé commune. Les paires dont le score ({@link SimilaritePersonnes})
+ * atteint le seuil sont classées par score décroissant ; les {@code doublons.rapport.taille-max}
+ * premières sont écrites dans le rapport NDJSON ({@code doublons.rapport.fichier}), remplacé
+ * d'un coup à la fin de la détection.</p>
+ */
+@Slf4j
+@Component
+public class DetectionDoublons {
+
+    /** Séparateur des champs d'une ligne triée ; les clés n'en contiennent pas et il précède tout caractère imprimable. */
+    private static final char SEPARATEUR = '\u001f';
+    private static final char SEPARATEUR_CLES = '\u001e';
+    private static final Pattern SEPARATEURS_INTERDITS = Pattern.compile("[\\u001e\\u001f\\r\\n]");
+    private static final Pattern CHAMPS = Pattern.compile(String.valueOf(SEPARATEUR));
+    private static final Pattern LISTE_CLES = Pattern.compile(String.valueOf(SEPARATEUR_CLES));
+
+    /** Nombre de fiches d'un bloc transmises à la fois aux ouvriers, en fenêtres de la taille configurée. */
+    private static final int FENETRES_PAR_SEGMENT = 8;
+    /** Nombre de fiches en dessous duquel un segment est comparé sans être redécoupé. */
+    private static final int SEUIL_DECOUPAGE = 64;
+    /** Nombre de segments en attente de comparaison, par ouvrier. */
+    private static final int SEGMENTS_EN_ATTENTE = 4;
+
+    private static final Comparator<FichePersonneDTO> ORDRE_FICHES = Comparator
+            .comparing(FichePersonneDTO::type)
+            .thenComparing(FichePersonneDTO::id);
+    private static final Comparator<DoublonDTO> ORDRE_RAPPORT = Comparator
+            .comparingDouble(DoublonDTO::score).reversed()
+            .thenComparing(DoublonDTO::premiere, ORDRE_FICHES)
+            .thenComparing(DoublonDTO::seconde, ORDRE_FICHES);
+
+    private final List<Source> sources;
+    private final TransactionTemplate lectureSeule;
+    private final ObjectWriter ecrivainJson;
+    private final int parallelisme;
+    private final int lignesEnMemoire;
+    private final int fenetre;
+    private final double seuil;
+    private final int tailleRapport;
+    private final Path fichierRapport;
+    private final Path repertoireTemporaire;
+    /** Une seule détection à la fois. */
+    private final ReentrantLock enCours = new ReentrantLock();
+
+    /**
+     * Table lue.
+     *
+     * @param type    type d'utilisateur
+     * @param lecture flux des tuples de la table
+     * @param fiche   conversion d'un tuple en fiche
+     */
+    private record Source(TypeAgregat type, Supplier<Stream<Object[]>> lecture,
+                          Function<Object[], FichePersonneDTO> fiche) {
+    }
+
+    /**
+     * Segment d'un bloc : fiches partageant une clé, dont les {@code premier} premières ont déjà
+     * été comparées entre elles dans le segment précédent.
+     */
+    private record Segment(String cle, List<String> lignes, int premier) {
+    }
+
+    /**
+     * État partagé d'une détection.
+     */
+    private final class Detection {
+        private final ForkJoinPool ouvriers = new ForkJoinPool(parallelisme);
+        private final Semaphore segmentsEnAttente = new Semaphore(parallelisme * SEGMENTS_EN_ATTENTE);
+        private final AtomicReference<RuntimeException> echec = new AtomicReference<>();
+        private final LongAdder comparaisons = new LongAdder();
+        private final LongAdder doublons = new LongAdder();
+        private final PriorityQueue<DoublonDTO> meilleurs = new PriorityQueue<>(ORDRE_RAPPORT.reversed());
+        private long blocs;
+        private long blocsFenetres;
+
+        /**
+         * Compare un segment sur les ouvriers, après avoir attendu une place parmi les segments en attente.
+         */
+        private void soumettre(Segment segment) {
+            try {
+                segmentsEnAttente.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Détection des doublons interrompue", e);
+            }
+            ouvriers.execute(() -> {
+                try {
+                    Profil[] profils = new Profil[segment.lignes().size()];
+                    String[][] cles = new String[profils.length][];
+                    for (int i = 0; i < profils.length; i++) {
+                        String[] champs = CHAMPS.split(segment.lignes().get(i), -1);
+                        profils[i] = profil(champs);
+                        cles[i] = LISTE_CLES.split(champs[15]);
+                    }
+                    new Comparaison(this, segment.cle(), profils, cles, Math.max(1, segment.premier()), profils.length)
+                            .invoke();
+                } catch (RuntimeException e) {
+                    echec.compareAndSet(null, e);
+                } finally {
+                    segmentsEnAttente.release();
+                }
+            });
+        }
+
+        /**
+         * Attend la fin des comparaisons soumises.
+         */
+        private void attendre() {
+            int places = parallelisme * SEGMENTS_EN_ATTENTE;
+            try {
+                segmentsEnAttente.acquire(places);
+                segmentsEnAttente.release(places);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Détection des doublons interrompue", e);
+            } finally {
+                ouvriers.shutdownNow();
+            }
+            if (echec.get() != null) {
+                throw echec.get();
+            }
+        }
+
+        private void retenir(DoublonDTO doublon) {
+            doublons.increment();
+            synchronized (meilleurs) {
+                if (meilleurs.size() < tailleRapport) {
+                    meilleurs.add(doublon);
+                } else if (ORDRE_RAPPORT.compare(doublon, meilleurs.peek()) < 0) {
+                    meilleurs.poll();
+                    meilleurs.add(doublon);
+                }
+            }
+        }
+    }
+
+    /**
+     * Comparaison des fiches {@code [debut, fin)} d'un segment avec leurs voisines qui les
+     * précèdent dans la fenêtre ; découpée en sous-tâches tant qu'elle est grande.
+     */
+    private final class Comparaison extends RecursiveAction {
+        private final Detection detection;
+        private final String cle;
+        private final Profil[] profils;
+        private final String[][] cles;
+        private final int debut;
+        private final int fin;
+
+        private Comparaison(Detection detection, String cle, Profil[] profils, String[][] cles, int debut, int fin) {
+            this.detection = detection;
+            this.cle = cle;
+            this.profils = profils;
+            this.cles = cles;
+            this.debut = debut;
+            this.fin = fin;
+        }
+
+        @Override
+        protected void compute() {
+            if (fin - debut > SEUIL_DECOUPAGE) {
+                int milieu = (debut + fin) >>> 1;
+                invokeAll(new Comparaison(detection, cle, profils, cles, debut, milieu),
+                        new Comparaison(detection, cle, profils, cles, milieu, fin));
+                return;
+            }
+            long comparees = 0;
+            for (int i = debut; i < fin; i++) {
+                for (int j = Math.max(0, i - fenetre + 1); j < i; j++) {
+                    if (!cle.equals(premiereCleCommune(cles[i], cles[j]))) {
+                        continue;
+                    }
+                    comparees++;
+                    SimilaritePersonnes.Resultat resultat = SimilaritePersonnes.comparer(profils[j], profils[i]);
+                    if (resultat.score() >= seuil) {
+                        detection.retenir(doublon(profils[j].fiche(), profils[i].fiche(), resultat));
+                    }
+                }
+            }
+            detection.comparaisons.add(comparees);
+        }
+    }
+
+    /**
+     * Constructeur avec injection de dépendances.
+     */
+    public DetectionDoublons(EnseignantRepository enseignantRepository,
+                             EtudiantRepository etudiantRepository,
+                             VacataireRepository vacataireRepository,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             @Value("${doublons.parallelisme:4}") int parallelisme,
+                             @Value("${doublons.lignes-en-memoire:200000}") int lignesEnMemoire,
+                             @Value("${doublons.fenetre:100}") int fenetre,
+                             @Value("${doublons.seuil:0.85}") double seuil,
+                             @Value("${doublons.rapport.taille-max:10000}") int tailleRapport,
+                             @Value("${doublons.rapport.fichier:${java.io.tmpdir}/utilisateurs-api-doublons.ndjson}") Path fichierRapport,
+                             @Value("${doublons.repertoire-temporaire:${java.io.tmpdir}}") Path repertoireTemporaire) {
+        this.sources = List.of(
+                new Source(TypeAgregat.ENSEIGNANT, enseignantRepository::streamPourDoublons,
+                        ligne -> fiche(TypeAgregat.ENSEIGNANT, ligne, (String) ligne[4], null)),
+                new Source(TypeAgregat.ETUDIANT, etudiantRepository::streamPourDoublons,
+                        ligne -> fiche(TypeAgregat.ETUDIANT, ligne, null, (LocalDate) ligne[4])),
+                new Source(TypeAgregat.VACATAIRE, vacataireRepository::streamPourDoublons,
+                        ligne -> fiche(TypeAgregat.VACATAIRE, ligne, (String) ligne[4], null)));
+        this.lectureSeule = new TransactionTemplate(transactionManager);
+        this.lectureSeule.setReadOnly(true);
+        this.ecrivainJson = objectMapper.writer();
+        this.parallelisme = Math.max(1, parallelisme);
+        this.lignesEnMemoire = Math.max(1, lignesEnMemoire);
+        this.fenetre = Math.max(2, fenetre);
+        this.seuil = seuil;
+        this.tailleRapport = Math.max(1, tailleRapport);
+        this.fichierRapport = fichierRapport;
+        this.repertoireTemporaire = repertoireTemporaire;
+    }
+
+    /**
+     * Détecte les doublons parmi toutes les personnes et remplace le rapport.
+     *
+     * @return le bilan de la détection
+     * @throws ConflitEtatException si une détection est déjà en cours
+     */
+    public RapportDoublonsDTO detecter() {
+        if (!enCours.tryLock()) {
+            throw new ConflitEtatException("Une détection des doublons est déjà en cours");
+        }
+        try {
+            long debut = System.nanoTime();
+            Detection detection = new Detection();
+            long personnes;
+            try (TriExterne tri = new TriExterne(repertoireTemporaire, lignesEnMemoire)) {
+                personnes = lire(tri);
+                Regroupement regroupement = new Regroupement(detection);
+                try {
+                    tri.parcourir(regroupement);
+                    regroupement.terminer();
+                } finally {
+                    detection.attendre();
+                }
+            }
+            List<DoublonDTO> classes = new ArrayList<>(detection.meilleurs);
+            classes.sort(ORDRE_RAPPORT);
+            ecrireRapport(classes);
+            long dureeMs = (System.nanoTime() - debut) / 1_000_000;
+            log.info("Détection des doublons : {} fiche(s), {} bloc(s), {} comparaison(s), {} doublon(s) en {} ms",
+                    personnes, detection.blocs, detection.comparaisons.sum(), detection.doublons.sum(), dureeMs);
+            return new RapportDoublonsDTO(personnes, detection.blocs, detection.blocsFenetres,
+                    detection.comparaisons.sum(), detection.doublons.sum(), classes.size(), dureeMs,
+                    fichierRapport.toAbsolutePath().toString());
+        } finally {
+            enCours.unlock();
+        }
+    }
+
+    /**
+     * @return le fichier du dernier rapport écrit
+     */
+    public Path fichierRapport() {
+        return fichierRapport;
+    }
+
+    /**
+     * Lit toutes les fiches et ajoute au tri une ligne par clé de blocage.
+     */
+    private long lire(TriExterne tri) {
+        long[] personnes = {0};
+        lectureSeule.executeWithoutResult(statut -> {
+            for (Source source : sources) {
+                try (Stream<Object[]> lignes = source.lecture().get()) {
+                    lignes.forEach(ligne -> {
+                        Profil profil = Profil.de(source.fiche().apply(ligne));
+                        List<String> cles = profil.clesBlocage();
+                        String suite = suiteLigne(profil, cles);
+                        for (String cle : cles) {
+                            tri.ajouter(cle + SEPARATEUR + suite);
+                        }
+                        personnes[0]++;
+                    });
+                }
+            }
+        });
+        return personnes[0];
+    }
+
+    /**
+     * Regroupe les lignes triées par clé et soumet chaque bloc d'au moins deux fiches, par
+     * segments quand il dépasse plusieurs fenêtres.
+     */
+    private final class Regroupement implements Consumer<String> {
+        private final Detection detection;
+        private String cle;
+        private List<String> lignes = new ArrayList<>();
+        private int premier;
+        private boolean depasseFenetre;
+
+        private Regroupement(Detection detection) {
+            this.detection = detection;
+        }
+
+        @Override
+        public void accept(String ligne) {
+            String cleLigne = ligne.substring(0, ligne.indexOf(SEPARATEUR));
+            if (!cleLigne.equals(cle)) {
+                terminer();
+                cle = cleLigne;
+            }
+            lignes.add(ligne);
+            if (lignes.size() == fenetre + 1) {
+                depasseFenetre = true;
+            }
+            if (lignes.size() == fenetre * FENETRES_PAR_SEGMENT) {
+                detection.soumettre(new Segment(cle, lignes, premier));
+                // Les dernières fiches restent les voisines des suivantes
+                int voisines = fenetre - 1;
+                lignes = new ArrayList<>(lignes.subList(lignes.size() - voisines, lignes.size()));
+                premier = voisines;
+            }
+        }
+
+        private void terminer() {
+            if (lignes.size() > premier && lignes.size() >= 2) {
+                detection.soumettre(new Segment(cle, lignes, premier));
+            }
+            if (lignes.size() >= 2 || premier > 0) {
+                detection.blocs++;
+                if (depasseFenetre) {
+                    detection.blocsFenetres++;
+                }
+            }
+            lignes = new ArrayList<>();
+            premier = 0;
+            depasseFenetre = false;
+        }
+    }
+
+    private void ecrireRapport(List<DoublonDTO> classes) {
+        try {
+            Path dossier = fichierRapport.toAbsolutePath().getParent();
+            if (dossier != null) {
+                Files.createDirectories(dossier);
+            }
+            Path provisoire = Files.createTempFile(dossier, "doublons-", ".ndjson");
+            try (BufferedWriter ecrivain = Files.newBufferedWriter(provisoire, StandardCharsets.UTF_8)) {
+                for (DoublonDTO doublon : classes) {
+                    ecrivain.write(ecrivainJson.writeValueAsString(doublon));
+                    ecrivain.newLine();
+                }
+            }
+            Files.move(provisoire, fichierRapport, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static FichePersonneDTO fiche(TypeAgregat type, Object[] ligne, String telephone, LocalDate dateNaissance) {
+        return new FichePersonneDTO(type, (Long) ligne[0], (String) ligne[1], (String) ligne[2], (String) ligne[3],
+                telephone, dateNaissance);
+    }
+
+    /**
+     * Champs d'une ligne après la clé : ordre de tri dans le bloc (nom et prénom normalisés),
+     * fiche, valeurs comparées du profil et clés de blocage de la fiche.
+     */
+    private static String suiteLigne(Profil profil, List<String> cles) {
+        FichePersonneDTO fiche = profil.fiche();
+        StringBuilder ligne = new StringBuilder(256);
+        ajouterChamp(ligne, texte(profil.nom()) + ' ' + texte(profil.prenom()));
+        ajouterChamp(ligne, fiche.type().name());
+        ajouterChamp(ligne, String.valueOf(fiche.id()));
+        ajouterChamp(ligne, fiche.nom());
+        ajouterChamp(ligne, fiche.prenom());
+        ajouterChamp(ligne, fiche.email());
+        ajouterChamp(ligne, fiche.telephone());
+        ajouterChamp(ligne, fiche.dateNaissance() == null ? null : fiche.dateNaissance().toString());
+        ajouterChamp(ligne, profil.nom());
+        ajouterChamp(ligne, profil.prenom());
+        ajouterChamp(ligne, profil.nomPhonetique());
+        ajouterChamp(ligne, profil.prenomPhonetique());
+        ajouterChamp(ligne, profil.email());
+        ajouterChamp(ligne, profil.telephone());
+        ligne.append(String.join(String.valueOf(SEPARATEUR_CLES), cles));
+        return ligne.toString();
+    }
+
+    private static void ajouterChamp(StringBuilder ligne, String valeur) {
+        if (valeur != null) {
+            ligne.append(SEPARATEURS_INTERDITS.matcher(valeur).replaceAll(" "));
+        }
+        ligne.append(SEPARATEUR);
+    }
+
+    /**
+     * Relit le profil d'une ligne découpée ({@code champs[0]} est la clé, {@code champs[1]} l'ordre de tri).
+     */
+    private static Profil profil(String[] champs) {
+        FichePersonneDTO fiche = new FichePersonneDTO(TypeAgregat.valueOf(champs[2]), Long.valueOf(champs[3]),
+                valeur(champs[4]), valeur(champs[5]), valeur(champs[6]), valeur(champs[7]),
+                champs[8].isEmpty() ? null : LocalDate.parse(champs[8]));
+        return new Profil(fiche, valeur(champs[9]), valeur(champs[10]), valeur(champs[11]), valeur(champs[12]),
+                valeur(champs[13]), valeur(champs[14]));
+    }
+
+    private static String valeur(String champ) {
+        return champ.isEmpty() ? null : champ;
+    }
+
+    private static String texte(String valeur) {
+        return valeur == null ? "" : valeur;
+    }
+
+    /**
+     * Plus petite clé commune à deux listes triées de clés, ou null.
+     */
+    private static String premiereCleCommune(String[] a, String[] b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            int comparaison = a[i].compareTo(b[j]);
+            if (comparaison == 0) {
+                return a[i];
+            }
+            if (comparaison < 0) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return null;
+    }
+
+    private static DoublonDTO doublon(FichePersonneDTO a, FichePersonneDTO b, SimilaritePersonnes.Resultat resultat) {
+        double score = Math.round(resultat.score() * 1000) / 1000.0;
+        return ORDRE_FICHES.compare(a, b) <= 0
+                ? new DoublonDTO(score, a, b, resultat.criteres())
+                : new DoublonDTO(score, b, a, resultat.criteres());
+    }
+}
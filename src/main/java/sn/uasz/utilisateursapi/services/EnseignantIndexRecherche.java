@@ -0,0 +1,232 @@
+package sn.uasz.utilisateursapi.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.uasz.utilisateursapi.dtos.EnseignantDTO;
+import sn.uasz.utilisateursapi.entities.Enseignant;
+import sn.uasz.utilisateursapi.mappers.EnseignantMapper;
+import sn.uasz.utilisateursapi.repositories.EnseignantRepository;
+import sn.uasz.utilisateursapi.utils.ApresCommit;
+import sn.uasz.utilisateursapi.utils.ExportFlux;
+import sn.uasz.utilisateursapi.utils.IndexTrigrammes;
+import sn.uasz.utilisateursapi.utils.LectureParLot;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Index de recherche en mémoire des enseignants par nom et prénom.
+ *
+ * <p>L'index est construit au démarrage de l'application puis tenu à jour par
+ * {@link EnseignantService} à chaque création, modification ou suppression. Les mises à jour
+ * ne sont appliquées qu'après le commit de la transaction en cours, afin qu'un rollback ne
+ * laisse jamais l'index en avance sur la base. Elles sont indexées avec la version de
+ * l'enseignant : une mise à jour arrivée après une plus récente (commits concurrents, lecture
+ * du chargement initial) est ignorée.</p>
+ *
+ * <p>Tant que l'index est en cours de (re)construction, {@link #rechercher(String)} renvoie
+ * {@link Optional#empty()} et l'appelant doit interroger la base.</p>
+ *
+ * <p>La {@link #generation() génération} de l'index compte les modifications appliquées ; elle
+ * entre dans les validateurs HTTP des recherches, l'index n'étant à jour qu'après le commit.</p>
+ */
+@Component
+@Slf4j
+public class EnseignantIndexRecherche {
+
+    private final EnseignantRepository enseignantRepository;
+    private final EnseignantMapper enseignantMapper;
+    private final TransactionTemplate lectureSeule;
+    // Lecture après commit : la transaction d'origine est terminée, il en faut une nouvelle
+    private final TransactionTemplate relecture;
+    private final IndexTrigrammes<EnseignantDTO> index = new IndexTrigrammes<>();
+
+    // Identifiants modifiés pendant une reconstruction, relus une fois le chargement terminé
+    private final Set<Long> modifiesPendantReconstruction = new HashSet<>();
+
+    private volatile boolean pret;
+    private boolean enReconstruction;
+    // Incrémentée une fois chaque modification visible dans l'index
+    private final AtomicLong generation = new AtomicLong();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Constructeur avec injection de dépendances.
+     */
+    public EnseignantIndexRecherche(EnseignantRepository enseignantRepository,
+                                    EnseignantMapper enseignantMapper,
+                                    PlatformTransactionManager transactionManager) {
+        this.enseignantRepository = enseignantRepository;
+        this.enseignantMapper = enseignantMapper;
+        this.lectureSeule = new TransactionTemplate(transactionManager);
+        this.lectureSeule.setReadOnly(true);
+        this.relecture = new TransactionTemplate(transactionManager);
+        this.relecture.setReadOnly(true);
+        this.relecture.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Construit l'index une fois l'application démarrée.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialiser() {
+        reconstruire();
+    }
+
+    /**
+     * Recharge entièrement l'index depuis la base.
+     * Les recherches sont servies par la base pendant toute la durée du chargement.
+     */
+    public void reconstruire() {
+        synchronized (this) {
+            pret = false;
+            enReconstruction = true;
+            modifiesPendantReconstruction.clear();
+            index.vider();
+        }
+        long debut = System.nanoTime();
+        try {
+            lectureSeule.executeWithoutResult(statut -> {
+                try (Stream<Enseignant> flux = enseignantRepository.streamAll()) {
+                    ExportFlux.parcourir(flux, enseignantMapper::toDTO, this::indexer, entityManager);
+                }
+            });
+            rattraperModificationsConcurrentes();
+            generation.incrementAndGet();
+            log.info("Index de recherche des enseignants construit : {} entrées en {} ms",
+                    index.taille(), (System.nanoTime() - debut) / 1_000_000);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                enReconstruction = false;
+            }
+            log.error("Échec de la construction de l'index des enseignants, recherche servie par la base", e);
+        }
+    }
+
+    /**
+     * Recherche les enseignants dont le nom ou le prénom contient la chaîne donnée.
+     *
+     * @param requete sous-chaîne recherchée (casse ignorée)
+     * @return les enseignants trouvés, ou vide si l'index n'est pas disponible
+     */
+    public Optional<List<EnseignantDTO>> rechercher(String requete) {
+        if (!pret) {
+            return Optional.empty();
+        }
+        return Optional.of(index.rechercher(requete));
+    }
+
+    /**
+     * @return true si l'index est construit et sert les recherches
+     */
+    public boolean estPret() {
+        return pret;
+    }
+
+    /**
+     * @return le nombre de modifications appliquées à l'index, qui croît après chacune d'elles
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Ajoute ou met à jour un enseignant dans l'index, après le commit de la transaction courante.
+     *
+     * @param enseignantDTO état enregistré de l'enseignant
+     */
+    public void enregistrer(EnseignantDTO enseignantDTO) {
+        apresCommit(() -> {
+            noterModification(enseignantDTO.id());
+            indexer(enseignantDTO);
+        });
+    }
+
+    /**
+     * Retire un enseignant de l'index, après le commit de la transaction courante.
+     *
+     * @param id identifiant de l'enseignant supprimé
+     */
+    public void retirer(Long id) {
+        apresCommit(() -> {
+            noterModification(id);
+            index.retirer(id);
+        });
+    }
+
+    /**
+     * Relit depuis la base des enseignants modifiés hors entité (mise à jour en masse),
+     * après le commit de la transaction courante.
+     *
+     * @param ids identifiants des enseignants à relire
+     */
+    public void relire(Collection<Long> ids) {
+        List<Long> aRelire = List.copyOf(ids);
+        apresCommit(() -> {
+            aRelire.forEach(this::noterModification);
+            for (int debut = 0; debut < aRelire.size(); debut += LectureParLot.TAILLE_MAX) {
+                List<Long> paquet = aRelire.subList(debut, Math.min(debut + LectureParLot.TAILLE_MAX, aRelire.size()));
+                relecture.execute(statut -> enseignantRepository.findByIdIn(paquet).stream()
+                                .map(enseignantMapper::toDTO)
+                                .toList())
+                        .forEach(this::indexer);
+            }
+        });
+    }
+
+    private void indexer(EnseignantDTO dto) {
+        index.indexer(dto.id(), dto.version() == null ? 0 : dto.version(), dto, dto.nom(), dto.prenom());
+    }
+
+    private synchronized void noterModification(Long id) {
+        if (enReconstruction) {
+            modifiesPendantReconstruction.add(id);
+        }
+    }
+
+    /**
+     * Relit les enseignants modifiés pendant le chargement : le flux a pu lire
+     * une version antérieure à celle indexée par la mise à jour concurrente.
+     */
+    private void rattraperModificationsConcurrentes() {
+        while (true) {
+            Set<Long> aRelire;
+            synchronized (this) {
+                if (modifiesPendantReconstruction.isEmpty()) {
+                    enReconstruction = false;
+                    pret = true;
+                    return;
+                }
+                aRelire = new HashSet<>(modifiesPendantReconstruction);
+                modifiesPendantReconstruction.clear();
+            }
+            List<EnseignantDTO> relus = lectureSeule.execute(statut ->
+                    enseignantRepository.findAllById(aRelire).stream().map(enseignantMapper::toDTO).toList());
+            // Les versions écartent d'elles-mêmes les lectures périmées ; restent les suppressions
+            relus.forEach(dto -> aRelire.remove(dto.id()));
+            aRelire.forEach(index::retirer);
+            relus.forEach(this::indexer);
+        }
+    }
+
+    private void apresCommit(Runnable action) {
+        ApresCommit.executer(() -> {
+            action.run();
+            generation.incrementAndGet();
+        });
+    }
+}
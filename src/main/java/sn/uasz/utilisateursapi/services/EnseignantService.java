@@ -1,19 +1,53 @@
 package sn.uasz.utilisateursapi.services;
 
-import lombok.AllArgsConstructor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import sn.uasz.utilisateursapi.dtos.EnseignantDTO;
+import sn.uasz.utilisateursapi.dtos.LotResultatDTO;
+import sn.uasz.utilisateursapi.dtos.PageCurseurDTO;
+import sn.uasz.utilisateursapi.dtos.ResultatMasseDTO;
+import sn.uasz.utilisateursapi.dtos.SelectionMasseDTO;
+import sn.uasz.utilisateursapi.dtos.ValidateurDTO;
 import sn.uasz.utilisateursapi.entities.Enseignant;
+import sn.uasz.utilisateursapi.entities.Role;
+import sn.uasz.utilisateursapi.enums.CleUnique;
+import sn.uasz.utilisateursapi.enums.ModeRecherche;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.enums.TypeEvenement;
+import sn.uasz.utilisateursapi.enums.TypeMatricule;
 import sn.uasz.utilisateursapi.exceptions.ConflitEtatException;
 import sn.uasz.utilisateursapi.exceptions.EnseignantException;
 import sn.uasz.utilisateursapi.exceptions.EnseignantNotFoundException;
+import sn.uasz.utilisateursapi.exceptions.LotInvalideException;
+import sn.uasz.utilisateursapi.exceptions.VersionObsoleteException;
 import sn.uasz.utilisateursapi.mappers.EnseignantMapper;
 import sn.uasz.utilisateursapi.repositories.EnseignantRepository;
+import sn.uasz.utilisateursapi.repositories.RoleRepository;
+import sn.uasz.utilisateursapi.utils.ChampsProjection;
+import sn.uasz.utilisateursapi.utils.ClesRecherche;
+import sn.uasz.utilisateursapi.utils.ExportFlux;
+import sn.uasz.utilisateursapi.utils.LectureParLot;
+import sn.uasz.utilisateursapi.utils.PaginationKeyset;
+import sn.uasz.utilisateursapi.utils.PhonetiqueFrancaise;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service métier central pour la gestion des enseignants.
@@ -24,16 +58,42 @@ import java.util.stream.Collectors;
  */
 @Service
 @Transactional
-@AllArgsConstructor
+@RequiredArgsConstructor
 @Slf4j
 public class EnseignantService {
 
     private final EnseignantRepository enseignantRepository;
     private final EnseignantMapper enseignantMapper;
+    private final EnseignantIndexRecherche indexRecherche;
+    private final ProjectionService projectionService;
+    private final LectureKeyset lectureKeyset;
+    private final RegistreClesUniques registreClesUniques;
+    private final AllocateurMatricules allocateurMatricules;
+    private final RoleRepository roleRepository;
+    private final JournalSuppressions journalSuppressions;
+    private final OutboxService outboxService;
+    private final JournalAudit journalAudit;
+    private final StatistiquesService statistiques;
+    private final AnnuaireIndexRecherche annuaire;
+    private final IndexAutocompletion autocompletion;
+
+    /** Champs projetables via le paramètre {@code fields} des requêtes GET. */
+    public static final List<String> CHAMPS_PROJETABLES = List.of(
+            "id", "nom", "prenom", "email", "telephone", "matricule", "grade", "createBy", "createAt", "actif");
+
+    /** Ordre des résultats des recherches par clé normalisée. */
+    private static final Comparator<Enseignant> ORDRE_CLES = Comparator
+            .comparing(Enseignant::getNomNormalise, Comparator.nullsLast(Comparator.<String>naturalOrder()))
+            .thenComparing(Enseignant::getPrenomNormalise, Comparator.nullsLast(Comparator.<String>naturalOrder()))
+            .thenComparing(Enseignant::getId);
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     /**
      * Ajoute un nouvel enseignant dans le système.
-     * Vérifie l’unicité de l’email avant insertion.
+     * Vérifie l’unicité de l’email avant insertion (sans requête si le filtre de Bloom écarte l’email).
+     * Un matricule laissé vide est attribué par le serveur.
      *
      * @param enseignantDTO données du nouvel enseignant
      * @return l'enseignant créé, converti en DTO
@@ -42,13 +102,49 @@ public class EnseignantService {
     public EnseignantDTO ajouterEnseignant(EnseignantDTO enseignantDTO) {
         log.info("Ajout d'un nouvel enseignant: {}", enseignantDTO);
 
-        if (enseignantRepository.existsByEmail(enseignantDTO.email())) {
+        if (registreClesUniques.peutExister(CleUnique.ENSEIGNANT_EMAIL, enseignantDTO.email())
+                && enseignantRepository.existsByEmail(enseignantDTO.email())) {
             throw new EnseignantException("Email déjà utilisé : " + enseignantDTO.email());
         }
 
-        Enseignant enseignant = enseignantMapper.toEntity(enseignantDTO);
+        Enseignant enseignant = attribuerMatricule(enseignantMapper.toEntity(enseignantDTO));
         Enseignant savedEnseignant = enseignantRepository.save(enseignant);
-        return enseignantMapper.toDTO(savedEnseignant);
+        return indexer(publier(enseignantMapper.toDTO(savedEnseignant), TypeEvenement.CREATION));
+    }
+
+    /**
+     * Ajoute un lot d'enseignants en une seule transaction.
+     * L'unicité des emails est vérifiée pour tout le lot (en base, uniquement pour les emails
+     * que le filtre de Bloom ne peut pas écarter),
+     * puis les insertions sont envoyées par lots JDBC. Les matricules laissés vides sont attribués par le serveur.
+     *
+     * @param enseignantDTOs données des nouveaux enseignants
+     * @return les enseignants créés, convertis en DTO
+     * @throws EnseignantException si un email est en double dans le lot ou déjà utilisé
+     */
+    public List<EnseignantDTO> ajouterEnseignants(List<EnseignantDTO> enseignantDTOs) {
+        log.info("Ajout groupé de {} enseignants", enseignantDTOs.size());
+
+        Set<String> emails = new HashSet<>();
+        for (EnseignantDTO dto : enseignantDTOs) {
+            if (!emails.add(dto.email())) {
+                throw new EnseignantException("Email en double dans le lot : " + dto.email());
+            }
+        }
+        List<String> emailsExistants = registreClesUniques.existantes(CleUnique.ENSEIGNANT_EMAIL, emails);
+        if (!emailsExistants.isEmpty()) {
+            throw new EnseignantException("Emails déjà utilisés : " + emailsExistants);
+        }
+
+        List<Enseignant> enseignants = enseignantDTOs.stream()
+                .map(enseignantMapper::toEntity)
+                .map(this::attribuerMatricule)
+                .toList();
+        return enseignantRepository.saveAll(enseignants)
+                .stream()
+                .map(enseignantMapper::toDTO)
+                .map(dto -> indexer(publier(dto, TypeEvenement.CREATION)))
+                .toList();
     }
 
     /**
@@ -56,6 +152,7 @@ public class EnseignantService {
      *
      * @return liste des enseignants au format DTO
      */
+    @Transactional(readOnly = true)
     public List<EnseignantDTO> listerTousEnseignants() {
         log.info("Récupération de tous les enseignants");
         return enseignantRepository.findAll()
@@ -64,6 +161,51 @@ public class EnseignantService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Retourne une page d'enseignants triés par nom, par pagination keyset.
+     *
+     * @param curseur curseur opaque de la page précédente, ou null pour la première page
+     * @param taille  taille de page souhaitée (bornée par {@link PaginationKeyset#TAILLE_MAX})
+     * @return la page d'enseignants et le curseur de la page suivante
+     */
+    @Transactional(readOnly = true)
+    public PageCurseurDTO<EnseignantDTO> listerEnseignantsParPage(String curseur, Integer taille) {
+        log.info("Récupération d'une page d'enseignants (taille demandée : {})", taille);
+        Limit limite = PaginationKeyset.limite(taille);
+        return PaginationKeyset.page(
+                lectureKeyset.lire(Enseignant.class, "nom", PaginationKeyset.position(curseur, "nom"), limite, Map.of()),
+                limite, enseignantMapper::toDTO, Enseignant::getNom, Enseignant::getId);
+    }
+
+    /**
+     * Retourne une page d'enseignants réduite aux champs demandés, lue par projection
+     * (ni entité, ni rôles, ni mapper). Les curseurs sont ceux de la liste complète.
+     *
+     * @param curseur curseur opaque de la page précédente, ou null pour la première page
+     * @param taille  taille de page souhaitée
+     * @param fields  champs demandés, séparés par des virgules
+     * @return la page de projections et le curseur de la page suivante
+     */
+    @Transactional(readOnly = true)
+    public PageCurseurDTO<Map<String, Object>> listerEnseignantsParPage(String curseur, Integer taille, String fields) {
+        return projectionService.page(Enseignant.class, ChampsProjection.lire(fields, CHAMPS_PROJETABLES),
+                "nom", curseur, taille, Map.of());
+    }
+
+    /**
+     * Exporte tous les enseignants en flux, sans charger la table en mémoire.
+     *
+     * @param consommateur destination de chaque enseignant exporté
+     * @return nombre d'enseignants exportés
+     */
+    @Transactional(readOnly = true)
+    public long exporterEnseignants(Consumer<EnseignantDTO> consommateur) {
+        log.info("Export en flux de tous les enseignants");
+        try (Stream<Enseignant> flux = enseignantRepository.streamAll()) {
+            return ExportFlux.parcourir(flux, enseignantMapper::toDTO, consommateur, entityManager);
+        }
+    }
+
     /**
      * Retourne un enseignant par son identifiant.
      *
@@ -71,6 +213,7 @@ public class EnseignantService {
      * @return DTO de l’enseignant trouvé
      * @throws RuntimeException si non trouvé (❗améliorable avec une exception dédiée)
      */
+    @Transactional(readOnly = true)
     public EnseignantDTO obtenirEnseignantParId(Long id) {
         log.info("Récupération de l'enseignant avec ID: {}", id);
         return enseignantRepository.findById(id)
@@ -79,45 +222,236 @@ public class EnseignantService {
     }
 
     /**
-     * Met à jour un enseignant existant à partir d’un DTO.
+     * Retourne uniquement les champs demandés d'un enseignant, lus par projection.
      *
-     * @param id identifiant de l’enseignant à modifier
-     * @param enseignantDTO données mises à jour
+     * @param id     identifiant de l’enseignant
+     * @param fields champs demandés, séparés par des virgules
+     * @return valeurs des champs demandés
+     * @throws EnseignantNotFoundException si non trouvé
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> obtenirEnseignantParId(Long id, String fields) {
+        return projectionService.parId(Enseignant.class, ChampsProjection.lire(fields, CHAMPS_PROJETABLES), id, Map.of())
+                .orElseThrow(() -> new EnseignantNotFoundException("Enseignant non trouvé"));
+    }
+
+    /**
+     * Retourne la version et la date de modification d'un enseignant, lues sans charger l'entité.
+     * Les rôles embarqués n'y participent pas : ce sont des données de référence.
+     *
+     * @param id identifiant de l’enseignant
+     * @return validateurs de l’enseignant, ou vide s'il n'existe pas
+     */
+    @Transactional(readOnly = true)
+    public Optional<ValidateurDTO> validateur(Long id) {
+        return enseignantRepository.trouverValidateur(id);
+    }
+
+    /**
+     * Calcule les validateurs de la liste des enseignants par agrégat, sans charger d'entité.
+     * Ils changent dès qu'un enseignant ou un rôle est créé, modifié ou supprimé.
+     *
+     * @return validateurs de la collection
+     */
+    @Transactional(readOnly = true)
+    public ValidateurDTO validateurListe() {
+        return enseignantRepository.calculerValidateur()
+                .combiner(roleRepository.calculerValidateur())
+                .modifieLe(journalSuppressions.derniereSuppression(Enseignant.class))
+                .modifieLe(journalSuppressions.derniereSuppression(Role.class));
+    }
+
+    /**
+     * Calcule les validateurs des recherches par nom. Servies par l'index en mémoire, mis à jour
+     * juste après le commit, elles dépendent aussi de la génération de l'index.
+     *
+     * @return validateurs des résultats de recherche
+     */
+    @Transactional(readOnly = true)
+    public ValidateurDTO validateurRecherche() {
+        return validateurListe().combiner(new ValidateurDTO(0, indexRecherche.generation(), null));
+    }
+
+    /**
+     * Lit plusieurs enseignants en une seule requête {@code IN}.
+     * Les identifiants inconnus sont signalés dans le résultat au lieu de lever une exception.
+     *
+     * @param ids identifiants demandés (au plus {@value LectureParLot#TAILLE_MAX})
+     * @return les enseignants trouvés, dans l'ordre de la requête, et les identifiants manquants
+     */
+    @Transactional(readOnly = true)
+    public LotResultatDTO<EnseignantDTO> obtenirEnseignantsParIds(List<Long> ids) {
+        List<Long> demandes = LectureParLot.identifiants(ids);
+        if (demandes.isEmpty()) {
+            return new LotResultatDTO<>(List.of(), List.of());
+        }
+        return LectureParLot.assembler(demandes, enseignantRepository.findByIdIn(demandes),
+                Enseignant::getId, enseignantMapper::toDTO);
+    }
+
+    /**
+     * Met à jour un enseignant existant à partir d’un DTO. L’entité est chargée et sa version
+     * comparée à celle attendue ; les nouvelles valeurs sont écrites à la fin par une mise à jour
+     * conditionnée par {@code @Version}, qui déclenche les écouteurs de l’entité (clés de
+     * recherche, clés uniques). L’état actif n’est modifié que s’il est renseigné.
+     *
+     * @param id              identifiant de l’enseignant à modifier
+     * @param enseignantDTO   données mises à jour
+     * @param versionAttendue version lue par le client ({@code If-Match}), ou null pour une modification inconditionnelle
      * @return DTO de l’enseignant modifié
-     * @throws RuntimeException si l’enseignant n’existe pas
+     * @throws EnseignantNotFoundException si l’enseignant n’existe pas
+     * @throws VersionObsoleteException si l’enseignant a été modifié depuis la version attendue
+     * @throws ConflitEtatException si l’enseignant a été modifié par une autre transaction pendant une modification inconditionnelle
      */
-    public EnseignantDTO modifierEnseignant(Long id, EnseignantDTO enseignantDTO) {
+    public EnseignantDTO modifierEnseignant(Long id, EnseignantDTO enseignantDTO, Long versionAttendue) {
         log.info("Modification de l'enseignant avec ID: {}", id);
-        Enseignant existingEnseignant = enseignantRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Enseignant non trouvé"));
+        Enseignant enseignant = enseignantRepository.findById(id)
+                .orElseThrow(() -> new EnseignantNotFoundException("Enseignant non trouvé"));
+        if (versionAttendue != null && enseignant.getVersion() != versionAttendue) {
+            throw new VersionObsoleteException("L'enseignant " + id + " a été modifié depuis la version " + versionAttendue);
+        }
+        Enseignant valeurs = enseignantMapper.toEntity(enseignantDTO);
+        enseignant.setNom(valeurs.getNom());
+        enseignant.setPrenom(valeurs.getPrenom());
+        enseignant.setEmail(valeurs.getEmail());
+        enseignant.setTelephone(valeurs.getTelephone());
+        enseignant.setMatricule(valeurs.getMatricule());
+        enseignant.setGrade(valeurs.getGrade());
+        enseignant.setCreateBy(valeurs.getCreateBy());
+        enseignant.setCreateAt(valeurs.getCreateAt());
+        if (enseignantDTO.actif() != null) {
+            enseignant.setActif(enseignantDTO.actif());
+        }
+        if (!memesRoles(enseignant.getRoles(), enseignantDTO.roles())) {
+            enseignant.setRoles(enseignantDTO.roles() == null ? new ArrayList<>() : new ArrayList<>(enseignantDTO.roles()));
+        }
+        try {
+            // Écrire les changements pour renvoyer la version finale
+            enseignantRepository.flush();
+        } catch (OptimisticLockingFailureException e) {
+            if (versionAttendue != null) {
+                throw new VersionObsoleteException("L'enseignant " + id + " a été modifié depuis la version " + versionAttendue);
+            }
+            throw new ConflitEtatException("L'enseignant " + id + " a été modifié pendant la mise à jour");
+        }
+        return indexer(publier(enseignantMapper.toDTO(enseignant), TypeEvenement.MODIFICATION));
+    }
 
-        enseignantMapper.updateEnseignantFromDTO(enseignantDTO, existingEnseignant);
-        Enseignant updatedEnseignant = enseignantRepository.save(existingEnseignant);
-        return enseignantMapper.toDTO(updatedEnseignant);
+    /**
+     * Compare deux listes de rôles par identifiant, sans tenir compte de l'ordre.
+     */
+    private static boolean memesRoles(List<Role> actuels, List<Role> nouveaux) {
+        Set<Long> idsActuels = actuels == null ? Set.of()
+                : actuels.stream().map(Role::getId).collect(Collectors.toSet());
+        Set<Long> idsNouveaux = nouveaux == null ? Set.of()
+                : nouveaux.stream().map(Role::getId).collect(Collectors.toSet());
+        return idsActuels.equals(idsNouveaux);
     }
 
     /**
-     * Supprime un enseignant à partir de son ID.
+     * Supprime un enseignant à partir de son ID. Sans effet si l'enseignant n'existe pas.
      *
      * @param id identifiant de l’enseignant à supprimer
      */
     public void supprimerEnseignant(Long id) {
         log.info("Suppression de l'enseignant avec ID: {}", id);
-        enseignantRepository.deleteById(id);
+        enseignantRepository.findById(id).ifPresent(enseignant -> {
+            enseignantRepository.delete(enseignant);
+            publier(id, enseignant.getVersion(), TypeEvenement.SUPPRESSION, null);
+        });
+        indexRecherche.retirer(id);
     }
 
     /**
-     * Recherche les enseignants dont le nom contient une chaîne donnée.
+     * Recherche les enseignants dont le nom ou le prénom contient une chaîne donnée.
+     * La recherche est servie par l'index de trigrammes en mémoire ; la base n'est
+     * interrogée que pendant la construction de l'index.
      *
-     * @param nom chaîne à rechercher dans les noms
+     * @param nom chaîne à rechercher dans les noms et prénoms
      * @return liste des enseignants correspondants (DTOs)
      */
+    @Transactional(readOnly = true)
     public List<EnseignantDTO> rechercherEnseignantsParNom(String nom) {
-        log.info("Recherche d'enseignants avec nom contenant: {}", nom);
-        return enseignantRepository.findByNomContainingIgnoreCase(nom)
+        log.debug("Recherche d'enseignants avec nom contenant: {}", nom);
+        return indexRecherche.rechercher(nom)
+                .orElseGet(() -> enseignantRepository.findByNomContainingIgnoreCaseOrPrenomContainingIgnoreCase(nom, nom)
+                        .stream()
+                        .map(enseignantMapper::toDTO)
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * Recherche les enseignants par clé normalisée (sans accents ni casse) : nom, prénom ou email égal au
+     * texte ({@link ModeRecherche#EXACT}) ou commençant par lui ({@link ModeRecherche#PREFIXE}), ou nom
+     * ou prénom qui se prononce comme lui ({@link ModeRecherche#PHONETIQUE}).
+     * Chaque colonne est lue par un parcours d'index borné ; les résultats sont triés par nom,
+     * prénom puis identifiant.
+     *
+     * @param texte  texte recherché
+     * @param mode   mode de comparaison
+     * @param taille nombre maximal de résultats (borné côté serveur)
+     * @return les enseignants trouvés
+     */
+    @Transactional(readOnly = true)
+    public List<EnseignantDTO> rechercherEnseignantsParCle(String texte, ModeRecherche mode, Integer taille) {
+        String cle = mode == ModeRecherche.PHONETIQUE ? PhonetiqueFrancaise.cle(texte) : ClesRecherche.normaliser(texte);
+        if (cle == null || cle.isEmpty()) {
+            return List.of();
+        }
+        Limit limite = PaginationKeyset.limite(taille);
+        Stream<List<Enseignant>> resultats = switch (mode) {
+            case EXACT -> Stream.of(enseignantRepository.findByNomNormaliseOrderById(cle, limite),
+                    enseignantRepository.findByPrenomNormaliseOrderById(cle, limite),
+                    enseignantRepository.findByEmailNormaliseOrderById(cle, limite));
+            case PREFIXE -> {
+                String fin = ClesRecherche.finPrefixe(cle);
+                yield Stream.of(enseignantRepository.findParPrefixeNom(cle, fin, limite),
+                        enseignantRepository.findParPrefixePrenom(cle, fin, limite),
+                        enseignantRepository.findParPrefixeEmail(cle, fin, limite));
+            }
+            case PHONETIQUE -> Stream.of(enseignantRepository.findByNomPhonetiqueOrderById(cle, limite),
+                    enseignantRepository.findByPrenomPhonetiqueOrderById(cle, limite));
+        };
+        return ClesRecherche.fusionner(resultats.flatMap(List::stream), Enseignant::getId, ORDRE_CLES, limite.max())
                 .stream()
                 .map(enseignantMapper::toDTO)
-                .collect(Collectors.toList());
+                .toList();
+    }
+
+    /**
+     * Recherche par nom ou prénom, réduite aux champs demandés.
+     * Les résultats venant de l'index en mémoire, la réduction se fait sur les DTOs déjà construits.
+     *
+     * @param nom    chaîne à rechercher dans les noms et prénoms
+     * @param fields champs demandés, séparés par des virgules
+     * @return valeurs des champs demandés pour chaque enseignant trouvé
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> rechercherEnseignantsParNom(String nom, String fields) {
+        List<String> champs = ChampsProjection.lire(fields, CHAMPS_PROJETABLES);
+        return rechercherEnseignantsParNom(nom).stream()
+                .map(dto -> {
+                    Map<String, Object> valeurs = new LinkedHashMap<>();
+                    champs.forEach(champ -> valeurs.put(champ, valeurChamp(dto, champ)));
+                    return valeurs;
+                })
+                .toList();
+    }
+
+    private static Object valeurChamp(EnseignantDTO dto, String champ) {
+        return switch (champ) {
+            case "id" -> dto.id();
+            case "nom" -> dto.nom();
+            case "prenom" -> dto.prenom();
+            case "email" -> dto.email();
+            case "telephone" -> dto.telephone();
+            case "matricule" -> dto.matricule();
+            case "grade" -> dto.grade();
+            case "createBy" -> dto.createBy();
+            case "createAt" -> dto.createAt();
+            case "actif" -> dto.actif();
+            default -> throw new IllegalArgumentException("Champ non projetable : " + champ);
+        };
     }
 
     /**
@@ -129,15 +463,7 @@ public class EnseignantService {
      * @throws ConflitEtatException si déjà actif
      */
     public EnseignantDTO activerEnseignant(Long id) throws EnseignantNotFoundException {
-        Enseignant enseignant = enseignantRepository.findById(id)
-                .orElseThrow(() -> new EnseignantNotFoundException("Enseignant non trouvé"));
-
-        if (enseignant.isActif()) {
-            throw new ConflitEtatException("L'enseignant est déjà actif");
-        }
-
-        enseignant.setActif(true);
-        return enseignantMapper.toDTO(enseignantRepository.save(enseignant));
+        return changerEtat(id, true, "L'enseignant est déjà actif");
     }
 
     /**
@@ -149,20 +475,120 @@ public class EnseignantService {
      * @throws ConflitEtatException si déjà inactif
      */
     public EnseignantDTO desactiverEnseignant(Long id) throws EnseignantNotFoundException {
+        return changerEtat(id, false, "L'enseignant est déjà inactif");
+    }
+
+    /**
+     * Transition d'état par compare-and-set : un seul {@code UPDATE ... WHERE id = ? AND actif <> ?}.
+     * Sans ligne modifiée, une lecture d'existence distingue « introuvable » de « déjà dans cet état ».
+     * Deux transitions concurrentes vers le même état ne peuvent pas réussir toutes les deux.
+     */
+    private EnseignantDTO changerEtat(Long id, boolean actif, String dejaDansEtat) {
+        if (enseignantRepository.modifierActif(id, actif, LocalDateTime.now()) == 0) {
+            if (!enseignantRepository.existsById(id)) {
+                throw new EnseignantNotFoundException("Enseignant non trouvé");
+            }
+            throw new ConflitEtatException(dejaDansEtat);
+        }
         Enseignant enseignant = enseignantRepository.findById(id)
                 .orElseThrow(() -> new EnseignantNotFoundException("Enseignant non trouvé"));
+        return indexer(publier(enseignantMapper.toDTO(enseignant),
+                actif ? TypeEvenement.ACTIVATION : TypeEvenement.DESACTIVATION));
+    }
 
-        if (!enseignant.isActif()) {
-            throw new ConflitEtatException("L'enseignant est déjà inactif");
+    /**
+     * Active ou désactive en une seule requête {@code UPDATE} les enseignants sélectionnés
+     * par identifiants ou par grade, et renseigne leur date de modification. Les enseignants à
+     * modifier sont d'abord lus et verrouillés ; la mise à jour et la relecture pour l'outbox et
+     * l'index de recherche portent sur ces seuls identifiants, par paquets de
+     * {@value LectureParLot#TAILLE_MAX} : un événement par enseignant modifié, sans doublon.
+     *
+     * @param actif     état à appliquer
+     * @param selection identifiants (au plus {@value LectureParLot#TAILLE_MAX}) ou grade visés
+     * @return le nombre d'enseignants dont l'état a changé
+     * @throws LotInvalideException si la sélection est vide, ambiguë ou porte sur un filtre inconnu
+     */
+    public ResultatMasseDTO modifierActifEnMasse(boolean actif, SelectionMasseDTO selection) {
+        if (selection == null || selection.specialite() != null
+                || selection.parIdentifiants() == (selection.grade() != null)) {
+            throw new LotInvalideException("Indiquer soit une liste d'identifiants, soit un grade");
+        }
+        List<Long> aModifier = selection.parIdentifiants()
+                ? enseignantRepository.findIdsAModifierParIds(LectureParLot.identifiants(selection.ids()), actif)
+                : enseignantRepository.findIdsAModifierParGrade(selection.grade(), actif);
+        LocalDateTime maintenant = LocalDateTime.now();
+        TypeEvenement type = actif ? TypeEvenement.ACTIVATION : TypeEvenement.DESACTIVATION;
+        int modifies = 0;
+        for (int debut = 0; debut < aModifier.size(); debut += LectureParLot.TAILLE_MAX) {
+            List<Long> paquet = aModifier.subList(debut, Math.min(debut + LectureParLot.TAILLE_MAX, aModifier.size()));
+            modifies += enseignantRepository.modifierActifParIds(paquet, actif, maintenant);
+            enseignantRepository.findByIdIn(paquet).forEach(enseignant -> publier(enseignantMapper.toDTO(enseignant), type));
         }
+        log.info("{} enseignants {} en masse", modifies, actif ? "activés" : "désactivés");
+        if (!aModifier.isEmpty()) {
+            indexRecherche.relire(aModifier);
+        }
+        return new ResultatMasseDTO(actif, modifies);
+    }
 
-        enseignant.setActif(false);
-        return enseignantMapper.toDTO(enseignantRepository.save(enseignant));
+    /**
+     * Attribue un matricule de l'année universitaire en cours si l'enseignant n'en a pas.
+     *
+     * @param enseignant nouvel enseignant, avant insertion
+     * @return le même enseignant
+     */
+    private Enseignant attribuerMatricule(Enseignant enseignant) {
+        if (enseignant.getMatricule() == null || enseignant.getMatricule().isBlank()) {
+            enseignant.setMatricule(allocateurMatricules.allouer(TypeMatricule.ENSEIGNANT));
+        }
+        return enseignant;
+    }
+
+    /**
+     * Transmet l'état enregistré d'un enseignant à l'index de recherche.
+     *
+     * @param enseignantDTO enseignant enregistré
+     * @return le même DTO, pour chaîner avec le retour des méthodes d'écriture
+     */
+    private EnseignantDTO indexer(EnseignantDTO enseignantDTO) {
+        indexRecherche.enregistrer(enseignantDTO);
+        return enseignantDTO;
+    }
+
+    /**
+     * Publie l'état d'un enseignant après un changement (voir {@link #publier(Long, Long, TypeEvenement, EnseignantDTO)}).
+     *
+     * @param enseignantDTO enseignant enregistré
+     * @param type          nature du changement
+     * @return le même DTO, pour chaîner avec le retour des méthodes d'écriture
+     */
+    private EnseignantDTO publier(EnseignantDTO enseignantDTO, TypeEvenement type) {
+        publier(enseignantDTO.id(), enseignantDTO.version(), type, enseignantDTO);
+        return enseignantDTO;
+    }
+
+    /**
+     * Enregistre un changement d'enseignant dans l'outbox, dans la transaction en cours, et le déclare
+     * au journal d'audit, aux statistiques, à l'annuaire et à l'autocomplétion.
+     * Seul point de diffusion des changements : créations, modifications et suppressions y passent.
+     *
+     * @param id      identifiant de l'enseignant
+     * @param version version de l'enseignant après le changement
+     * @param type    nature du changement
+     * @param etat    état après le changement, ou null pour une suppression
+     */
+    private void publier(Long id, Long version, TypeEvenement type, EnseignantDTO etat) {
+        outboxService.enregistrer(TypeAgregat.ENSEIGNANT, id, version, type, etat == null ? Map.of("id", id) : etat);
+        journalAudit.enregistrer(TypeAgregat.ENSEIGNANT, id, version, type, etat);
+        statistiques.enregistrer(TypeAgregat.ENSEIGNANT, id, version, etat);
+        annuaire.enregistrer(TypeAgregat.ENSEIGNANT, id, version, etat);
+        autocompletion.enregistrer(TypeAgregat.ENSEIGNANT, id, version, etat);
     }
 
     /**
      * ⚠️ Duplication possible — à fusionner avec {@code listerTousEnseignants()}.
      */
+    @Transactional(readOnly = true)
     public List<EnseignantDTO> findAllEnseignants() {
         return enseignantRepository.findAll()
                 .stream()
@@ -173,6 +599,7 @@ public class EnseignantService {
     /**
      * ⚠️ Duplication possible — à fusionner avec {@code obtenirEnseignantParId()}.
      */
+    @Transactional(readOnly = true)
     public EnseignantDTO findEnseignantById(Long id) throws EnseignantNotFoundException {
         return enseignantRepository.findById(id)
                 .map(enseignantMapper::toDTO)
@@ -0,0 +1,348 @@
+package sn.uasz.utilisateursapi.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.uasz.utilisateursapi.dtos.EtudiantDTO;
+import sn.uasz.utilisateursapi.dtos.LigneImportDTO;
+import sn.uasz.utilisateursapi.dtos.RapportImportDTO;
+import sn.uasz.utilisateursapi.entities.Etudiant;
+import sn.uasz.utilisateursapi.enums.CleUnique;
+import sn.uasz.utilisateursapi.enums.TypeEvenement;
+import sn.uasz.utilisateursapi.exceptions.EtudiantException;
+import sn.uasz.utilisateursapi.repositories.EtudiantRepository;
+import sn.uasz.utilisateursapi.utils.LecteurCsv;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Service d'import en masse des étudiants (semaine des inscriptions).
+ *
+ * <p>Un import se déroule en quatre étapes :</p>
+ * <ol>
+ *     <li>validation de toutes les lignes en parallèle (Bean Validation + champs obligatoires) ;</li>
+ *     <li>contrôle des matricules en double, dans le lot puis en base (seuls les matricules que le
+ *     filtre de Bloom ne peut pas écarter sont vérifiés, une requête par paquet) ;</li>
+ *     <li>attribution des emails sans collision dans le lot ni avec la base ;</li>
+ *     <li>insertion par paquets de {@code import.etudiants.taille-lot} lignes, un paquet par transaction.</li>
+ * </ol>
+ *
+ * <p>Une ligne en erreur n'interrompt jamais l'import : elle est signalée dans le rapport.
+ * Si un paquet échoue à l'insertion, ses lignes sont rejouées une à une pour isoler la fautive.</p>
+ */
+@Service
+@Slf4j
+public class EtudiantImportService {
+
+    private static final int TENTATIVES_EMAIL = 20;
+    private static final int TOURS_VERIFICATION_EMAIL = 3;
+    private static final List<DateTimeFormatter> FORMATS_DATE = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE, DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+
+    private final EtudiantRepository etudiantRepository;
+    private final EtudiantService etudiantService;
+    private final RegistreClesUniques registreClesUniques;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int tailleLot;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Constructeur avec injection de dépendances.
+     *
+     * @param tailleLot nombre de lignes insérées par transaction
+     */
+    public EtudiantImportService(EtudiantRepository etudiantRepository,
+                                 EtudiantService etudiantService,
+                                 RegistreClesUniques registreClesUniques,
+                                 Validator validator,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${import.etudiants.taille-lot:500}") int tailleLot) {
+        this.etudiantRepository = etudiantRepository;
+        this.etudiantService = etudiantService;
+        this.registreClesUniques = registreClesUniques;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tailleLot = tailleLot;
+    }
+
+    /**
+     * Importe un lot d'étudiants reçu sous forme de tableau JSON.
+     *
+     * @param etudiantDTOs les étudiants à créer (l'email éventuellement fourni est ignoré et généré)
+     * @return le rapport ligne par ligne
+     */
+    public RapportImportDTO importer(List<EtudiantDTO> etudiantDTOs) {
+        List<List<String>> erreurs = new ArrayList<>(etudiantDTOs.size());
+        for (int i = 0; i < etudiantDTOs.size(); i++) {
+            erreurs.add(new ArrayList<>());
+        }
+        return importer(etudiantDTOs, erreurs);
+    }
+
+    /**
+     * Importe un lot d'étudiants reçu au format CSV.
+     *
+     * <p>La première ligne est un en-tête nommant les colonnes {@code nom}, {@code prenom},
+     * {@code matricule}, {@code dateNaissance} (yyyy-MM-dd ou dd/MM/yyyy) et {@code lieuNaissance},
+     * dans un ordre quelconque. Le séparateur ({@code ;} ou {@code ,}) est déduit de l'en-tête.
+     * Les champs suivent la RFC 4180 : entre guillemets, ils peuvent contenir le séparateur, des
+     * sauts de ligne et des guillemets doublés.</p>
+     *
+     * @param lecteur contenu CSV
+     * @return le rapport ligne par ligne (numérotation à partir de la première ligne de données)
+     */
+    public RapportImportDTO importerCsv(Reader lecteur) {
+        List<EtudiantDTO> etudiantDTOs = new ArrayList<>();
+        List<List<String>> erreurs = new ArrayList<>();
+        try (BufferedReader tampon = new BufferedReader(lecteur)) {
+            String entete = tampon.readLine();
+            if (entete == null || entete.isBlank()) {
+                throw new EtudiantException("Fichier CSV vide : en-tête attendu");
+            }
+            char separateur = entete.contains(";") ? ';' : ',';
+            Map<String, Integer> colonnes = lireEntete(LecteurCsv.decouper(entete, separateur));
+
+            LecteurCsv csv = new LecteurCsv(tampon, separateur);
+            List<String> valeurs;
+            while ((valeurs = csv.lire()) != null) {
+                if (valeurs.size() == 1 && valeurs.get(0).isBlank()) {
+                    continue;
+                }
+                List<String> erreursLigne = new ArrayList<>();
+                etudiantDTOs.add(lireLigneCsv(valeurs, colonnes, erreursLigne));
+                erreurs.add(erreursLigne);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new EtudiantException("Lecture du fichier CSV impossible", e);
+        } catch (IllegalArgumentException e) {
+            throw new EtudiantException("Fichier CSV mal formé : " + e.getMessage(), e);
+        }
+        return importer(etudiantDTOs, erreurs);
+    }
+
+    private RapportImportDTO importer(List<EtudiantDTO> etudiantDTOs, List<List<String>> erreurs) {
+        long debut = System.nanoTime();
+        int total = etudiantDTOs.size();
+        log.info("Import en masse de {} étudiants (paquets de {})", total, tailleLot);
+
+        // 1. Validation de toutes les lignes en parallèle (l'ordre du lot est conservé)
+        List<List<String>> violations = IntStream.range(0, total)
+                .parallel()
+                .mapToObj(i -> valider(etudiantDTOs.get(i)))
+                .toList();
+        for (int i = 0; i < total; i++) {
+            erreurs.get(i).addAll(violations.get(i));
+        }
+
+        // 2. Matricules en double, dans le lot puis en base
+        verifierMatricules(etudiantDTOs, erreurs);
+
+        // 3. Emails uniques dans le lot et en base
+        String[] emails = attribuerEmails(etudiantDTOs, erreurs);
+
+        // 4. Insertion par paquets, une transaction par paquet
+        Long[] ids = new Long[total];
+        List<Integer> valides = IntStream.range(0, total).filter(i -> erreurs.get(i).isEmpty()).boxed().toList();
+        for (int debutPaquet = 0; debutPaquet < valides.size(); debutPaquet += tailleLot) {
+            List<Integer> paquet = valides.subList(debutPaquet, Math.min(debutPaquet + tailleLot, valides.size()));
+            insererPaquet(paquet, etudiantDTOs, emails, erreurs, ids);
+        }
+
+        List<LigneImportDTO> lignes = new ArrayList<>(total);
+        int succes = 0;
+        for (int i = 0; i < total; i++) {
+            boolean ok = ids[i] != null;
+            succes += ok ? 1 : 0;
+            lignes.add(new LigneImportDTO(i + 1, ok, ids[i], ok ? emails[i] : null, List.copyOf(erreurs.get(i))));
+        }
+
+        long dureeNanos = System.nanoTime() - debut;
+        double lignesParSeconde = dureeNanos == 0 ? total : total / (dureeNanos / 1_000_000_000.0);
+        log.info("Import terminé : {} succès, {} échecs, {} lignes/s", succes, total - succes, Math.round(lignesParSeconde));
+        return new RapportImportDTO(total, succes, total - succes, dureeNanos / 1_000_000, lignesParSeconde, lignes);
+    }
+
+    /**
+     * Valide une ligne. L'email n'est pas contrôlé puisqu'il est généré par le serveur.
+     */
+    private List<String> valider(EtudiantDTO dto) {
+        List<String> messages = new ArrayList<>();
+        if (dto == null) {
+            messages.add("Ligne vide");
+            return messages;
+        }
+        for (ConstraintViolation<EtudiantDTO> violation : validator.validate(dto)) {
+            if (!"email".equals(violation.getPropertyPath().toString())) {
+                messages.add(violation.getMessage());
+            }
+        }
+        if (dto.getMatricule() == null || dto.getMatricule().isBlank()) {
+            messages.add("Le matricule est obligatoire.");
+        }
+        if (dto.getDateNaissance() == null) {
+            messages.add("La date de naissance est obligatoire.");
+        }
+        return messages;
+    }
+
+    private void verifierMatricules(List<EtudiantDTO> etudiantDTOs, List<List<String>> erreurs) {
+        Map<String, Integer> premiereOccurrence = new HashMap<>();
+        for (int i = 0; i < etudiantDTOs.size(); i++) {
+            if (!erreurs.get(i).isEmpty()) {
+                continue;
+            }
+            Integer premiere = premiereOccurrence.putIfAbsent(etudiantDTOs.get(i).getMatricule(), i);
+            if (premiere != null) {
+                erreurs.get(i).add("Matricule en double dans le lot (ligne " + (premiere + 1) + ")");
+            }
+        }
+
+        Set<String> existants = new HashSet<>(registreClesUniques.existantes(CleUnique.ETUDIANT_MATRICULE, premiereOccurrence.keySet()));
+        for (int i = 0; i < etudiantDTOs.size(); i++) {
+            if (erreurs.get(i).isEmpty() && existants.contains(etudiantDTOs.get(i).getMatricule())) {
+                erreurs.get(i).add("Matricule déjà utilisé : " + etudiantDTOs.get(i).getMatricule());
+            }
+        }
+    }
+
+    /**
+     * Attribue à chaque ligne valide un email absent du lot et de la base.
+     * Les candidats en collision avec la base sont régénérés, sur quelques tours au plus.
+     * L'allocateur d'emails ne produit pas de doublon : ces contrôles ne servent que de garde-fou
+     * contre des emails écrits en base hors de l'allocateur.
+     */
+    private String[] attribuerEmails(List<EtudiantDTO> etudiantDTOs, List<List<String>> erreurs) {
+        String[] emails = new String[etudiantDTOs.size()];
+        Set<String> attribues = new HashSet<>();
+        List<Integer> aTraiter = IntStream.range(0, etudiantDTOs.size())
+                .filter(i -> erreurs.get(i).isEmpty()).boxed().toList();
+
+        for (int tour = 0; tour < TOURS_VERIFICATION_EMAIL && !aTraiter.isEmpty(); tour++) {
+            Map<String, Integer> candidats = new HashMap<>();
+            for (int i : aTraiter) {
+                String email = emailLibre(etudiantDTOs.get(i), attribues);
+                if (email == null) {
+                    erreurs.get(i).add("Impossible d'attribuer un email unique");
+                } else {
+                    emails[i] = email;
+                    candidats.put(email, i);
+                }
+            }
+            Set<String> enCollision = new HashSet<>(registreClesUniques.existantes(CleUnique.ETUDIANT_EMAIL, candidats.keySet()));
+            aTraiter = enCollision.stream().map(candidats::get).toList();
+            aTraiter.forEach(i -> emails[i] = null);
+        }
+        aTraiter.forEach(i -> erreurs.get(i).add("Impossible d'attribuer un email unique"));
+        return emails;
+    }
+
+    private String emailLibre(EtudiantDTO dto, Set<String> attribues) {
+        for (int tentative = 0; tentative < TENTATIVES_EMAIL; tentative++) {
+            String email = etudiantService.genererEmail(dto.getNom(), dto.getPrenom());
+            if (attribues.add(email)) {
+                return email;
+            }
+        }
+        return null;
+    }
+
+    private void insererPaquet(List<Integer> paquet, List<EtudiantDTO> etudiantDTOs, String[] emails,
+                               List<List<String>> erreurs, Long[] ids) {
+        try {
+            List<Etudiant> enregistres = transactionTemplate.execute(statut -> {
+                List<Etudiant> sauves = etudiantRepository.saveAll(paquet.stream()
+                        .map(i -> etudiantService.preparerNouvelEtudiant(etudiantDTOs.get(i), emails[i])).toList());
+                sauves.forEach(etudiant -> etudiantService.publier(etudiant, TypeEvenement.CREATION));
+                // Paquet écrit : le contexte de persistance est vidé avant le paquet suivant
+                etudiantRepository.flush();
+                entityManager.clear();
+                return sauves;
+            });
+            for (int k = 0; k < paquet.size(); k++) {
+                ids[paquet.get(k)] = enregistres.get(k).getId();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Échec d'insertion d'un paquet de {} étudiants, reprise ligne par ligne : {}", paquet.size(), e.getMessage());
+            for (int i : paquet) {
+                insererLigne(i, etudiantDTOs.get(i), emails[i], erreurs, ids);
+            }
+        }
+    }
+
+    private void insererLigne(int i, EtudiantDTO dto, String email, List<List<String>> erreurs, Long[] ids) {
+        try {
+            ids[i] = transactionTemplate.execute(statut -> {
+                Etudiant etudiant = etudiantRepository.save(etudiantService.preparerNouvelEtudiant(dto, email));
+                etudiantService.publier(etudiant, TypeEvenement.CREATION);
+                return etudiant.getId();
+            });
+        } catch (RuntimeException e) {
+            erreurs.get(i).add("Échec de l'insertion : " + e.getMessage());
+        }
+    }
+
+    private static Map<String, Integer> lireEntete(List<String> noms) {
+        Map<String, Integer> colonnes = new HashMap<>();
+        for (int i = 0; i < noms.size(); i++) {
+            colonnes.put(noms.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String attendue : List.of("nom", "prenom", "matricule", "datenaissance", "lieunaissance")) {
+            if (!colonnes.containsKey(attendue)) {
+                throw new EtudiantException("Colonne CSV manquante : " + attendue);
+            }
+        }
+        return colonnes;
+    }
+
+    private static EtudiantDTO lireLigneCsv(List<String> valeurs, Map<String, Integer> colonnes, List<String> erreurs) {
+        EtudiantDTO dto = new EtudiantDTO();
+        dto.setNom(valeur(valeurs, colonnes.get("nom")));
+        dto.setPrenom(valeur(valeurs, colonnes.get("prenom")));
+        dto.setMatricule(valeur(valeurs, colonnes.get("matricule")));
+        dto.setLieuNaissance(valeur(valeurs, colonnes.get("lieunaissance")));
+        String date = valeur(valeurs, colonnes.get("datenaissance"));
+        if (date != null && !date.isEmpty()) {
+            dto.setDateNaissance(lireDate(date, erreurs));
+        }
+        return dto;
+    }
+
+    private static LocalDate lireDate(String date, List<String> erreurs) {
+        for (DateTimeFormatter format : FORMATS_DATE) {
+            try {
+                return LocalDate.parse(date, format);
+            } catch (DateTimeParseException e) {
+                // format suivant
+            }
+        }
+        erreurs.add("Date de naissance illisible : " + date);
+        return null;
+    }
+
+    private static String valeur(List<String> valeurs, int index) {
+        return index < valeurs.size() ? valeurs.get(index).trim() : null;
+    }
+}
@@ -2,18 +2,45 @@ package sn.uasz.utilisateursapi.services;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import sn.uasz.utilisateursapi.dtos.EtudiantDTO;
+import sn.uasz.utilisateursapi.dtos.LotResultatDTO;
+import sn.uasz.utilisateursapi.dtos.PageCurseurDTO;
+import sn.uasz.utilisateursapi.dtos.ValidateurDTO;
 import sn.uasz.utilisateursapi.entities.Etudiant;
+import sn.uasz.utilisateursapi.entities.Role;
+import sn.uasz.utilisateursapi.enums.CleUnique;
+import sn.uasz.utilisateursapi.enums.ModeRecherche;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.enums.TypeEvenement;
+import sn.uasz.utilisateursapi.enums.TypeMatricule;
+import sn.uasz.utilisateursapi.exceptions.ConflitEtatException;
+import sn.uasz.utilisateursapi.exceptions.EtudiantException;
 import sn.uasz.utilisateursapi.exceptions.EtudiantNotFoundException;
+import sn.uasz.utilisateursapi.exceptions.VersionObsoleteException;
 import sn.uasz.utilisateursapi.mappers.EtudiantMapper;
 import sn.uasz.utilisateursapi.repositories.EtudiantRepository;
+import sn.uasz.utilisateursapi.repositories.RoleRepository;
+import sn.uasz.utilisateursapi.utils.ChampsProjection;
+import sn.uasz.utilisateursapi.utils.ClesRecherche;
+import sn.uasz.utilisateursapi.utils.ExportFlux;
+import sn.uasz.utilisateursapi.utils.LectureParLot;
+import sn.uasz.utilisateursapi.utils.PaginationKeyset;
+import sn.uasz.utilisateursapi.utils.PhonetiqueFrancaise;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service de gestion des opérations liées aux étudiants :
@@ -29,33 +56,155 @@ public class EtudiantService {
     // Dépendance vers le mapper pour convertir entre Entité et DTO
     private final EtudiantMapper etudiantMapper;
 
+    // Lectures par projection (paramètre fields)
+    private final ProjectionService projectionService;
+
+    // Pages keyset tolérant une clé de tri nulle
+    private final LectureKeyset lectureKeyset;
+
+    // Filtres de Bloom des clés uniques (matricule, email)
+    private final RegistreClesUniques registreClesUniques;
+
+    /** Champs projetables via le paramètre {@code fields} des requêtes GET. */
+    public static final List<String> CHAMPS_PROJETABLES =
+            List.of("id", "nom", "prenom", "matricule", "email", "dateNaissance", "lieuNaissance");
+
+    /** Ordre des résultats des recherches par clé normalisée. */
+    private static final Comparator<Etudiant> ORDRE_CLES = Comparator
+            .comparing(Etudiant::getNomNormalise, Comparator.nullsLast(Comparator.<String>naturalOrder()))
+            .thenComparing(Etudiant::getPrenomNormalise, Comparator.nullsLast(Comparator.<String>naturalOrder()))
+            .thenComparing(Etudiant::getId);
+
     // EntityManager utilisé pour certaines opérations JPA
     @PersistenceContext
     private EntityManager entityManager;
 
-    // Générateur de nombre aléatoire pour la création des emails
-    private final Random random = new Random();
+    // Attribution des emails sans collision
+    private final AllocateurEmails allocateurEmails;
+
+    // Attribution des matricules laissés vides
+    private final AllocateurMatricules allocateurMatricules;
+
+    // Validateurs des requêtes conditionnelles : rôles embarqués et suppressions
+    private final RoleRepository roleRepository;
+    private final JournalSuppressions journalSuppressions;
+
+    // Événements de changement, écrits dans la transaction de la modification
+    private final OutboxService outboxService;
+
+    // Journal d'audit, écrit en arrière-plan
+    private final JournalAudit journalAudit;
+
+    // Compteurs des statistiques, tenus en mémoire
+    private final StatistiquesService statistiques;
+
+    // Index plein texte de l'annuaire
+    private final AnnuaireIndexRecherche annuaire;
+
+    // Autocomplétion des noms et emails
+    private final IndexAutocompletion autocompletion;
 
     /**
      * Constructeur avec injection de dépendances.
      */
-    public EtudiantService(EtudiantRepository etudiantRepository, EtudiantMapper etudiantMapper) {
+    public EtudiantService(EtudiantRepository etudiantRepository, EtudiantMapper etudiantMapper,
+                           ProjectionService projectionService, LectureKeyset lectureKeyset,
+                           RegistreClesUniques registreClesUniques,
+                           AllocateurEmails allocateurEmails, AllocateurMatricules allocateurMatricules,
+                           RoleRepository roleRepository, JournalSuppressions journalSuppressions,
+                           OutboxService outboxService, JournalAudit journalAudit,
+                           StatistiquesService statistiques, AnnuaireIndexRecherche annuaire,
+                           IndexAutocompletion autocompletion) {
         this.etudiantRepository = etudiantRepository;
         this.etudiantMapper = etudiantMapper;
+        this.projectionService = projectionService;
+        this.lectureKeyset = lectureKeyset;
+        this.registreClesUniques = registreClesUniques;
+        this.allocateurEmails = allocateurEmails;
+        this.allocateurMatricules = allocateurMatricules;
+        this.roleRepository = roleRepository;
+        this.journalSuppressions = journalSuppressions;
+        this.outboxService = outboxService;
+        this.journalAudit = journalAudit;
+        this.statistiques = statistiques;
+        this.annuaire = annuaire;
+        this.autocompletion = autocompletion;
     }
 
     /**
      * Ajoute un nouvel étudiant dans la base de données.
      * Génère un email à partir du nom et prénom, et ajoute des métadonnées.
+     * Un matricule laissé vide est attribué par le serveur.
+     * Lève une exception si le matricule fourni est déjà attribué.
      */
     @Transactional
     public EtudiantDTO ajouterEtudiant(EtudiantDTO etudiantDTO) {
-        Etudiant etudiant = etudiantMapper.toEntity(etudiantDTO);
+        attribuerMatricule(etudiantDTO);
+        String matricule = etudiantDTO.getMatricule();
+        if (registreClesUniques.peutExister(CleUnique.ETUDIANT_MATRICULE, matricule)
+                && !etudiantRepository.findMatriculesExistants(List.of(matricule)).isEmpty()) {
+            throw new EtudiantException("Matricule déjà utilisé : " + matricule);
+        }
+        Etudiant etudiant = preparerNouvelEtudiant(etudiantDTO);
 
+        // Sauvegarder dans la base et retourner le DTO correspondant
+        Etudiant savedEtudiant = etudiantRepository.save(etudiant);
+        return publier(savedEtudiant, TypeEvenement.CREATION);
+    }
+
+    /**
+     * Ajoute un lot d'étudiants en une seule transaction.
+     * Les insertions sont regroupées en lots JDBC grâce aux identifiants issus de séquence.
+     * Les matricules laissés vides sont attribués par le serveur.
+     * Lève une exception si un matricule du lot est déjà attribué.
+     */
+    @Transactional
+    public List<EtudiantDTO> ajouterEtudiants(List<EtudiantDTO> etudiantDTOs) {
+        etudiantDTOs.forEach(this::attribuerMatricule);
+        List<String> matriculesExistants = registreClesUniques.existantes(CleUnique.ETUDIANT_MATRICULE,
+                etudiantDTOs.stream().map(EtudiantDTO::getMatricule).toList());
+        if (!matriculesExistants.isEmpty()) {
+            throw new EtudiantException("Matricules déjà utilisés : " + matriculesExistants);
+        }
+        List<Etudiant> etudiants = etudiantDTOs.stream()
+                .map(this::preparerNouvelEtudiant)
+                .toList();
+        return etudiantRepository.saveAll(etudiants)
+                .stream()
+                .map(etudiant -> publier(etudiant, TypeEvenement.CREATION))
+                .toList();
+    }
+
+    /**
+     * Attribue un matricule de l'année universitaire en cours si le DTO n'en fournit pas.
+     * Les numéros déjà pris par un matricule saisi à la main sont sautés.
+     */
+    private void attribuerMatricule(EtudiantDTO etudiantDTO) {
+        if (etudiantDTO.getMatricule() != null && !etudiantDTO.getMatricule().isBlank()) {
+            return;
+        }
+        String matricule;
+        do {
+            matricule = allocateurMatricules.allouer(TypeMatricule.ETUDIANT);
+        } while (registreClesUniques.peutExister(CleUnique.ETUDIANT_MATRICULE, matricule)
+                && !etudiantRepository.findMatriculesExistants(List.of(matricule)).isEmpty());
+        etudiantDTO.setMatricule(matricule);
+    }
+
+    /**
+     * Construit l'entité d'un nouvel étudiant : email généré et métadonnées de création.
+     */
+    private Etudiant preparerNouvelEtudiant(EtudiantDTO etudiantDTO) {
         // Générer un email unique pour l'étudiant
-        String nom = etudiant.getNom();
-        String prenom = etudiant.getPrenom();
-        String email = genererEmail(nom, prenom);
+        String email = genererEmail(etudiantDTO.getNom(), etudiantDTO.getPrenom());
+        return preparerNouvelEtudiant(etudiantDTO, email);
+    }
+
+    /**
+     * Construit l'entité d'un nouvel étudiant avec un email déjà attribué (ex. import en masse).
+     */
+    Etudiant preparerNouvelEtudiant(EtudiantDTO etudiantDTO, String email) {
+        Etudiant etudiant = etudiantMapper.toEntity(etudiantDTO);
         etudiant.setEmail(email);
 
         // Ajouter les métadonnées
@@ -66,44 +215,68 @@ public class EtudiantService {
         etudiant.setDateNaissance(etudiantDTO.getDateNaissance());
         etudiant.setLieuNaissance(etudiantDTO.getLieuNaissance());
         etudiant.setRoles(etudiantDTO.getRoles());
-
-        // Sauvegarder dans la base et retourner le DTO correspondant
-        Etudiant savedEtudiant = etudiantRepository.save(etudiant);
-        return etudiantMapper.toDTO(savedEtudiant);
+        return etudiant;
     }
 
     /**
-     * Modifie un étudiant existant.
-     * Si l'étudiant n'existe pas, une exception est levée.
+     * Modifie un étudiant existant. L'entité est chargée et sa version comparée à celle attendue ;
+     * les nouvelles valeurs, l'email (s'il ne correspond plus au nom) et les rôles sont écrits à la
+     * fin par une mise à jour conditionnée par {@code @Version}, qui déclenche les écouteurs de
+     * l'entité (clés de recherche, clés uniques). Un matricule absent du DTO est conservé.
+     *
+     * @param id              identifiant de l'étudiant
+     * @param etudiantDTO     nouvelles données
+     * @param versionAttendue version lue par le client ({@code If-Match}), ou null pour une modification inconditionnelle
+     * @return l'étudiant modifié
+     * @throws EtudiantNotFoundException si l'étudiant n'existe pas
+     * @throws VersionObsoleteException si l'étudiant a été modifié depuis la version attendue
+     * @throws ConflitEtatException si l'étudiant a été modifié par une autre transaction pendant une modification inconditionnelle
      */
     @Transactional
-    public EtudiantDTO modifierEtudiant(int id, EtudiantDTO etudiantDTO) {
-        Optional<Etudiant> optionalEtudiant = etudiantRepository.findById((long) id);
-        if (!optionalEtudiant.isPresent()) {
-            throw new EtudiantNotFoundException("Étudiant non trouvé avec l'ID : " + id);
+    public EtudiantDTO modifierEtudiant(int id, EtudiantDTO etudiantDTO, Long versionAttendue) {
+        Etudiant etudiant = etudiantRepository.findById((long) id)
+                .orElseThrow(() -> new EtudiantNotFoundException("Étudiant non trouvé avec l'ID : " + id));
+        if (versionAttendue != null && etudiant.getVersion() != versionAttendue) {
+            throw new VersionObsoleteException("L'étudiant " + id + " a été modifié depuis la version " + versionAttendue);
         }
+        Etudiant valeurs = etudiantMapper.toEntity(etudiantDTO);
+        etudiant.setNom(valeurs.getNom());
+        etudiant.setPrenom(valeurs.getPrenom());
+        if (valeurs.getMatricule() != null) {
+            etudiant.setMatricule(valeurs.getMatricule());
+        }
+        etudiant.setDateNaissance(valeurs.getDateNaissance());
+        etudiant.setLieuNaissance(valeurs.getLieuNaissance());
 
-        Etudiant etudiant = optionalEtudiant.get();
-
-        // Mise à jour des champs
-        etudiant.setNom(etudiantDTO.getNom());
-        etudiant.setPrenom(etudiantDTO.getPrenom());
-        etudiant.setMatricule(etudiantDTO.getMatricule());
-
-        // Générer un nouvel email à partir des nouveaux nom/prénom
-        String email = genererEmail(etudiantDTO.getNom(), etudiantDTO.getPrenom());
-        etudiant.setEmail(email);
-
-        // Mise à jour des autres informations
-        etudiant.setDateNaissance(etudiantDTO.getDateNaissance());
-        etudiant.setLieuNaissance(etudiantDTO.getLieuNaissance());
-        etudiant.setRoles(etudiantDTO.getRoles());
+        // Générer un nouvel email seulement si le nom ou les initiales changent
+        if (!AllocateurEmails.correspond(etudiant.getEmail(), etudiantDTO.getNom(), etudiantDTO.getPrenom())) {
+            etudiant.setEmail(genererEmail(etudiantDTO.getNom(), etudiantDTO.getPrenom()));
+        }
+        if (!memesRoles(etudiant.getRoles(), etudiantDTO.getRoles())) {
+            etudiant.setRoles(etudiantDTO.getRoles() == null ? new ArrayList<>() : new ArrayList<>(etudiantDTO.getRoles()));
+        }
 
-        // Détacher l'objet de la session JPA pour forcer une mise à jour complète
-        entityManager.detach(etudiant);
+        try {
+            // Écrire les changements pour renvoyer la version finale
+            etudiantRepository.flush();
+        } catch (OptimisticLockingFailureException e) {
+            if (versionAttendue != null) {
+                throw new VersionObsoleteException("L'étudiant " + id + " a été modifié depuis la version " + versionAttendue);
+            }
+            throw new ConflitEtatException("L'étudiant " + id + " a été modifié pendant la mise à jour");
+        }
+        return publier(etudiant, TypeEvenement.MODIFICATION);
+    }
 
-        // Sauvegarder et retourner le nouveau DTO
-        return etudiantMapper.toDTO(etudiantRepository.save(etudiant));
+    /**
+     * Compare deux listes de rôles par identifiant, sans tenir compte de l'ordre.
+     */
+    private static boolean memesRoles(List<Role> actuels, List<Role> nouveaux) {
+        Set<Long> idsActuels = actuels == null ? Set.of()
+                : actuels.stream().map(Role::getId).collect(Collectors.toSet());
+        Set<Long> idsNouveaux = nouveaux == null ? Set.of()
+                : nouveaux.stream().map(Role::getId).collect(Collectors.toSet());
+        return idsActuels.equals(idsNouveaux);
     }
 
     /**
@@ -118,13 +291,39 @@ public class EtudiantService {
         }
 
         // Suppression de l'étudiant
-        etudiantRepository.delete(optionalEtudiant.get());
+        Etudiant etudiant = optionalEtudiant.get();
+        etudiantRepository.delete(etudiant);
+        publier(etudiant.getId(), etudiant.getVersion(), TypeEvenement.SUPPRESSION, null);
+    }
+
+    /**
+     * Publie l'état d'un étudiant après un changement (utilisé aussi par l'import en masse).
+     */
+    EtudiantDTO publier(Etudiant etudiant, TypeEvenement type) {
+        EtudiantDTO dto = etudiantMapper.toDTO(etudiant);
+        publier(etudiant.getId(), etudiant.getVersion(), type, dto);
+        return dto;
+    }
+
+    /**
+     * Enregistre un changement d'étudiant dans l'outbox, dans la transaction en cours, et le déclare
+     * au journal d'audit, aux statistiques, à l'annuaire et à l'autocomplétion.
+     * Seul point de diffusion des changements : créations, modifications et suppressions y passent.
+     * Un état nul signale une suppression.
+     */
+    private void publier(Long id, Long version, TypeEvenement type, EtudiantDTO etat) {
+        outboxService.enregistrer(TypeAgregat.ETUDIANT, id, version, type, etat == null ? Map.of("id", id) : etat);
+        journalAudit.enregistrer(TypeAgregat.ETUDIANT, id, version, type, etat);
+        statistiques.enregistrer(TypeAgregat.ETUDIANT, id, version, etat);
+        annuaire.enregistrer(TypeAgregat.ETUDIANT, id, version, etat);
+        autocompletion.enregistrer(TypeAgregat.ETUDIANT, id, version, etat);
     }
 
     /**
      * Retourne un étudiant sous forme de DTO à partir de son identifiant.
      * Lève une exception si l'étudiant est introuvable.
      */
+    @Transactional(readOnly = true)
     public EtudiantDTO obtenirEtudiant(int id) {
         Optional<Etudiant> optionalEtudiant = etudiantRepository.findById((long) id);
         if (!optionalEtudiant.isPresent()) {
@@ -134,9 +333,55 @@ public class EtudiantService {
         return etudiantMapper.toDTO(optionalEtudiant.get());
     }
 
+    /**
+     * Retourne uniquement les champs demandés d'un étudiant, lus par projection (sans entité ni mapper).
+     * Lève une exception si l'étudiant est introuvable.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> obtenirEtudiant(int id, String fields) {
+        return projectionService.parId(Etudiant.class, ChampsProjection.lire(fields, CHAMPS_PROJETABLES), (long) id, Map.of())
+                .orElseThrow(() -> new EtudiantNotFoundException("Étudiant non trouvé avec l'ID : " + id));
+    }
+
+    /**
+     * Retourne la version et la date de modification d'un étudiant, lues sans charger l'entité.
+     * Les rôles embarqués n'y participent pas : ce sont des données de référence.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ValidateurDTO> validateur(long id) {
+        return etudiantRepository.trouverValidateur(id);
+    }
+
+    /**
+     * Retourne les validateurs de la liste des étudiants, calculés par agrégat sans charger d'entité.
+     * Ils changent dès qu'un étudiant ou un rôle est créé, modifié ou supprimé.
+     */
+    @Transactional(readOnly = true)
+    public ValidateurDTO validateurListe() {
+        return etudiantRepository.calculerValidateur()
+                .combiner(roleRepository.calculerValidateur())
+                .modifieLe(journalSuppressions.derniereSuppression(Etudiant.class))
+                .modifieLe(journalSuppressions.derniereSuppression(Role.class));
+    }
+
+    /**
+     * Retourne plusieurs étudiants lus en une seule requête {@code IN}, dans l'ordre de la requête.
+     * Les identifiants inconnus sont listés à part au lieu de lever une exception.
+     */
+    @Transactional(readOnly = true)
+    public LotResultatDTO<EtudiantDTO> obtenirEtudiants(List<Long> ids) {
+        List<Long> demandes = LectureParLot.identifiants(ids);
+        if (demandes.isEmpty()) {
+            return new LotResultatDTO<>(List.of(), List.of());
+        }
+        return LectureParLot.assembler(demandes, etudiantRepository.findByIdIn(demandes),
+                Etudiant::getId, etudiantMapper::toDTO);
+    }
+
     /**
      * Retourne la liste de tous les étudiants sous forme de DTOs.
      */
+    @Transactional(readOnly = true)
     public List<EtudiantDTO> findAll() {
         return etudiantRepository.findAll()
                 .stream()
@@ -145,13 +390,82 @@ public class EtudiantService {
     }
 
     /**
-     * Génère un email à partir du nom et prénom de l’étudiant.
-     * Exemple : dupontjj42@zig.univ.sn
+     * Recherche les étudiants par clé normalisée (sans accents ni casse) : nom, prénom ou email égal au
+     * texte ({@link ModeRecherche#EXACT}) ou commençant par lui ({@link ModeRecherche#PREFIXE}), ou nom
+     * ou prénom qui se prononce comme lui ({@link ModeRecherche#PHONETIQUE}).
+     * Chaque colonne est lue par un parcours d'index borné ; les résultats sont triés par nom,
+     * prénom puis identifiant.
+     *
+     * @param texte  texte recherché
+     * @param mode   mode de comparaison
+     * @param taille nombre maximal de résultats (borné côté serveur)
+     * @return les étudiants trouvés
+     */
+    @Transactional(readOnly = true)
+    public List<EtudiantDTO> rechercherEtudiantsParCle(String texte, ModeRecherche mode, Integer taille) {
+        String cle = mode == ModeRecherche.PHONETIQUE ? PhonetiqueFrancaise.cle(texte) : ClesRecherche.normaliser(texte);
+        if (cle == null || cle.isEmpty()) {
+            return List.of();
+        }
+        Limit limite = PaginationKeyset.limite(taille);
+        Stream<List<Etudiant>> resultats = switch (mode) {
+            case EXACT -> Stream.of(etudiantRepository.findByNomNormaliseOrderById(cle, limite),
+                    etudiantRepository.findByPrenomNormaliseOrderById(cle, limite),
+                    etudiantRepository.findByEmailNormaliseOrderById(cle, limite));
+            case PREFIXE -> {
+                String fin = ClesRecherche.finPrefixe(cle);
+                yield Stream.of(etudiantRepository.findParPrefixeNom(cle, fin, limite),
+                        etudiantRepository.findParPrefixePrenom(cle, fin, limite),
+                        etudiantRepository.findParPrefixeEmail(cle, fin, limite));
+            }
+            case PHONETIQUE -> Stream.of(etudiantRepository.findByNomPhonetiqueOrderById(cle, limite),
+                    etudiantRepository.findByPrenomPhonetiqueOrderById(cle, limite));
+        };
+        return ClesRecherche.fusionner(resultats.flatMap(List::stream), Etudiant::getId, ORDRE_CLES, limite.max())
+                .stream()
+                .map(etudiantMapper::toDTO)
+                .toList();
+    }
+
+    /**
+     * Retourne une page d'étudiants triés par nom, par pagination keyset.
+     * Le coût de la requête reste proportionnel à la taille de la page, quelle que soit sa profondeur.
+     * Les rôles de la page sont chargés en une seule requête groupée.
+     */
+    @Transactional(readOnly = true)
+    public PageCurseurDTO<EtudiantDTO> findPage(String curseur, Integer taille) {
+        Limit limite = PaginationKeyset.limite(taille);
+        return PaginationKeyset.page(
+                lectureKeyset.lire(Etudiant.class, "nom", PaginationKeyset.position(curseur, "nom"), limite, Map.of()),
+                limite, etudiantMapper::toDTO, Etudiant::getNom, Etudiant::getId);
+    }
+
+    /**
+     * Retourne une page d'étudiants réduite aux champs demandés, lue par projection.
+     * Les curseurs sont les mêmes que ceux de {@link #findPage(String, Integer)}.
+     */
+    @Transactional(readOnly = true)
+    public PageCurseurDTO<Map<String, Object>> findPage(String curseur, Integer taille, String fields) {
+        return projectionService.page(Etudiant.class, ChampsProjection.lire(fields, CHAMPS_PROJETABLES),
+                "nom", curseur, taille, Map.of());
+    }
+
+    /**
+     * Exporte tous les étudiants en flux (curseur JDBC), sans construire de liste intermédiaire.
+     * Retourne le nombre d'étudiants transmis au consommateur.
+     */
+    @Transactional(readOnly = true)
+    public long exporter(Consumer<EtudiantDTO> consommateur) {
+        try (Stream<Etudiant> flux = etudiantRepository.streamAll()) {
+            return ExportFlux.parcourir(flux, etudiantMapper::toDTO, consommateur, entityManager);
+        }
+    }
+
+    /**
+     * Génère un email unique à partir du nom et prénom de l’étudiant.
+     * Exemple : dupontjj42@zig.univ.sn (le suffixe est le compteur suivant du préfixe)
      */
     public String genererEmail(String nom, String prenom) {
-        String premiereLettrePrenom = prenom.substring(0, 1).toLowerCase();
-        String premiereLettreNom = nom.substring(0, 1).toLowerCase();
-        int numeroAleatoire = random.nextInt(100);
-        return nom.toLowerCase() + premiereLettrePrenom + premiereLettreNom + numeroAleatoire + "@zig.univ.sn";
+        return allocateurEmails.allouer(nom, prenom);
     }
 }
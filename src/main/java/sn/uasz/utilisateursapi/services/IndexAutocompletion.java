@@ -0,0 +1,415 @@
+package sn.uasz.utilisateursapi.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.uasz.utilisateursapi.dtos.EnseignantDTO;
+import sn.uasz.utilisateursapi.dtos.EtudiantDTO;
+import sn.uasz.utilisateursapi.dtos.SuggestionDTO;
+import sn.uasz.utilisateursapi.dtos.VacataireDTO;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.repositories.EnseignantRepository;
+import sn.uasz.utilisateursapi.repositories.EtudiantRepository;
+import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+import sn.uasz.utilisateursapi.utils.ApresCommit;
+import sn.uasz.utilisateursapi.utils.ArbreRadix;
+import sn.uasz.utilisateursapi.utils.ClesRecherche;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Autocomplétion des personnes (enseignants, étudiants, vacataires) pendant la saisie, servie
+ * entièrement depuis la mémoire.
+ *
+ * <p>Pour chaque type, un {@link ArbreRadix} associe les clés normalisées (sans accents ni casse)
+ * « prénom nom », « nom prénom » et email de chaque personne à son identifiant. Une suggestion
+ * est une descente de l'arbre sur le texte saisi puis un parcours par score décroissant qui
+ * s'arrête aux {@code k} premières personnes. Le score est la récence : date de dernière
+ * modification lue en base au chargement, puis date de validation de chaque changement. Les
+ * informations affichées (prénom, nom, email) sont gardées dans une fiche par personne.</p>
+ *
+ * <p>Les services déclarent chaque changement, appliqué à la validation de la transaction
+ * (immédiatement hors transaction) ; un changement d'une version antérieure à la dernière
+ * appliquée est ignoré. Le chargement depuis la base se fait au démarrage (sinon à la première
+ * suggestion) et peut être relancé : il construit de nouveaux arbres pendant que les suggestions
+ * restent servies par les précédents, puis y rejoue les changements survenus entre-temps.</p>
+ *
+ * <p>La taille des arbres, l'estimation de la mémoire occupée et la durée des suggestions sont
+ * publiées dans Actuator ({@code /actuator/metrics/autocompletion.*}).</p>
+ */
+@Slf4j
+@Component
+public class IndexAutocompletion implements MeterBinder {
+
+    /** Nombre de suggestions renvoyées quand le client n'en précise pas. */
+    public static final int K_DEFAUT = 10;
+
+    /** Nombre maximal de suggestions renvoyées. */
+    public static final int K_MAX = 50;
+
+    /** Taille approximative d'une fiche, entrée de table et identifiant compris, hors chaînes. */
+    private static final int OCTETS_FICHE = 96;
+    private static final int OCTETS_CHAINE = 40;
+
+    private static final List<TypeAgregat> TYPES = List.of(TypeAgregat.ENSEIGNANT, TypeAgregat.ETUDIANT, TypeAgregat.VACATAIRE);
+
+    private final Map<TypeAgregat, Supplier<Stream<Object[]>>> sources = new EnumMap<>(TypeAgregat.class);
+    private final TransactionTemplate lecturePrimaire;
+    private final boolean chargementAuDemarrage;
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+    /** Un seul chargement à la fois. */
+    private final Object verrouChargement = new Object();
+    private final ExecutorService chargements = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "chargement-autocompletion");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Etat etat = new Etat();
+    private List<Changement> pendantChargement;
+    private volatile boolean charge;
+    private volatile Timer dureeSuggestion;
+
+    /**
+     * Personne connue de l'autocomplétion.
+     *
+     * @param version   version de la personne
+     * @param score     récence (millisecondes depuis l'époque)
+     * @param supprimee vrai si la personne a été supprimée (la version reste gardée)
+     */
+    record Fiche(long version, long score, String prenom, String nom, String email, boolean supprimee) {
+    }
+
+    /**
+     * Changement validé d'une personne.
+     */
+    record Changement(TypeAgregat type, long id, Fiche fiche) {
+    }
+
+    /**
+     * Arbres et fiches de chaque type.
+     */
+    private static final class Etat {
+        private final Map<TypeAgregat, ArbreRadix> arbres = new EnumMap<>(TypeAgregat.class);
+        private final Map<TypeAgregat, Map<Long, Fiche>> fiches = new EnumMap<>(TypeAgregat.class);
+
+        private Etat() {
+            for (TypeAgregat type : TYPES) {
+                arbres.put(type, new ArbreRadix());
+                fiches.put(type, new HashMap<>());
+            }
+        }
+
+        private void appliquer(Changement changement) {
+            Map<Long, Fiche> fichesType = fiches.get(changement.type());
+            Fiche ancienne = fichesType.get(changement.id());
+            Fiche nouvelle = changement.fiche();
+            if (ancienne != null && nouvelle.version() < ancienne.version()) {
+                return;
+            }
+            ArbreRadix arbre = arbres.get(changement.type());
+            if (ancienne != null && !ancienne.supprimee()) {
+                cles(ancienne).forEach(cle -> arbre.retirer(cle, changement.id()));
+            }
+            fichesType.put(changement.id(), nouvelle);
+            if (!nouvelle.supprimee()) {
+                cles(nouvelle).forEach(cle -> arbre.ajouter(cle, changement.id(), nouvelle.score()));
+            }
+        }
+    }
+
+    /**
+     * Suggestion avant tri.
+     */
+    private record Proposition(long score, SuggestionDTO suggestion) {
+    }
+
+    /**
+     * Constructeur avec injection de dépendances.
+     */
+    public IndexAutocompletion(EnseignantRepository enseignantRepository,
+                               EtudiantRepository etudiantRepository,
+                               VacataireRepository vacataireRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${autocompletion.chargement-au-demarrage:true}") boolean chargementAuDemarrage) {
+        sources.put(TypeAgregat.ENSEIGNANT, enseignantRepository::streamPourAutocompletion);
+        sources.put(TypeAgregat.ETUDIANT, etudiantRepository::streamPourAutocompletion);
+        sources.put(TypeAgregat.VACATAIRE, vacataireRepository::streamPourAutocompletion);
+        // Pas en lecture seule : lue sur une réplique en retard, la base ferait disparaître des
+        // changements validés avant le début du chargement
+        this.lecturePrimaire = new TransactionTemplate(transactionManager);
+        this.chargementAuDemarrage = chargementAuDemarrage;
+    }
+
+    /**
+     * Charge les personnes depuis la base en arrière-plan une fois l'application démarrée, si demandé.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void demarrer() {
+        if (!chargementAuDemarrage) {
+            return;
+        }
+        chargements.execute(() -> {
+            try {
+                recharger();
+            } catch (RuntimeException e) {
+                log.error("Échec du chargement de l'autocomplétion", e);
+            }
+        });
+    }
+
+    /**
+     * Déclare un changement de personne. Il est appliqué à la validation de la transaction en
+     * cours (immédiatement hors transaction).
+     *
+     * @param type    type d'utilisateur
+     * @param id      identifiant de l'utilisateur
+     * @param version version de l'utilisateur après le changement
+     * @param etat    état de l'utilisateur après le changement (DTO), ou null pour une suppression
+     */
+    public void enregistrer(TypeAgregat type, Long id, Long version, Object etat) {
+        long v = version == null ? 0 : version;
+        ApresCommit.executer(() -> appliquer(new Changement(type, id, fiche(v, System.currentTimeMillis(), etat))));
+    }
+
+    /**
+     * Suggère les personnes dont le nom complet (prénom nom ou nom prénom) ou l'email commence par
+     * le texte saisi, sans accents ni casse, des plus récemment modifiées aux plus anciennes.
+     *
+     * @param texte texte saisi
+     * @param type  type d'utilisateur, ou null pour tous
+     * @param k     nombre de suggestions souhaité (borné à {@link #K_MAX})
+     * @return les suggestions
+     */
+    public List<SuggestionDTO> suggerer(String texte, TypeAgregat type, Integer k) {
+        String prefixe = ClesRecherche.normaliser(texte);
+        if (prefixe == null || prefixe.isEmpty()) {
+            return List.of();
+        }
+        if (!charge) {
+            recharger();
+        }
+        int limite = k == null || k <= 0 ? K_DEFAUT : Math.min(k, K_MAX);
+        long debut = System.nanoTime();
+        List<Proposition> propositions = new ArrayList<>();
+        verrou.readLock().lock();
+        try {
+            for (TypeAgregat t : type == null ? TYPES : List.of(type)) {
+                Map<Long, Fiche> fiches = etat.fiches.get(t);
+                for (long id : etat.arbres.get(t).meilleurs(prefixe, limite)) {
+                    Fiche fiche = fiches.get(id);
+                    propositions.add(new Proposition(fiche.score(),
+                            new SuggestionDTO(t, id, fiche.prenom(), fiche.nom(), fiche.email())));
+                }
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+        List<SuggestionDTO> suggestions = propositions.stream()
+                .sorted(Comparator.comparingLong(Proposition::score).reversed()
+                        .thenComparing(proposition -> proposition.suggestion().type())
+                        .thenComparing(proposition -> proposition.suggestion().id()))
+                .limit(limite)
+                .map(Proposition::suggestion)
+                .toList();
+        Timer timer = dureeSuggestion;
+        if (timer != null) {
+            timer.record(System.nanoTime() - debut, TimeUnit.NANOSECONDS);
+        }
+        return suggestions;
+    }
+
+    /**
+     * Recharge toutes les personnes depuis la base. Les suggestions restent servies par les arbres
+     * précédents jusqu'à la fin ; les changements validés pendant le chargement y sont rejoués.
+     *
+     * @return le nombre de personnes chargées
+     */
+    public long recharger() {
+        synchronized (verrouChargement) {
+            verrou.writeLock().lock();
+            try {
+                pendantChargement = new ArrayList<>();
+            } finally {
+                verrou.writeLock().unlock();
+            }
+            Etat nouvel = new Etat();
+            try {
+                lecturePrimaire.executeWithoutResult(statut -> sources.forEach((type, source) -> {
+                    try (Stream<Object[]> lignes = source.get()) {
+                        lignes.forEach(ligne -> nouvel.appliquer(new Changement(type, (Long) ligne[0],
+                                new Fiche(((Number) ligne[1]).longValue(), score(ligne[5]),
+                                        (String) ligne[3], (String) ligne[2], (String) ligne[4], false))));
+                    }
+                }));
+            } catch (RuntimeException e) {
+                verrou.writeLock().lock();
+                try {
+                    pendantChargement = null;
+                } finally {
+                    verrou.writeLock().unlock();
+                }
+                throw e;
+            }
+            verrou.writeLock().lock();
+            try {
+                pendantChargement.forEach(nouvel::appliquer);
+                pendantChargement = null;
+                etat = nouvel;
+            } finally {
+                verrou.writeLock().unlock();
+            }
+            charge = true;
+            return nouvel.fiches.values().stream()
+                    .flatMap(fiches -> fiches.values().stream())
+                    .filter(fiche -> !fiche.supprimee())
+                    .count();
+        }
+    }
+
+    /**
+     * Arrête un chargement en cours.
+     */
+    @PreDestroy
+    public void arreter() {
+        chargements.shutdownNow();
+    }
+
+    private void appliquer(Changement changement) {
+        verrou.writeLock().lock();
+        try {
+            etat.appliquer(changement);
+            if (pendantChargement != null) {
+                pendantChargement.add(changement);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    private static Set<String> cles(Fiche fiche) {
+        Set<String> cles = new LinkedHashSet<>();
+        ajouterCle(cles, joindre(fiche.prenom(), fiche.nom()));
+        ajouterCle(cles, joindre(fiche.nom(), fiche.prenom()));
+        ajouterCle(cles, fiche.email());
+        return cles;
+    }
+
+    private static void ajouterCle(Set<String> cles, String texte) {
+        String cle = ClesRecherche.normaliser(texte);
+        if (cle != null && !cle.isEmpty()) {
+            cles.add(cle);
+        }
+    }
+
+    private static String joindre(String premier, String second) {
+        if (premier == null) {
+            return second;
+        }
+        return second == null ? premier : premier + ' ' + second;
+    }
+
+    private static Fiche fiche(long version, long score, Object etat) {
+        if (etat == null) {
+            return new Fiche(version, score, null, null, null, true);
+        }
+        if (etat instanceof EnseignantDTO enseignant) {
+            return new Fiche(version, score, enseignant.prenom(), enseignant.nom(), enseignant.email(), false);
+        }
+        if (etat instanceof EtudiantDTO etudiant) {
+            return new Fiche(version, score, etudiant.getPrenom(), etudiant.getNom(), etudiant.getEmail(), false);
+        }
+        if (etat instanceof VacataireDTO vacataire) {
+            return new Fiche(version, score, vacataire.getPrenom(), vacataire.getNom(), vacataire.getEmail(), false);
+        }
+        throw new IllegalArgumentException("État non pris en charge par l'autocomplétion : " + etat.getClass().getName());
+    }
+
+    private static long score(Object dateModification) {
+        if (dateModification instanceof LocalDateTime date) {
+            return date.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        if (dateModification instanceof Date date) {
+            return date.getTime();
+        }
+        return 0;
+    }
+
+    private long mesurer(ToLongFunction<Etat> mesure) {
+        verrou.readLock().lock();
+        try {
+            return mesure.applyAsLong(etat);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    private static long empreinteFiches(Etat etat) {
+        long octets = 0;
+        for (Map<Long, Fiche> fiches : etat.fiches.values()) {
+            for (Fiche fiche : fiches.values()) {
+                octets += OCTETS_FICHE + longueur(fiche.prenom()) + longueur(fiche.nom()) + longueur(fiche.email());
+            }
+        }
+        return octets;
+    }
+
+    private static long longueur(String texte) {
+        return texte == null ? 0 : OCTETS_CHAINE + texte.length();
+    }
+
+    /**
+     * Publie la taille des arbres, la mémoire estimée des arbres et des fiches, et la durée des suggestions.
+     */
+    @Override
+    public void bindTo(MeterRegistry registre) {
+        Gauge.builder("autocompletion.entrees", this,
+                        index -> index.mesurer(e -> e.arbres.values().stream().mapToLong(ArbreRadix::entrees).sum()))
+                .description("Clés (nom complet, email) présentes dans les arbres d'autocomplétion")
+                .register(registre);
+        Gauge.builder("autocompletion.noeuds", this,
+                        index -> index.mesurer(e -> e.arbres.values().stream().mapToLong(ArbreRadix::noeuds).sum()))
+                .description("Nœuds des arbres d'autocomplétion")
+                .register(registre);
+        Gauge.builder("autocompletion.memoire", this,
+                        index -> index.mesurer(e -> e.arbres.values().stream().mapToLong(ArbreRadix::empreinteMemoire).sum()))
+                .description("Mémoire estimée des arbres d'autocomplétion")
+                .tag("structure", "arbres")
+                .baseUnit("bytes")
+                .register(registre);
+        Gauge.builder("autocompletion.memoire", this, index -> index.mesurer(IndexAutocompletion::empreinteFiches))
+                .description("Mémoire estimée des fiches affichées par l'autocomplétion")
+                .tag("structure", "fiches")
+                .baseUnit("bytes")
+                .register(registre);
+        dureeSuggestion = Timer.builder("autocompletion.suggestion")
+                .description("Durée d'une suggestion d'autocomplétion")
+                .publishPercentiles(0.5, 0.99)
+                .register(registre);
+    }
+}
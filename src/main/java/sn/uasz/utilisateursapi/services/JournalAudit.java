@@ -0,0 +1,378 @@
+package sn.uasz.utilisateursapi.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import sn.uasz.utilisateursapi.entities.EntreeAudit;
+import sn.uasz.utilisateursapi.enums.PolitiqueDebordement;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.enums.TypeEvenement;
+import sn.uasz.utilisateursapi.repositories.EntreeAuditRepository;
+import sn.uasz.utilisateursapi.utils.ApresCommit;
+import sn.uasz.utilisateursapi.utils.FileBorneeSansVerrou;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Journal d'audit des changements des utilisateurs et des rôles, écrit en arrière-plan.
+ *
+ * <p>Les services déclarent chaque changement avec l'état de l'entité après modification
+ * ({@link #enregistrer}) ; après la validation de la transaction, le changement est déposé dans une
+ * file bornée sans verrou ({@link FileBorneeSansVerrou}) et la requête continue sans écriture
+ * supplémentaire. Un thread dédié vide la file par lots : il calcule les champs modifiés par
+ * comparaison avec l'état précédent de l'entité (gardé en mémoire pour les entités récemment
+ * modifiées, sinon relu dans la dernière entrée du journal) et insère les entrées par lots JDBC.
+ * Les changements annulés ne sont pas journalisés.</p>
+ *
+ * <p>Quand la file est pleine, la politique {@code audit.file.debordement} s'applique
+ * ({@link PolitiqueDebordement}) ; les entrées écartées sont comptées. L'état complet étant
+ * conservé à chaque entrée, une entrée perdue ne fait que regrouper ses modifications avec
+ * celles de l'entrée suivante de la même entité.</p>
+ *
+ * <p>La taille de la file et le nombre d'entrées écrites, écartées ou perdues (échec d'écriture)
+ * sont publiés dans Actuator ({@code /actuator/metrics/audit.*}).</p>
+ */
+@Component
+@Slf4j
+public class JournalAudit implements MeterBinder {
+
+    /** En-tête HTTP portant l'auteur des changements. */
+    public static final String EN_TETE_AUTEUR = "X-Utilisateur";
+
+    /** Auteur d'une requête HTTP sans en-tête {@value #EN_TETE_AUTEUR}. */
+    static final String AUTEUR_ANONYME = "anonyme";
+
+    /** Auteur d'un changement hors requête HTTP (initialisation, traitements). */
+    static final String AUTEUR_SYSTEME = "systeme";
+
+    private static final int LONGUEUR_MAX_AUTEUR = 100;
+    private static final Set<String> CHAMPS_IGNORES = Set.of("version");
+    private static final long AVERTISSEMENT_MIN_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final EntreeAuditRepository entreeAuditRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final FileBorneeSansVerrou<Changement> file;
+    private final PolitiqueDebordement politique;
+    private final long attenteMaxNanos;
+    private final int tailleLot;
+    private final long intervalleNanos;
+    private final Map<String, JsonNode> derniersEtats;
+    private final LongAdder ecrites = new LongAdder();
+    private final LongAdder ecartees = new LongAdder();
+    private final LongAdder perdues = new LongAdder();
+    private final AtomicLong dernierAvertissement = new AtomicLong(System.nanoTime() - AVERTISSEMENT_MIN_NANOS);
+    private final Thread ecrivain;
+    private volatile boolean actif = true;
+    private volatile Timer dureeEcriture;
+
+    /**
+     * Changement validé, en attente d'écriture.
+     *
+     * @param etat état après le changement, ou null après une suppression
+     */
+    record Changement(TypeAgregat entite, Long id, Long version, TypeEvenement action,
+                      String auteur, LocalDateTime date, JsonNode etat) {
+    }
+
+    /**
+     * Constructeur avec injection de dépendances.
+     */
+    public JournalAudit(EntreeAuditRepository entreeAuditRepository,
+                        ObjectMapper objectMapper,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${audit.file.capacite:10000}") int capacite,
+                        @Value("${audit.file.debordement:ATTENDRE}") PolitiqueDebordement politique,
+                        @Value("${audit.file.attente-max:100}") long attenteMax,
+                        @Value("${audit.ecriture.taille-lot:500}") int tailleLot,
+                        @Value("${audit.ecriture.intervalle:200}") long intervalle,
+                        @Value("${audit.etats-en-memoire:10000}") int etatsEnMemoire) {
+        this.entreeAuditRepository = entreeAuditRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.file = new FileBorneeSansVerrou<>(capacite);
+        this.politique = politique;
+        this.attenteMaxNanos = TimeUnit.MILLISECONDS.toNanos(attenteMax);
+        this.tailleLot = tailleLot;
+        this.intervalleNanos = TimeUnit.MILLISECONDS.toNanos(intervalle);
+        // Accédé par le seul thread d'écriture (méthodes synchronisées)
+        this.derniersEtats = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, JsonNode> plusAncien) {
+                return size() > etatsEnMemoire;
+            }
+        };
+        this.ecrivain = new Thread(this::ecrireEnContinu, "ecriture-journal-audit");
+        this.ecrivain.setDaemon(true);
+    }
+
+    /**
+     * Lance l'écriture en arrière-plan une fois l'application démarrée.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void demarrer() {
+        ecrivain.start();
+    }
+
+    /**
+     * Déclare un changement. Il est déposé dans la file à la validation de la transaction en cours
+     * (immédiatement hors transaction) ; l'auteur est lu dans la requête HTTP en cours.
+     *
+     * @param entite type d'entité modifiée
+     * @param id     identifiant de l'entité
+     * @param version version de l'entité après le changement
+     * @param action nature du changement
+     * @param etat   état de l'entité après le changement (DTO), ou null pour une suppression
+     */
+    public void enregistrer(TypeAgregat entite, Long id, Long version, TypeEvenement action, Object etat) {
+        JsonNode noeud = etat == null ? null : objectMapper.valueToTree(etat);
+        String auteur = auteurCourant();
+        ApresCommit.executer(() -> deposer(new Changement(entite, id, version, action, auteur, LocalDateTime.now(), noeud)));
+    }
+
+    /**
+     * Dépose un changement dans la file en appliquant la politique de débordement.
+     */
+    void deposer(Changement changement) {
+        if (file.offrir(changement)) {
+            return;
+        }
+        switch (politique) {
+            case REJETER -> ecarter(1);
+            case ECARTER_ANCIENNE -> {
+                while (!file.offrir(changement)) {
+                    if (file.retirer() != null) {
+                        ecarter(1);
+                    }
+                }
+            }
+            case ATTENDRE -> {
+                long limite = System.nanoTime() + attenteMaxNanos;
+                LockSupport.unpark(ecrivain);
+                while (!file.offrir(changement)) {
+                    if (System.nanoTime() - limite >= 0) {
+                        ecarter(1);
+                        return;
+                    }
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                }
+            }
+        }
+    }
+
+    private void ecarter(int nombre) {
+        ecartees.add(nombre);
+        long maintenant = System.nanoTime();
+        long precedent = dernierAvertissement.get();
+        if (maintenant - precedent >= AVERTISSEMENT_MIN_NANOS && dernierAvertissement.compareAndSet(precedent, maintenant)) {
+            log.warn("File du journal d'audit pleine ({} entrées) : entrées écartées (politique {}, {} au total)",
+                    file.capacite(), politique, ecartees.sum());
+        }
+    }
+
+    /**
+     * Boucle du thread d'écriture : un lot dès qu'il y en a un plein, sinon toutes les {@code audit.ecriture.intervalle} ms.
+     */
+    private void ecrireEnContinu() {
+        while (actif) {
+            int ecritesDuLot;
+            try {
+                ecritesDuLot = ecrireLot();
+            } catch (RuntimeException e) {
+                log.warn("Écriture du journal d'audit interrompue : {}", e.getMessage());
+                ecritesDuLot = 0;
+            }
+            if (ecritesDuLot < tailleLot) {
+                LockSupport.parkNanos(intervalleNanos);
+            }
+        }
+    }
+
+    /**
+     * Écrit immédiatement toutes les entrées en attente (arrêt de l'application, tests).
+     *
+     * @return le nombre d'entrées retirées de la file
+     */
+    public synchronized int ecrireEnAttente() {
+        int total = 0;
+        int retirees;
+        while ((retirees = ecrireLot()) > 0) {
+            total += retirees;
+        }
+        return total;
+    }
+
+    /**
+     * Retire un lot de la file, calcule les modifications et l'insère en une transaction.
+     *
+     * @return le nombre d'entrées retirées
+     */
+    private synchronized int ecrireLot() {
+        List<Changement> lot = new ArrayList<>(Math.min(tailleLot, file.taille()));
+        if (file.retirer(lot, tailleLot) == 0) {
+            return 0;
+        }
+        long debut = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(statut ->
+                    entreeAuditRepository.saveAll(lot.stream().map(this::versEntree).toList()));
+            ecrites.add(lot.size());
+        } catch (RuntimeException e) {
+            perdues.add(lot.size());
+            // Les états en mémoire peuvent ne plus correspondre au journal
+            derniersEtats.clear();
+            log.warn("Échec d'écriture de {} entrées du journal d'audit : {}", lot.size(), e.getMessage());
+        }
+        Timer timer = dureeEcriture;
+        if (timer != null) {
+            timer.record(System.nanoTime() - debut, TimeUnit.NANOSECONDS);
+        }
+        return lot.size();
+    }
+
+    private EntreeAudit versEntree(Changement changement) {
+        String cle = changement.entite() + ":" + changement.id();
+        JsonNode avant = derniersEtats.get(cle);
+        if (avant == null) {
+            avant = entreeAuditRepository.trouverDernierEtat(changement.entite(), changement.id())
+                    .map(this::lire)
+                    .orElse(NullNode.getInstance());
+        }
+        derniersEtats.put(cle, changement.etat() == null ? NullNode.getInstance() : changement.etat());
+        return EntreeAudit.builder()
+                .entite(changement.entite())
+                .idEntite(changement.id())
+                .version(changement.version())
+                .action(changement.action())
+                .auteur(changement.auteur())
+                .date(changement.date())
+                .modifications(difference(avant, changement.etat()).toString())
+                .etat(changement.etat() == null ? null : changement.etat().toString())
+                .build();
+    }
+
+    /**
+     * Compare deux états champ par champ.
+     *
+     * @param avant état précédent ({@link NullNode} si inconnu)
+     * @param apres nouvel état, ou null après une suppression
+     * @return {@code {"champ": {"avant": ..., "apres": ...}}} pour chaque champ modifié
+     */
+    ObjectNode difference(JsonNode avant, JsonNode apres) {
+        ObjectNode modifications = objectMapper.createObjectNode();
+        Set<String> champs = new LinkedHashSet<>();
+        if (apres != null) {
+            apres.fieldNames().forEachRemaining(champs::add);
+        }
+        for (Iterator<String> noms = avant.fieldNames(); noms.hasNext(); ) {
+            champs.add(noms.next());
+        }
+        for (String champ : champs) {
+            if (CHAMPS_IGNORES.contains(champ)) {
+                continue;
+            }
+            JsonNode valeurAvant = avant.path(champ);
+            JsonNode valeurApres = apres == null ? NullNode.getInstance() : apres.path(champ);
+            valeurAvant = valeurAvant.isMissingNode() ? NullNode.getInstance() : valeurAvant;
+            valeurApres = valeurApres.isMissingNode() ? NullNode.getInstance() : valeurApres;
+            if (!Objects.equals(valeurAvant, valeurApres)) {
+                ObjectNode modification = modifications.putObject(champ);
+                modification.set("avant", valeurAvant);
+                modification.set("apres", valeurApres);
+            }
+        }
+        return modifications;
+    }
+
+    private JsonNode lire(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            log.warn("État illisible dans le journal d'audit : {}", e.getMessage());
+            return NullNode.getInstance();
+        }
+    }
+
+    private static String auteurCourant() {
+        RequestAttributes requete = RequestContextHolder.getRequestAttributes();
+        if (!(requete instanceof ServletRequestAttributes servlet)) {
+            return AUTEUR_SYSTEME;
+        }
+        String auteur = servlet.getRequest().getHeader(EN_TETE_AUTEUR);
+        if (auteur == null || auteur.isBlank()) {
+            return AUTEUR_ANONYME;
+        }
+        auteur = auteur.strip();
+        return auteur.length() <= LONGUEUR_MAX_AUTEUR ? auteur : auteur.substring(0, LONGUEUR_MAX_AUTEUR);
+    }
+
+    /**
+     * Publie la taille de la file, le nombre d'entrées écrites, écartées (file pleine) et perdues
+     * (échec d'écriture), et la durée d'écriture des lots.
+     */
+    @Override
+    public void bindTo(MeterRegistry registre) {
+        Gauge.builder("audit.file.taille", file, FileBorneeSansVerrou::taille)
+                .description("Changements en attente d'écriture dans le journal d'audit").register(registre);
+        FunctionCounter.builder("audit.entrees", ecrites, LongAdder::sum)
+                .description("Entrées écrites dans le journal d'audit")
+                .tag("issue", "ecrite").register(registre);
+        FunctionCounter.builder("audit.entrees", ecartees, LongAdder::sum)
+                .description("Entrées écartées, file du journal d'audit pleine")
+                .tag("issue", "ecartee").register(registre);
+        FunctionCounter.builder("audit.entrees", perdues, LongAdder::sum)
+                .description("Entrées perdues sur un échec d'écriture du journal d'audit")
+                .tag("issue", "perdue").register(registre);
+        dureeEcriture = Timer.builder("audit.ecriture.lot")
+                .description("Durée d'écriture d'un lot d'entrées du journal d'audit").register(registre);
+    }
+
+    /**
+     * Arrête le thread d'écriture puis écrit les entrées restantes.
+     */
+    @PreDestroy
+    public void arreter() {
+        actif = false;
+        LockSupport.unpark(ecrivain);
+        try {
+            ecrivain.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            ecrireEnAttente();
+        } catch (RuntimeException e) {
+            log.warn("Entrées du journal d'audit non écrites à l'arrêt : {}", e.getMessage());
+        }
+    }
+}
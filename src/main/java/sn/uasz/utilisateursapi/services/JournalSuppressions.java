@@ -0,0 +1,45 @@
+package sn.uasz.utilisateursapi.services;
+
+import org.springframework.stereotype.Component;
+import sn.uasz.utilisateursapi.utils.ApresCommit;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Date de la dernière suppression validée de chaque type d'entité.
+ *
+ * <p>Une suppression ne laisse aucune date en base : sans ce journal, la date de dernière
+ * modification d'une collection ({@code Last-Modified}) pourrait reculer après une suppression
+ * et un client se croire à jour. La date est relevée à la validation de la transaction, pour
+ * qu'aucune lecture antérieure ne puisse l'avoir déjà vue. Les suppressions antérieures au
+ * démarrage sont inconnues : la date de démarrage sert de borne inférieure.</p>
+ */
+@Component
+public class JournalSuppressions {
+
+    private final Instant demarrage = Instant.now();
+    private final ConcurrentHashMap<Class<?>, Instant> dernieres = new ConcurrentHashMap<>();
+
+    /**
+     * Relève la suppression d'une entité, à la validation de la transaction en cours s'il y en a une.
+     *
+     * @param type classe de l'entité supprimée
+     */
+    public void enregistrer(Class<?> type) {
+        ApresCommit.executer(() -> relever(type));
+    }
+
+    /**
+     * @param type classe d'entité
+     * @return la date de la dernière suppression validée, ou la date de démarrage à défaut
+     */
+    public Instant derniereSuppression(Class<?> type) {
+        return dernieres.getOrDefault(type, demarrage);
+    }
+
+    private void relever(Class<?> type) {
+        Instant maintenant = Instant.now();
+        dernieres.merge(type, maintenant, (ancienne, nouvelle) -> nouvelle.isAfter(ancienne) ? nouvelle : ancienne);
+    }
+}
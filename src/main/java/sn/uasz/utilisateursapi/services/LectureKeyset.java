@@ -0,0 +1,70 @@
+package sn.uasz.utilisateursapi.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import sn.uasz.utilisateursapi.utils.PaginationKeyset;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lecture d'entités par pagination keyset sur un couple {@code (clé de tri, id)} dont la clé
+ * de tri peut être nulle.
+ *
+ * <p>Le défilement keyset de Spring Data compare la clé du dernier élément avec {@code >} et
+ * {@code =} : une clé nulle ne vérifie aucune des deux comparaisons et la page suivante
+ * s'arrêtait au premier élément sans nom. La requête est donc construite ici avec les
+ * conditions et l'ordre {@code NULLS FIRST} de {@link PaginationKeyset}.</p>
+ */
+@Component
+@Transactional(readOnly = true)
+public class LectureKeyset {
+
+    private static final String ID = "id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Lit les éléments suivant une position, triés par {@code (cleTri NULLS FIRST, id)}.
+     * Une ligne de plus que la limite est lue pour savoir s'il existe une page suivante ;
+     * {@code PaginationKeyset.page(lignes, limite, ...)} la retire de la page.
+     *
+     * @param entite   classe de l'entité interrogée
+     * @param cleTri   attribut de tri principal (chaîne)
+     * @param position position décodée du curseur, vide pour la première page
+     * @param limite   taille de la page
+     * @param filtres  conditions d'égalité supplémentaires (attribut → valeur)
+     * @return au plus {@code limite + 1} entités
+     */
+    public <E> List<E> lire(Class<E> entite, String cleTri, KeysetScrollPosition position, Limit limite,
+                            Map<String, Object> filtres) {
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        CriteriaQuery<E> requete = cb.createQuery(entite);
+        Root<E> racine = requete.from(entite);
+        Path<String> tri = racine.get(cleTri);
+        Path<Long> id = racine.get(ID);
+
+        List<Predicate> conditions = new ArrayList<>();
+        filtres.forEach((attribut, valeur) -> conditions.add(cb.equal(racine.get(attribut), valeur)));
+        if (!position.getKeys().isEmpty()) {
+            conditions.add(PaginationKeyset.apres(cb, tri, id,
+                    (String) position.getKeys().get(cleTri), (Long) position.getKeys().get(ID)));
+        }
+        requete.select(racine).where(conditions.toArray(Predicate[]::new));
+        requete.orderBy(PaginationKeyset.ordre(cb, tri, id));
+
+        return entityManager.createQuery(requete).setMaxResults(limite.max() + 1).getResultList();
+    }
+}
@@ -0,0 +1,57 @@
+package sn.uasz.utilisateursapi.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import sn.uasz.utilisateursapi.entities.EvenementOutbox;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.enums.TypeEvenement;
+import sn.uasz.utilisateursapi.repositories.EvenementOutboxRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Écriture des événements de changement des utilisateurs dans l'outbox.
+ *
+ * L'événement est inséré dans la transaction de la modification (elle est obligatoire) : il est
+ * validé ou annulé avec elle, et ne peut être ni perdu ni publié pour un changement annulé.
+ * La publication est assurée ensuite par {@link RelaisOutbox}.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final EvenementOutboxRepository evenementOutboxRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Enregistre un événement dans la transaction en cours.
+     *
+     * @param agregat   type d'utilisateur concerné
+     * @param idAgregat identifiant de l'utilisateur
+     * @param version   version de l'utilisateur après le changement
+     * @param type      nature du changement
+     * @param donnees   état de l'utilisateur après le changement, sérialisé en JSON
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enregistrer(TypeAgregat agregat, Long idAgregat, Long version, TypeEvenement type, Object donnees) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(donnees);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Événement " + type + " de " + agregat + " " + idAgregat
+                    + " impossible à sérialiser", e);
+        }
+        evenementOutboxRepository.save(EvenementOutbox.builder()
+                .agregat(agregat)
+                .idAgregat(idAgregat)
+                .versionAgregat(version)
+                .type(type)
+                .donnees(json)
+                .dateCreation(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,124 @@
+package sn.uasz.utilisateursapi.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sn.uasz.utilisateursapi.dtos.PageCurseurDTO;
+import sn.uasz.utilisateursapi.utils.PaginationKeyset;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Lectures par projection : seules les colonnes demandées par le client sont sélectionnées.
+ *
+ * <p>Les requêtes sont construites avec l'API Criteria sous forme de {@link Tuple} :
+ * aucune entité n'est hydratée ni attachée au contexte de persistance, aucune association
+ * n'est chargée et aucun mapper n'intervient. Chaque ligne est restituée sous forme de
+ * {@code Map} ordonnée selon la liste de champs demandée.</p>
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProjectionService {
+
+    private static final String ID = "id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Lit une page de projections triée par {@code (cleTri, id)}, par pagination keyset.
+     * Les curseurs sont compatibles avec ceux des listes complètes.
+     *
+     * @param entite  classe de l'entité interrogée
+     * @param champs  champs à sélectionner (déjà validés)
+     * @param cleTri  attribut de tri principal (chaîne)
+     * @param curseur curseur opaque de la page précédente, ou null
+     * @param taille  taille de page souhaitée
+     * @param filtres conditions d'égalité supplémentaires (attribut → valeur)
+     * @return la page de projections et le curseur de la page suivante
+     */
+    public PageCurseurDTO<Map<String, Object>> page(Class<?> entite, List<String> champs, String cleTri,
+                                                    String curseur, Integer taille, Map<String, Object> filtres) {
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        CriteriaQuery<Tuple> requete = cb.createTupleQuery();
+        Root<?> racine = requete.from(entite);
+        Path<String> tri = racine.get(cleTri);
+        Path<Long> id = racine.get(ID);
+
+        // La clé de tri et l'identifiant sont toujours lus pour construire le curseur suivant
+        Set<String> selection = new LinkedHashSet<>(champs);
+        selection.add(cleTri);
+        selection.add(ID);
+        requete.multiselect(selection.stream().<Selection<?>>map(c -> racine.get(c).alias(c)).toList());
+
+        List<Predicate> conditions = new ArrayList<>();
+        filtres.forEach((attribut, valeur) -> conditions.add(cb.equal(racine.get(attribut), valeur)));
+        KeysetScrollPosition position = PaginationKeyset.position(curseur, cleTri);
+        if (!position.getKeys().isEmpty()) {
+            conditions.add(PaginationKeyset.apres(cb, tri, id,
+                    (String) position.getKeys().get(cleTri), (Long) position.getKeys().get(ID)));
+        }
+        requete.where(conditions.toArray(Predicate[]::new));
+        requete.orderBy(PaginationKeyset.ordre(cb, tri, id));
+
+        int limite = PaginationKeyset.limite(taille).max();
+        List<Tuple> lignes = entityManager.createQuery(requete).setMaxResults(limite + 1).getResultList();
+
+        String suivant = null;
+        if (lignes.size() > limite) {
+            lignes = lignes.subList(0, limite);
+            Tuple dernier = lignes.get(limite - 1);
+            suivant = PaginationKeyset.encoder((String) dernier.get(cleTri), (Long) dernier.get(ID));
+        }
+        return new PageCurseurDTO<>(lignes.stream().map(ligne -> versMap(ligne, champs)).toList(), suivant);
+    }
+
+    /**
+     * Lit la projection d'un enregistrement par son identifiant.
+     *
+     * @param entite  classe de l'entité interrogée
+     * @param champs  champs à sélectionner (déjà validés)
+     * @param id      identifiant recherché
+     * @param filtres conditions d'égalité supplémentaires (attribut → valeur)
+     * @return la projection, ou vide si l'enregistrement n'existe pas
+     */
+    public Optional<Map<String, Object>> parId(Class<?> entite, List<String> champs, Long id,
+                                               Map<String, Object> filtres) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> requete = cb.createTupleQuery();
+        Root<?> racine = requete.from(entite);
+        requete.multiselect(champs.stream().<Selection<?>>map(c -> racine.get(c).alias(c)).toList());
+        List<Predicate> conditions = new ArrayList<>();
+        conditions.add(cb.equal(racine.get(ID), id));
+        filtres.forEach((attribut, valeur) -> conditions.add(cb.equal(racine.get(attribut), valeur)));
+        requete.where(conditions.toArray(Predicate[]::new));
+        return entityManager.createQuery(requete).getResultList().stream()
+                .findFirst()
+                .map(ligne -> versMap(ligne, champs));
+    }
+
+    private static Map<String, Object> versMap(Tuple ligne, List<String> champs) {
+        Map<String, Object> valeurs = new LinkedHashMap<>();
+        for (String champ : champs) {
+            valeurs.put(champ, ligne.get(champ));
+        }
+        return valeurs;
+    }
+}
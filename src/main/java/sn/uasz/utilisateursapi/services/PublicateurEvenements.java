@@ -0,0 +1,23 @@
+package sn.uasz.utilisateursapi.services;
+
+import sn.uasz.utilisateursapi.dtos.EvenementDTO;
+
+import java.io.IOException;
+
+/**
+ * Destination des événements publiés par {@link RelaisOutbox} (fichier, HTTP, courtier de messages...).
+ *
+ * Le publicateur est choisi par la propriété {@code outbox.publicateur}. Il peut être appelé
+ * depuis plusieurs fils à la fois, mais jamais en parallèle pour un même utilisateur.
+ */
+public interface PublicateurEvenements {
+
+    /**
+     * Publie un événement. Le retour sans exception vaut accusé de réception : l'événement est
+     * alors retiré de l'outbox ; sinon il sera publié de nouveau au passage suivant du relais.
+     *
+     * @param evenement événement à publier
+     * @throws IOException si la destination est indisponible
+     */
+    void publier(EvenementDTO evenement) throws IOException;
+}
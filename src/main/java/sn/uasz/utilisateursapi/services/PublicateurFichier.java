@@ -0,0 +1,71 @@
+package sn.uasz.utilisateursapi.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import sn.uasz.utilisateursapi.dtos.EvenementDTO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Publicateur par défaut : ajoute chaque événement, en JSON sur une ligne, à un fichier NDJSON local
+ * ({@code outbox.fichier}). Il tient lieu de courtier de messages en développement.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.publicateur", havingValue = "fichier", matchIfMissing = true)
+@Slf4j
+public class PublicateurFichier implements PublicateurEvenements {
+
+    private final ObjectMapper objectMapper;
+    private final Path fichier;
+    private BufferedWriter ecrivain;
+
+    /**
+     * Constructeur avec injection de dépendances.
+     *
+     * @param fichier chemin du fichier NDJSON, créé au besoin
+     */
+    public PublicateurFichier(ObjectMapper objectMapper,
+                              @Value("${outbox.fichier:${java.io.tmpdir}/utilisateurs-api-evenements.ndjson}") Path fichier) {
+        this.objectMapper = objectMapper;
+        this.fichier = fichier;
+    }
+
+    /**
+     * Écrit l'événement et vide le tampon : l'événement est sur disque avant d'être retiré de l'outbox.
+     */
+    @Override
+    public synchronized void publier(EvenementDTO evenement) throws IOException {
+        if (ecrivain == null) {
+            Path dossier = fichier.toAbsolutePath().getParent();
+            if (dossier != null) {
+                Files.createDirectories(dossier);
+            }
+            ecrivain = Files.newBufferedWriter(fichier, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            log.info("Publication des événements dans {}", fichier.toAbsolutePath());
+        }
+        ecrivain.write(objectMapper.writeValueAsString(evenement));
+        ecrivain.newLine();
+        ecrivain.flush();
+    }
+
+    /**
+     * Ferme le fichier à l'arrêt du contexte.
+     */
+    @PreDestroy
+    public synchronized void fermer() throws IOException {
+        if (ecrivain != null) {
+            ecrivain.close();
+            ecrivain = null;
+        }
+    }
+}
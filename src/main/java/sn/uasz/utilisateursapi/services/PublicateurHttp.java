@@ -0,0 +1,46 @@
+package sn.uasz.utilisateursapi.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import sn.uasz.utilisateursapi.dtos.EvenementDTO;
+
+import java.io.IOException;
+
+/**
+ * Publicateur HTTP : envoie chaque événement en {@code POST} JSON à {@code outbox.http.url}.
+ * L'en-tête {@code Idempotency-Key} porte l'identifiant de l'événement, pour que le destinataire
+ * écarte les doublons d'une livraison « au moins une fois ». Toute réponse hors 2xx est un échec.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.publicateur", havingValue = "http")
+public class PublicateurHttp implements PublicateurEvenements {
+
+    private final RestClient client;
+
+    /**
+     * Constructeur avec injection de dépendances.
+     *
+     * @param url adresse qui reçoit les événements
+     */
+    public PublicateurHttp(RestClient.Builder builder, @Value("${outbox.http.url}") String url) {
+        this.client = builder.baseUrl(url).build();
+    }
+
+    @Override
+    public void publier(EvenementDTO evenement) throws IOException {
+        try {
+            client.post()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("Idempotency-Key", String.valueOf(evenement.id()))
+                    .body(evenement)
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (RestClientException e) {
+            throw new IOException("Publication de l'événement " + evenement.id() + " refusée : " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package sn.uasz.utilisateursapi.services;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.uasz.utilisateursapi.repositories.EnseignantRepository;
+import sn.uasz.utilisateursapi.repositories.EtudiantRepository;
+import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+import sn.uasz.utilisateursapi.utils.ClesRecherche;
+import sn.uasz.utilisateursapi.utils.PhonetiqueFrancaise;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Rattrapage des clés de recherche normalisées et phonétiques des lignes qui n'en ont pas : lignes
+ * antérieures aux colonnes de clés, ou écrites directement en base sans passer par
+ * {@link ClesRechercheEcouteur}.
+ *
+ * <p>Chaque table est parcourue par identifiant croissant, en tranches : une transaction par
+ * tranche, qui lit les lignes incomplètes puis écrit leurs clés en un lot JDBC. Les clés étant
+ * dérivées des autres colonnes, leur écriture n'incrémente pas la version des lignes. Lancé en
+ * arrière-plan au démarrage (désactivable), il peut être interrompu puis relancé sans perte :
+ * seules les lignes encore incomplètes sont relues.</p>
+ */
+@Slf4j
+@Component
+public class RattrapageClesRecherche implements MeterBinder {
+
+    private final List<Table> tables;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactions;
+    private final boolean auDemarrage;
+    private final int tailleTranche;
+    private final LongAdder lignesCompletees = new LongAdder();
+    private final ExecutorService execution = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "rattrapage-cles-recherche");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Table à compléter.
+     *
+     * @param nom     nom de la table en base
+     * @param lecture lecture d'une tranche de lignes incomplètes ({@code [id, nom, prenom, email]})
+     *                après un identifiant
+     */
+    private record Table(String nom, BiFunction<Long, Limit, List<Object[]>> lecture) {
+    }
+
+    /**
+     * Constructeur avec injection de dépendances.
+     */
+    public RattrapageClesRecherche(EnseignantRepository enseignantRepository,
+                                   EtudiantRepository etudiantRepository,
+                                   VacataireRepository vacataireRepository,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${recherche.cles.rattrapage.au-demarrage:true}") boolean auDemarrage,
+                                   @Value("${recherche.cles.rattrapage.taille-tranche:1000}") int tailleTranche) {
+        this.tables = List.of(
+                new Table("enseignant", enseignantRepository::findSansClesRecherche),
+                new Table("etudiant", etudiantRepository::findSansClesRecherche),
+                new Table("vacataires", vacataireRepository::findSansClesRecherche));
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.auDemarrage = auDemarrage;
+        this.tailleTranche = tailleTranche;
+    }
+
+    /**
+     * Lance le rattrapage en arrière-plan une fois l'application démarrée, s'il est activé.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void demarrer() {
+        if (!auDemarrage) {
+            return;
+        }
+        execution.execute(() -> {
+            try {
+                long completees = rattraper();
+                if (completees > 0) {
+                    log.info("Clés de recherche rattrapées pour {} ligne(s)", completees);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Rattrapage des clés de recherche interrompu : {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Complète les clés de recherche de toutes les lignes incomplètes des trois tables.
+     *
+     * @return le nombre de lignes complétées
+     */
+    public long rattraper() {
+        long total = 0;
+        for (Table table : tables) {
+            total += rattraper(table);
+        }
+        return total;
+    }
+
+    private long rattraper(Table table) {
+        String miseAJour = "update " + table.nom()
+                + " set nom_normalise = ?, prenom_normalise = ?, email_normalise = ?, nom_phonetique = ?, prenom_phonetique = ?"
+                + " where id = ?";
+        long total = 0;
+        long apres = Long.MIN_VALUE;
+        while (!Thread.currentThread().isInterrupted()) {
+            long debut = apres;
+            List<Object[]> tranche = transactions.execute(statut -> {
+                List<Object[]> lignes = table.lecture().apply(debut, Limit.of(tailleTranche));
+                jdbcTemplate.batchUpdate(miseAJour, lignes.stream()
+                        .map(ligne -> new Object[]{
+                                ClesRecherche.normaliser((String) ligne[1]),
+                                ClesRecherche.normaliser((String) ligne[2]),
+                                ClesRecherche.normaliser((String) ligne[3]),
+                                PhonetiqueFrancaise.cle((String) ligne[1]),
+                                PhonetiqueFrancaise.cle((String) ligne[2]),
+                                ligne[0]})
+                        .toList());
+                return lignes;
+            });
+            if (tranche == null || tranche.isEmpty()) {
+                break;
+            }
+            total += tranche.size();
+            lignesCompletees.add(tranche.size());
+            apres = (Long) tranche.get(tranche.size() - 1)[0];
+        }
+        return total;
+    }
+
+    /**
+     * Arrête le rattrapage en cours.
+     */
+    @PreDestroy
+    public void arreter() {
+        execution.shutdownNow();
+    }
+
+    /**
+     * Publie le nombre de lignes complétées.
+     */
+    @Override
+    public void bindTo(MeterRegistry registre) {
+        FunctionCounter.builder("recherche.cles.rattrapage.lignes", lignesCompletees, LongAdder::sum)
+                .description("Lignes dont les clés de recherche ont été rattrapées")
+                .register(registre);
+    }
+}
@@ -0,0 +1,306 @@
+package sn.uasz.utilisateursapi.services;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.uasz.utilisateursapi.dtos.ClesExistantesDTO;
+import sn.uasz.utilisateursapi.enums.CleUnique;
+import sn.uasz.utilisateursapi.exceptions.LotInvalideException;
+import sn.uasz.utilisateursapi.repositories.EnseignantRepository;
+import sn.uasz.utilisateursapi.repositories.EtudiantRepository;
+import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+import sn.uasz.utilisateursapi.utils.ApresCommit;
+import sn.uasz.utilisateursapi.utils.FiltreBloom;
+import sn.uasz.utilisateursapi.utils.LectureParLot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Filtres de Bloom des clés uniques (emails, matricules), pour éviter les {@code SELECT}
+ * d'unicité sur le chemin de création.
+ *
+ * <p>Un filtre par {@link CleUnique} est construit au démarrage de l'application à partir de la base,
+ * puis tenu à jour par {@link ClesUniquesEcouteur} à chaque insertion ou mise à jour d'entité.
+ * Quand le filtre répond « absent », la clé est certainement libre et la requête d'existence
+ * est évitée ; sinon la base tranche. Tant qu'un filtre n'est pas prêt, toutes les clés sont
+ * « possibles » et la base est toujours interrogée. La contrainte d'unicité en base reste le
+ * dernier rempart (insertions concurrentes).</p>
+ *
+ * <p>Un filtre dont le nombre d'ajouts dépasse la capacité est reconstruit en arrière-plan
+ * avec une capacité doublée.</p>
+ */
+@Component
+@Slf4j
+public class RegistreClesUniques implements MeterBinder {
+
+    /** Nombre maximal de valeurs par contrôle groupé d'existence. */
+    public static final int TAILLE_MAX_CONTROLE = 10_000;
+
+    private final Map<CleUnique, Source> sources = new EnumMap<>(CleUnique.class);
+    private final Map<CleUnique, Etat> etats = new EnumMap<>(CleUnique.class);
+    private final TransactionTemplate lectureSeule;
+    private final long capaciteMin;
+    private final double tauxFauxPositifs;
+    private final ExecutorService reconstructions = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "reconstruction-filtres-bloom");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Lecture des clés existantes d'une colonne unique.
+     */
+    private record Source(LongSupplier compter,
+                          Supplier<Stream<String>> parcourir,
+                          Function<Collection<String>, List<String>> existantes) {
+    }
+
+    private static final class Etat {
+        private volatile FiltreBloom actif;
+        private volatile FiltreBloom enConstruction;
+        private final AtomicBoolean reconstructionDemandee = new AtomicBoolean();
+        private final LongAdder requetesEvitees = new LongAdder();
+        private final LongAdder verificationsEnBase = new LongAdder();
+    }
+
+    /**
+     * Constructeur avec injection de dépendances.
+     */
+    public RegistreClesUniques(EnseignantRepository enseignantRepository,
+                               EtudiantRepository etudiantRepository,
+                               VacataireRepository vacataireRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${unicite.bloom.capacite-min:100000}") long capaciteMin,
+                               @Value("${unicite.bloom.taux-faux-positifs:0.01}") double tauxFauxPositifs) {
+        sources.put(CleUnique.ENSEIGNANT_EMAIL, new Source(enseignantRepository::count,
+                enseignantRepository::streamEmails, enseignantRepository::findEmailsExistants));
+        sources.put(CleUnique.ETUDIANT_MATRICULE, new Source(etudiantRepository::count,
+                etudiantRepository::streamMatricules, etudiantRepository::findMatriculesExistants));
+        sources.put(CleUnique.ETUDIANT_EMAIL, new Source(etudiantRepository::count,
+                etudiantRepository::streamEmails, etudiantRepository::findEmailsExistants));
+        sources.put(CleUnique.VACATAIRE_EMAIL, new Source(vacataireRepository::count,
+                vacataireRepository::streamEmails, vacataireRepository::findEmailsExistants));
+        for (CleUnique cle : CleUnique.values()) {
+            etats.put(cle, new Etat());
+        }
+        this.lectureSeule = new TransactionTemplate(transactionManager);
+        this.lectureSeule.setReadOnly(true);
+        this.capaciteMin = capaciteMin;
+        this.tauxFauxPositifs = tauxFauxPositifs;
+    }
+
+    /**
+     * Construit les filtres une fois l'application démarrée.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialiser() {
+        for (CleUnique cle : CleUnique.values()) {
+            reconstruire(cle);
+        }
+    }
+
+    /**
+     * Recharge entièrement le filtre d'une clé depuis la base.
+     * Les clés écrites pendant le chargement sont ajoutées à l'ancien et au nouveau filtre.
+     *
+     * @param cle clé unique à recharger
+     */
+    public void reconstruire(CleUnique cle) {
+        Etat etat = etats.get(cle);
+        Source source = sources.get(cle);
+        synchronized (etat) {
+            long debut = System.nanoTime();
+            try {
+                long existantes = lectureSeule.execute(statut -> source.compter().getAsLong());
+                long capacite = Math.max(capaciteMin, 2 * existantes);
+                if (etat.actif != null && etat.actif.estSature()) {
+                    capacite = Math.max(capacite, 2 * etat.actif.capacite());
+                }
+                FiltreBloom filtre = new FiltreBloom(capacite, tauxFauxPositifs);
+                // Publié avant la lecture : toute écriture validée après ce point y est ajoutée
+                etat.enConstruction = filtre;
+                lectureSeule.executeWithoutResult(statut -> {
+                    try (Stream<String> valeurs = source.parcourir().get()) {
+                        valeurs.forEach(filtre::ajouter);
+                    }
+                });
+                etat.actif = filtre;
+                log.info("Filtre de Bloom {} construit : {} clés, capacité {}, {} Ko en {} ms", cle,
+                        filtre.ajouts(), capacite, filtre.tailleOctets() / 1024, (System.nanoTime() - debut) / 1_000_000);
+            } catch (RuntimeException e) {
+                log.error("Échec de la construction du filtre de Bloom {}, vérifications servies par la base", cle, e);
+            } finally {
+                etat.enConstruction = null;
+                etat.reconstructionDemandee.set(false);
+            }
+        }
+    }
+
+    /**
+     * Indique si une clé peut déjà exister en base.
+     *
+     * @param cle    clé unique concernée
+     * @param valeur valeur testée
+     * @return false si la valeur est certainement libre, true s'il faut vérifier en base
+     */
+    public boolean peutExister(CleUnique cle, String valeur) {
+        Etat etat = etats.get(cle);
+        FiltreBloom filtre = etat.actif;
+        if (filtre != null && !filtre.peutContenir(valeur)) {
+            etat.requetesEvitees.increment();
+            return false;
+        }
+        etat.verificationsEnBase.increment();
+        return true;
+    }
+
+    /**
+     * Contrôle groupé d'existence pour les appelants externes.
+     *
+     * @param cle     clé unique concernée
+     * @param valeurs valeurs testées (au plus {@value #TAILLE_MAX_CONTROLE})
+     * @return les valeurs existantes et le nombre de vérifications faites en base
+     * @throws LotInvalideException si le lot dépasse {@value #TAILLE_MAX_CONTROLE} valeurs
+     */
+    public ClesExistantesDTO controler(CleUnique cle, List<String> valeurs) {
+        if (valeurs.size() > TAILLE_MAX_CONTROLE) {
+            throw new LotInvalideException("Au plus " + TAILLE_MAX_CONTROLE + " valeurs par contrôle (reçues : " + valeurs.size() + ")");
+        }
+        Set<String> distinctes = new LinkedHashSet<>(valeurs);
+        distinctes.remove(null);
+        List<String> aVerifier = candidates(cle, distinctes);
+        return new ClesExistantesDTO(cle, distinctes.size(), aVerifier.size(), verifierEnBase(cle, aVerifier));
+    }
+
+    /**
+     * Retourne, parmi les valeurs fournies, celles déjà présentes en base.
+     * Seules les valeurs que le filtre ne peut pas écarter sont vérifiées, par paquets
+     * de {@value LectureParLot#TAILLE_MAX} dans une requête {@code IN}.
+     *
+     * @param cle     clé unique concernée
+     * @param valeurs valeurs testées (les valeurs nulles sont ignorées)
+     * @return les valeurs existantes, sans doublon, dans l'ordre de la requête
+     */
+    public List<String> existantes(CleUnique cle, Collection<String> valeurs) {
+        return verifierEnBase(cle, candidates(cle, valeurs));
+    }
+
+    /**
+     * Valeurs distinctes et non nulles que le filtre ne peut pas écarter.
+     */
+    private List<String> candidates(CleUnique cle, Collection<String> valeurs) {
+        List<String> aVerifier = new ArrayList<>();
+        for (String valeur : new LinkedHashSet<>(valeurs)) {
+            if (valeur != null && peutExister(cle, valeur)) {
+                aVerifier.add(valeur);
+            }
+        }
+        return aVerifier;
+    }
+
+    private List<String> verifierEnBase(CleUnique cle, List<String> aVerifier) {
+        Set<String> trouvees = new HashSet<>();
+        Source source = sources.get(cle);
+        for (int debut = 0; debut < aVerifier.size(); debut += LectureParLot.TAILLE_MAX) {
+            List<String> paquet = aVerifier.subList(debut, Math.min(debut + LectureParLot.TAILLE_MAX, aVerifier.size()));
+            trouvees.addAll(source.existantes().apply(paquet));
+        }
+        return aVerifier.stream().filter(trouvees::contains).toList();
+    }
+
+    /**
+     * Enregistre une clé écrite en base. La clé est ajoutée immédiatement (un rollback ne
+     * laisse qu'un faux positif) puis de nouveau après le commit, pour qu'une reconstruction
+     * démarrée entre-temps la prenne aussi en compte.
+     *
+     * @param cle    clé unique concernée
+     * @param valeur valeur écrite
+     */
+    public void enregistrer(CleUnique cle, String valeur) {
+        if (valeur == null) {
+            return;
+        }
+        ajouter(cle, valeur);
+        ApresCommit.executer(() -> ajouter(cle, valeur));
+    }
+
+    /**
+     * @param cle clé unique concernée
+     * @return true si le filtre de la clé est construit
+     */
+    public boolean estPret(CleUnique cle) {
+        return etats.get(cle).actif != null;
+    }
+
+    private void ajouter(CleUnique cle, String valeur) {
+        Etat etat = etats.get(cle);
+        FiltreBloom enConstruction = etat.enConstruction;
+        if (enConstruction != null) {
+            enConstruction.ajouter(valeur);
+        }
+        FiltreBloom actif = etat.actif;
+        if (actif != null) {
+            actif.ajouter(valeur);
+            if (actif.estSature() && etat.reconstructionDemandee.compareAndSet(false, true)) {
+                log.warn("Filtre de Bloom {} saturé ({} ajouts pour une capacité de {}), reconstruction",
+                        cle, actif.ajouts(), actif.capacite());
+                reconstructions.execute(() -> reconstruire(cle));
+            }
+        }
+    }
+
+    /**
+     * Publie, par clé, le nombre de requêtes évitées et de vérifications en base,
+     * ainsi que l'occupation et le taux de faux positifs estimé de chaque filtre.
+     */
+    @Override
+    public void bindTo(MeterRegistry registre) {
+        etats.forEach((cle, etat) -> {
+            String nom = cle.name().toLowerCase();
+            FunctionCounter.builder("unicite.bloom.requetes.evitees", etat.requetesEvitees, LongAdder::sum)
+                    .description("Contrôles d'unicité tranchés par le filtre, sans requête")
+                    .tag("cle", nom).register(registre);
+            FunctionCounter.builder("unicite.bloom.verifications", etat.verificationsEnBase, LongAdder::sum)
+                    .description("Contrôles d'unicité renvoyés vers la base")
+                    .tag("cle", nom).register(registre);
+            Gauge.builder("unicite.bloom.cles", etat, e -> e.actif == null ? 0 : e.actif.ajouts())
+                    .tag("cle", nom).register(registre);
+            Gauge.builder("unicite.bloom.faux.positifs", etat,
+                            e -> e.actif == null ? Double.NaN : e.actif.tauxFauxPositifsEstime())
+                    .description("Taux de faux positifs estimé")
+                    .tag("cle", nom).register(registre);
+        });
+    }
+
+    /**
+     * Arrête le fil de reconstruction à la fermeture du contexte.
+     */
+    @PreDestroy
+    public void arreter() {
+        reconstructions.shutdownNow();
+    }
+}
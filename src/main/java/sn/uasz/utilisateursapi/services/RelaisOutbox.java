@@ -0,0 +1,243 @@
+package sn.uasz.utilisateursapi.services;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.uasz.utilisateursapi.dtos.EvenementDTO;
+import sn.uasz.utilisateursapi.entities.EvenementOutbox;
+import sn.uasz.utilisateursapi.repositories.EvenementOutboxRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Relais de l'outbox : publie périodiquement les événements en attente via le
+ * {@link PublicateurEvenements} configuré, puis les retire de l'outbox.
+ *
+ * <p>Chaque lot est lu et verrouillé dans l'ordre des identifiants, puis réparti par utilisateur :
+ * les événements d'un même utilisateur sont publiés l'un après l'autre, dans l'ordre, et ceux
+ * d'utilisateurs différents en parallèle ({@code outbox.relais.parallelisme}). Au premier échec
+ * d'un utilisateur, ses événements suivants restent dans l'outbox pour le tour suivant : l'ordre
+ * par utilisateur est préservé. La livraison est « au moins une fois » (un arrêt entre publication
+ * et suppression republie l'événement) ; les destinataires dédoublonnent par identifiant.</p>
+ *
+ * <p>Le nombre d'événements publiés et en échec, le délai entre l'écriture et la publication,
+ * le nombre d'événements en attente et l'âge du plus ancien sont publiés dans Actuator
+ * ({@code /actuator/metrics/outbox.*}).</p>
+ */
+@Component
+@Slf4j
+public class RelaisOutbox implements MeterBinder {
+
+    private static final int LONGUEUR_MAX_ERREUR = 500;
+
+    private final EvenementOutboxRepository evenementOutboxRepository;
+    private final PublicateurEvenements publicateur;
+    private final TransactionTemplate transactionTemplate;
+    private final int tailleLot;
+    private final long intervalle;
+    private final LongAdder publies = new LongAdder();
+    private final LongAdder echecs = new LongAdder();
+    private final AtomicLong enAttente = new AtomicLong();
+    private volatile LocalDateTime plusAncien;
+    private volatile Timer delaiPublication;
+    private final ScheduledExecutorService tours = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "relais-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService livraisons;
+
+    /**
+     * Résultat de la livraison des événements d'un utilisateur.
+     *
+     * @param publies identifiants des événements publiés
+     * @param echec   événement en échec (les suivants n'ont pas été tentés), ou null
+     * @param erreur  message d'erreur de l'échec
+     */
+    private record Livraison(List<Long> publies, EvenementDTO echec, String erreur) {
+    }
+
+    /**
+     * Constructeur avec injection de dépendances.
+     */
+    public RelaisOutbox(EvenementOutboxRepository evenementOutboxRepository,
+                        PublicateurEvenements publicateur,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${outbox.relais.taille-lot:200}") int tailleLot,
+                        @Value("${outbox.relais.parallelisme:4}") int parallelisme,
+                        @Value("${outbox.relais.intervalle:500}") long intervalle) {
+        this.evenementOutboxRepository = evenementOutboxRepository;
+        this.publicateur = publicateur;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tailleLot = tailleLot;
+        this.intervalle = intervalle;
+        AtomicInteger numero = new AtomicInteger();
+        this.livraisons = Executors.newFixedThreadPool(parallelisme, r -> {
+            Thread thread = new Thread(r, "relais-outbox-livraison-" + numero.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Lance les tours de publication une fois l'application démarrée.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void demarrer() {
+        tours.scheduleWithFixedDelay(() -> {
+            try {
+                relayer();
+            } catch (RuntimeException e) {
+                log.warn("Tour du relais de l'outbox interrompu : {}", e.getMessage());
+            }
+        }, intervalle, intervalle, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Publie les événements en attente, lot après lot, tant que les lots sont pleins et progressent.
+     *
+     * @return le nombre d'événements publiés
+     */
+    public int relayer() {
+        int total = 0;
+        int publiesDuLot;
+        do {
+            int[] resultat = transactionTemplate.execute(statut -> relayerLot());
+            publiesDuLot = resultat[0];
+            total += publiesDuLot;
+            if (resultat[1] < tailleLot) {
+                break;
+            }
+        } while (publiesDuLot > 0);
+        enAttente.set(evenementOutboxRepository.count());
+        plusAncien = evenementOutboxRepository.datePlusAncien();
+        return total;
+    }
+
+    /**
+     * Publie un lot dans la transaction en cours.
+     *
+     * @return le nombre d'événements publiés et la taille du lot lu
+     */
+    private int[] relayerLot() {
+        List<EvenementOutbox> lot = evenementOutboxRepository.findAllByOrderByIdAsc(Limit.of(tailleLot));
+        if (lot.isEmpty()) {
+            return new int[]{0, 0};
+        }
+        Map<Long, EvenementOutbox> parId = new HashMap<>();
+        Map<String, List<EvenementDTO>> parUtilisateur = new LinkedHashMap<>();
+        for (EvenementOutbox evenement : lot) {
+            parId.put(evenement.getId(), evenement);
+            parUtilisateur.computeIfAbsent(evenement.getAgregat() + ":" + evenement.getIdAgregat(),
+                    cle -> new ArrayList<>()).add(EvenementDTO.depuis(evenement));
+        }
+
+        List<CompletableFuture<Livraison>> envois = parUtilisateur.values().stream()
+                .map(evenements -> CompletableFuture.supplyAsync(() -> livrer(evenements), livraisons))
+                .toList();
+
+        List<Long> aSupprimer = new ArrayList<>();
+        for (CompletableFuture<Livraison> envoi : envois) {
+            Livraison livraison = envoi.join();
+            aSupprimer.addAll(livraison.publies());
+            if (livraison.echec() != null) {
+                EvenementOutbox evenement = parId.get(livraison.echec().id());
+                evenement.setTentatives(evenement.getTentatives() + 1);
+                evenement.setDerniereErreur(tronquer(livraison.erreur()));
+                echecs.increment();
+                log.warn("Publication de l'événement {} ({} {}) en échec, tentative {} : {}", evenement.getId(),
+                        evenement.getAgregat(), evenement.getIdAgregat(), evenement.getTentatives(), livraison.erreur());
+            }
+        }
+        if (!aSupprimer.isEmpty()) {
+            evenementOutboxRepository.deleteAllByIdInBatch(aSupprimer);
+        }
+        return new int[]{aSupprimer.size(), lot.size()};
+    }
+
+    /**
+     * Publie dans l'ordre les événements d'un utilisateur et s'arrête au premier échec.
+     */
+    private Livraison livrer(List<EvenementDTO> evenements) {
+        List<Long> ids = new ArrayList<>(evenements.size());
+        for (EvenementDTO evenement : evenements) {
+            try {
+                publicateur.publier(evenement);
+            } catch (Exception e) {
+                return new Livraison(ids, evenement, e.getMessage() != null ? e.getMessage() : e.toString());
+            }
+            ids.add(evenement.id());
+            publies.increment();
+            Timer timer = delaiPublication;
+            if (timer != null && evenement.date() != null) {
+                timer.record(Duration.between(evenement.date(), LocalDateTime.now()));
+            }
+        }
+        return new Livraison(ids, null, null);
+    }
+
+    private static String tronquer(String erreur) {
+        return erreur.length() <= LONGUEUR_MAX_ERREUR ? erreur : erreur.substring(0, LONGUEUR_MAX_ERREUR);
+    }
+
+    /**
+     * Âge du plus ancien événement en attente, en millisecondes (0 si l'outbox est vide).
+     */
+    private double retard() {
+        LocalDateTime date = plusAncien;
+        return date == null ? 0 : Math.max(0, Duration.between(date, LocalDateTime.now()).toMillis());
+    }
+
+    /**
+     * Publie le débit (événements publiés et en échec), le délai de publication et le retard de l'outbox.
+     * Les jauges reflètent l'état à la fin du dernier tour.
+     */
+    @Override
+    public void bindTo(MeterRegistry registre) {
+        FunctionCounter.builder("outbox.evenements.publies", publies, LongAdder::sum)
+                .description("Événements publiés par le relais de l'outbox").register(registre);
+        FunctionCounter.builder("outbox.evenements.echecs", echecs, LongAdder::sum)
+                .description("Publications d'événements en échec (réessayées au tour suivant)").register(registre);
+        delaiPublication = Timer.builder("outbox.delai.publication")
+                .description("Délai entre l'écriture d'un événement et sa publication").register(registre);
+        Gauge.builder("outbox.en.attente", enAttente, AtomicLong::get)
+                .description("Événements en attente de publication").register(registre);
+        Gauge.builder("outbox.retard", this, RelaisOutbox::retard)
+                .description("Âge du plus ancien événement en attente")
+                .baseUnit("milliseconds").register(registre);
+    }
+
+    /**
+     * Arrête les tours de publication.
+     */
+    @PreDestroy
+    public void arreter() {
+        tours.shutdownNow();
+        livraisons.shutdownNow();
+    }
+}
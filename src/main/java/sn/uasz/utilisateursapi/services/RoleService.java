@@ -1,17 +1,25 @@
 package sn.uasz.utilisateursapi.services;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
+import sn.uasz.utilisateursapi.dtos.PageCurseurDTO;
 import sn.uasz.utilisateursapi.dtos.RoleDTO;
+import sn.uasz.utilisateursapi.dtos.ValidateurDTO;
 import sn.uasz.utilisateursapi.entities.Role;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.enums.TypeEvenement;
 import sn.uasz.utilisateursapi.exceptions.RoleNotFoundException;
+import sn.uasz.utilisateursapi.exceptions.VersionObsoleteException;
 import sn.uasz.utilisateursapi.mappers.RoleMapper;
 import sn.uasz.utilisateursapi.repositories.RoleRepository;
+import sn.uasz.utilisateursapi.utils.ChampsProjection;
+import sn.uasz.utilisateursapi.utils.PaginationKeyset;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 
@@ -30,10 +38,14 @@ public class RoleService {
 
     private final RoleRepository roleRepository;
     private final RoleMapper roleMapper;
+    private final ProjectionService projectionService;
+    private final LectureKeyset lectureKeyset;
+    private final JournalSuppressions journalSuppressions;
+    private final JournalAudit journalAudit;
+    private final StatistiquesService statistiques;
 
-    // Gestion des entités de la base de données
-    @PersistenceContext
-    private EntityManager entityManager;
+    /** Champs projetables via le paramètre {@code fields} des requêtes GET. */
+    public static final List<String> CHAMPS_PROJETABLES = List.of("id", "libelle", "description");
 
     private final Random random = new Random();
 
@@ -42,10 +54,23 @@ public class RoleService {
      *
      * @param roleRepository Le repository des rôles.
      * @param roleMapper Le mapper pour transformer entre DTO et entités.
+     * @param projectionService Le service de lecture par projection (paramètre fields).
+     * @param lectureKeyset La lecture des pages keyset (libellés nuls compris).
+     * @param journalSuppressions Le journal des suppressions (validateurs des requêtes conditionnelles).
+     * @param journalAudit Le journal d'audit des changements.
+     * @param statistiques Les compteurs des statistiques (libellés des rôles).
      */
-    public RoleService(RoleRepository roleRepository, RoleMapper roleMapper) {
+    public RoleService(RoleRepository roleRepository, RoleMapper roleMapper, ProjectionService projectionService,
+                       LectureKeyset lectureKeyset,
+                       JournalSuppressions journalSuppressions, JournalAudit journalAudit,
+                       StatistiquesService statistiques) {
         this.roleRepository = roleRepository;
         this.roleMapper = roleMapper;
+        this.projectionService = projectionService;
+        this.lectureKeyset = lectureKeyset;
+        this.journalSuppressions = journalSuppressions;
+        this.journalAudit = journalAudit;
+        this.statistiques = statistiques;
     }
 
     /**
@@ -64,7 +89,25 @@ public class RoleService {
 
         // Sauvegarder le rôle
         Role savedRole = roleRepository.save(role);
-        return roleMapper.toDTO(savedRole);
+        return auditer(roleMapper.toDTO(savedRole), TypeEvenement.CREATION);
+    }
+
+    /**
+     * Méthode pour ajouter un lot de rôles en une seule transaction.
+     *
+     * @param roleDTOs Les informations des rôles à ajouter.
+     * @return Les DTO représentant les rôles ajoutés.
+     */
+    @Transactional
+    public List<RoleDTO> ajouterRoles(List<RoleDTO> roleDTOs) {
+        List<Role> roles = roleDTOs.stream()
+                .map(roleMapper::toEntity)
+                .toList();
+        return roleRepository.saveAll(roles)
+                .stream()
+                .map(roleMapper::toDTO)
+                .map(dto -> auditer(dto, TypeEvenement.CREATION))
+                .toList();
     }
 
     /**
@@ -72,24 +115,25 @@ public class RoleService {
      *
      * @param id L'ID du rôle à modifier.
      * @param roleDTO Les nouvelles informations du rôle.
+     * @param versionAttendue La version lue par le client ({@code If-Match}), ou null pour une modification inconditionnelle.
      * @return Le DTO représentant le rôle modifié.
      * @throws RoleNotFoundException Si le rôle avec cet ID n'existe pas.
+     * @throws VersionObsoleteException Si le rôle a été modifié depuis la version attendue.
      */
     @Transactional
-    public RoleDTO modifierRole(int id, RoleDTO roleDTO) {
-        Optional<Role> optionalRole = roleRepository.findById((long) id);
-        if (!optionalRole.isPresent()) {
+    public RoleDTO modifierRole(int id, RoleDTO roleDTO, Long versionAttendue) {
+        // Une seule requête UPDATE, conditionnée par la version attendue : pas de lecture préalable
+        if (roleRepository.modifierSiVersion((long) id, versionAttendue, roleDTO.getLibelle(), roleDTO.getDescription(),
+                LocalDateTime.now()) == 0) {
+            if (versionAttendue != null && roleRepository.existsById((long) id)) {
+                throw new VersionObsoleteException("Le rôle " + id + " a été modifié depuis la version " + versionAttendue);
+            }
             throw new RoleNotFoundException("Rôle non trouvé avec l'ID : " + id);
         }
-
-        Role role = optionalRole.get();
-        role.setLibelle(roleDTO.getLibelle());
-        role.setDescription(roleDTO.getDescription());
-        // Détacher l'entité pour éviter les problèmes de transaction
-        entityManager.detach(role);
-
-        // Sauvegarder les changements
-        return roleMapper.toDTO(roleRepository.save(role));
+        return roleRepository.relireDepuisBase((long) id)
+                .map(roleMapper::toDTO)
+                .map(dto -> auditer(dto, TypeEvenement.MODIFICATION))
+                .orElseThrow(() -> new RoleNotFoundException("Rôle non trouvé avec l'ID : " + id));
     }
 
     /**
@@ -107,6 +151,32 @@ public class RoleService {
 
         Role role = optionalRole.get();
         roleRepository.delete(role);
+        auditer(role.getId(), role.getVersion(), TypeEvenement.SUPPRESSION, null);
+    }
+
+    /**
+     * Déclare un changement de rôle au journal d'audit et aux statistiques.
+     *
+     * @param roleDTO Le rôle enregistré.
+     * @param action La nature du changement.
+     * @return Le même DTO, pour chaîner avec le retour des méthodes d'écriture.
+     */
+    private RoleDTO auditer(RoleDTO roleDTO, TypeEvenement action) {
+        auditer(roleDTO.getId(), roleDTO.getVersion(), action, roleDTO);
+        return roleDTO;
+    }
+
+    /**
+     * Déclare un changement de rôle, suppressions comprises, au journal d'audit et aux statistiques.
+     *
+     * @param id L'identifiant du rôle.
+     * @param version La version du rôle après le changement.
+     * @param action La nature du changement.
+     * @param etat L'état après le changement, ou null pour une suppression.
+     */
+    private void auditer(Long id, Long version, TypeEvenement action, RoleDTO etat) {
+        journalAudit.enregistrer(TypeAgregat.ROLE, id, version, action, etat);
+        statistiques.enregistrer(TypeAgregat.ROLE, id, version, etat);
     }
 
     /**
@@ -116,6 +186,7 @@ public class RoleService {
      * @return Le DTO représentant le rôle récupéré.
      * @throws RoleNotFoundException Si le rôle avec cet ID n'existe pas.
      */
+    @Transactional(readOnly = true)
     public RoleDTO obtenirRole(int id) {
         Optional<Role> optionalRole = roleRepository.findById((long) id);
         if (!optionalRole.isPresent()) {
@@ -126,11 +197,48 @@ public class RoleService {
         return roleMapper.toDTO(role);
     }
 
+    /**
+     * Méthode pour récupérer uniquement les champs demandés d'un rôle, lus par projection.
+     *
+     * @param id L'ID du rôle à récupérer.
+     * @param fields Les champs demandés, séparés par des virgules.
+     * @return Les valeurs des champs demandés.
+     * @throws RoleNotFoundException Si le rôle avec cet ID n'existe pas.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> obtenirRole(int id, String fields) {
+        return projectionService.parId(Role.class, ChampsProjection.lire(fields, CHAMPS_PROJETABLES), (long) id, Map.of())
+                .orElseThrow(() -> new RoleNotFoundException("Rôle non trouvé avec l'ID : " + id));
+    }
+
+    /**
+     * Méthode pour lire la version et la date de modification d'un rôle, sans charger l'entité.
+     *
+     * @param id L'ID du rôle.
+     * @return Les validateurs du rôle, ou vide s'il n'existe pas.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ValidateurDTO> validateur(long id) {
+        return roleRepository.trouverValidateur(id);
+    }
+
+    /**
+     * Méthode pour calculer les validateurs de la liste des rôles par agrégat, sans charger d'entité.
+     *
+     * @return Les validateurs de la collection, suppressions comprises.
+     */
+    @Transactional(readOnly = true)
+    public ValidateurDTO validateurListe() {
+        return roleRepository.calculerValidateur()
+                .modifieLe(journalSuppressions.derniereSuppression(Role.class));
+    }
+
     /**
      * Méthode pour récupérer tous les rôles.
      *
      * @return La liste des rôles en DTO.
      */
+    @Transactional(readOnly = true)
     public List<RoleDTO> findAll() {
         List<Role> roles = roleRepository.findAll();
         return roles.stream()
@@ -138,4 +246,33 @@ public class RoleService {
                 .toList();
     }
 
+    /**
+     * Méthode pour récupérer une page de rôles triés par libellé (pagination keyset).
+     *
+     * @param curseur Curseur opaque de la page précédente, ou null pour la première page.
+     * @param taille Taille de page souhaitée (bornée côté serveur).
+     * @return La page de rôles en DTO et le curseur de la page suivante.
+     */
+    @Transactional(readOnly = true)
+    public PageCurseurDTO<RoleDTO> findPage(String curseur, Integer taille) {
+        Limit limite = PaginationKeyset.limite(taille);
+        return PaginationKeyset.page(
+                lectureKeyset.lire(Role.class, "libelle", PaginationKeyset.position(curseur, "libelle"), limite, Map.of()),
+                limite, roleMapper::toDTO, Role::getLibelle, Role::getId);
+    }
+
+    /**
+     * Méthode pour récupérer une page de rôles réduite aux champs demandés, lue par projection.
+     *
+     * @param curseur Curseur opaque de la page précédente, ou null pour la première page.
+     * @param taille Taille de page souhaitée (bornée côté serveur).
+     * @param fields Les champs demandés, séparés par des virgules.
+     * @return La page de projections et le curseur de la page suivante.
+     */
+    @Transactional(readOnly = true)
+    public PageCurseurDTO<Map<String, Object>> findPage(String curseur, Integer taille, String fields) {
+        return projectionService.page(Role.class, ChampsProjection.lire(fields, CHAMPS_PROJETABLES),
+                "libelle", curseur, taille, Map.of());
+    }
+
 }
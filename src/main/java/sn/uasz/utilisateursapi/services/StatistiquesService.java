@@ -0,0 +1,471 @@
+package sn.uasz.utilisateursapi.services;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.uasz.utilisateursapi.dtos.EnseignantDTO;
+import sn.uasz.utilisateursapi.dtos.EtudiantDTO;
+import sn.uasz.utilisateursapi.dtos.RoleDTO;
+import sn.uasz.utilisateursapi.dtos.StatistiquesDTO;
+import sn.uasz.utilisateursapi.dtos.VacataireDTO;
+import sn.uasz.utilisateursapi.entities.Role;
+import sn.uasz.utilisateursapi.enums.Grade;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.repositories.EnseignantRepository;
+import sn.uasz.utilisateursapi.repositories.EtudiantRepository;
+import sn.uasz.utilisateursapi.repositories.RoleRepository;
+import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+import sn.uasz.utilisateursapi.utils.ApresCommit;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Compteurs des utilisateurs tenus en mémoire, servis par {@code GET /api/stats} sans requête SQL.
+ *
+ * <p>Les services déclarent chaque changement avec l'état de l'entité après modification
+ * ({@link #enregistrer}) ; à la validation de la transaction, la contribution précédente de
+ * l'entité (gardée en mémoire : grade, spécialité et activation, lieu et année de naissance,
+ * rôles) est retirée des compteurs et la nouvelle ajoutée. Un changement dont la version est
+ * antérieure à celle déjà comptée est ignoré : l'application est idempotente et l'ordre d'arrivée
+ * des validations concurrentes est sans effet. La mémoire occupée est de l'ordre d'une petite
+ * fiche par utilisateur.</p>
+ *
+ * <p>Les écritures qui ne passent pas par les services (SQL direct, restauration) ne sont vues qu'à
+ * la réconciliation : toutes les {@code statistiques.reconciliation.intervalle} ms, les compteurs
+ * sont recalculés depuis la base par des projections étroites, lues en flux. Les changements
+ * validés pendant le recalcul sont rejoués sur le résultat ; les écarts corrigés sont journalisés
+ * et publiés dans Actuator ({@code /actuator/metrics/statistiques.*}). Le premier recalcul a lieu
+ * à la première consultation, s'il n'a pas encore été fait.</p>
+ *
+ * <p>La réponse est construite une fois par changement et réutilisée par les consultations
+ * suivantes : son coût ne dépend que du nombre de valeurs distinctes, pas du nombre d'utilisateurs.</p>
+ */
+@Service
+@Slf4j
+public class StatistiquesService implements MeterBinder {
+
+    /** Valeur comptée pour une spécialité, un lieu ou une date de naissance absents. */
+    static final String NON_RENSEIGNE = "non renseigné";
+
+    private static final Map<TypeAgregat, Dimension[]> DIMENSIONS = new EnumMap<>(Map.of(
+            TypeAgregat.ENSEIGNANT, new Dimension[]{Dimension.ENSEIGNANTS_PAR_GRADE},
+            TypeAgregat.VACATAIRE, new Dimension[]{Dimension.VACATAIRES_ACTIFS, Dimension.VACATAIRES_INACTIFS},
+            TypeAgregat.ETUDIANT, new Dimension[]{Dimension.ETUDIANTS_PAR_LIEU, Dimension.ETUDIANTS_PAR_ANNEE},
+            // Libellé du rôle, non compté : sert à nommer les membres
+            TypeAgregat.ROLE, new Dimension[0]));
+
+    private static final long[] AUCUN_ROLE = new long[0];
+
+    private final EnseignantRepository enseignantRepository;
+    private final EtudiantRepository etudiantRepository;
+    private final VacataireRepository vacataireRepository;
+    private final RoleRepository roleRepository;
+    private final TransactionTemplate lecturePrimaire;
+    private final long intervalle;
+    private final ScheduledExecutorService reconciliations = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "reconciliation-statistiques");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** Garde les compteurs, les changements rejoués et la réponse en cache. */
+    private final Object verrou = new Object();
+    /** Une seule réconciliation à la fois. */
+    private final Object verrouReconciliation = new Object();
+    private final LongAdder ecartsCorriges = new LongAdder();
+    private Compteurs compteurs = new Compteurs();
+    private List<Changement> pendantReconciliation;
+    private LocalDateTime derniereReconciliation;
+    private volatile boolean reconcilie;
+    private volatile StatistiquesDTO instantane;
+    private volatile Timer dureeReconciliation;
+
+    /**
+     * Répartitions comptées.
+     */
+    enum Dimension {
+        ENSEIGNANTS_PAR_GRADE, VACATAIRES_ACTIFS, VACATAIRES_INACTIFS, ETUDIANTS_PAR_LIEU, ETUDIANTS_PAR_ANNEE
+    }
+
+    /**
+     * Contribution d'une entité aux compteurs.
+     *
+     * @param version version de l'entité
+     * @param valeurs une valeur par dimension du type d'entité ({@link #DIMENSIONS}), null si non comptée
+     * @param roles   identifiants des rôles de l'entité
+     */
+    record Fiche(long version, String[] valeurs, long[] roles) {
+    }
+
+    /**
+     * Changement validé.
+     *
+     * @param fiche nouvelle contribution, ou null après une suppression
+     */
+    record Changement(TypeAgregat type, Long id, long version, Fiche fiche) {
+    }
+
+    /**
+     * Constructeur avec injection de dépendances.
+     */
+    public StatistiquesService(EnseignantRepository enseignantRepository,
+                               EtudiantRepository etudiantRepository,
+                               VacataireRepository vacataireRepository,
+                               RoleRepository roleRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${statistiques.reconciliation.intervalle:300000}") long intervalle) {
+        this.enseignantRepository = enseignantRepository;
+        this.etudiantRepository = etudiantRepository;
+        this.vacataireRepository = vacataireRepository;
+        this.roleRepository = roleRepository;
+        // Pas en lecture seule : lue sur une réplique en retard, la base ferait « corriger »
+        // des changements récents déjà comptés
+        this.lecturePrimaire = new TransactionTemplate(transactionManager);
+        this.intervalle = intervalle;
+    }
+
+    /**
+     * Lance les réconciliations périodiques une fois l'application démarrée.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void demarrer() {
+        reconciliations.scheduleWithFixedDelay(() -> {
+            try {
+                reconcilier();
+            } catch (RuntimeException e) {
+                log.warn("Réconciliation des statistiques impossible : {}", e.getMessage());
+            }
+        }, intervalle, intervalle, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Déclare un changement. Il est compté à la validation de la transaction en cours
+     * (immédiatement hors transaction).
+     *
+     * @param type    type d'entité modifiée
+     * @param id      identifiant de l'entité
+     * @param version version de l'entité après le changement
+     * @param etat    état de l'entité après le changement (DTO), ou null pour une suppression
+     */
+    public void enregistrer(TypeAgregat type, Long id, Long version, Object etat) {
+        long v = version == null ? 0 : version;
+        Changement changement = new Changement(type, id, v, etat == null ? null : fiche(v, etat));
+        ApresCommit.executer(() -> compter(changement));
+    }
+
+    /**
+     * Retourne les statistiques courantes.
+     *
+     * @return les statistiques, telles qu'après le dernier changement validé
+     */
+    public StatistiquesDTO consulter() {
+        if (!reconcilie) {
+            reconcilier();
+        }
+        StatistiquesDTO resultat = instantane;
+        if (resultat == null) {
+            synchronized (verrou) {
+                resultat = instantane;
+                if (resultat == null) {
+                    resultat = compteurs.instantane(derniereReconciliation);
+                    instantane = resultat;
+                }
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Recalcule les compteurs depuis la base et remplace ceux tenus en mémoire.
+     */
+    public void reconcilier() {
+        synchronized (verrouReconciliation) {
+            long debut = System.nanoTime();
+            synchronized (verrou) {
+                pendantReconciliation = new ArrayList<>();
+            }
+            Compteurs recalcules;
+            try {
+                recalcules = lecturePrimaire.execute(statut -> charger());
+            } catch (RuntimeException e) {
+                synchronized (verrou) {
+                    pendantReconciliation = null;
+                }
+                throw e;
+            }
+            long ecarts;
+            synchronized (verrou) {
+                // Validés pendant la lecture : peut-être lus, peut-être pas ; rejouer est sans effet si lus
+                pendantReconciliation.forEach(recalcules::appliquer);
+                pendantReconciliation = null;
+                ecarts = reconcilie ? compteurs.ecarts(recalcules) : 0;
+                compteurs = recalcules;
+                derniereReconciliation = LocalDateTime.now();
+                reconcilie = true;
+                instantane = null;
+            }
+            if (ecarts > 0) {
+                ecartsCorriges.add(ecarts);
+                log.warn("Statistiques réconciliées avec la base : {} écarts corrigés", ecarts);
+            }
+            if (dureeReconciliation != null) {
+                dureeReconciliation.record(System.nanoTime() - debut, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private void compter(Changement changement) {
+        synchronized (verrou) {
+            compteurs.appliquer(changement);
+            if (pendantReconciliation != null) {
+                pendantReconciliation.add(changement);
+            }
+            instantane = null;
+        }
+    }
+
+    /**
+     * Lit en base la contribution de chaque utilisateur et de chaque rôle.
+     */
+    private Compteurs charger() {
+        Compteurs resultat = new Compteurs();
+        for (Role role : roleRepository.findAll()) {
+            resultat.ajouter(TypeAgregat.ROLE, role.getId(), ficheRole(version(role.getVersion()), role.getLibelle()));
+        }
+        Map<Long, long[]> rolesEnseignants = rolesParId(enseignantRepository.streamRoles());
+        try (Stream<Object[]> lignes = enseignantRepository.streamGrades()) {
+            lignes.forEach(l -> resultat.ajouter(TypeAgregat.ENSEIGNANT, (Long) l[0],
+                    ficheEnseignant(version(l[1]), (Grade) l[2], rolesEnseignants.get((Long) l[0]))));
+        }
+        Map<Long, long[]> rolesEtudiants = rolesParId(etudiantRepository.streamRoles());
+        try (Stream<Object[]> lignes = etudiantRepository.streamNaissances()) {
+            lignes.forEach(l -> resultat.ajouter(TypeAgregat.ETUDIANT, (Long) l[0],
+                    ficheEtudiant(version(l[1]), (String) l[2], (LocalDate) l[3], rolesEtudiants.get((Long) l[0]))));
+        }
+        try (Stream<Object[]> lignes = vacataireRepository.streamSpecialites()) {
+            lignes.forEach(l -> resultat.ajouter(TypeAgregat.VACATAIRE, (Long) l[0],
+                    ficheVacataire(version(l[1]), (String) l[2], (Boolean) l[3])));
+        }
+        return resultat;
+    }
+
+    private static Map<Long, long[]> rolesParId(Stream<Object[]> associations) {
+        Map<Long, long[]> roles = new HashMap<>();
+        try (associations) {
+            associations.forEach(a -> roles.merge((Long) a[0], new long[]{(Long) a[1]}, (actuels, nouveau) -> {
+                long[] fusion = Arrays.copyOf(actuels, actuels.length + 1);
+                fusion[actuels.length] = nouveau[0];
+                return fusion;
+            }));
+        }
+        return roles;
+    }
+
+    private static long version(Object version) {
+        return version == null ? 0 : ((Number) version).longValue();
+    }
+
+    private static Fiche fiche(long version, Object etat) {
+        if (etat instanceof EnseignantDTO enseignant) {
+            return ficheEnseignant(version, enseignant.grade(), idsRoles(enseignant.roles()));
+        }
+        if (etat instanceof EtudiantDTO etudiant) {
+            return ficheEtudiant(version, etudiant.getLieuNaissance(), etudiant.getDateNaissance(),
+                    idsRoles(etudiant.getRoles()));
+        }
+        if (etat instanceof VacataireDTO vacataire) {
+            return ficheVacataire(version, vacataire.getSpecialite(), vacataire.isActif());
+        }
+        if (etat instanceof RoleDTO role) {
+            return ficheRole(version, role.getLibelle());
+        }
+        throw new IllegalArgumentException("État non pris en charge par les statistiques : " + etat.getClass().getName());
+    }
+
+    private static long[] idsRoles(List<Role> roles) {
+        return roles == null || roles.isEmpty() ? AUCUN_ROLE
+                : roles.stream().mapToLong(Role::getId).distinct().toArray();
+    }
+
+    private static Fiche ficheEnseignant(long version, Grade grade, long[] roles) {
+        return new Fiche(version, new String[]{grade == null ? NON_RENSEIGNE : grade.name()},
+                roles == null ? AUCUN_ROLE : roles);
+    }
+
+    private static Fiche ficheEtudiant(long version, String lieuNaissance, LocalDate dateNaissance, long[] roles) {
+        return new Fiche(version, new String[]{
+                renseigne(lieuNaissance),
+                dateNaissance == null ? NON_RENSEIGNE : String.valueOf(dateNaissance.getYear())
+        }, roles == null ? AUCUN_ROLE : roles);
+    }
+
+    private static Fiche ficheVacataire(long version, String specialite, boolean actif) {
+        String valeur = renseigne(specialite);
+        return new Fiche(version, new String[]{actif ? valeur : null, actif ? null : valeur}, AUCUN_ROLE);
+    }
+
+    private static Fiche ficheRole(long version, String libelle) {
+        return new Fiche(version, new String[]{libelle}, AUCUN_ROLE);
+    }
+
+    private static String renseigne(String valeur) {
+        return valeur == null || valeur.isBlank() ? NON_RENSEIGNE : valeur.trim();
+    }
+
+    /**
+     * Fiches des entités et compteurs qui en dérivent. Non synchronisé : accédé sous {@link #verrou},
+     * ou par le seul thread de réconciliation avant sa publication.
+     */
+    static final class Compteurs {
+        private final Map<TypeAgregat, Map<Long, Fiche>> fiches = new EnumMap<>(TypeAgregat.class);
+        private final Map<Dimension, Map<String, Long>> repartitions = new EnumMap<>(Dimension.class);
+        private final Map<Long, Long> membres = new HashMap<>();
+
+        Compteurs() {
+            for (TypeAgregat type : TypeAgregat.values()) {
+                fiches.put(type, new HashMap<>());
+            }
+            for (Dimension dimension : Dimension.values()) {
+                repartitions.put(dimension, new HashMap<>());
+            }
+        }
+
+        /**
+         * Remplace la contribution de l'entité, sauf si le changement est antérieur à celle déjà comptée.
+         */
+        void appliquer(Changement changement) {
+            Map<Long, Fiche> parId = fiches.get(changement.type());
+            Fiche ancienne = parId.get(changement.id());
+            if (ancienne != null && changement.version() < ancienne.version()) {
+                return;
+            }
+            if (ancienne != null) {
+                contribuer(changement.type(), ancienne, -1);
+            }
+            if (changement.fiche() == null) {
+                parId.remove(changement.id());
+            } else {
+                ajouter(changement.type(), changement.id(), changement.fiche());
+            }
+        }
+
+        void ajouter(TypeAgregat type, Long id, Fiche fiche) {
+            fiches.get(type).put(id, fiche);
+            contribuer(type, fiche, 1);
+        }
+
+        private void contribuer(TypeAgregat type, Fiche fiche, long delta) {
+            Dimension[] dimensions = DIMENSIONS.get(type);
+            for (int i = 0; i < dimensions.length; i++) {
+                if (fiche.valeurs()[i] != null) {
+                    ajuster(repartitions.get(dimensions[i]), fiche.valeurs()[i], delta);
+                }
+            }
+            for (long role : fiche.roles()) {
+                ajuster(membres, role, delta);
+            }
+        }
+
+        private static <K> void ajuster(Map<K, Long> compteur, K cle, long delta) {
+            compteur.merge(cle, delta, (actuel, d) -> actuel + d == 0 ? null : actuel + d);
+        }
+
+        /**
+         * Somme des écarts, valeur par valeur, entre ces compteurs et d'autres.
+         */
+        long ecarts(Compteurs autres) {
+            long ecarts = 0;
+            for (Dimension dimension : Dimension.values()) {
+                ecarts += ecarts(repartitions.get(dimension), autres.repartitions.get(dimension));
+            }
+            return ecarts + ecarts(membres, autres.membres);
+        }
+
+        private static <K> long ecarts(Map<K, Long> a, Map<K, Long> b) {
+            Set<K> cles = new HashSet<>(a.keySet());
+            cles.addAll(b.keySet());
+            long ecarts = 0;
+            for (K cle : cles) {
+                ecarts += Math.abs(a.getOrDefault(cle, 0L) - b.getOrDefault(cle, 0L));
+            }
+            return ecarts;
+        }
+
+        StatistiquesDTO instantane(LocalDateTime derniereReconciliation) {
+            Map<String, Long> membresParRole = new TreeMap<>();
+            fiches.get(TypeAgregat.ROLE).forEach((id, role) ->
+                    membresParRole.put(role.valeurs()[0], membres.getOrDefault(id, 0L)));
+            // Rôle supprimé après la lecture de ses membres : désigné par son identifiant
+            membres.forEach((id, nombre) -> {
+                if (!fiches.get(TypeAgregat.ROLE).containsKey(id)) {
+                    membresParRole.put("#" + id, nombre);
+                }
+            });
+            return new StatistiquesDTO(
+                    fiches.get(TypeAgregat.ENSEIGNANT).size(),
+                    total(Dimension.VACATAIRES_ACTIFS),
+                    total(Dimension.VACATAIRES_INACTIFS),
+                    fiches.get(TypeAgregat.ETUDIANT).size(),
+                    copie(Dimension.ENSEIGNANTS_PAR_GRADE),
+                    copie(Dimension.VACATAIRES_ACTIFS),
+                    copie(Dimension.VACATAIRES_INACTIFS),
+                    copie(Dimension.ETUDIANTS_PAR_LIEU),
+                    copie(Dimension.ETUDIANTS_PAR_ANNEE),
+                    Collections.unmodifiableMap(membresParRole),
+                    derniereReconciliation);
+        }
+
+        private long total(Dimension dimension) {
+            return repartitions.get(dimension).values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        private Map<String, Long> copie(Dimension dimension) {
+            return Collections.unmodifiableMap(new TreeMap<>(repartitions.get(dimension)));
+        }
+    }
+
+    /**
+     * Arrête les réconciliations périodiques.
+     */
+    @PreDestroy
+    public void arreter() {
+        reconciliations.shutdownNow();
+    }
+
+    /**
+     * Publie le nombre d'écarts corrigés par les réconciliations et leur durée.
+     */
+    @Override
+    public void bindTo(MeterRegistry registre) {
+        FunctionCounter.builder("statistiques.reconciliation.ecarts", ecartsCorriges, LongAdder::sum)
+                .description("Écarts entre les compteurs en mémoire et la base, corrigés par réconciliation")
+                .register(registre);
+        dureeReconciliation = Timer.builder("statistiques.reconciliation.duree")
+                .description("Durée d'un recalcul des statistiques depuis la base")
+                .register(registre);
+    }
+}
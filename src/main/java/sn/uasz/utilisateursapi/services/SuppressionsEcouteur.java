@@ -0,0 +1,39 @@
+package sn.uasz.utilisateursapi.services;
+
+import jakarta.persistence.PostRemove;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Écouteur JPA qui reporte dans {@link JournalSuppressions} chaque entité supprimée,
+ * quel que soit le service à l'origine de la suppression.
+ *
+ * <p>Le journal est résolu à la demande, comme pour {@link ClesUniquesEcouteur} : Hibernate
+ * crée ses propres instances d'écouteurs.</p>
+ */
+@Component
+public class SuppressionsEcouteur {
+
+    private final ObjectProvider<JournalSuppressions> journal;
+
+    /**
+     * Constructeur avec injection de dépendances.
+     */
+    public SuppressionsEcouteur(ObjectProvider<JournalSuppressions> journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Relève la suppression d'une entité.
+     *
+     * @param entite entité supprimée
+     */
+    @PostRemove
+    public void enregistrer(Object entite) {
+        JournalSuppressions suppressions = journal.getIfAvailable();
+        if (suppressions != null) {
+            suppressions.enregistrer(Hibernate.getClass(entite));
+        }
+    }
+}
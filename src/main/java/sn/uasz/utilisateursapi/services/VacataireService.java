@@ -8,21 +8,48 @@
  */
 package sn.uasz.utilisateursapi.services;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import jakarta.validation.constraints.NotNull;
+import sn.uasz.utilisateursapi.dtos.LotResultatDTO;
+import sn.uasz.utilisateursapi.dtos.PageCurseurDTO;
+import sn.uasz.utilisateursapi.dtos.ResultatMasseDTO;
+import sn.uasz.utilisateursapi.dtos.SelectionMasseDTO;
+import sn.uasz.utilisateursapi.dtos.ValidateurDTO;
 import sn.uasz.utilisateursapi.dtos.VacataireDTO;
 import sn.uasz.utilisateursapi.entities.Vacataire;
+import sn.uasz.utilisateursapi.enums.CleUnique;
+import sn.uasz.utilisateursapi.enums.ModeRecherche;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.enums.TypeEvenement;
+import sn.uasz.utilisateursapi.exceptions.ConflitEtatException;
+import sn.uasz.utilisateursapi.exceptions.LotInvalideException;
+import sn.uasz.utilisateursapi.exceptions.VacataireException;
 import sn.uasz.utilisateursapi.exceptions.VacataireNotFoundException;
+import sn.uasz.utilisateursapi.exceptions.VersionObsoleteException;
 import sn.uasz.utilisateursapi.mappers.VacataireMapper;
 import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+import sn.uasz.utilisateursapi.utils.ChampsProjection;
+import sn.uasz.utilisateursapi.utils.ClesRecherche;
+import sn.uasz.utilisateursapi.utils.ExportFlux;
+import sn.uasz.utilisateursapi.utils.LectureParLot;
+import sn.uasz.utilisateursapi.utils.PaginationKeyset;
+import sn.uasz.utilisateursapi.utils.PhonetiqueFrancaise;
 
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Validated
 @Slf4j
@@ -39,6 +66,28 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class VacataireService {
     private final VacataireRepository vacataireRepository;
+    private final ProjectionService projectionService;
+    private final LectureKeyset lectureKeyset;
+    private final RegistreClesUniques registreClesUniques;
+    private final JournalSuppressions journalSuppressions;
+    private final OutboxService outboxService;
+    private final JournalAudit journalAudit;
+    private final StatistiquesService statistiques;
+    private final AnnuaireIndexRecherche annuaire;
+    private final IndexAutocompletion autocompletion;
+
+    /** Champs projetables via le paramètre {@code fields} des requêtes GET. */
+    public static final List<String> CHAMPS_PROJETABLES =
+            List.of("id", "nom", "prenom", "email", "telephone", "specialite", "actif");
+
+    /** Ordre des résultats des recherches par clé normalisée. */
+    private static final Comparator<Vacataire> ORDRE_CLES = Comparator
+            .comparing(Vacataire::getNomNormalise, Comparator.nullsLast(Comparator.<String>naturalOrder()))
+            .thenComparing(Vacataire::getPrenomNormalise, Comparator.nullsLast(Comparator.<String>naturalOrder()))
+            .thenComparing(Vacataire::getId);
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     /**
      * Convertit un DTO en entité Vacataire.
@@ -65,9 +114,49 @@ public class VacataireService {
      * 
      * @param vacataireDTO Les données du vacataire à créer
      * @return Le DTO du vacataire créé
+     * @throws VacataireException Si l'email est déjà attribué à un vacataire
      */
     @Transactional
     public VacataireDTO creerVacataire(VacataireDTO vacataireDTO) {
+        String email = vacataireDTO.getEmail();
+        if (email != null && registreClesUniques.peutExister(CleUnique.VACATAIRE_EMAIL, email)
+                && vacataireRepository.findByEmail(email) != null) {
+            throw new VacataireException("Email déjà utilisé : " + email);
+        }
+        return publier(vacataireRepository.save(preparerNouveauVacataire(vacataireDTO)), TypeEvenement.CREATION);
+    }
+
+    /**
+     * Crée un lot de vacataires en une seule transaction.
+     * Les insertions sont envoyées par lots JDBC.
+     * 
+     * @param vacataireDTOs Les données des vacataires à créer
+     * @return Les DTO des vacataires créés
+     * @throws VacataireException Si un email du lot est déjà attribué à un vacataire
+     */
+    @Transactional
+    public List<VacataireDTO> creerVacataires(List<VacataireDTO> vacataireDTOs) {
+        List<String> emailsExistants = registreClesUniques.existantes(CleUnique.VACATAIRE_EMAIL,
+                vacataireDTOs.stream().map(VacataireDTO::getEmail).toList());
+        if (!emailsExistants.isEmpty()) {
+            throw new VacataireException("Emails déjà utilisés : " + emailsExistants);
+        }
+        List<Vacataire> vacataires = vacataireDTOs.stream()
+                .map(this::preparerNouveauVacataire)
+                .toList();
+        return vacataireRepository.saveAll(vacataires)
+                .stream()
+                .map(vacataire -> publier(vacataire, TypeEvenement.CREATION))
+                .toList();
+    }
+
+    /**
+     * Construit l'entité d'un nouveau vacataire avec ses dates de création et de modification.
+     * 
+     * @param vacataireDTO Les données du vacataire
+     * @return L'entité prête à être persistée
+     */
+    private Vacataire preparerNouveauVacataire(VacataireDTO vacataireDTO) {
         Vacataire vacataire = convertToEntity(vacataireDTO);
         vacataire.setDateCreation(new Date());
         vacataire.setDateModification(new Date());
@@ -77,7 +166,7 @@ public class VacataireService {
         } else {
             vacataire.setActif(true); // fallback sécurité
         }
-        return convertToDTO(vacataireRepository.save(vacataire));
+        return vacataire;
     }
 
     /**
@@ -86,6 +175,7 @@ public class VacataireService {
      * @param id L'identifiant du vacataire
      * @return Le DTO du vacataire trouvé ou null si non trouvé
      */
+    @Transactional(readOnly = true)
     public VacataireDTO getVacataire(@NotNull(message = "L'ID du vacataire ne peut pas être null") Long id) {
         Optional<Vacataire> vacataireOpt = vacataireRepository.findByIdAndActif(id, true);
         if (!vacataireOpt.isPresent()) {
@@ -97,27 +187,99 @@ public class VacataireService {
     }
 
     /**
-     * Met à jour un vacataire existant.
+     * Récupère uniquement les champs demandés d'un vacataire actif, lus par projection.
+     *
+     * @param id L'identifiant du vacataire
+     * @param fields Les champs demandés, séparés par des virgules
+     * @return Les valeurs des champs demandés
+     * @throws VacataireNotFoundException Si aucun vacataire actif ne porte cet ID
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getVacataire(@NotNull(message = "L'ID du vacataire ne peut pas être null") Long id,
+                                            String fields) {
+        return projectionService.parId(Vacataire.class, ChampsProjection.lire(fields, CHAMPS_PROJETABLES), id,
+                        Map.of("actif", true))
+                .orElseThrow(() -> new VacataireNotFoundException("Vacataire avec l'ID " + id + " non trouvé"));
+    }
+
+    /**
+     * Lit la version et la date de modification d'un vacataire actif, sans charger l'entité.
+     *
+     * @param id L'identifiant du vacataire
+     * @return Les validateurs du vacataire, ou vide s'il n'existe pas ou est inactif
+     */
+    @Transactional(readOnly = true)
+    public Optional<ValidateurDTO> validateur(Long id) {
+        return vacataireRepository.trouverValidateurActif(id);
+    }
+
+    /**
+     * Calcule par agrégat, sans charger d'entité, les validateurs des listes de vacataires
+     * (actifs ou tous) : ils changent dès qu'un vacataire est créé, modifié, activé,
+     * désactivé ou supprimé.
+     *
+     * @return Les validateurs de la collection
+     */
+    @Transactional(readOnly = true)
+    public ValidateurDTO validateurListe() {
+        return vacataireRepository.calculerValidateur()
+                .modifieLe(journalSuppressions.derniereSuppression(Vacataire.class));
+    }
+
+    /**
+     * Récupère plusieurs vacataires actifs en une seule requête {@code IN}.
+     * Comme pour {@link #getVacataire(Long)}, un vacataire inactif est considéré comme manquant.
+     *
+     * @param ids Les identifiants demandés (au plus {@value LectureParLot#TAILLE_MAX})
+     * @return Les vacataires trouvés, dans l'ordre de la requête, et les identifiants manquants
+     */
+    @Transactional(readOnly = true)
+    public LotResultatDTO<VacataireDTO> getVacataires(List<Long> ids) {
+        List<Long> demandes = LectureParLot.identifiants(ids);
+        if (demandes.isEmpty()) {
+            return new LotResultatDTO<>(List.of(), List.of());
+        }
+        return LectureParLot.assembler(demandes, vacataireRepository.findByIdInAndActif(demandes, true),
+                Vacataire::getId, this::convertToDTO);
+    }
+
+    /**
+     * Met à jour un vacataire actif existant.
      * 
      * @param id L'identifiant du vacataire à mettre à jour
      * @param vacataireDTO Les nouvelles données du vacataire
+     * @param versionAttendue La version lue par le client ({@code If-Match}), ou null pour une mise à jour inconditionnelle
      * @return Le DTO du vacataire mis à jour
-     * @throws RuntimeException Si le vacataire n'existe pas
+     * @throws VacataireNotFoundException Si le vacataire n'existe pas ou est inactif
+     * @throws VersionObsoleteException Si le vacataire a été modifié depuis la version attendue
+     * @throws ConflitEtatException Si le vacataire a été modifié par une autre transaction pendant une mise à jour inconditionnelle
      */
     @Transactional
-    public VacataireDTO mettreAJourVacataire(Long id, VacataireDTO vacataireDTO) {
-        return vacataireRepository.findByIdAndActif(id, true)
-                .map(vacataire -> {
-                    vacataire.setNom(vacataireDTO.getNom());
-                    vacataire.setPrenom(vacataireDTO.getPrenom());
-                    vacataire.setEmail(vacataireDTO.getEmail());
-                    vacataire.setTelephone(vacataireDTO.getTelephone());
-                    vacataire.setSpecialite(vacataireDTO.getSpecialite());
-                    vacataire.setActif(vacataireDTO.isActif());
-                    vacataire.setDateModification(new Date());
-                    return convertToDTO(vacataireRepository.save(vacataire));
-                })
+    public VacataireDTO mettreAJourVacataire(Long id, VacataireDTO vacataireDTO, Long versionAttendue) {
+        Vacataire vacataire = vacataireRepository.findById(id)
+                .filter(Vacataire::isActif)
                 .orElseThrow(() -> new VacataireNotFoundException("Vacataire non trouvé avec l'ID " + id));
+        if (versionAttendue != null && vacataire.getVersion() != versionAttendue) {
+            throw new VersionObsoleteException("Le vacataire " + id + " a été modifié depuis la version " + versionAttendue);
+        }
+        Vacataire valeurs = VacataireMapper.toEntity(vacataireDTO);
+        vacataire.setNom(valeurs.getNom());
+        vacataire.setPrenom(valeurs.getPrenom());
+        vacataire.setEmail(valeurs.getEmail());
+        vacataire.setTelephone(valeurs.getTelephone());
+        vacataire.setSpecialite(valeurs.getSpecialite());
+        vacataire.setActif(valeurs.isActif());
+        try {
+            // Mise à jour conditionnée par @Version : les écouteurs de l'entité (clés de recherche,
+            // clés uniques) sont déclenchés, et la version finale est renvoyée
+            vacataireRepository.flush();
+        } catch (OptimisticLockingFailureException e) {
+            if (versionAttendue != null) {
+                throw new VersionObsoleteException("Le vacataire " + id + " a été modifié depuis la version " + versionAttendue);
+            }
+            throw new ConflitEtatException("Le vacataire " + id + " a été modifié pendant la mise à jour");
+        }
+        return publier(vacataire, TypeEvenement.MODIFICATION);
     }
 
     /**
@@ -125,6 +287,7 @@ public class VacataireService {
      * 
      * @return La liste des vacataires actifs
      */
+    @Transactional(readOnly = true)
     public List<VacataireDTO> getAllVacatairesActifs() {
         return vacataireRepository.findByActif(true)
                 .stream()
@@ -136,6 +299,7 @@ public class VacataireService {
      * Récupère la liste de tous les vacataires (actifs et inactifs).
      * @return La liste des vacataires
      */
+    @Transactional(readOnly = true)
     public List<VacataireDTO> getAllVacataires() {
         return vacataireRepository.findAll()
             .stream()
@@ -143,24 +307,128 @@ public class VacataireService {
             .toList();
     }
 
+    /**
+     * Recherche les vacataires par clé normalisée (sans accents ni casse) : nom, prénom ou email égal au
+     * texte ({@link ModeRecherche#EXACT}) ou commençant par lui ({@link ModeRecherche#PREFIXE}), ou nom
+     * ou prénom qui se prononce comme lui ({@link ModeRecherche#PHONETIQUE}).
+     * Chaque colonne est lue par un parcours d'index borné ; les résultats sont triés par nom,
+     * prénom puis identifiant.
+     *
+     * @param texte  texte recherché
+     * @param mode   mode de comparaison
+     * @param taille nombre maximal de résultats (borné côté serveur)
+     * @return les vacataires trouvés
+     */
+    @Transactional(readOnly = true)
+    public List<VacataireDTO> rechercherVacatairesParCle(String texte, ModeRecherche mode, Integer taille) {
+        String cle = mode == ModeRecherche.PHONETIQUE ? PhonetiqueFrancaise.cle(texte) : ClesRecherche.normaliser(texte);
+        if (cle == null || cle.isEmpty()) {
+            return List.of();
+        }
+        Limit limite = PaginationKeyset.limite(taille);
+        Stream<List<Vacataire>> resultats = switch (mode) {
+            case EXACT -> Stream.of(vacataireRepository.findByNomNormaliseOrderById(cle, limite),
+                    vacataireRepository.findByPrenomNormaliseOrderById(cle, limite),
+                    vacataireRepository.findByEmailNormaliseOrderById(cle, limite));
+            case PREFIXE -> {
+                String fin = ClesRecherche.finPrefixe(cle);
+                yield Stream.of(vacataireRepository.findParPrefixeNom(cle, fin, limite),
+                        vacataireRepository.findParPrefixePrenom(cle, fin, limite),
+                        vacataireRepository.findParPrefixeEmail(cle, fin, limite));
+            }
+            case PHONETIQUE -> Stream.of(vacataireRepository.findByNomPhonetiqueOrderById(cle, limite),
+                    vacataireRepository.findByPrenomPhonetiqueOrderById(cle, limite));
+        };
+        return ClesRecherche.fusionner(resultats.flatMap(List::stream), Vacataire::getId, ORDRE_CLES, limite.max())
+                .stream()
+                .map(this::convertToDTO)
+                .toList();
+    }
+
+    /**
+     * Récupère une page de vacataires actifs triés par nom (pagination keyset).
+     *
+     * @param curseur Curseur opaque de la page précédente, ou null pour la première page
+     * @param taille Taille de page souhaitée (bornée côté serveur)
+     * @return La page de vacataires actifs et le curseur de la page suivante
+     */
+    @Transactional(readOnly = true)
+    public PageCurseurDTO<VacataireDTO> getVacatairesActifsParPage(String curseur, Integer taille) {
+        Limit limite = PaginationKeyset.limite(taille);
+        return PaginationKeyset.page(
+                lectureKeyset.lire(Vacataire.class, "nom", PaginationKeyset.position(curseur, "nom"), limite,
+                        Map.of("actif", true)),
+                limite, this::convertToDTO, Vacataire::getNom, Vacataire::getId);
+    }
+
+    /**
+     * Récupère une page de vacataires (actifs et inactifs) triés par nom (pagination keyset).
+     *
+     * @param curseur Curseur opaque de la page précédente, ou null pour la première page
+     * @param taille Taille de page souhaitée (bornée côté serveur)
+     * @return La page de vacataires et le curseur de la page suivante
+     */
+    @Transactional(readOnly = true)
+    public PageCurseurDTO<VacataireDTO> getVacatairesParPage(String curseur, Integer taille) {
+        Limit limite = PaginationKeyset.limite(taille);
+        return PaginationKeyset.page(
+                lectureKeyset.lire(Vacataire.class, "nom", PaginationKeyset.position(curseur, "nom"), limite, Map.of()),
+                limite, this::convertToDTO, Vacataire::getNom, Vacataire::getId);
+    }
+
+    /**
+     * Récupère une page de vacataires actifs réduite aux champs demandés, lue par projection.
+     *
+     * @param curseur Curseur opaque de la page précédente, ou null pour la première page
+     * @param taille Taille de page souhaitée (bornée côté serveur)
+     * @param fields Les champs demandés, séparés par des virgules
+     * @return La page de projections et le curseur de la page suivante
+     */
+    @Transactional(readOnly = true)
+    public PageCurseurDTO<Map<String, Object>> getVacatairesActifsParPage(String curseur, Integer taille, String fields) {
+        return projectionService.page(Vacataire.class, ChampsProjection.lire(fields, CHAMPS_PROJETABLES),
+                "nom", curseur, taille, Map.of("actif", true));
+    }
+
+    /**
+     * Récupère une page de vacataires (actifs et inactifs) réduite aux champs demandés, lue par projection.
+     *
+     * @param curseur Curseur opaque de la page précédente, ou null pour la première page
+     * @param taille Taille de page souhaitée (bornée côté serveur)
+     * @param fields Les champs demandés, séparés par des virgules
+     * @return La page de projections et le curseur de la page suivante
+     */
+    @Transactional(readOnly = true)
+    public PageCurseurDTO<Map<String, Object>> getVacatairesParPage(String curseur, Integer taille, String fields) {
+        return projectionService.page(Vacataire.class, ChampsProjection.lire(fields, CHAMPS_PROJETABLES),
+                "nom", curseur, taille, Map.of());
+    }
+
+    /**
+     * Exporte tous les vacataires (actifs et inactifs) en flux, sans les charger en mémoire.
+     *
+     * @param consommateur Destination de chaque vacataire exporté
+     * @return Le nombre de vacataires exportés
+     */
+    @Transactional(readOnly = true)
+    public long exporterVacataires(Consumer<VacataireDTO> consommateur) {
+        try (Stream<Vacataire> flux = vacataireRepository.streamAll()) {
+            return ExportFlux.parcourir(flux, this::convertToDTO, consommateur, entityManager);
+        }
+    }
+
     /**
      * Désactive un vacataire du système.
      * 
      * @param id L'identifiant du vacataire à désactiver
      * @return Le DTO du vacataire désactivé
      * @throws VacataireNotFoundException Si le vacataire n'existe pas
+     * @throws ConflitEtatException Si le vacataire est déjà inactif
      */
     @Transactional
     public VacataireDTO desactiverVacataire(Long id) {
-        Optional<Vacataire> optionalVacataire = vacataireRepository.findByIdAndActif(id, true);
-        if (!optionalVacataire.isPresent()) {
-            log.warn("Tentative de désactivation d'un vacataire non trouvé avec l'ID : {}", id);
-            throw new VacataireNotFoundException("Vacataire non trouvé avec l'ID " + id);
-        }
-        Vacataire vacataire = optionalVacataire.get();
-        vacataire.setActif(false);
-        vacataire.setDateModification(new Date());
-        return convertToDTO(vacataireRepository.save(vacataire));
+        changerStatut(id, false, "désactivation");
+        return publier(relire(id), TypeEvenement.DESACTIVATION);
     }
 
     /**
@@ -169,19 +437,98 @@ public class VacataireService {
      * @param id L'identifiant du vacataire à réactiver
      * @return Le DTO du vacataire réactivé
      * @throws VacataireNotFoundException Si le vacataire n'existe pas
+     * @throws ConflitEtatException Si le vacataire est déjà actif
      */
     @Transactional
     public VacataireDTO reactivierVacataire(@NotNull(message = "L'ID du vacataire ne peut pas être null") Long id) {
-        Optional<Vacataire> optionalVacataire = vacataireRepository.findById(id);
-        if (!optionalVacataire.isPresent()) {
-            log.warn("Tentative de réactivation d'un vacataire non trouvé avec l'ID : {}", id);
-            throw new VacataireNotFoundException("Vacataire non trouvé avec l'ID " + id);
+        changerStatut(id, true, "réactivation");
+        return publier(relire(id), TypeEvenement.ACTIVATION);
+    }
+
+    /**
+     * Transition de statut par compare-and-set : un seul {@code UPDATE ... WHERE id = ? AND actif <> ?}.
+     * Sans ligne modifiée, une lecture d'existence distingue « introuvable » de « déjà dans ce statut ».
+     */
+    private void changerStatut(Long id, boolean actif, String operation) {
+        if (vacataireRepository.modifierActif(id, actif, new Date()) == 0) {
+            if (!vacataireRepository.existsById(id)) {
+                log.warn("Tentative de {} d'un vacataire non trouvé avec l'ID : {}", operation, id);
+                throw new VacataireNotFoundException("Vacataire non trouvé avec l'ID " + id);
+            }
+            throw new ConflitEtatException("Le vacataire " + id + " est déjà " + (actif ? "actif" : "inactif"));
         }
-        
-        Vacataire vacataire = optionalVacataire.get();
-        vacataire.setActif(true);
-        vacataire.setDateModification(new Date());
-        return convertToDTO(vacataireRepository.save(vacataire));
+    }
+
+    /**
+     * Relit un vacataire après une transition (il a pu être supprimé entre-temps).
+     */
+    private Vacataire relire(Long id) {
+        return vacataireRepository.findById(id)
+                .orElseThrow(() -> new VacataireNotFoundException("Vacataire non trouvé avec l'ID " + id));
+    }
+
+    /**
+     * Publie le nouvel état d'un vacataire (voir {@link #publier(Long, Long, TypeEvenement, VacataireDTO)}).
+     *
+     * @param vacataire Le vacataire enregistré
+     * @param type La nature du changement
+     * @return Le DTO du vacataire
+     */
+    private VacataireDTO publier(Vacataire vacataire, TypeEvenement type) {
+        VacataireDTO dto = convertToDTO(vacataire);
+        publier(vacataire.getId(), vacataire.getVersion(), type, dto);
+        return dto;
+    }
+
+    /**
+     * Enregistre un changement de vacataire dans l'outbox, dans la transaction en cours,
+     * et le déclare au journal d'audit, aux statistiques, à l'annuaire et à l'autocomplétion.
+     * Seul point de diffusion des changements : créations, modifications et suppressions y passent.
+     *
+     * @param id L'identifiant du vacataire
+     * @param version La version du vacataire après le changement
+     * @param type La nature du changement
+     * @param etat L'état après le changement, ou null pour une suppression
+     */
+    private void publier(Long id, Long version, TypeEvenement type, VacataireDTO etat) {
+        outboxService.enregistrer(TypeAgregat.VACATAIRE, id, version, type, etat == null ? Map.of("id", id) : etat);
+        journalAudit.enregistrer(TypeAgregat.VACATAIRE, id, version, type, etat);
+        statistiques.enregistrer(TypeAgregat.VACATAIRE, id, version, etat);
+        annuaire.enregistrer(TypeAgregat.VACATAIRE, id, version, etat);
+        autocompletion.enregistrer(TypeAgregat.VACATAIRE, id, version, etat);
+    }
+
+    /**
+     * Active ou désactive en une seule requête {@code UPDATE} les vacataires sélectionnés
+     * par identifiants ou par spécialité (ex. désactivation de fin de semestre),
+     * et renseigne leur date de modification. Les vacataires à modifier sont d'abord lus et
+     * verrouillés ; la mise à jour et la relecture pour l'outbox portent sur ces seuls identifiants,
+     * par paquets de {@value LectureParLot#TAILLE_MAX} : un événement par vacataire modifié, sans doublon.
+     *
+     * @param actif     statut à appliquer
+     * @param selection identifiants (au plus {@value LectureParLot#TAILLE_MAX}) ou spécialité visés
+     * @return le nombre de vacataires dont le statut a changé
+     * @throws LotInvalideException si la sélection est vide, ambiguë ou porte sur un filtre inconnu
+     */
+    @Transactional
+    public ResultatMasseDTO modifierActifEnMasse(boolean actif, SelectionMasseDTO selection) {
+        if (selection == null || selection.grade() != null
+                || selection.parIdentifiants() == (selection.specialite() != null)) {
+            throw new LotInvalideException("Indiquer soit une liste d'identifiants, soit une spécialité");
+        }
+        List<Long> aModifier = selection.parIdentifiants()
+                ? vacataireRepository.findIdsAModifierParIds(LectureParLot.identifiants(selection.ids()), actif)
+                : vacataireRepository.findIdsAModifierParSpecialite(selection.specialite(), actif);
+        Date maintenant = new Date();
+        TypeEvenement type = actif ? TypeEvenement.ACTIVATION : TypeEvenement.DESACTIVATION;
+        int modifies = 0;
+        for (int debut = 0; debut < aModifier.size(); debut += LectureParLot.TAILLE_MAX) {
+            List<Long> paquet = aModifier.subList(debut, Math.min(debut + LectureParLot.TAILLE_MAX, aModifier.size()));
+            modifies += vacataireRepository.modifierActifParIds(paquet, actif, maintenant);
+            vacataireRepository.findAllById(paquet).forEach(vacataire -> publier(vacataire, type));
+        }
+        log.info("{} vacataires {} en masse", modifies, actif ? "activés" : "désactivés");
+        return new ResultatMasseDTO(actif, modifies);
     }
 
     /**
@@ -197,7 +544,9 @@ public class VacataireService {
             log.warn("Tentative de suppression d'un vacataire non trouvé avec l'ID : {}", id);
             return false;
         }
-        vacataireRepository.delete(optionalVacataire.get());
+        Vacataire vacataire = optionalVacataire.get();
+        vacataireRepository.delete(vacataire);
+        publier(id, vacataire.getVersion(), TypeEvenement.SUPPRESSION, null);
         return true;
     }
 
@@ -207,6 +556,7 @@ public class VacataireService {
      * @param email L'email du vacataire à rechercher
      * @return Le DTO du vacataire trouvé ou null si non trouvé
      */
+    @Transactional(readOnly = true)
     public VacataireDTO getVacataireByEmail(String email) {
         Vacataire vacataire = vacataireRepository.findByEmail(email);
         return vacataire != null ? convertToDTO(vacataire) : null;
@@ -216,20 +566,13 @@ public class VacataireService {
      * Active un vacataire du système.
      * 
      * @param id L'identifiant du vacataire à activer
-     * @throws IllegalArgumentException Si le vacataire n'existe pas
+     * @throws VacataireNotFoundException Si le vacataire n'existe pas
+     * @throws ConflitEtatException Si le vacataire est déjà actif
      */
     @Transactional
     public void activerVacataire(@NotNull(message = "L'ID du vacataire ne peut pas être null") Long id) {
-        Optional<Vacataire> optionalVacataire = vacataireRepository.findById(id);
-        if (!optionalVacataire.isPresent()) {
-            log.warn("Tentative d'activation d'un vacataire non trouvé avec l'ID : {}", id);
-            throw new VacataireNotFoundException("Vacataire non trouvé avec l'ID " + id);
-        }
-        
-        Vacataire vacataire = optionalVacataire.get();
-        vacataire.setActif(true);
-        vacataire.setDateModification(new Date());
-        vacataireRepository.save(vacataire);
+        changerStatut(id, true, "activation");
+        publier(relire(id), TypeEvenement.ACTIVATION);
         log.info("Vacataire activé avec succès : {}", id);
     }
 
@@ -238,6 +581,7 @@ public class VacataireService {
      * 
      * @return La liste des vacataires
      */
+    @Transactional(readOnly = true)
     public List<Vacataire> findAll() {
         return vacataireRepository.findAll();
     }
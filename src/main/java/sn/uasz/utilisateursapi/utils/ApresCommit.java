@@ -0,0 +1,37 @@
+package sn.uasz.utilisateursapi.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Report d'une action à la validation de la transaction en cours.
+ *
+ * <p>Les états tenus en mémoire (index, compteurs, journaux) ne doivent refléter que des
+ * changements validés : un rollback ne doit jamais les laisser en avance sur la base.
+ * Hors transaction, l'action est exécutée immédiatement.</p>
+ */
+public final class ApresCommit {
+
+    private ApresCommit() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Exécute une action après le commit de la transaction en cours, ou tout de suite s'il n'y en a pas.
+     * L'action n'est jamais exécutée si la transaction est annulée.
+     *
+     * @param action action à exécuter
+     */
+    public static void executer(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
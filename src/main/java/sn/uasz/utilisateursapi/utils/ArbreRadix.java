@@ -0,0 +1,344 @@
+package sn.uasz.utilisateursapi.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Arbre radix (trie compressé) de chaînes, chacune associée à des références numériques
+ * scorées, interrogé par préfixe : les {@code k} références de meilleur score dont une chaîne
+ * commence par le préfixe.
+ *
+ * <p>Chaque arc porte une suite de caractères (les nœuds à un seul enfant sont fusionnés) ; les
+ * références et leurs scores sont rangés dans des tableaux de {@code long}, sans objet par entrée.
+ * Chaque nœud garde le meilleur score de son sous-arbre : la recherche parcourt les sous-arbres
+ * du meilleur au moins bon et s'arrête dès que {@code k} références sont trouvées, sans visiter
+ * toutes les chaînes du préfixe.</p>
+ *
+ * <p>Non synchronisé : l'appelant protège les accès concurrents.</p>
+ */
+public final class ArbreRadix {
+
+    private static final char[] SANS_ETIQUETTE = new char[0];
+    private static final long[] SANS_ENTREE = new long[0];
+    private static final Noeud[] SANS_ENFANT = new Noeud[0];
+
+    /** Taille approximative d'un nœud et d'un en-tête de tableau (JVM 64 bits, références compressées). */
+    private static final int OCTETS_NOEUD = 40;
+    private static final int OCTETS_TABLEAU = 16;
+
+    private final Noeud racine = new Noeud(SANS_ETIQUETTE);
+    private int entrees;
+    private int noeuds = 1;
+
+    private static final class Noeud {
+        private char[] etiquette;
+        /** Triés sur le premier caractère de leur étiquette. */
+        private Noeud[] enfants = SANS_ENFANT;
+        private long[] references = SANS_ENTREE;
+        private long[] scores = SANS_ENTREE;
+        private long scoreMax = Long.MIN_VALUE;
+
+        private Noeud(char[] etiquette) {
+            this.etiquette = etiquette;
+        }
+
+        private int enfant(char premier) {
+            int bas = 0;
+            int haut = enfants.length - 1;
+            while (bas <= haut) {
+                int milieu = (bas + haut) >>> 1;
+                char c = enfants[milieu].etiquette[0];
+                if (c < premier) {
+                    bas = milieu + 1;
+                } else if (c > premier) {
+                    haut = milieu - 1;
+                } else {
+                    return milieu;
+                }
+            }
+            return -(bas + 1);
+        }
+
+        private int entree(long reference) {
+            for (int i = 0; i < references.length; i++) {
+                if (references[i] == reference) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void recalculerScoreMax() {
+            long max = Long.MIN_VALUE;
+            for (long score : scores) {
+                max = Math.max(max, score);
+            }
+            for (Noeud enfant : enfants) {
+                max = Math.max(max, enfant.scoreMax);
+            }
+            scoreMax = max;
+        }
+    }
+
+    /**
+     * Sous-arbre ou entrée à visiter, par score décroissant.
+     */
+    private record Candidat(long score, Noeud noeud, long reference) {
+    }
+
+    /**
+     * Associe une référence à une chaîne, ou met à jour son score si elle y est déjà associée.
+     *
+     * @param cle       chaîne
+     * @param reference référence associée
+     * @param score     score de la référence pour cette chaîne
+     */
+    public void ajouter(String cle, long reference, long score) {
+        List<Noeud> chemin = new ArrayList<>();
+        Noeud noeud = racine;
+        int i = 0;
+        while (i < cle.length()) {
+            chemin.add(noeud);
+            int position = noeud.enfant(cle.charAt(i));
+            if (position < 0) {
+                Noeud feuille = new Noeud(cle.substring(i).toCharArray());
+                inserer(noeud, -(position + 1), feuille);
+                noeud = feuille;
+                i = cle.length();
+                break;
+            }
+            Noeud enfant = noeud.enfants[position];
+            int commun = prefixeCommun(enfant.etiquette, cle, i);
+            if (commun < enfant.etiquette.length) {
+                enfant = scinder(noeud, position, commun);
+            }
+            noeud = enfant;
+            i += commun;
+        }
+        int entree = noeud.entree(reference);
+        if (entree >= 0) {
+            noeud.scores[entree] = score;
+        } else {
+            noeud.references = ajouterA(noeud.references, reference);
+            noeud.scores = ajouterA(noeud.scores, score);
+            entrees++;
+        }
+        noeud.recalculerScoreMax();
+        for (int j = chemin.size() - 1; j >= 0; j--) {
+            chemin.get(j).recalculerScoreMax();
+        }
+    }
+
+    /**
+     * Retire l'association d'une référence à une chaîne, et les nœuds devenus inutiles.
+     *
+     * @param cle       chaîne
+     * @param reference référence à retirer
+     * @return vrai si l'association existait
+     */
+    public boolean retirer(String cle, long reference) {
+        List<Noeud> chemin = new ArrayList<>();
+        Noeud noeud = racine;
+        int i = 0;
+        while (i < cle.length()) {
+            int position = noeud.enfant(cle.charAt(i));
+            if (position < 0) {
+                return false;
+            }
+            Noeud enfant = noeud.enfants[position];
+            if (prefixeCommun(enfant.etiquette, cle, i) < enfant.etiquette.length) {
+                return false;
+            }
+            chemin.add(noeud);
+            noeud = enfant;
+            i += enfant.etiquette.length;
+        }
+        int entree = noeud.entree(reference);
+        if (entree < 0) {
+            return false;
+        }
+        noeud.references = retirerDe(noeud.references, entree);
+        noeud.scores = retirerDe(noeud.scores, entree);
+        entrees--;
+        noeud.recalculerScoreMax();
+        Noeud courant = noeud;
+        for (int j = chemin.size() - 1; j >= 0; j--) {
+            Noeud parent = chemin.get(j);
+            compacter(parent, courant);
+            parent.recalculerScoreMax();
+            courant = parent;
+        }
+        return true;
+    }
+
+    /**
+     * Les références de meilleur score dont une chaîne commence par le préfixe, sans doublon.
+     *
+     * @param prefixe préfixe recherché
+     * @param k       nombre maximal de références
+     * @return les références, par score décroissant
+     */
+    public long[] meilleurs(String prefixe, int k) {
+        Noeud depart = descendre(prefixe);
+        if (depart == null || k <= 0 || depart.scoreMax == Long.MIN_VALUE) {
+            return SANS_ENTREE;
+        }
+        long[] trouvees = new long[k];
+        int nombre = 0;
+        PriorityQueue<Candidat> aVisiter = new PriorityQueue<>((a, b) -> Long.compare(b.score(), a.score()));
+        aVisiter.add(new Candidat(depart.scoreMax, depart, 0));
+        while (!aVisiter.isEmpty() && nombre < k) {
+            Candidat candidat = aVisiter.poll();
+            Noeud noeud = candidat.noeud();
+            if (noeud == null) {
+                if (!contient(trouvees, nombre, candidat.reference())) {
+                    trouvees[nombre++] = candidat.reference();
+                }
+                continue;
+            }
+            for (int i = 0; i < noeud.references.length; i++) {
+                aVisiter.add(new Candidat(noeud.scores[i], null, noeud.references[i]));
+            }
+            for (Noeud enfant : noeud.enfants) {
+                aVisiter.add(new Candidat(enfant.scoreMax, enfant, 0));
+            }
+        }
+        return nombre == k ? trouvees : Arrays.copyOf(trouvees, nombre);
+    }
+
+    /**
+     * @return le nombre d'associations (chaîne, référence)
+     */
+    public int entrees() {
+        return entrees;
+    }
+
+    /**
+     * @return le nombre de nœuds de l'arbre, racine comprise
+     */
+    public int noeuds() {
+        return noeuds;
+    }
+
+    /**
+     * Estime la mémoire occupée par l'arbre en parcourant ses nœuds.
+     *
+     * @return le nombre approximatif d'octets occupés
+     */
+    public long empreinteMemoire() {
+        long octets = 0;
+        List<Noeud> aVisiter = new ArrayList<>();
+        aVisiter.add(racine);
+        while (!aVisiter.isEmpty()) {
+            Noeud noeud = aVisiter.remove(aVisiter.size() - 1);
+            octets += OCTETS_NOEUD;
+            octets += noeud.etiquette.length == 0 ? 0 : OCTETS_TABLEAU + 2L * noeud.etiquette.length;
+            octets += noeud.enfants.length == 0 ? 0 : OCTETS_TABLEAU + 4L * noeud.enfants.length;
+            octets += noeud.references.length == 0 ? 0 : 2 * (OCTETS_TABLEAU + 8L * noeud.references.length);
+            aVisiter.addAll(Arrays.asList(noeud.enfants));
+        }
+        return octets;
+    }
+
+    private Noeud descendre(String prefixe) {
+        Noeud noeud = racine;
+        int i = 0;
+        while (i < prefixe.length()) {
+            int position = noeud.enfant(prefixe.charAt(i));
+            if (position < 0) {
+                return null;
+            }
+            Noeud enfant = noeud.enfants[position];
+            int commun = prefixeCommun(enfant.etiquette, prefixe, i);
+            if (commun < enfant.etiquette.length && i + commun < prefixe.length()) {
+                return null;
+            }
+            noeud = enfant;
+            i += commun;
+        }
+        return noeud;
+    }
+
+    /**
+     * Coupe l'étiquette d'un enfant après {@code longueur} caractères : un nœud intermédiaire
+     * porte le début, l'enfant garde la suite.
+     */
+    private Noeud scinder(Noeud parent, int position, int longueur) {
+        Noeud enfant = parent.enfants[position];
+        Noeud intermediaire = new Noeud(Arrays.copyOf(enfant.etiquette, longueur));
+        enfant.etiquette = Arrays.copyOfRange(enfant.etiquette, longueur, enfant.etiquette.length);
+        intermediaire.enfants = new Noeud[]{enfant};
+        intermediaire.scoreMax = enfant.scoreMax;
+        parent.enfants[position] = intermediaire;
+        noeuds++;
+        return intermediaire;
+    }
+
+    private void inserer(Noeud parent, int position, Noeud enfant) {
+        Noeud[] enfants = new Noeud[parent.enfants.length + 1];
+        System.arraycopy(parent.enfants, 0, enfants, 0, position);
+        enfants[position] = enfant;
+        System.arraycopy(parent.enfants, position, enfants, position + 1, parent.enfants.length - position);
+        parent.enfants = enfants;
+        noeuds++;
+    }
+
+    /**
+     * Supprime un enfant sans entrée ni descendant, ou le fusionne avec son unique enfant.
+     */
+    private void compacter(Noeud parent, Noeud enfant) {
+        if (enfant.references.length > 0 || enfant.enfants.length > 1) {
+            return;
+        }
+        int position = parent.enfant(enfant.etiquette[0]);
+        if (enfant.enfants.length == 0) {
+            Noeud[] enfants = new Noeud[parent.enfants.length - 1];
+            System.arraycopy(parent.enfants, 0, enfants, 0, position);
+            System.arraycopy(parent.enfants, position + 1, enfants, position, enfants.length - position);
+            parent.enfants = enfants.length == 0 ? SANS_ENFANT : enfants;
+        } else {
+            Noeud petitEnfant = enfant.enfants[0];
+            char[] etiquette = Arrays.copyOf(enfant.etiquette, enfant.etiquette.length + petitEnfant.etiquette.length);
+            System.arraycopy(petitEnfant.etiquette, 0, etiquette, enfant.etiquette.length, petitEnfant.etiquette.length);
+            petitEnfant.etiquette = etiquette;
+            parent.enfants[position] = petitEnfant;
+        }
+        noeuds--;
+    }
+
+    private static int prefixeCommun(char[] etiquette, String cle, int debut) {
+        int limite = Math.min(etiquette.length, cle.length() - debut);
+        int i = 0;
+        while (i < limite && etiquette[i] == cle.charAt(debut + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean contient(long[] valeurs, int nombre, long valeur) {
+        for (int i = 0; i < nombre; i++) {
+            if (valeurs[i] == valeur) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long[] ajouterA(long[] valeurs, long valeur) {
+        long[] resultat = Arrays.copyOf(valeurs, valeurs.length + 1);
+        resultat[valeurs.length] = valeur;
+        return resultat;
+    }
+
+    private static long[] retirerDe(long[] valeurs, int position) {
+        if (valeurs.length == 1) {
+            return SANS_ENTREE;
+        }
+        long[] resultat = new long[valeurs.length - 1];
+        System.arraycopy(valeurs, 0, resultat, 0, position);
+        System.arraycopy(valeurs, position + 1, resultat, position, resultat.length - position);
+        return resultat;
+    }
+}
@@ -0,0 +1,51 @@
+package sn.uasz.utilisateursapi.utils;
+
+import sn.uasz.utilisateursapi.exceptions.ChampsInvalidesException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lecture du paramètre {@code fields} des requêtes GET (« sparse fieldsets »).
+ *
+ * <p>Le client liste les champs voulus, séparés par des virgules ({@code ?fields=id,nom,prenom}).
+ * Seuls les champs scalaires exposés par le DTO de la ressource sont acceptés : les associations
+ * (rôles) ne peuvent pas être projetées, puisque la requête ne charge aucune entité.</p>
+ */
+public final class ChampsProjection {
+
+    private ChampsProjection() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Valide et normalise la liste de champs demandée.
+     *
+     * @param fields    valeur brute du paramètre {@code fields}
+     * @param autorises champs projetables de la ressource
+     * @return les champs demandés, sans doublon, dans l'ordre de la requête
+     * @throws ChampsInvalidesException si la liste est vide ou contient un champ non autorisé
+     */
+    public static List<String> lire(String fields, Collection<String> autorises) {
+        Set<String> champs = new LinkedHashSet<>();
+        if (fields != null) {
+            for (String champ : fields.split(",")) {
+                String nom = champ.trim();
+                if (nom.isEmpty()) {
+                    continue;
+                }
+                if (!autorises.contains(nom)) {
+                    throw new ChampsInvalidesException("Champ inconnu : " + nom + " (champs disponibles : " + autorises + ")");
+                }
+                champs.add(nom);
+            }
+        }
+        if (champs.isEmpty()) {
+            throw new ChampsInvalidesException("Le paramètre fields doit désigner au moins un champ");
+        }
+        return new ArrayList<>(champs);
+    }
+}
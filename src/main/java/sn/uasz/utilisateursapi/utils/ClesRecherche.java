@@ -0,0 +1,99 @@
+package sn.uasz.utilisateursapi.utils;
+
+import java.text.Normalizer;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Clés de recherche normalisées des noms, prénoms et emails.
+ *
+ * <p>Une clé est le texte décomposé (NFD) privé de ses accents, mis en minuscules, dont les
+ * blancs sont réduits à une seule espace : « Sène », « SENE » et « sène » donnent {@code sene}.
+ * Les clés sont stockées dans des colonnes indexées ; une recherche exacte est une égalité et une
+ * recherche par préfixe un intervalle {@code [prefixe, finPrefixe(prefixe))}, toutes deux servies
+ * par un parcours d'index borné.</p>
+ */
+public final class ClesRecherche {
+
+    /** Longueur maximale d'une clé, celle des colonnes qui les stockent. */
+    public static final int LONGUEUR_MAX = 255;
+
+    private ClesRecherche() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Calcule la clé normalisée d'un texte. Les caractères de contrôle et non attribués (dont
+     * U+FFFF) sont traités comme des blancs, ce qui garantit que {@link #finPrefixe(String)}
+     * reste une borne valide.
+     *
+     * @param texte texte saisi (peut être null)
+     * @return la clé, vide si le texte ne contient que des blancs, null si le texte est null
+     */
+    public static String normaliser(String texte) {
+        if (texte == null) {
+            return null;
+        }
+        String decompose = Normalizer.normalize(texte, Normalizer.Form.NFD);
+        StringBuilder cle = new StringBuilder(decompose.length());
+        boolean blanc = false;
+        for (int i = 0; i < decompose.length(); ) {
+            int point = decompose.codePointAt(i);
+            i += Character.charCount(point);
+            int type = Character.getType(point);
+            if (type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK
+                    || type == Character.COMBINING_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isWhitespace(point) || Character.isSpaceChar(point)
+                    || type == Character.CONTROL || type == Character.UNASSIGNED) {
+                blanc = true;
+                continue;
+            }
+            if (blanc && !cle.isEmpty()) {
+                cle.append(' ');
+            }
+            blanc = false;
+            switch (point) {
+                case 'œ', 'Œ' -> cle.append("oe");
+                case 'æ', 'Æ' -> cle.append("ae");
+                case 'ß' -> cle.append("ss");
+                default -> cle.appendCodePoint(Character.toLowerCase(point));
+            }
+        }
+        return cle.length() > LONGUEUR_MAX ? cle.substring(0, LONGUEUR_MAX) : cle.toString();
+    }
+
+    /**
+     * Borne supérieure exclusive des clés commençant par un préfixe : le préfixe dont le dernier
+     * caractère est incrémenté ({@code sen} → {@code seo}).
+     *
+     * @param prefixe clé normalisée non vide
+     * @return la plus petite chaîne supérieure à toutes celles qui commencent par le préfixe
+     */
+    public static String finPrefixe(String prefixe) {
+        int dernier = prefixe.length() - 1;
+        return prefixe.substring(0, dernier) + (char) (prefixe.charAt(dernier) + 1);
+    }
+
+    /**
+     * Fusionne les résultats de plusieurs recherches par clé (nom, prénom, email) : sans doublon,
+     * dans l'ordre donné, limités au nombre demandé.
+     *
+     * @param resultats résultats des différentes requêtes
+     * @param id        identifiant d'un résultat
+     * @param ordre     ordre de présentation
+     * @param limite    nombre maximal de résultats
+     * @param <T>       type des résultats
+     * @return les résultats fusionnés
+     */
+    public static <T> List<T> fusionner(Stream<T> resultats, Function<T, Long> id, Comparator<T> ordre, int limite) {
+        Map<Long, T> uniques = new LinkedHashMap<>();
+        resultats.forEach(resultat -> uniques.putIfAbsent(id.apply(resultat), resultat));
+        return uniques.values().stream().sorted(ordre).limit(limite).toList();
+    }
+}
@@ -0,0 +1,54 @@
+package sn.uasz.utilisateursapi.utils;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Parcours en flux d'une table complète pour les exports.
+ *
+ * <p>Les entités sont lues via un curseur JDBC ({@code Stream<Entity>}) avec une taille
+ * de fetch de {@value #TAILLE_LOT} lignes, converties une à une en DTO puis transmises au
+ * consommateur. Le contexte de persistance est vidé tous les {@value #TAILLE_LOT} éléments
+ * afin que la mémoire consommée reste constante quelle que soit la taille de la table.</p>
+ */
+public final class ExportFlux {
+
+    /**
+     * Nombre de lignes lues par aller-retour JDBC et entre deux vidages du contexte de persistance.
+     * Doit rester aligné avec les hints {@code org.hibernate.fetchSize} des repositories.
+     */
+    public static final int TAILLE_LOT = 500;
+
+    private ExportFlux() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Parcourt le flux d'entités et transmet chaque DTO au consommateur.
+     *
+     * @param flux          flux d'entités ouvert dans une transaction en lecture seule
+     * @param mapper        conversion entité → DTO
+     * @param consommateur  destination de chaque DTO (ex. écriture NDJSON)
+     * @param entityManager contexte de persistance à vider périodiquement
+     * @return le nombre d'éléments exportés
+     */
+    public static <E, D> long parcourir(Stream<E> flux,
+                                        Function<E, D> mapper,
+                                        Consumer<D> consommateur,
+                                        EntityManager entityManager) {
+        long total = 0;
+        Iterator<E> iterateur = flux.iterator();
+        while (iterateur.hasNext()) {
+            consommateur.accept(mapper.apply(iterateur.next()));
+            total++;
+            if (total % TAILLE_LOT == 0) {
+                entityManager.clear();
+            }
+        }
+        return total;
+    }
+}
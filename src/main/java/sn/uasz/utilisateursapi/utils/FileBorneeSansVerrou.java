@@ -0,0 +1,98 @@
+package sn.uasz.utilisateursapi.utils;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * File FIFO de capacité bornée, sans verrou : plusieurs producteurs, un ou plusieurs consommateurs.
+ *
+ * <p>Les éléments sont chaînés dans une {@link ConcurrentLinkedQueue} (algorithme de Michael et
+ * Scott, par compare-and-set) ; la borne est tenue par un compteur atomique, réservé par
+ * compare-and-set avant l'ajout. Un producteur n'attend donc jamais un autre thread : quand la
+ * file est pleine, {@link #offrir} échoue immédiatement et l'appelant applique sa politique de
+ * débordement.</p>
+ *
+ * <p>{@link #taille()} peut dépasser de quelques unités le nombre d'éléments visibles pendant un
+ * ajout en cours ; elle ne dépasse jamais la capacité.</p>
+ *
+ * @param <E> type des éléments
+ */
+public final class FileBorneeSansVerrou<E> {
+
+    private final ConcurrentLinkedQueue<E> elements = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger taille = new AtomicInteger();
+    private final int capacite;
+
+    /**
+     * @param capacite nombre maximal d'éléments en file
+     */
+    public FileBorneeSansVerrou(int capacite) {
+        if (capacite <= 0) {
+            throw new IllegalArgumentException("Capacité invalide : " + capacite);
+        }
+        this.capacite = capacite;
+    }
+
+    /**
+     * Ajoute un élément en fin de file s'il reste de la place.
+     *
+     * @param element élément à ajouter (non null)
+     * @return false si la file est pleine
+     */
+    public boolean offrir(E element) {
+        int actuelle;
+        do {
+            actuelle = taille.get();
+            if (actuelle >= capacite) {
+                return false;
+            }
+        } while (!taille.compareAndSet(actuelle, actuelle + 1));
+        elements.offer(element);
+        return true;
+    }
+
+    /**
+     * Retire l'élément le plus ancien.
+     *
+     * @return l'élément retiré, ou null si la file est vide
+     */
+    public E retirer() {
+        E element = elements.poll();
+        if (element != null) {
+            taille.decrementAndGet();
+        }
+        return element;
+    }
+
+    /**
+     * Retire au plus {@code max} éléments, du plus ancien au plus récent.
+     *
+     * @param destination liste qui reçoit les éléments retirés
+     * @param max         nombre maximal d'éléments à retirer
+     * @return le nombre d'éléments retirés
+     */
+    public int retirer(List<? super E> destination, int max) {
+        int retires = 0;
+        E element;
+        while (retires < max && (element = retirer()) != null) {
+            destination.add(element);
+            retires++;
+        }
+        return retires;
+    }
+
+    /**
+     * @return le nombre d'éléments en file (ou en cours d'ajout)
+     */
+    public int taille() {
+        return taille.get();
+    }
+
+    /**
+     * @return le nombre maximal d'éléments en file
+     */
+    public int capacite() {
+        return capacite;
+    }
+}
@@ -0,0 +1,149 @@
+package sn.uasz.utilisateursapi.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtre de Bloom en mémoire pour des clés texte (emails, matricules).
+ *
+ * <p>{@link #peutContenir(String)} ne produit jamais de faux négatif : une réponse {@code false}
+ * garantit que la clé n'a jamais été ajoutée. Une réponse {@code true} peut être un faux positif,
+ * avec une probabilité proche du taux choisi tant que le nombre d'ajouts reste sous la capacité.
+ * Les suppressions ne sont pas prises en charge : une clé retirée de la base reste « possible »
+ * jusqu'à la reconstruction du filtre, ce qui coûte au plus une vérification en base.</p>
+ *
+ * <p>Le filtre est sûr en accès concurrent et sans verrou : les bits sont posés par
+ * opérations atomiques sur un tableau de mots de 64 bits.</p>
+ */
+public class FiltreBloom {
+
+    private static final long GRAINE = 0x9E3779B97F4A7C15L;
+
+    private final AtomicLongArray mots;
+    private final long nombreBits;
+    private final int nombreHachages;
+    private final long capacite;
+    private final LongAdder ajouts = new LongAdder();
+
+    /**
+     * Crée un filtre dimensionné pour une capacité et un taux de faux positifs donnés.
+     *
+     * @param capacite         nombre de clés prévu
+     * @param tauxFauxPositifs taux de faux positifs visé à pleine capacité (ex. 0.01)
+     */
+    public FiltreBloom(long capacite, double tauxFauxPositifs) {
+        if (capacite <= 0 || tauxFauxPositifs <= 0 || tauxFauxPositifs >= 1) {
+            throw new IllegalArgumentException("Capacité ou taux de faux positifs invalide");
+        }
+        long bits = (long) Math.ceil(-capacite * Math.log(tauxFauxPositifs) / (Math.log(2) * Math.log(2)));
+        int nombreMots = (int) Math.min(Integer.MAX_VALUE - 8L, (bits + 63) / 64);
+        this.mots = new AtomicLongArray(nombreMots);
+        this.nombreBits = nombreMots * 64L;
+        this.nombreHachages = Math.max(1, (int) Math.round((double) nombreBits / capacite * Math.log(2)));
+        this.capacite = capacite;
+    }
+
+    /**
+     * Ajoute une clé (les valeurs nulles sont ignorées).
+     *
+     * @param cle clé à ajouter
+     */
+    public void ajouter(String cle) {
+        if (cle == null) {
+            return;
+        }
+        long h1 = hacher(cle);
+        long h2 = melanger(h1 ^ GRAINE) | 1;
+        for (int i = 0; i < nombreHachages; i++) {
+            long bit = Math.floorMod(h1 + i * h2, nombreBits);
+            long masque = 1L << bit;
+            int mot = (int) (bit >>> 6);
+            if ((mots.get(mot) & masque) == 0) {
+                mots.getAndAccumulate(mot, masque, (ancien, m) -> ancien | m);
+            }
+        }
+        ajouts.increment();
+    }
+
+    /**
+     * Indique si la clé a pu être ajoutée.
+     *
+     * @param cle clé recherchée
+     * @return false si la clé n'a certainement jamais été ajoutée, true sinon
+     */
+    public boolean peutContenir(String cle) {
+        if (cle == null) {
+            return false;
+        }
+        long h1 = hacher(cle);
+        long h2 = melanger(h1 ^ GRAINE) | 1;
+        for (int i = 0; i < nombreHachages; i++) {
+            long bit = Math.floorMod(h1 + i * h2, nombreBits);
+            if ((mots.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return le nombre d'ajouts effectués (doublons compris)
+     */
+    public long ajouts() {
+        return ajouts.sum();
+    }
+
+    /**
+     * @return la capacité pour laquelle le filtre a été dimensionné
+     */
+    public long capacite() {
+        return capacite;
+    }
+
+    /**
+     * @return true si le nombre d'ajouts dépasse la capacité : le taux de faux positifs
+     * dépasse alors le taux visé et le filtre devrait être reconstruit plus grand
+     */
+    public boolean estSature() {
+        return ajouts() > capacite;
+    }
+
+    /**
+     * @return le taux de faux positifs attendu pour le nombre d'ajouts courant
+     */
+    public double tauxFauxPositifsEstime() {
+        double remplissage = 1 - Math.exp(-(double) nombreHachages * ajouts() / nombreBits);
+        return Math.pow(remplissage, nombreHachages);
+    }
+
+    /**
+     * @return l'empreinte mémoire du tableau de bits, en octets
+     */
+    public long tailleOctets() {
+        return nombreBits / 8;
+    }
+
+    /**
+     * FNV-1a 64 bits sur les caractères UTF-16, suivi d'un mélange final.
+     */
+    private static long hacher(String cle) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < cle.length(); i++) {
+            h ^= cle.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return melanger(h);
+    }
+
+    /**
+     * Mélange final de MurmurHash3 (fmix64).
+     */
+    private static long melanger(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,224 @@
+package sn.uasz.utilisateursapi.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé de trigrammes, en mémoire, pour la recherche par sous-chaîne.
+ *
+ * <p>Chaque élément est indexé sous un identifiant avec un ou plusieurs champs texte
+ * (ex. nom et prénom). Une recherche de sous-chaîne d'au moins {@value #N} caractères
+ * intersecte les listes de ses trigrammes, en partant de la plus courte, puis vérifie
+ * la sous-chaîne sur les seuls candidats restants. Les unigrammes et bigrammes sont
+ * indexés aussi : une requête plus courte est servie par sa seule liste, sans parcourir
+ * les éléments qui ne la contiennent pas.</p>
+ *
+ * <p>Chaque élément porte une version ; une mise à jour qui n'est pas plus récente que la
+ * version indexée est ignorée, de même que toute mise à jour d'un élément retiré. Des mises
+ * à jour appliquées dans le désordre (ex. après des commits concurrents) ne font donc jamais
+ * revenir l'index à un état antérieur. Les retraits restent mémorisés jusqu'à {@link #vider()},
+ * les identifiants n'étant pas réattribués.</p>
+ *
+ * <p>La comparaison ignore la casse, comme {@code LOWER(x) LIKE '%q%'}. L'index est
+ * sûr en accès concurrent : plusieurs lectures en parallèle, écritures exclusives.</p>
+ *
+ * @param <T> type de la valeur restituée pour chaque élément (ex. un DTO)
+ */
+public class IndexTrigrammes<T> {
+
+    /** Longueur maximale des n-grammes indexés, longueur des listes intersectées. */
+    public static final int N = 3;
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, Entree<T>> entrees = new HashMap<>();
+    // Version indexée de chaque identifiant, RETIRE pour un élément retiré
+    private final Map<Long, Long> versions = new HashMap<>();
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    private static final long RETIRE = Long.MAX_VALUE;
+
+    private record Entree<T>(T valeur, String[] champs) {
+    }
+
+    /**
+     * Ajoute ou remplace un élément, si sa version est plus récente que celle indexée.
+     *
+     * @param id      identifiant de l'élément
+     * @param version version de l'élément (ex. {@code @Version} de l'entité)
+     * @param valeur  valeur restituée par les recherches
+     * @param champs  textes recherchables (les valeurs nulles sont ignorées)
+     * @return true si l'élément a été indexé, false si la version indexée est aussi récente
+     *         ou si l'élément a été retiré
+     */
+    public boolean indexer(long id, long version, T valeur, String... champs) {
+        String[] normalises = new String[champs.length];
+        for (int i = 0; i < champs.length; i++) {
+            normalises[i] = champs[i] == null ? "" : normaliser(champs[i]);
+        }
+        verrou.writeLock().lock();
+        try {
+            Long indexee = versions.get(id);
+            if (indexee != null && indexee >= version) {
+                return false;
+            }
+            retirerSansVerrou(id);
+            versions.put(id, version);
+            entrees.put(id, new Entree<>(valeur, normalises));
+            for (String gramme : grammes(normalises)) {
+                postings.computeIfAbsent(gramme, t -> new HashSet<>()).add(id);
+            }
+            return true;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retire un élément de l'index ; ses mises à jour ultérieures sont ignorées.
+     *
+     * @param id identifiant de l'élément
+     */
+    public void retirer(long id) {
+        verrou.writeLock().lock();
+        try {
+            retirerSansVerrou(id);
+            versions.put(id, RETIRE);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vide l'index.
+     */
+    public void vider() {
+        verrou.writeLock().lock();
+        try {
+            postings.clear();
+            entrees.clear();
+            versions.clear();
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return le nombre d'éléments indexés
+     */
+    public int taille() {
+        verrou.readLock().lock();
+        try {
+            return entrees.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recherche les éléments dont au moins un champ contient la requête. Une requête vide
+     * renvoie tous les éléments.
+     *
+     * @param requete sous-chaîne recherchée (casse ignorée)
+     * @return les valeurs correspondantes, triées par identifiant croissant
+     */
+    public List<T> rechercher(String requete) {
+        String q = normaliser(requete);
+        verrou.readLock().lock();
+        try {
+            Iterable<Long> candidats = q.isEmpty() ? entrees.keySet() : candidats(q);
+            List<Map.Entry<Long, T>> trouves = new ArrayList<>();
+            for (Long id : candidats) {
+                Entree<T> entree = entrees.get(id);
+                if (contient(entree.champs(), q)) {
+                    trouves.add(Map.entry(id, entree.valeur()));
+                }
+            }
+            trouves.sort(Map.Entry.comparingByKey(Comparator.naturalOrder()));
+            return trouves.stream().map(Map.Entry::getValue).toList();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    private Set<Long> candidats(String q) {
+        if (q.length() < N) {
+            return postings.getOrDefault(q, Set.of());
+        }
+        List<Set<Long>> listes = new ArrayList<>();
+        for (String trigramme : trigrammes(q)) {
+            Set<Long> liste = postings.get(trigramme);
+            if (liste == null) {
+                return Set.of();
+            }
+            listes.add(liste);
+        }
+        listes.sort(Comparator.comparingInt(Set::size));
+        Set<Long> resultat = new HashSet<>(listes.get(0));
+        for (int i = 1; i < listes.size() && !resultat.isEmpty(); i++) {
+            resultat.retainAll(listes.get(i));
+        }
+        return resultat;
+    }
+
+    private void retirerSansVerrou(long id) {
+        Entree<T> ancienne = entrees.remove(id);
+        if (ancienne == null) {
+            return;
+        }
+        for (String gramme : grammes(ancienne.champs())) {
+            Set<Long> liste = postings.get(gramme);
+            if (liste != null) {
+                liste.remove(id);
+                if (liste.isEmpty()) {
+                    postings.remove(gramme);
+                }
+            }
+        }
+    }
+
+    private static boolean contient(String[] champs, String q) {
+        for (String champ : champs) {
+            if (champ.contains(q)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sous-chaînes de 1 à {@value #N} caractères des textes, clés des listes de l'index.
+     */
+    private static Set<String> grammes(String... textes) {
+        Set<String> resultat = new HashSet<>();
+        for (String texte : textes) {
+            for (int i = 0; i < texte.length(); i++) {
+                for (int n = 1; n <= N && i + n <= texte.length(); n++) {
+                    resultat.add(texte.substring(i, i + n));
+                }
+            }
+        }
+        return resultat;
+    }
+
+    private static Set<String> trigrammes(String... textes) {
+        Set<String> resultat = new HashSet<>();
+        for (String texte : textes) {
+            for (int i = 0; i + N <= texte.length(); i++) {
+                resultat.add(texte.substring(i, i + N));
+            }
+        }
+        return resultat;
+    }
+
+    private static String normaliser(String texte) {
+        return texte.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,135 @@
+package sn.uasz.utilisateursapi.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecture d'enregistrements CSV selon la RFC 4180.
+ *
+ * <p>Un champ entre guillemets peut contenir le séparateur, des sauts de ligne et des
+ * guillemets doublés ({@code "Ba, ""Aminata"""} → {@code Ba, "Aminata"}). Les fins de ligne
+ * {@code \n} et {@code \r\n} sont acceptées. Au-delà de la RFC, les espaces autour d'un champ
+ * entre guillemets sont tolérés et un guillemet au milieu d'un champ non cité est gardé tel quel.</p>
+ *
+ * <p>Non synchronisé ; le lecteur fourni n'est pas fermé.</p>
+ */
+public final class LecteurCsv {
+
+    private static final int FIN = -1;
+
+    private final Reader lecteur;
+    private final char separateur;
+    // Caractère lu après un '\r' isolé, rendu par le prochain appel à suivant()
+    private int enAvance = FIN;
+    private boolean avance;
+
+    /**
+     * @param lecteur    source du CSV, de préférence tamponnée
+     * @param separateur séparateur des champs (ex. {@code ;} ou {@code ,})
+     */
+    public LecteurCsv(Reader lecteur, char separateur) {
+        this.lecteur = lecteur;
+        this.separateur = separateur;
+    }
+
+    /**
+     * Découpe une ligne isolée (ex. un en-tête) en champs.
+     *
+     * @param ligne      ligne CSV
+     * @param separateur séparateur des champs
+     * @return les champs de la ligne
+     */
+    public static List<String> decouper(String ligne, char separateur) {
+        List<String> champs = new LecteurCsv(new StringReader(ligne), separateur).lire();
+        return champs == null ? List.of("") : champs;
+    }
+
+    /**
+     * Lit l'enregistrement suivant.
+     *
+     * @return ses champs, ou null en fin de fichier ; une ligne vide donne un seul champ vide
+     * @throws UncheckedIOException si la lecture échoue
+     * @throws IllegalArgumentException si un champ entre guillemets n'est pas refermé
+     */
+    public List<String> lire() {
+        try {
+            int c = suivant();
+            if (c == FIN) {
+                return null;
+            }
+            List<String> champs = new ArrayList<>();
+            StringBuilder champ = new StringBuilder();
+            while (true) {
+                while (c == ' ' || c == '\t') {
+                    champ.append((char) c);
+                    c = suivant();
+                }
+                if (c == '"' && champ.toString().isBlank()) {
+                    champ.setLength(0);
+                    c = lireCite(champ);
+                }
+                while (c != FIN && c != separateur && c != '\n' && c != '\r') {
+                    champ.append((char) c);
+                    c = suivant();
+                }
+                champs.add(champ.toString());
+                champ.setLength(0);
+                if (c == separateur) {
+                    c = suivant();
+                    continue;
+                }
+                if (c == '\r') {
+                    int apres = suivant();
+                    if (apres != '\n') {
+                        remettre(apres);
+                    }
+                }
+                return champs;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Lit un champ entre guillemets, le guillemet ouvrant étant consommé.
+     *
+     * @return le premier caractère après le guillemet fermant
+     */
+    private int lireCite(StringBuilder champ) throws IOException {
+        while (true) {
+            int c = suivant();
+            if (c == FIN) {
+                throw new IllegalArgumentException("Champ CSV entre guillemets non refermé");
+            }
+            if (c == '"') {
+                int apres = suivant();
+                if (apres != '"') {
+                    // Espaces après le guillemet fermant ignorés
+                    while (apres == ' ' || apres == '\t') {
+                        apres = suivant();
+                    }
+                    return apres;
+                }
+            }
+            champ.append((char) c);
+        }
+    }
+
+    private int suivant() throws IOException {
+        if (avance) {
+            avance = false;
+            return enAvance;
+        }
+        return lecteur.read();
+    }
+
+    private void remettre(int c) {
+        enAvance = c;
+        avance = true;
+    }
+}
@@ -0,0 +1,82 @@
+package sn.uasz.utilisateursapi.utils;
+
+import sn.uasz.utilisateursapi.dtos.LotResultatDTO;
+import sn.uasz.utilisateursapi.exceptions.LotInvalideException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Outils communs aux lectures groupées par identifiants ({@code POST /api/{type}/batch-get}).
+ *
+ * <p>Les identifiants sont lus en une seule requête {@code IN (...)}. Hibernate complète la
+ * liste de paramètres jusqu'à la puissance de deux suivante
+ * ({@code hibernate.query.in_clause_parameter_padding}) : quelle que soit la taille du lot,
+ * le cache de plans de requêtes ne contient qu'une dizaine de variantes.</p>
+ */
+public final class LectureParLot {
+
+    /** Nombre maximal d'identifiants acceptés par lecture groupée. */
+    public static final int TAILLE_MAX = 500;
+
+    private LectureParLot() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Valide les identifiants demandés et retire les doublons.
+     *
+     * @param ids identifiants demandés par le client
+     * @return les identifiants distincts, dans l'ordre de la requête
+     * @throws LotInvalideException si un identifiant est nul ou si le lot dépasse {@link #TAILLE_MAX}
+     */
+    public static List<Long> identifiants(List<Long> ids) {
+        if (ids == null) {
+            return List.of();
+        }
+        if (ids.size() > TAILLE_MAX) {
+            throw new LotInvalideException("Au plus " + TAILLE_MAX + " identifiants par lecture groupée (reçus : " + ids.size() + ")");
+        }
+        LinkedHashSet<Long> distincts = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (id == null) {
+                throw new LotInvalideException("Les identifiants d'une lecture groupée ne peuvent pas être null");
+            }
+            distincts.add(id);
+        }
+        return new ArrayList<>(distincts);
+    }
+
+    /**
+     * Remet les entités lues dans l'ordre de la requête et liste les identifiants manquants.
+     *
+     * @param demandes    identifiants distincts, dans l'ordre de la requête
+     * @param entites     entités renvoyées par la requête {@code IN}, dans un ordre quelconque
+     * @param identifiant accesseur de l'identifiant d'une entité
+     * @param mapper      conversion d'une entité en DTO
+     * @return les DTO trouvés et les identifiants manquants
+     */
+    public static <E, T> LotResultatDTO<T> assembler(List<Long> demandes, Collection<E> entites,
+                                                      Function<E, Long> identifiant, Function<E, T> mapper) {
+        Map<Long, E> parId = new HashMap<>(entites.size() * 2);
+        for (E entite : entites) {
+            parId.put(identifiant.apply(entite), entite);
+        }
+        List<T> trouves = new ArrayList<>(entites.size());
+        List<Long> manquants = new ArrayList<>();
+        for (Long id : demandes) {
+            E entite = parId.get(id);
+            if (entite == null) {
+                manquants.add(id);
+            } else {
+                trouves.add(mapper.apply(entite));
+            }
+        }
+        return new LotResultatDTO<>(trouves, manquants);
+    }
+}
@@ -0,0 +1,209 @@
+package sn.uasz.utilisateursapi.utils;
+
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import sn.uasz.utilisateursapi.dtos.PageCurseurDTO;
+import sn.uasz.utilisateursapi.exceptions.CurseurInvalideException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Outils de pagination par curseur (keyset / seek) partagés par les services.
+ *
+ * <p>Chaque liste est triée sur un couple {@code (clé de tri, id)}. Le curseur encode
+ * les valeurs de ce couple pour le dernier élément renvoyé ; la page suivante est
+ * obtenue par une requête {@code WHERE (cle, id) > (:cle, :id) ORDER BY cle, id LIMIT n},
+ * dont le coût ne dépend que de la taille de la page et non de sa profondeur.
+ * Les insertions concurrentes ne décalent donc ni ne dupliquent les éléments déjà parcourus.</p>
+ *
+ * <p>La clé de tri peut être nulle : les valeurs nulles sont placées en tête
+ * ({@code NULLS FIRST}, explicitement, les bases ne s'accordant pas sur l'ordre par défaut),
+ * le curseur distingue une valeur nulle d'une chaîne vide et {@link #apres} compare
+ * les valeurs nulles entre elles sur le seul identifiant.</p>
+ */
+public final class PaginationKeyset {
+
+    /** Taille de page utilisée lorsque le client n'en précise pas. */
+    public static final int TAILLE_DEFAUT = 50;
+
+    /** Taille de page maximale imposée par le serveur. */
+    public static final int TAILLE_MAX = 200;
+
+    private static final String CLE_ID = "id";
+    private static final char SEPARATEUR = ':';
+
+    private PaginationKeyset() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Borne la taille de page demandée entre 1 et {@link #TAILLE_MAX}.
+     *
+     * @param taille taille demandée par le client (peut être null)
+     * @return la limite effective à appliquer à la requête
+     */
+    public static Limit limite(Integer taille) {
+        if (taille == null || taille <= 0) {
+            return Limit.of(TAILLE_DEFAUT);
+        }
+        return Limit.of(Math.min(taille, TAILLE_MAX));
+    }
+
+    /**
+     * Décode un curseur opaque en position de défilement Spring Data.
+     *
+     * @param curseur curseur reçu du client, ou null pour la première page
+     * @param cleTri  nom de la propriété de tri (ex. {@code nom})
+     * @return la position à partir de laquelle lire la page
+     * @throws CurseurInvalideException si le curseur est illisible
+     */
+    public static KeysetScrollPosition position(String curseur, String cleTri) {
+        if (curseur == null || curseur.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String brut = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8);
+            // Sans séparateur, la clé de tri du dernier élément était nulle
+            int separateur = brut.indexOf(SEPARATEUR);
+            if (separateur == 0) {
+                throw new CurseurInvalideException("Curseur de pagination invalide");
+            }
+            Long id = Long.valueOf(separateur < 0 ? brut : brut.substring(0, separateur));
+            Map<String, Object> cles = new LinkedHashMap<>();
+            cles.put(cleTri, separateur < 0 ? null : brut.substring(separateur + 1));
+            cles.put(CLE_ID, id);
+            return ScrollPosition.forward(cles);
+        } catch (IllegalArgumentException e) {
+            throw new CurseurInvalideException("Curseur de pagination invalide", e);
+        }
+    }
+
+    /**
+     * Décode le curseur d'une liste triée sur l'identifiant seul (ex. journal d'audit).
+     *
+     * @param curseur curseur reçu du client, ou null pour la première page
+     * @return la position à partir de laquelle lire la page
+     * @throws CurseurInvalideException si le curseur est illisible
+     */
+    public static KeysetScrollPosition position(String curseur) {
+        // La clé de tri est l'identifiant : sa valeur décodée remplace la valeur textuelle
+        return position(curseur, CLE_ID);
+    }
+
+    /**
+     * Encode le couple {@code (clé de tri, id)} d'un élément en curseur opaque.
+     *
+     * @param valeurTri valeur de la clé de tri (peut être nulle)
+     * @param id        identifiant de l'élément
+     * @return le curseur encodé en Base64 URL
+     */
+    public static String encoder(String valeurTri, Long id) {
+        String brut = valeurTri == null ? String.valueOf(id) : id + String.valueOf(SEPARATEUR) + valeurTri;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(brut.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Condition de la page suivante : éléments placés après {@code (valeurTri, dernierId)} dans
+     * l'ordre {@link #ordre}. Après une valeur nulle viennent les autres valeurs nulles d'identifiant
+     * supérieur puis toutes les valeurs non nulles ; après une valeur non nulle, les valeurs nulles
+     * sont déjà parcourues.
+     *
+     * @param cb        constructeur de requêtes Criteria
+     * @param tri       expression de la clé de tri
+     * @param id        expression de l'identifiant
+     * @param valeurTri clé de tri du dernier élément renvoyé (peut être nulle)
+     * @param dernierId identifiant du dernier élément renvoyé
+     * @return le prédicat à ajouter à la requête
+     */
+    public static Predicate apres(HibernateCriteriaBuilder cb, Expression<String> tri, Expression<Long> id,
+                                  String valeurTri, Long dernierId) {
+        if (valeurTri == null) {
+            return cb.or(cb.and(cb.isNull(tri), cb.greaterThan(id, dernierId)), cb.isNotNull(tri));
+        }
+        return cb.or(
+                cb.greaterThan(tri, valeurTri),
+                cb.and(cb.equal(tri, valeurTri), cb.greaterThan(id, dernierId)));
+    }
+
+    /**
+     * Ordre de parcours {@code cle ASC NULLS FIRST, id ASC} attendu par {@link #apres}.
+     *
+     * @param cb  constructeur de requêtes Criteria
+     * @param tri expression de la clé de tri
+     * @param id  expression de l'identifiant
+     * @return les critères de tri, dans l'ordre
+     */
+    public static List<Order> ordre(HibernateCriteriaBuilder cb, Expression<String> tri, Expression<Long> id) {
+        return List.of(cb.asc(tri, true), cb.asc(id));
+    }
+
+    /**
+     * Convertit les lignes lues avec une ligne de plus que la limite en page DTO munie du curseur
+     * suivant : la ligne excédentaire signale seulement l'existence d'une page suivante.
+     *
+     * @param lignes    au plus {@code limite + 1} éléments, dans l'ordre {@link #ordre}
+     * @param limite    taille de la page
+     * @param mapper    conversion entité → DTO
+     * @param valeurTri extraction de la clé de tri depuis l'entité
+     * @param id        extraction de l'identifiant depuis l'entité
+     * @return la page DTO correspondante
+     */
+    public static <E, D> PageCurseurDTO<D> page(List<E> lignes, Limit limite,
+                                                Function<E, D> mapper,
+                                                Function<E, String> valeurTri,
+                                                Function<E, Long> id) {
+        boolean suite = lignes.size() > limite.max();
+        return page(suite ? lignes.subList(0, limite.max()) : lignes, suite, mapper, valeurTri, id);
+    }
+
+    /**
+     * Convertit une fenêtre de résultats en page DTO munie du curseur suivant.
+     *
+     * @param fenetre  résultats renvoyés par le repository
+     * @param mapper   conversion entité → DTO
+     * @param valeurTri extraction de la clé de tri depuis l'entité
+     * @param id       extraction de l'identifiant depuis l'entité
+     * @return la page DTO correspondante
+     */
+    public static <E, D> PageCurseurDTO<D> page(Window<E> fenetre,
+                                                Function<E, D> mapper,
+                                                Function<E, String> valeurTri,
+                                                Function<E, Long> id) {
+        return page(fenetre.getContent(), fenetre.hasNext(), mapper, valeurTri, id);
+    }
+
+    /**
+     * Convertit une fenêtre de résultats triés sur l'identifiant seul en page DTO munie du curseur suivant.
+     *
+     * @param fenetre résultats renvoyés par le repository
+     * @param mapper  conversion entité → DTO
+     * @param id      extraction de l'identifiant depuis l'entité
+     * @return la page DTO correspondante
+     */
+    public static <E, D> PageCurseurDTO<D> page(Window<E> fenetre, Function<E, D> mapper, Function<E, Long> id) {
+        return page(fenetre, mapper, element -> null, id);
+    }
+
+    private static <E, D> PageCurseurDTO<D> page(List<E> contenu, boolean suite,
+                                                 Function<E, D> mapper,
+                                                 Function<E, String> valeurTri,
+                                                 Function<E, Long> id) {
+        String suivant = null;
+        if (suite && !contenu.isEmpty()) {
+            E dernier = contenu.get(contenu.size() - 1);
+            suivant = encoder(valeurTri.apply(dernier), id.apply(dernier));
+        }
+        return new PageCurseurDTO<>(contenu.stream().map(mapper).toList(), suivant);
+    }
+}
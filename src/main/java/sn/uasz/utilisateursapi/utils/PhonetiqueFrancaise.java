@@ -0,0 +1,96 @@
+package sn.uasz.utilisateursapi.utils;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Clés phonétiques des noms et prénoms, adaptées au français et aux noms sénégalais : deux
+ * graphies qui se prononcent de la même façon donnent la même clé (« Ndiaye », « N'Diaye » et
+ * « Diaye » ; « Thiongane » et « Tiongane » ; « Cissé » et « Sissé » ; « Djibril » et « Jibril »).
+ *
+ * <p>Variante de Metaphone par règles de réécriture appliquées à chaque mot de la clé normalisée
+ * ({@link ClesRecherche#normaliser(String)}) : consonne nasale initiale des noms wolof et peuls
+ * (Nd, Ng, Mb...) omise, digrammes ramenés à un son ({@code ch}, {@code ph}, {@code qu},
+ * {@code gu}, {@code eau}, {@code ou}...), {@code c} et {@code g} doux distingués, {@code h}
+ * muet supprimé, lettres doublées réduites, {@code e} et {@code s} finaux omis. Les clés sont
+ * stockées dans des colonnes indexées : une recherche phonétique est une égalité.</p>
+ */
+public final class PhonetiqueFrancaise {
+
+    /**
+     * Règle de réécriture : toutes les occurrences du motif sont remplacées.
+     */
+    private record Regle(Pattern motif, String remplacement) {
+
+        private Regle(String motif, String remplacement) {
+            this(Pattern.compile(motif), remplacement);
+        }
+
+        private String appliquer(String mot) {
+            return motif.matcher(mot).replaceAll(remplacement);
+        }
+    }
+
+    /** Règles appliquées dans l'ordre ; les majuscules codent des sons (X pour « ch », G pour le g dur de « gu »). */
+    private static final List<Regle> REGLES = List.of(
+            // Consonne nasale initiale (Ndiaye, Ngom, Mbaye, Njie) : souvent omise à l'écrit
+            new Regle("^n(?=[dgjtkc])", ""),
+            new Regle("^m(?=[bp])", ""),
+            new Regle("x", "ks"),
+            new Regle("s?[cs]h", "X"),
+            new Regle("ph", "f"),
+            new Regle("dj", "j"),
+            new Regle("gu(?=[eiy])", "G"),
+            new Regle("g(?=[eiy])", "j"),
+            new Regle("gn", "ni"),
+            new Regle("ck|qu|q", "k"),
+            new Regle("c(?=[eiy])", "s"),
+            new Regle("c", "k"),
+            new Regle("h", ""),
+            new Regle("z", "s"),
+            new Regle("w", "ou"),
+            new Regle("eau|au", "o"),
+            new Regle("[ae]y(?![aeiou])", "e"),
+            new Regle("[ae]i", "e"),
+            new Regle("y", "i"),
+            new Regle("ou", "u"),
+            new Regle("(.)\\1+", "$1"),
+            new Regle("(?<=.)e?s?$", ""),
+            new Regle("G", "g"));
+
+    private static final Pattern SEPARATEURS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern APOSTROPHES = Pattern.compile("['’`]");
+
+    private PhonetiqueFrancaise() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Calcule la clé phonétique d'un nom ou d'un prénom : celle de chaque mot, séparées par
+     * une espace. Les apostrophes joignent les mots (« N'Diaye »), les autres signes les séparent
+     * (« Diédhiou-Kâné »).
+     *
+     * @param texte nom ou prénom (peut être null)
+     * @return la clé, vide si le texte ne contient aucune lettre, null si le texte est null
+     */
+    public static String cle(String texte) {
+        if (texte == null) {
+            return null;
+        }
+        String normalise = ClesRecherche.normaliser(APOSTROPHES.matcher(texte).replaceAll(""));
+        StringBuilder cle = new StringBuilder(normalise.length());
+        for (String mot : SEPARATEURS.split(normalise)) {
+            if (mot.isEmpty()) {
+                continue;
+            }
+            for (Regle regle : REGLES) {
+                mot = regle.appliquer(mot);
+            }
+            if (!cle.isEmpty()) {
+                cle.append(' ');
+            }
+            cle.append(mot);
+        }
+        return cle.length() > ClesRecherche.LONGUEUR_MAX ? cle.substring(0, ClesRecherche.LONGUEUR_MAX) : cle.toString();
+    }
+}
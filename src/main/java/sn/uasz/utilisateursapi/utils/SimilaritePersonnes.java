@@ -0,0 +1,253 @@
+package sn.uasz.utilisateursapi.utils;
+
+import sn.uasz.utilisateursapi.dtos.FichePersonneDTO;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Clés de blocage et score de similarité de deux fiches de personne, pour la détection des doublons.
+ *
+ * <p>Deux fiches ne sont comparées que si elles partagent une clé de blocage : nom phonétique et
+ * date de naissance, nom et prénom phonétiques, partie locale de l'email sans chiffres finaux
+ * ({@code fatou.sene2} → {@code fatou.sene}), ou les neuf derniers chiffres du téléphone (sans
+ * indicatif). Le score pondère la ressemblance des noms et prénoms (Jaro-Winkler sur les clés
+ * normalisées, ou égalité phonétique) et la concordance de l'email, du téléphone et de la date de
+ * naissance ; un critère inconnu de l'une des fiches compte pour une ressemblance neutre de 0,5,
+ * si bien que deux homonymes sans autre indice restent sous les seuils usuels.</p>
+ */
+public final class SimilaritePersonnes {
+
+    /** Poids des critères, de somme 1. */
+    private static final double POIDS_NOM = 0.35;
+    private static final double POIDS_PRENOM = 0.25;
+    private static final double POIDS_EMAIL = 0.15;
+    private static final double POIDS_TELEPHONE = 0.15;
+    private static final double POIDS_DATE = 0.10;
+    private static final double NEUTRE = 0.5;
+
+    /** Ressemblance à partir de laquelle un nom, un prénom ou un email est déclaré concordant. */
+    private static final double CONCORDANCE = 0.9;
+
+    private static final int CHIFFRES_TELEPHONE = 9;
+    private static final Pattern NON_CHIFFRES = Pattern.compile("\\D+");
+    private static final Pattern CHIFFRES_FINAUX = Pattern.compile("\\d+$");
+
+    private SimilaritePersonnes() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Score d'une paire de fiches et critères concordants.
+     *
+     * @param score    similarité pondérée, entre 0 et 1
+     * @param criteres critères concordants
+     */
+    public record Resultat(double score, List<String> criteres) {
+    }
+
+    /**
+     * Fiche accompagnée de ses valeurs comparées, calculées une seule fois.
+     *
+     * @param fiche            fiche de personne
+     * @param nom              nom normalisé ({@link ClesRecherche#normaliser(String)})
+     * @param prenom           prénom normalisé
+     * @param nomPhonetique    clé phonétique du nom ({@link PhonetiqueFrancaise#cle(String)})
+     * @param prenomPhonetique clé phonétique du prénom
+     * @param email            partie locale normalisée de l'email, sans chiffres finaux
+     * @param telephone        neuf derniers chiffres du téléphone
+     */
+    public record Profil(FichePersonneDTO fiche, String nom, String prenom, String nomPhonetique,
+                         String prenomPhonetique, String email, String telephone) {
+
+        /**
+         * Calcule le profil d'une fiche.
+         *
+         * @param fiche fiche de personne
+         * @return son profil ; les valeurs vides ou absentes sont null
+         */
+        public static Profil de(FichePersonneDTO fiche) {
+            return new Profil(fiche,
+                    nonVide(ClesRecherche.normaliser(fiche.nom())),
+                    nonVide(ClesRecherche.normaliser(fiche.prenom())),
+                    nonVide(PhonetiqueFrancaise.cle(fiche.nom())),
+                    nonVide(PhonetiqueFrancaise.cle(fiche.prenom())),
+                    nonVide(partieLocale(fiche.email())),
+                    SimilaritePersonnes.telephone(fiche.telephone()));
+        }
+
+        /**
+         * Calcule les clés de blocage du profil, triées et sans doublon.
+         *
+         * @return les clés, préfixées par leur nature ({@code D:}, {@code N:}, {@code E:}, {@code T:})
+         */
+        public List<String> clesBlocage() {
+            TreeSet<String> cles = new TreeSet<>();
+            if (nomPhonetique != null) {
+                if (fiche.dateNaissance() != null) {
+                    cles.add("D:" + nomPhonetique + ' ' + fiche.dateNaissance());
+                }
+                if (prenomPhonetique != null) {
+                    cles.add("N:" + nomPhonetique + ' ' + prenomPhonetique);
+                }
+            }
+            if (email != null) {
+                cles.add("E:" + email);
+            }
+            if (telephone != null) {
+                cles.add("T:" + telephone);
+            }
+            return new ArrayList<>(cles);
+        }
+    }
+
+    /**
+     * Compare deux profils.
+     *
+     * @param a premier profil
+     * @param b second profil
+     * @return le score pondéré et les critères concordants
+     */
+    public static Resultat comparer(Profil a, Profil b) {
+        List<String> criteres = new ArrayList<>(5);
+        double nom = nom(a.nom(), a.nomPhonetique(), b.nom(), b.nomPhonetique());
+        double prenom = nom(a.prenom(), a.prenomPhonetique(), b.prenom(), b.prenomPhonetique());
+        // Nom et prénom intervertis à la saisie
+        double croise = (nom(a.nom(), a.nomPhonetique(), b.prenom(), b.prenomPhonetique())
+                + nom(a.prenom(), a.prenomPhonetique(), b.nom(), b.nomPhonetique())) / 2;
+        if (croise > (nom + prenom) / 2) {
+            nom = croise;
+            prenom = croise;
+        }
+        double score = POIDS_NOM * nom + POIDS_PRENOM * prenom;
+        ajouterSi(criteres, nom >= CONCORDANCE, "nom");
+        ajouterSi(criteres, prenom >= CONCORDANCE, "prenom");
+
+        if (a.email() == null || b.email() == null) {
+            score += POIDS_EMAIL * NEUTRE;
+        } else {
+            double email = jaroWinkler(a.email(), b.email());
+            score += POIDS_EMAIL * email;
+            ajouterSi(criteres, email >= CONCORDANCE, "email");
+        }
+
+        if (a.telephone() == null || b.telephone() == null) {
+            score += POIDS_TELEPHONE * NEUTRE;
+        } else if (a.telephone().equals(b.telephone())) {
+            score += POIDS_TELEPHONE;
+            criteres.add("telephone");
+        }
+
+        LocalDate dateA = a.fiche().dateNaissance();
+        LocalDate dateB = b.fiche().dateNaissance();
+        if (dateA == null || dateB == null) {
+            score += POIDS_DATE * NEUTRE;
+        } else if (dateA.equals(dateB)) {
+            score += POIDS_DATE;
+            criteres.add("dateNaissance");
+        }
+        return new Resultat(Math.min(1.0, score), criteres);
+    }
+
+    /**
+     * Similarité de Jaro-Winkler de deux chaînes : 1 si elles sont égales, 0 si elles n'ont aucun
+     * caractère commun ; un préfixe commun (jusqu'à 4 caractères) augmente le score.
+     *
+     * @param a première chaîne
+     * @param b seconde chaîne
+     * @return la similarité, entre 0 et 1
+     */
+    public static double jaroWinkler(String a, String b) {
+        if (a.equals(b)) {
+            return 1.0;
+        }
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0.0;
+        }
+        int portee = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] associesA = new boolean[a.length()];
+        boolean[] associesB = new boolean[b.length()];
+        int communs = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int debut = Math.max(0, i - portee);
+            int fin = Math.min(b.length(), i + portee + 1);
+            for (int j = debut; j < fin; j++) {
+                if (!associesB[j] && a.charAt(i) == b.charAt(j)) {
+                    associesA[i] = true;
+                    associesB[j] = true;
+                    communs++;
+                    break;
+                }
+            }
+        }
+        if (communs == 0) {
+            return 0.0;
+        }
+        int transpositions = 0;
+        int j = 0;
+        for (int i = 0; i < a.length(); i++) {
+            if (associesA[i]) {
+                while (!associesB[j]) {
+                    j++;
+                }
+                if (a.charAt(i) != b.charAt(j)) {
+                    transpositions++;
+                }
+                j++;
+            }
+        }
+        double m = communs;
+        double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3;
+        int prefixe = 0;
+        while (prefixe < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefixe) == b.charAt(prefixe)) {
+            prefixe++;
+        }
+        return jaro + prefixe * 0.1 * (1 - jaro);
+    }
+
+    private static double nom(String a, String phonetiqueA, String b, String phonetiqueB) {
+        if (a == null || b == null) {
+            return NEUTRE;
+        }
+        double similarite = jaroWinkler(a, b);
+        if (similarite < 1.0 && phonetiqueA != null && phonetiqueA.equals(phonetiqueB)) {
+            // « Ndiaye » et « Diaye », « Cissé » et « Sissé » : même prononciation
+            return Math.max(similarite, 0.95);
+        }
+        return similarite;
+    }
+
+    private static String partieLocale(String email) {
+        String cle = ClesRecherche.normaliser(email);
+        if (cle == null) {
+            return null;
+        }
+        int arobase = cle.indexOf('@');
+        String local = arobase < 0 ? cle : cle.substring(0, arobase);
+        return CHIFFRES_FINAUX.matcher(local).replaceFirst("");
+    }
+
+    private static String telephone(String telephone) {
+        if (telephone == null) {
+            return null;
+        }
+        String chiffres = NON_CHIFFRES.matcher(telephone).replaceAll("");
+        if (chiffres.length() < 7) {
+            return null;
+        }
+        return chiffres.length() > CHIFFRES_TELEPHONE ? chiffres.substring(chiffres.length() - CHIFFRES_TELEPHONE) : chiffres;
+    }
+
+    private static String nonVide(String valeur) {
+        return valeur == null || valeur.isEmpty() ? null : valeur;
+    }
+
+    private static void ajouterSi(List<String> criteres, boolean condition, String critere) {
+        if (condition) {
+            criteres.add(critere);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package sn.uasz.utilisateursapi.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Tri de lignes de texte en mémoire bornée, par fichiers temporaires.
+ *
+ * <p>Les lignes ajoutées sont gardées dans un tampon de taille fixe ; plein, il est trié puis
+ * écrit dans un fichier temporaire (une « série »). Le parcours fusionne toutes les séries en une
+ * passe, en ne gardant en mémoire qu'une ligne par série. La mémoire occupée est celle du tampon,
+ * quel que soit le nombre de lignes : 4 millions de lignes triées par tampons de 200 000 donnent
+ * 20 séries fusionnées d'un coup.</p>
+ *
+ * <p>Les lignes ne doivent pas contenir de saut de ligne. Non synchronisé ; {@link #close()}
+ * supprime les fichiers temporaires.</p>
+ */
+public final class TriExterne implements Closeable {
+
+    private static final int TAILLE_TAMPON_FICHIER = 64 * 1024;
+
+    private final Path repertoire;
+    private final String[] tampon;
+    private int remplissage;
+    private final List<Path> series = new ArrayList<>();
+    private long lignes;
+
+    /**
+     * Série en cours de fusion et sa ligne courante.
+     */
+    private record Curseur(String ligne, BufferedReader lecteur) {
+    }
+
+    /**
+     * @param repertoire      répertoire des fichiers temporaires
+     * @param lignesEnMemoire nombre de lignes triées en mémoire avant écriture d'une série
+     */
+    public TriExterne(Path repertoire, int lignesEnMemoire) {
+        this.repertoire = repertoire;
+        this.tampon = new String[Math.max(1, lignesEnMemoire)];
+    }
+
+    /**
+     * Ajoute une ligne à trier.
+     *
+     * @param ligne ligne sans saut de ligne
+     * @throws UncheckedIOException si l'écriture d'une série échoue
+     */
+    public void ajouter(String ligne) {
+        if (remplissage == tampon.length) {
+            ecrireSerie();
+        }
+        tampon[remplissage++] = ligne;
+        lignes++;
+    }
+
+    /**
+     * Transmet toutes les lignes ajoutées au consommateur, dans l'ordre naturel des chaînes.
+     *
+     * @param consommateur destination de chaque ligne
+     * @return le nombre de lignes transmises
+     * @throws UncheckedIOException si la lecture d'une série échoue
+     */
+    public long parcourir(Consumer<String> consommateur) {
+        if (series.isEmpty()) {
+            Arrays.sort(tampon, 0, remplissage);
+            for (int i = 0; i < remplissage; i++) {
+                consommateur.accept(tampon[i]);
+            }
+            return remplissage;
+        }
+        if (remplissage > 0) {
+            ecrireSerie();
+        }
+        PriorityQueue<Curseur> curseurs = new PriorityQueue<>((a, b) -> a.ligne().compareTo(b.ligne()));
+        try {
+            for (Path serie : series) {
+                avancer(curseurs, Files.newBufferedReader(serie, StandardCharsets.UTF_8));
+            }
+            long transmises = 0;
+            while (!curseurs.isEmpty()) {
+                Curseur curseur = curseurs.poll();
+                consommateur.accept(curseur.ligne());
+                transmises++;
+                avancer(curseurs, curseur.lecteur());
+            }
+            return transmises;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            for (Curseur curseur : curseurs) {
+                fermer(curseur.lecteur());
+            }
+        }
+    }
+
+    /**
+     * @return le nombre de lignes ajoutées
+     */
+    public long lignes() {
+        return lignes;
+    }
+
+    /**
+     * @return le nombre de séries écrites sur disque
+     */
+    public int series() {
+        return series.size();
+    }
+
+    /**
+     * Supprime les fichiers temporaires.
+     */
+    @Override
+    public void close() {
+        for (Path serie : series) {
+            try {
+                Files.deleteIfExists(serie);
+            } catch (IOException e) {
+                serie.toFile().deleteOnExit();
+            }
+        }
+        series.clear();
+    }
+
+    private void ecrireSerie() {
+        Arrays.sort(tampon, 0, remplissage);
+        try {
+            Path serie = Files.createTempFile(repertoire, "tri-", ".txt");
+            series.add(serie);
+            try (BufferedWriter ecrivain = new BufferedWriter(
+                    Files.newBufferedWriter(serie, StandardCharsets.UTF_8), TAILLE_TAMPON_FICHIER)) {
+                for (int i = 0; i < remplissage; i++) {
+                    ecrivain.write(tampon[i]);
+                    ecrivain.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Arrays.fill(tampon, 0, remplissage, null);
+        remplissage = 0;
+    }
+
+    private static void avancer(PriorityQueue<Curseur> curseurs, BufferedReader lecteur) throws IOException {
+        String ligne = lecteur.readLine();
+        if (ligne == null) {
+            lecteur.close();
+        } else {
+            curseurs.add(new Curseur(ligne, lecteur));
+        }
+    }
+
+    private static void fermer(BufferedReader lecteur) {
+        try {
+            lecteur.close();
+        } catch (IOException e) {
+            // Lecture terminée : l'erreur de fermeture ne change pas le résultat
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package sn.uasz.utilisateursapi.web;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import sn.uasz.utilisateursapi.dtos.ResultatAnnuaireDTO;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.services.AnnuaireIndexRecherche;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contrôleur REST de l'annuaire : recherche plein texte parmi les enseignants, étudiants et vacataires.
+ */
+@Tag(name = "Annuaire", description = "Recherche de personnes, tous types d'utilisateurs confondus")
+@RestController
+@RequestMapping("/api/annuaire")
+@RequiredArgsConstructor
+public class AnnuaireController {
+
+    private final AnnuaireIndexRecherche annuaireIndexRecherche;
+
+    /**
+     * Recherche des personnes par fragments de nom, prénom, email, matricule, spécialité ou lieu de
+     * naissance, de la plus pertinente à la moins pertinente. Le curseur de la page suivante est
+     * renvoyé dans l'en-tête {@code X-Next-Cursor}.
+     *
+     * @param q       mots recherchés
+     * @param type    type d'utilisateur (ENSEIGNANT, ETUDIANT, VACATAIRE), absent pour tous
+     * @param curseur curseur opaque de la page précédente (absent pour la première page)
+     * @param taille  taille de page souhaitée (bornée côté serveur)
+     * @return la page de résultats
+     */
+    @Operation(summary = "Rechercher une personne dans l'annuaire")
+    @ApiResponse(responseCode = "200", description = "Personnes trouvées, par pertinence décroissante",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ResultatAnnuaireDTO.class)))
+    @ApiResponse(responseCode = "400", description = "Type inconnu ou curseur invalide")
+    @GetMapping("/search")
+    public ResponseEntity<List<ResultatAnnuaireDTO>> rechercher(
+            @Parameter(description = "Mots recherchés") @RequestParam String q,
+            @Parameter(description = "Type d'utilisateur") @RequestParam(required = false) TypeAgregat type,
+            @Parameter(description = "Curseur opaque de la page précédente")
+            @RequestParam(required = false) String curseur,
+            @Parameter(description = "Taille de page (bornée côté serveur)")
+            @RequestParam(required = false) Integer taille) {
+        return ReponsePaginee.ok(annuaireIndexRecherche.rechercher(q, type, curseur, taille));
+    }
+
+    /**
+     * Reconstruit l'index de l'annuaire depuis la base, en parallèle. Les recherches restent
+     * servies par l'index précédent jusqu'à la fin.
+     *
+     * @return le nombre de personnes indexées
+     */
+    @Operation(summary = "Reconstruire l'index de l'annuaire depuis la base")
+    @ApiResponse(responseCode = "200", description = "Index reconstruit")
+    @PostMapping("/reconstruction")
+    public Map<String, Long> reconstruire() {
+        return Map.of("documents", annuaireIndexRecherche.reconstruire());
+    }
+}
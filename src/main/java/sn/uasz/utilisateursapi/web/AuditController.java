@@ -0,0 +1,57 @@
+package sn.uasz.utilisateursapi.web;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import sn.uasz.utilisateursapi.dtos.EntreeAuditDTO;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.services.AuditService;
+
+import java.util.List;
+
+/**
+ * Contrôleur REST de consultation du journal d'audit (historique des changements, champ par champ).
+ */
+@Tag(name = "Audit", description = "Historique des changements des utilisateurs et des rôles")
+@RestController
+@RequestMapping("/api/audit")
+@RequiredArgsConstructor
+public class AuditController {
+
+    private final AuditService auditService;
+
+    /**
+     * Retourne une page de l'historique d'une entité, ou de tout un type d'entité, du plus récent
+     * au plus ancien. Le curseur de la page suivante est renvoyé dans l'en-tête {@code X-Next-Cursor}.
+     *
+     * @param entite  type d'entité (ENSEIGNANT, ETUDIANT, VACATAIRE, ROLE)
+     * @param id      identifiant de l'entité (absent pour tout le type)
+     * @param curseur curseur opaque de la page précédente (absent pour la première page)
+     * @param taille  taille de page souhaitée (bornée côté serveur)
+     * @return la page d'entrées du journal
+     */
+    @Operation(summary = "Consulter l'historique des changements d'une entité")
+    @ApiResponse(responseCode = "200", description = "Entrées du journal d'audit",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = EntreeAuditDTO.class)))
+    @ApiResponse(responseCode = "400", description = "Type d'entité inconnu ou curseur invalide")
+    @GetMapping
+    public ResponseEntity<List<EntreeAuditDTO>> lister(
+            @Parameter(description = "Type d'entité") @RequestParam("entity") TypeAgregat entite,
+            @Parameter(description = "Identifiant de l'entité") @RequestParam(required = false) Long id,
+            @Parameter(description = "Curseur opaque de la page précédente")
+            @RequestParam(required = false) String curseur,
+            @Parameter(description = "Taille de page (bornée côté serveur)")
+            @RequestParam(required = false) Integer taille) {
+        return ReponsePaginee.ok(auditService.lister(entite, id, curseur, taille));
+    }
+}
@@ -0,0 +1,54 @@
+package sn.uasz.utilisateursapi.web;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import sn.uasz.utilisateursapi.dtos.SuggestionDTO;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.services.IndexAutocompletion;
+
+import java.util.List;
+
+/**
+ * Contrôleur REST de l'autocomplétion : suggestions de personnes pendant la saisie d'un nom ou d'un email.
+ */
+@Tag(name = "Autocomplétion", description = "Suggestions de personnes pendant la saisie")
+@RestController
+@RequestMapping("/api/autocomplete")
+@RequiredArgsConstructor
+public class AutocompletionController {
+
+    private final IndexAutocompletion indexAutocompletion;
+
+    /**
+     * Suggère les personnes dont le nom complet (prénom nom ou nom prénom) ou l'email commence par
+     * le texte saisi, sans accents ni casse, des plus récemment modifiées aux plus anciennes.
+     *
+     * @param q    texte saisi
+     * @param type type d'utilisateur (ENSEIGNANT, ETUDIANT, VACATAIRE), absent pour tous
+     * @param k    nombre de suggestions souhaité (borné côté serveur)
+     * @return les suggestions
+     */
+    @Operation(summary = "Suggérer des personnes à partir du début de leur nom ou de leur email")
+    @ApiResponse(responseCode = "200", description = "Suggestions, des plus récentes aux plus anciennes",
+            content = @Content(mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = SuggestionDTO.class))))
+    @ApiResponse(responseCode = "400", description = "Type inconnu")
+    @GetMapping
+    public List<SuggestionDTO> suggerer(
+            @Parameter(description = "Texte saisi") @RequestParam(defaultValue = "") String q,
+            @Parameter(description = "Type d'utilisateur") @RequestParam(required = false) TypeAgregat type,
+            @Parameter(description = "Nombre de suggestions (borné côté serveur)")
+            @RequestParam(required = false) Integer k) {
+        return indexAutocompletion.suggerer(q, type, k);
+    }
+}
@@ -0,0 +1,45 @@
+package sn.uasz.utilisateursapi.web;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import sn.uasz.utilisateursapi.dtos.ClesExistantesDTO;
+import sn.uasz.utilisateursapi.enums.CleUnique;
+import sn.uasz.utilisateursapi.services.RegistreClesUniques;
+
+import java.util.List;
+
+/**
+ * Contrôleur REST du contrôle groupé d'existence des clés uniques (emails, matricules),
+ * destiné aux systèmes amont qui préparent des créations en masse.
+ */
+@Tag(name = "Clés uniques", description = "Contrôle groupé d'existence des emails et matricules")
+@RestController
+@RequestMapping("/api/cles-uniques")
+@RequiredArgsConstructor
+public class ClesUniquesController {
+
+    private final RegistreClesUniques registreClesUniques;
+
+    /**
+     * Indique lesquelles des valeurs fournies sont déjà attribuées.
+     * Les valeurs écartées par le filtre de Bloom ne coûtent aucune requête.
+     *
+     * @param cle     clé unique contrôlée (ex. ETUDIANT_MATRICULE)
+     * @param valeurs valeurs à contrôler
+     * @return les valeurs déjà présentes en base
+     */
+    @Operation(summary = "Lister, parmi les valeurs fournies, celles déjà attribuées")
+    @ApiResponse(responseCode = "200", description = "Valeurs existantes")
+    @ApiResponse(responseCode = "400", description = "Clé inconnue ou lot trop grand")
+    @PostMapping("/{cle}/existantes")
+    public ResponseEntity<ClesExistantesDTO> existantes(
+            @Parameter(description = "Clé unique contrôlée") @PathVariable CleUnique cle,
+            @RequestBody List<String> valeurs) {
+        return ResponseEntity.ok(registreClesUniques.controler(cle, valeurs));
+    }
+}
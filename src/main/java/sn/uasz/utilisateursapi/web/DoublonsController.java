@@ -0,0 +1,74 @@
+package sn.uasz.utilisateursapi.web;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import sn.uasz.utilisateursapi.dtos.DoublonDTO;
+import sn.uasz.utilisateursapi.dtos.RapportDoublonsDTO;
+import sn.uasz.utilisateursapi.services.DetectionDoublons;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Contrôleur REST des doublons : détection des personnes saisies plusieurs fois, tous types
+ * d'utilisateurs confondus, et consultation du rapport.
+ */
+@Tag(name = "Doublons", description = "Détection des personnes saisies plusieurs fois")
+@RestController
+@RequestMapping("/api/doublons")
+@RequiredArgsConstructor
+public class DoublonsController {
+
+    private final DetectionDoublons detectionDoublons;
+
+    /**
+     * Détecte les doublons parmi toutes les personnes et remplace le rapport. Le traitement dure
+     * de quelques secondes à quelques minutes selon le nombre de personnes.
+     *
+     * @return le bilan de la détection
+     */
+    @Operation(summary = "Détecter les doublons de personnes")
+    @ApiResponse(responseCode = "200", description = "Détection terminée, rapport remplacé",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = RapportDoublonsDTO.class)))
+    @ApiResponse(responseCode = "409", description = "Une détection est déjà en cours")
+    @PostMapping("/detection")
+    public RapportDoublonsDTO detecter() {
+        return detectionDoublons.detecter();
+    }
+
+    /**
+     * Télécharge le dernier rapport de doublons au format NDJSON, par score décroissant.
+     *
+     * @return le rapport, ou 404 si aucune détection n'a encore été faite
+     */
+    @Operation(summary = "Télécharger le dernier rapport de doublons (NDJSON)")
+    @ApiResponse(responseCode = "200", description = "Paires de doublons, une par ligne, par score décroissant",
+            content = @Content(mediaType = ExportNdjson.MEDIA_TYPE,
+                    schema = @Schema(implementation = DoublonDTO.class)))
+    @ApiResponse(responseCode = "404", description = "Aucun rapport")
+    @GetMapping("/rapport")
+    public ResponseEntity<Resource> rapport() {
+        Path fichier = detectionDoublons.fichierRapport();
+        if (!Files.isRegularFile(fichier)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ExportNdjson.MEDIA_TYPE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"doublons.ndjson\"")
+                .body(new FileSystemResource(fichier));
+    }
+}
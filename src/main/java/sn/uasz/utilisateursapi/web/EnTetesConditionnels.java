@@ -0,0 +1,182 @@
+package sn.uasz.utilisateursapi.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import sn.uasz.utilisateursapi.dtos.ValidateurDTO;
+import sn.uasz.utilisateursapi.exceptions.VersionObsoleteException;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * En-têtes HTTP des requêtes conditionnelles sur les ressources versionnées.
+ *
+ * <p>L'{@code ETag} d'un enregistrement est fort et vaut sa version entre guillemets
+ * (ex. {@code "3"}). Une modification accompagnée de {@code If-Match} n'est appliquée que si
+ * l'enregistrement est toujours dans cette version ; sans {@code If-Match} (ou avec {@code *}),
+ * elle est inconditionnelle. Une valeur qui n'est pas un ETag fort unique émis par l'API ne peut
+ * correspondre à aucune version : la précondition échoue.</p>
+ *
+ * <p>Les lectures ({@code GET}) portent un {@code ETag} et un {@code Last-Modified} calculés à
+ * partir d'un {@link ValidateurDTO} lu en base sans charger d'entité. Si le client possède déjà
+ * la représentation courante ({@code If-None-Match}, ou à défaut {@code If-Modified-Since}), la
+ * réponse 304 est renvoyée avant toute lecture des données. Les validateurs sont lus avant les
+ * données : en cas d'écriture concurrente, ils ne peuvent être que plus anciens que le corps
+ * renvoyé, ce qui provoque au pire une relecture inutile, jamais une réponse 304 erronée.</p>
+ */
+final class EnTetesConditionnels {
+
+    private EnTetesConditionnels() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Construit l'ETag fort d'une version.
+     *
+     * @param version version de l'enregistrement
+     * @return la version entre guillemets
+     */
+    static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Construit l'ETag fort d'une collection à partir de son agrégat. Il vaut pour toutes les
+     * pages et tous les formats de la collection, qui se distinguent par leur URL.
+     *
+     * @param validateur nombre d'éléments, somme des versions et date de dernière modification
+     * @return l'ETag de la collection
+     */
+    static String etag(ValidateurDTO validateur) {
+        Instant date = validateur.derniereModification();
+        return "\"" + validateur.nombre() + "-" + validateur.versions() + "-"
+                + (date == null ? 0 : date.toEpochMilli()) + "\"";
+    }
+
+    /**
+     * Répond à un {@code GET} d'enregistrement : 304 si le client possède déjà sa version
+     * courante, sinon la réponse produite par {@code lecture}, complétée des validateurs.
+     *
+     * @param requete    en-têtes de la requête
+     * @param validateur validateurs de l'enregistrement, vide s'il n'existe pas (la lecture produit alors l'erreur habituelle)
+     * @param lecture    lecture de l'enregistrement, exécutée seulement si nécessaire
+     * @return réponse 304, ou réponse de la lecture avec {@code ETag} et {@code Last-Modified}
+     */
+    static <T> ResponseEntity<T> detail(HttpHeaders requete, Optional<ValidateurDTO> validateur,
+                                        Supplier<ResponseEntity<T>> lecture) {
+        if (validateur.isEmpty()) {
+            return lecture.get();
+        }
+        return conditionnel(requete, etag(validateur.get().versions()), validateur.get().derniereModification(), lecture);
+    }
+
+    /**
+     * Répond à un {@code GET} de collection : 304 si le client possède déjà son état courant,
+     * sinon la réponse produite par {@code lecture}, complétée des validateurs.
+     *
+     * @param requete    en-têtes de la requête
+     * @param validateur agrégat de la collection, ou null s'il est inconnu (réponse inconditionnelle)
+     * @param lecture    lecture de la collection, exécutée seulement si nécessaire
+     * @return réponse 304, ou réponse de la lecture avec {@code ETag} et {@code Last-Modified}
+     */
+    static <T> ResponseEntity<T> collection(HttpHeaders requete, ValidateurDTO validateur,
+                                            Supplier<ResponseEntity<T>> lecture) {
+        if (validateur == null) {
+            return lecture.get();
+        }
+        return conditionnel(requete, etag(validateur), validateur.derniereModification(), lecture);
+    }
+
+    /**
+     * Indique si le client possède déjà la représentation désignée par ces validateurs.
+     * {@code If-None-Match} prévaut sur {@code If-Modified-Since} ; la comparaison des ETags
+     * est faible et les dates sont comparées à la seconde, précision des dates HTTP.
+     *
+     * @param requete              en-têtes de la requête
+     * @param etag                 ETag courant
+     * @param derniereModification date de dernière modification courante, ou null
+     * @return true si une réponse 304 convient
+     */
+    static boolean aJour(HttpHeaders requete, String etag, Instant derniereModification) {
+        List<String> ifNoneMatch;
+        try {
+            ifNoneMatch = requete.getIfNoneMatch();
+        } catch (IllegalArgumentException e) {
+            // En-tête illisible : traité comme absent, la représentation complète est renvoyée
+            return false;
+        }
+        if (!ifNoneMatch.isEmpty()) {
+            return ifNoneMatch.stream()
+                    .anyMatch(valeur -> valeur.equals("*") || valeur.replaceFirst("^W/", "").equals(etag));
+        }
+        long ifModifiedSince = requete.getIfModifiedSince();
+        return ifModifiedSince >= 0 && derniereModification != null
+                && derniereModification.truncatedTo(ChronoUnit.SECONDS).toEpochMilli() <= ifModifiedSince;
+    }
+
+    private static <T> ResponseEntity<T> conditionnel(HttpHeaders requete, String etag, Instant derniereModification,
+                                                      Supplier<ResponseEntity<T>> lecture) {
+        if (aJour(requete, etag, derniereModification)) {
+            ResponseEntity.BodyBuilder reponse = ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag);
+            if (derniereModification != null) {
+                reponse.lastModified(derniereModification);
+            }
+            return reponse.build();
+        }
+        ResponseEntity<T> reponse = lecture.get();
+        if (!reponse.getStatusCode().is2xxSuccessful()) {
+            return reponse;
+        }
+        HttpHeaders entetes = new HttpHeaders();
+        entetes.putAll(reponse.getHeaders());
+        // Un ETag posé par la lecture (version relue avec le corps) est plus précis que celui du validateur
+        if (entetes.getETag() == null) {
+            entetes.setETag(etag);
+        }
+        if (derniereModification != null) {
+            entetes.setLastModified(derniereModification);
+        }
+        return new ResponseEntity<>(reponse.getBody(), entetes, reponse.getStatusCode());
+    }
+
+    /**
+     * Construit une réponse 200 portant l'ETag de la version renvoyée.
+     *
+     * @param corps   représentation renvoyée
+     * @param version version de l'enregistrement (sans ETag si elle est inconnue)
+     * @return réponse HTTP avec en-tête {@code ETag}
+     */
+    static <T> ResponseEntity<T> ok(T corps, Long version) {
+        ResponseEntity.BodyBuilder reponse = ResponseEntity.ok();
+        if (version != null) {
+            reponse.eTag(etag(version));
+        }
+        return reponse.body(corps);
+    }
+
+    /**
+     * Lit la version attendue dans un en-tête {@code If-Match}.
+     *
+     * @param ifMatch valeur de l'en-tête, éventuellement absente
+     * @return la version attendue, ou null pour une modification inconditionnelle
+     * @throws VersionObsoleteException si la valeur ne désigne pas une version unique
+     */
+    static Long versionAttendue(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String etag = ifMatch.trim();
+        if (etag.length() > 2 && etag.startsWith("\"") && etag.endsWith("\"")) {
+            try {
+                return Long.parseLong(etag.substring(1, etag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Valeur non émise par l'API : aucune version ne peut correspondre
+            }
+        }
+        throw new VersionObsoleteException("If-Match ne désigne pas une version de la ressource : " + ifMatch);
+    }
+}
@@ -1,15 +1,24 @@
 package sn.uasz.utilisateursapi.web;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import sn.uasz.utilisateursapi.dtos.EnseignantDTO;
+import sn.uasz.utilisateursapi.dtos.LotResultatDTO;
+import sn.uasz.utilisateursapi.dtos.ResultatMasseDTO;
+import sn.uasz.utilisateursapi.dtos.SelectionMasseDTO;
+import sn.uasz.utilisateursapi.enums.ModeRecherche;
 import sn.uasz.utilisateursapi.services.EnseignantService;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Contrôleur REST pour la gestion des enseignants.
@@ -23,6 +32,7 @@ import java.util.List;
 public class EnseignantController {
 
     private final EnseignantService enseignantService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Ajouter un nouvel enseignant.
@@ -37,41 +47,118 @@ public class EnseignantController {
     }
 
     /**
-     * Récupérer la liste de tous les enseignants.
-     * @return liste des enseignants.
+     * Récupérer une page d'enseignants triés par nom (pagination par curseur).
+     * Le curseur de la page suivante est renvoyé dans l'en-tête {@code X-Next-Cursor}.
+     * @param curseur curseur opaque de la page précédente (absent pour la première page).
+     * @param taille nombre d'éléments souhaités (borné côté serveur).
+     * @param entetes en-têtes de la requête (If-None-Match, If-Modified-Since).
+     * @return page d'enseignants, ou 304 si aucun enseignant ni rôle n'a changé.
      */
-    @Operation(summary = "Lister tous les enseignants")
+    @Operation(summary = "Lister les enseignants page par page")
     @GetMapping
-    public ResponseEntity<List<EnseignantDTO>> listerEnseignants() {
-        List<EnseignantDTO> enseignants = enseignantService.listerTousEnseignants();
-        return ResponseEntity.ok(enseignants);
+    public ResponseEntity<List<EnseignantDTO>> listerEnseignants(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.collection(entetes, enseignantService.validateurListe(),
+                () -> ReponsePaginee.ok(enseignantService.listerEnseignantsParPage(curseur, taille)));
+    }
+
+    /**
+     * Récupérer une page d'enseignants réduite aux champs demandés ({@code ?fields=id,nom,prenom}).
+     * Seules les colonnes demandées sont lues en base.
+     * @param curseur curseur opaque de la page précédente (absent pour la première page).
+     * @param taille nombre d'éléments souhaités (borné côté serveur).
+     * @param fields champs demandés, séparés par des virgules.
+     * @param entetes en-têtes de la requête (If-None-Match, If-Modified-Since).
+     * @return page de projections.
+     */
+    @Operation(summary = "Lister les enseignants page par page, champs choisis")
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> listerEnseignantsChamps(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
+            @RequestParam String fields,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.collection(entetes, enseignantService.validateurListe(),
+                () -> ReponsePaginee.ok(enseignantService.listerEnseignantsParPage(curseur, taille, fields)));
+    }
+
+    /**
+     * Exporter tous les enseignants au format NDJSON (un enseignant par ligne).
+     * La réponse est écrite en flux : la mémoire consommée ne dépend pas du nombre d'enseignants.
+     * @param entetes en-têtes de la requête (If-None-Match, If-Modified-Since).
+     * @return flux NDJSON des enseignants.
+     */
+    @Operation(summary = "Exporter tous les enseignants (NDJSON)")
+    @GetMapping(value = "/export", produces = ExportNdjson.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exporterEnseignants(
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.collection(entetes, enseignantService.validateurListe(),
+                () -> ExportNdjson.<EnseignantDTO>reponse(objectMapper, "enseignants.ndjson",
+                        enseignantService::exporterEnseignants));
     }
 
     /**
      * Récupérer un enseignant par son identifiant.
      * @param id identifiant de l'enseignant.
-     * @return l'enseignant correspondant.
+     * @param entetes en-têtes de la requête (If-None-Match, If-Modified-Since).
+     * @return l'enseignant correspondant, ou 304 si le client en possède déjà la version courante.
      */
     @Operation(summary = "Récupérer un enseignant par son ID")
     @GetMapping("/{id}")
-    public ResponseEntity<EnseignantDTO> obtenirEnseignant(@PathVariable Long id) {
-        EnseignantDTO enseignant = enseignantService.obtenirEnseignantParId(id);
-        return ResponseEntity.ok(enseignant);
+    public ResponseEntity<EnseignantDTO> obtenirEnseignant(@PathVariable Long id,
+                                                           @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.detail(entetes, enseignantService.validateur(id), () -> {
+            EnseignantDTO enseignant = enseignantService.obtenirEnseignantParId(id);
+            return EnTetesConditionnels.ok(enseignant, enseignant.version());
+        });
+    }
+
+    /**
+     * Récupérer plusieurs enseignants en une seule requête.
+     * @param ids identifiants demandés.
+     * @return les enseignants trouvés, dans l'ordre de la requête, et les identifiants manquants.
+     */
+    @Operation(summary = "Récupérer plusieurs enseignants par leurs IDs")
+    @PostMapping("/batch-get")
+    public ResponseEntity<LotResultatDTO<EnseignantDTO>> obtenirEnseignantsParIds(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(enseignantService.obtenirEnseignantsParIds(ids));
+    }
+
+    /**
+     * Récupérer les champs demandés d'un enseignant ({@code ?fields=id,nom,prenom}).
+     * @param id identifiant de l'enseignant.
+     * @param fields champs demandés, séparés par des virgules.
+     * @param entetes en-têtes de la requête (If-None-Match, If-Modified-Since).
+     * @return valeurs des champs demandés.
+     */
+    @Operation(summary = "Récupérer un enseignant par son ID, champs choisis")
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> obtenirEnseignantChamps(@PathVariable Long id, @RequestParam String fields,
+                                                                       @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.detail(entetes, enseignantService.validateur(id),
+                () -> ResponseEntity.ok(enseignantService.obtenirEnseignantParId(id, fields)));
     }
 
     /**
      * Modifier les données d'un enseignant.
+     * Avec {@code If-Match}, la modification n'est appliquée que si l'enseignant est toujours dans
+     * la version indiquée (412 sinon).
      * @param id identifiant de l'enseignant à modifier.
+     * @param ifMatch ETag de la version lue par le client (optionnel).
      * @param enseignantDTO nouvelles données.
-     * @return enseignant modifié.
+     * @return enseignant modifié, avec l'ETag de sa nouvelle version.
      */
     @Operation(summary = "Modifier un enseignant existant")
     @PutMapping("/{id}")
     public ResponseEntity<EnseignantDTO> modifierEnseignant(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody EnseignantDTO enseignantDTO) {
-        EnseignantDTO enseignantModifie = enseignantService.modifierEnseignant(id, enseignantDTO);
-        return ResponseEntity.ok(enseignantModifie);
+        EnseignantDTO enseignantModifie = enseignantService.modifierEnseignant(id, enseignantDTO,
+                EnTetesConditionnels.versionAttendue(ifMatch));
+        return EnTetesConditionnels.ok(enseignantModifie, enseignantModifie.version());
     }
 
     /**
@@ -89,42 +176,98 @@ public class EnseignantController {
     /**
      * Rechercher des enseignants dont le nom contient une chaîne donnée.
      * @param nom chaîne de caractères à rechercher.
+     * @param entetes en-têtes de la requête (If-None-Match, If-Modified-Since).
      * @return liste filtrée d'enseignants.
      */
     @Operation(summary = "Rechercher des enseignants par nom")
     @GetMapping("/recherche")
-    public ResponseEntity<List<EnseignantDTO>> rechercherParNom(@RequestParam String nom) {
-        List<EnseignantDTO> resultats = enseignantService.rechercherEnseignantsParNom(nom);
-        return ResponseEntity.ok(resultats);
+    public ResponseEntity<List<EnseignantDTO>> rechercherParNom(@RequestParam String nom,
+                                                                @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.collection(entetes, enseignantService.validateurRecherche(),
+                () -> ResponseEntity.ok(enseignantService.rechercherEnseignantsParNom(nom)));
+    }
+
+    /**
+     * Rechercher des enseignants par clé normalisée (sans accents ni casse) : nom, prénom ou email
+     * égal au texte ({@code mode=exact}) ou commençant par lui ({@code mode=prefixe}), ou nom ou
+     * prénom qui se prononce comme lui ({@code mode=phonetique}, ex. « N'Diaye » pour « Ndiaye »).
+     * @param nom texte recherché.
+     * @param mode mode de comparaison (exact, prefixe, phonetique).
+     * @param taille nombre maximal de résultats (borné côté serveur).
+     * @param entetes en-têtes de la requête (If-None-Match, If-Modified-Since).
+     * @return enseignants trouvés, triés par nom puis prénom.
+     */
+    @Operation(summary = "Rechercher des enseignants par nom, prénom ou email normalisé, ou par nom phonétique")
+    @GetMapping(value = "/recherche", params = {"mode", "!fields"})
+    public ResponseEntity<List<EnseignantDTO>> rechercherParCle(
+            @RequestParam String nom,
+            @Parameter(description = "Mode de comparaison : exact, prefixe ou phonetique") @RequestParam ModeRecherche mode,
+            @Parameter(description = "Nombre maximal de résultats") @RequestParam(required = false) Integer taille,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.collection(entetes, enseignantService.validateurRecherche(),
+                () -> ResponseEntity.ok(enseignantService.rechercherEnseignantsParCle(nom, mode, taille)));
+    }
+
+    /**
+     * Rechercher des enseignants par nom, réponse réduite aux champs demandés.
+     * @param nom chaîne de caractères à rechercher.
+     * @param fields champs demandés, séparés par des virgules.
+     * @param entetes en-têtes de la requête (If-None-Match, If-Modified-Since).
+     * @return valeurs des champs demandés pour chaque enseignant trouvé.
+     */
+    @Operation(summary = "Rechercher des enseignants par nom, champs choisis")
+    @GetMapping(value = "/recherche", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> rechercherParNomChamps(
+            @RequestParam String nom,
+            @RequestParam String fields,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.collection(entetes, enseignantService.validateurRecherche(),
+                () -> ResponseEntity.ok(enseignantService.rechercherEnseignantsParNom(nom, fields)));
     }
 
     /**
      * Activer un enseignant (changement d'état actif=true).
+     * Réponse 404 si l'enseignant est introuvable, 409 s'il est déjà actif.
      * @param id identifiant de l'enseignant.
      * @return enseignant activé.
      */
     @Operation(summary = "Activer un enseignant")
     @PutMapping("/{id}/activer")
     public ResponseEntity<EnseignantDTO> activerEnseignant(@PathVariable Long id) {
-        try {
-            return ResponseEntity.ok(enseignantService.activerEnseignant(id));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        }
+        return ResponseEntity.ok(enseignantService.activerEnseignant(id));
+    }
+
+    /**
+     * Activer en masse les enseignants désignés par identifiants ou par grade, en une seule requête SQL.
+     * @param selection identifiants ou grade visés.
+     * @return nombre d'enseignants effectivement activés.
+     */
+    @Operation(summary = "Activer des enseignants en masse (identifiants ou grade)")
+    @PutMapping("/activer")
+    public ResponseEntity<ResultatMasseDTO> activerEnseignants(@RequestBody SelectionMasseDTO selection) {
+        return ResponseEntity.ok(enseignantService.modifierActifEnMasse(true, selection));
+    }
+
+    /**
+     * Désactiver en masse les enseignants désignés par identifiants ou par grade, en une seule requête SQL.
+     * @param selection identifiants ou grade visés.
+     * @return nombre d'enseignants effectivement désactivés.
+     */
+    @Operation(summary = "Désactiver des enseignants en masse (identifiants ou grade)")
+    @PutMapping("/desactiver")
+    public ResponseEntity<ResultatMasseDTO> desactiverEnseignants(@RequestBody SelectionMasseDTO selection) {
+        return ResponseEntity.ok(enseignantService.modifierActifEnMasse(false, selection));
     }
 
     /**
      * Désactiver un enseignant (changement d'état actif=false).
+     * Réponse 404 si l'enseignant est introuvable, 409 s'il est déjà inactif.
      * @param id identifiant de l'enseignant.
      * @return enseignant désactivé.
      */
     @Operation(summary = "Désactiver un enseignant")
     @PutMapping("/{id}/desactiver")
     public ResponseEntity<EnseignantDTO> desactiverEnseignant(@PathVariable Long id) {
-        try {
-            return ResponseEntity.ok(enseignantService.desactiverEnseignant(id));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        }
+        return ResponseEntity.ok(enseignantService.desactiverEnseignant(id));
     }
 }
@@ -1,6 +1,6 @@
 package sn.uasz.utilisateursapi.web;
 
-
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -8,13 +8,26 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import sn.uasz.utilisateursapi.dtos.EtudiantDTO;
+import sn.uasz.utilisateursapi.dtos.LotResultatDTO;
+import sn.uasz.utilisateursapi.dtos.RapportImportDTO;
+import sn.uasz.utilisateursapi.enums.ModeRecherche;
+import sn.uasz.utilisateursapi.exceptions.VersionObsoleteException;
+import sn.uasz.utilisateursapi.services.EtudiantImportService;
 import sn.uasz.utilisateursapi.services.EtudiantService;
 
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
@@ -25,9 +38,15 @@ import java.util.Map;
 public class EtudiantController {
 
     private final EtudiantService etudiantService;
+    private final EtudiantImportService etudiantImportService;
+    private final ObjectMapper objectMapper;
 
-    public EtudiantController(EtudiantService etudiantService) {
+    public EtudiantController(EtudiantService etudiantService,
+                              EtudiantImportService etudiantImportService,
+                              ObjectMapper objectMapper) {
         this.etudiantService = etudiantService;
+        this.etudiantImportService = etudiantImportService;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(
@@ -39,6 +58,7 @@ public class EtudiantController {
                             description = "Étudiant trouvé",
                             content = @Content(schema = @Schema(implementation = EtudiantDTO.class))
                     ),
+                    @ApiResponse(responseCode = "304", description = "Étudiant inchangé (If-None-Match / If-Modified-Since)"),
                     @ApiResponse(
                             responseCode = "404",
                             description = "Étudiant non trouvé"
@@ -47,24 +67,124 @@ public class EtudiantController {
     )
     @GetMapping("/{id}")
     public ResponseEntity<EtudiantDTO> getEtudiantById(
-            @Parameter(description = "ID de l'étudiant") @PathVariable long id) {
-        return ResponseEntity.ok(etudiantService.obtenirEtudiant((int) id));
+            @Parameter(description = "ID de l'étudiant") @PathVariable long id,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.detail(entetes, etudiantService.validateur(id), () -> {
+            EtudiantDTO etudiant = etudiantService.obtenirEtudiant((int) id);
+            return EnTetesConditionnels.ok(etudiant, etudiant.getVersion());
+        });
+    }
+
+    @Operation(
+            summary = "Obtenir plusieurs étudiants par leurs IDs",
+            description = "Lit les étudiants demandés en une seule requête ; les IDs inconnus sont listés dans manquants",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Étudiants trouvés, dans l'ordre de la requête"),
+                    @ApiResponse(responseCode = "400", description = "Identifiant nul ou lot trop grand")
+            }
+    )
+    @PostMapping("/batch-get")
+    public ResponseEntity<LotResultatDTO<EtudiantDTO>> getEtudiantsByIds(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(etudiantService.obtenirEtudiants(ids));
+    }
+
+    @Operation(
+            summary = "Obtenir les champs choisis d'un étudiant",
+            description = "Renvoie uniquement les champs listés dans fields (ex. fields=id,nom,prenom), lus par projection",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Champs demandés de l'étudiant"),
+                    @ApiResponse(responseCode = "304", description = "Étudiant inchangé (If-None-Match / If-Modified-Since)"),
+                    @ApiResponse(responseCode = "400", description = "Champ inconnu ou étudiant non trouvé")
+            }
+    )
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getEtudiantChampsById(
+            @Parameter(description = "ID de l'étudiant") @PathVariable long id,
+            @Parameter(description = "Champs demandés, séparés par des virgules") @RequestParam String fields,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.detail(entetes, etudiantService.validateur(id),
+                () -> ResponseEntity.ok(etudiantService.obtenirEtudiant((int) id, fields)));
     }
 
     @Operation(
-            summary = "Lister tous les étudiants",
-            description = "Récupère la liste complète des étudiants",
+            summary = "Lister les étudiants page par page",
+            description = "Récupère une page d'étudiants triés par nom ; le curseur suivant est renvoyé dans l'en-tête X-Next-Cursor",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
                             description = "Liste des étudiants",
                             content = @Content(schema = @Schema(implementation = List.class))
-                    )
+                    ),
+                    @ApiResponse(responseCode = "304", description = "Aucun étudiant ni rôle modifié depuis If-None-Match")
             }
     )
     @GetMapping
-    public ResponseEntity<List<EtudiantDTO>> getAllEtudiants() {
-        return ResponseEntity.ok(etudiantService.findAll());
+    public ResponseEntity<List<EtudiantDTO>> getAllEtudiants(
+            @Parameter(description = "Curseur opaque de la page précédente") @RequestParam(required = false) String curseur,
+            @Parameter(description = "Taille de page (bornée côté serveur)") @RequestParam(required = false) Integer taille,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.collection(entetes, etudiantService.validateurListe(),
+                () -> ReponsePaginee.ok(etudiantService.findPage(curseur, taille)));
+    }
+
+    @Operation(
+            summary = "Lister les étudiants page par page, champs choisis",
+            description = "Comme la liste paginée, mais chaque élément ne contient que les champs listés dans fields ; "
+                    + "seules ces colonnes sont lues en base",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Page de projections"),
+                    @ApiResponse(responseCode = "304", description = "Aucun étudiant ni rôle modifié depuis If-None-Match"),
+                    @ApiResponse(responseCode = "400", description = "Champ inconnu")
+            }
+    )
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllEtudiantsChamps(
+            @Parameter(description = "Curseur opaque de la page précédente") @RequestParam(required = false) String curseur,
+            @Parameter(description = "Taille de page (bornée côté serveur)") @RequestParam(required = false) Integer taille,
+            @Parameter(description = "Champs demandés, séparés par des virgules") @RequestParam String fields,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.collection(entetes, etudiantService.validateurListe(),
+                () -> ReponsePaginee.ok(etudiantService.findPage(curseur, taille, fields)));
+    }
+
+    @Operation(
+            summary = "Rechercher des étudiants par nom, prénom ou email normalisé",
+            description = "Comparaison sans accents ni casse, exacte (mode=exact) ou par préfixe (mode=prefixe, par défaut), "
+                    + "ou phonétique sur le nom et le prénom (mode=phonetique), "
+                    + "servie par les index des clés normalisées ; résultats triés par nom puis prénom",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Étudiants trouvés"),
+                    @ApiResponse(responseCode = "304", description = "Aucun étudiant ni rôle modifié depuis If-None-Match"),
+                    @ApiResponse(responseCode = "400", description = "Mode inconnu")
+            }
+    )
+    @GetMapping("/recherche")
+    public ResponseEntity<List<EtudiantDTO>> rechercherEtudiants(
+            @Parameter(description = "Texte recherché") @RequestParam String nom,
+            @Parameter(description = "Mode de comparaison : exact, prefixe ou phonetique")
+            @RequestParam(defaultValue = "prefixe") ModeRecherche mode,
+            @Parameter(description = "Nombre maximal de résultats (borné côté serveur)")
+            @RequestParam(required = false) Integer taille,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.collection(entetes, etudiantService.validateurListe(),
+                () -> ResponseEntity.ok(etudiantService.rechercherEtudiantsParCle(nom, mode, taille)));
+    }
+
+    @Operation(
+            summary = "Exporter tous les étudiants",
+            description = "Renvoie tous les étudiants au format NDJSON (un objet JSON par ligne), écrits en flux",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Flux NDJSON des étudiants"
+                    ),
+                    @ApiResponse(responseCode = "304", description = "Aucun étudiant ni rôle modifié depuis If-None-Match")
+            }
+    )
+    @GetMapping(value = "/export", produces = ExportNdjson.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportEtudiants(@Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.collection(entetes, etudiantService.validateurListe(),
+                () -> ExportNdjson.<EtudiantDTO>reponse(objectMapper, "etudiants.ndjson", etudiantService::exporter));
     }
 
     @Operation(
@@ -84,6 +204,41 @@ public class EtudiantController {
         return ResponseEntity.ok(etudiantService.ajouterEtudiant(etudiantDTO));
     }
 
+    @Operation(
+            summary = "Importer des étudiants en masse",
+            description = "Crée un lot d'étudiants (tableau JSON) ; chaque ligne est validée et reçoit un email unique. "
+                    + "Les lignes invalides sont signalées dans le rapport sans interrompre l'import",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Rapport d'import ligne par ligne",
+                            content = @Content(schema = @Schema(implementation = RapportImportDTO.class))
+                    )
+            }
+    )
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<RapportImportDTO> importEtudiants(@RequestBody List<EtudiantDTO> etudiantDTOs) {
+        return ResponseEntity.ok(etudiantImportService.importer(etudiantDTOs));
+    }
+
+    @Operation(
+            summary = "Importer des étudiants depuis un fichier CSV",
+            description = "Même traitement que l'import JSON ; en-tête attendu : nom, prenom, matricule, dateNaissance, lieuNaissance",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Rapport d'import ligne par ligne",
+                            content = @Content(schema = @Schema(implementation = RapportImportDTO.class))
+                    )
+            }
+    )
+    @PostMapping(value = "/bulk", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<RapportImportDTO> importEtudiantsCsv(InputStream corps) throws IOException {
+        try (InputStreamReader lecteur = new InputStreamReader(corps, StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(etudiantImportService.importerCsv(lecteur));
+        }
+    }
+
     @Operation(
             summary = "Mettre à jour un étudiant",
             description = "Modifie les informations d'un étudiant existant",
@@ -96,14 +251,22 @@ public class EtudiantController {
                     @ApiResponse(
                             responseCode = "404",
                             description = "Étudiant non trouvé"
+                    ),
+                    @ApiResponse(
+                            responseCode = "412",
+                            description = "Étudiant modifié depuis la version indiquée dans If-Match"
                     )
             }
     )
     @PutMapping("/{id}")
     public ResponseEntity<EtudiantDTO> updateEtudiant(
             @Parameter(description = "ID de l'étudiant") @PathVariable long id,
+            @Parameter(description = "ETag de la version lue (optionnel)")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody EtudiantDTO etudiantDTO) {
-        return ResponseEntity.ok(etudiantService.modifierEtudiant((int) id, etudiantDTO));
+        EtudiantDTO etudiant = etudiantService.modifierEtudiant((int) id, etudiantDTO,
+                EnTetesConditionnels.versionAttendue(ifMatch));
+        return EnTetesConditionnels.ok(etudiant, etudiant.getVersion());
     }
 
     @Operation(
@@ -126,6 +289,11 @@ public class EtudiantController {
         etudiantService.supprimerEtudiant((int) id);
         return ResponseEntity.ok().build();
     }
+    @ExceptionHandler(VersionObsoleteException.class)
+    public ResponseEntity<Map<String, String>> handleVersionObsolete(VersionObsoleteException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(Map.of("message", ex.getMessage()));
+    }
+
 //revue de code a faire
     @ExceptionHandler({RuntimeException.class})
     public ResponseEntity<Map<String, String>> handleException(RuntimeException ex) {
@@ -0,0 +1,64 @@
+package sn.uasz.utilisateursapi.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Construction des réponses d'export au format NDJSON (un objet JSON par ligne).
+ *
+ * <p>Chaque DTO est sérialisé et écrit directement dans le flux de sortie HTTP dès sa
+ * production : aucune liste intermédiaire n'est construite, ni côté service ni côté web.</p>
+ */
+final class ExportNdjson {
+
+    /** Type MIME des exports NDJSON. */
+    static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private static final int TAILLE_TAMPON = 64 * 1024;
+
+    private ExportNdjson() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Construit une réponse 200 dont le corps est produit en flux.
+     *
+     * @param objectMapper sérialiseur JSON de l'application
+     * @param nomFichier   nom proposé au client pour le fichier téléchargé
+     * @param source       producteur qui pousse chaque DTO vers le consommateur fourni
+     * @return la réponse HTTP à renvoyer par le contrôleur
+     */
+    static <T> ResponseEntity<StreamingResponseBody> reponse(ObjectMapper objectMapper,
+                                                             String nomFichier,
+                                                             Consumer<Consumer<T>> source) {
+        ObjectWriter writer = objectMapper.writer();
+        StreamingResponseBody corps = sortie -> {
+            OutputStream tampon = new BufferedOutputStream(sortie, TAILLE_TAMPON);
+            source.accept(dto -> ecrireLigne(writer, tampon, dto));
+            tampon.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(MEDIA_TYPE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + nomFichier + "\"")
+                .body(corps);
+    }
+
+    private static void ecrireLigne(ObjectWriter writer, OutputStream sortie, Object dto) {
+        try {
+            sortie.write(writer.writeValueAsBytes(dto));
+            sortie.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
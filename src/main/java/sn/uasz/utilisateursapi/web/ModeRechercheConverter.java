@@ -0,0 +1,18 @@
+package sn.uasz.utilisateursapi.web;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+import sn.uasz.utilisateursapi.enums.ModeRecherche;
+
+/**
+ * Conversion du paramètre {@code mode} des recherches, sans casse et sous ses différents noms
+ * ({@code prefixe}, {@code prefix}...). Une valeur inconnue est refusée en 400.
+ */
+@Component
+public class ModeRechercheConverter implements Converter<String, ModeRecherche> {
+
+    @Override
+    public ModeRecherche convert(String valeur) {
+        return ModeRecherche.lire(valeur);
+    }
+}
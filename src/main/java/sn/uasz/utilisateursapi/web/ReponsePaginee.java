@@ -0,0 +1,37 @@
+package sn.uasz.utilisateursapi.web;
+
+import org.springframework.http.ResponseEntity;
+import sn.uasz.utilisateursapi.dtos.PageCurseurDTO;
+
+import java.util.List;
+
+/**
+ * Construction des réponses HTTP pour les listes paginées par curseur.
+ *
+ * <p>Le corps reste un tableau JSON (compatible avec les clients existants) ;
+ * le curseur de la page suivante est transmis dans l'en-tête {@value #EN_TETE_CURSEUR_SUIVANT},
+ * absent lorsque la dernière page est atteinte.</p>
+ */
+final class ReponsePaginee {
+
+    /** En-tête HTTP portant le curseur opaque de la page suivante. */
+    static final String EN_TETE_CURSEUR_SUIVANT = "X-Next-Cursor";
+
+    private ReponsePaginee() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Construit une réponse 200 à partir d'une page.
+     *
+     * @param page page de résultats
+     * @return réponse HTTP contenant les éléments et, si besoin, le curseur suivant
+     */
+    static <T> ResponseEntity<List<T>> ok(PageCurseurDTO<T> page) {
+        ResponseEntity.BodyBuilder reponse = ResponseEntity.ok();
+        if (page.aSuivant()) {
+            reponse.header(EN_TETE_CURSEUR_SUIVANT, page.suivant());
+        }
+        return reponse.body(page.elements());
+    }
+}
@@ -7,10 +7,13 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import sn.uasz.utilisateursapi.dtos.RoleDTO;
+import sn.uasz.utilisateursapi.exceptions.VersionObsoleteException;
 import sn.uasz.utilisateursapi.services.RoleService;
 
 import java.util.List;
@@ -44,7 +47,8 @@ public class RoleController {
      * Récupère les détails d’un rôle par son ID.
      *
      * @param id ID du rôle à récupérer
-     * @return Détails du rôle trouvé
+     * @param entetes En-têtes de la requête (If-None-Match, If-Modified-Since)
+     * @return Détails du rôle trouvé, ou 304 si le client en possède déjà la version courante
      */
     @Operation(
             summary = "Obtenir un rôle par ID",
@@ -55,6 +59,7 @@ public class RoleController {
                             description = "Rôle trouvé",
                             content = @Content(schema = @Schema(implementation = RoleDTO.class))
                     ),
+                    @ApiResponse(responseCode = "304", description = "Rôle inchangé (If-None-Match / If-Modified-Since)"),
                     @ApiResponse(
                             responseCode = "404",
                             description = "Rôle non trouvé"
@@ -63,29 +68,95 @@ public class RoleController {
     )
     @GetMapping("/{id}")
     public ResponseEntity<RoleDTO> getRoleById(
-            @Parameter(description = "ID du rôle") @PathVariable long id) {
-        return ResponseEntity.ok(roleService.obtenirRole((int) id));
+            @Parameter(description = "ID du rôle") @PathVariable long id,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.detail(entetes, roleService.validateur(id), () -> {
+            RoleDTO role = roleService.obtenirRole((int) id);
+            return EnTetesConditionnels.ok(role, role.getVersion());
+        });
+    }
+
+    /**
+     * Récupère uniquement les champs demandés d'un rôle (ex. {@code ?fields=id,libelle}).
+     *
+     * @param id Identifiant du rôle
+     * @param fields Champs demandés, séparés par des virgules
+     * @param entetes En-têtes de la requête (If-None-Match, If-Modified-Since)
+     * @return Valeurs des champs demandés
+     */
+    @Operation(
+            summary = "Obtenir les champs choisis d'un rôle",
+            description = "Renvoie uniquement les champs listés dans fields, lus par projection",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Champs demandés du rôle"),
+                    @ApiResponse(responseCode = "304", description = "Rôle inchangé (If-None-Match / If-Modified-Since)"),
+                    @ApiResponse(responseCode = "400", description = "Champ inconnu")
+            }
+    )
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getRoleChampsById(
+            @Parameter(description = "ID du rôle") @PathVariable long id,
+            @Parameter(description = "Champs demandés, séparés par des virgules") @RequestParam String fields,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.detail(entetes, roleService.validateur(id),
+                () -> ResponseEntity.ok(roleService.obtenirRole((int) id, fields)));
     }
 
     /**
-     * Récupère la liste complète des rôles.
+     * Récupère une page de rôles triés par libellé (pagination par curseur).
      *
-     * @return Liste des rôles
+     * @param curseur Curseur opaque de la page précédente (absent pour la première page)
+     * @param taille Taille de page souhaitée (bornée côté serveur)
+     * @param entetes En-têtes de la requête (If-None-Match, If-Modified-Since)
+     * @return Page de rôles ; le curseur suivant est dans l'en-tête X-Next-Cursor
      */
     @Operation(
-            summary = "Lister tous les rôles",
-            description = "Récupère l’ensemble des rôles disponibles dans le système",
+            summary = "Lister les rôles page par page",
+            description = "Récupère une page de rôles triés par libellé ; le curseur suivant est renvoyé dans l'en-tête X-Next-Cursor",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
                             description = "Liste des rôles",
                             content = @Content(schema = @Schema(implementation = List.class))
-                    )
+                    ),
+                    @ApiResponse(responseCode = "304", description = "Aucun rôle modifié depuis If-None-Match")
             }
     )
     @GetMapping
-    public ResponseEntity<List<RoleDTO>> getAllRole() {
-        return ResponseEntity.ok(roleService.findAll());
+    public ResponseEntity<List<RoleDTO>> getAllRole(
+            @Parameter(description = "Curseur opaque de la page précédente") @RequestParam(required = false) String curseur,
+            @Parameter(description = "Taille de page (bornée côté serveur)") @RequestParam(required = false) Integer taille,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.collection(entetes, roleService.validateurListe(),
+                () -> ReponsePaginee.ok(roleService.findPage(curseur, taille)));
+    }
+
+    /**
+     * Récupère une page de rôles réduite aux champs demandés (ex. {@code ?fields=id,libelle}).
+     *
+     * @param curseur Curseur opaque de la page précédente (absent pour la première page)
+     * @param taille Taille de page souhaitée (bornée côté serveur)
+     * @param fields Champs demandés, séparés par des virgules
+     * @param entetes En-têtes de la requête (If-None-Match, If-Modified-Since)
+     * @return Page de projections ; le curseur suivant est dans l'en-tête X-Next-Cursor
+     */
+    @Operation(
+            summary = "Lister les rôles page par page, champs choisis",
+            description = "Comme la liste paginée, mais chaque élément ne contient que les champs listés dans fields",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Page de projections"),
+                    @ApiResponse(responseCode = "304", description = "Aucun rôle modifié depuis If-None-Match"),
+                    @ApiResponse(responseCode = "400", description = "Champ inconnu")
+            }
+    )
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllRoleChamps(
+            @Parameter(description = "Curseur opaque de la page précédente") @RequestParam(required = false) String curseur,
+            @Parameter(description = "Taille de page (bornée côté serveur)") @RequestParam(required = false) Integer taille,
+            @Parameter(description = "Champs demandés, séparés par des virgules") @RequestParam String fields,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.collection(entetes, roleService.validateurListe(),
+                () -> ReponsePaginee.ok(roleService.findPage(curseur, taille, fields)));
     }
 
     /**
@@ -130,14 +201,21 @@ public class RoleController {
                     @ApiResponse(
                             responseCode = "404",
                             description = "Rôle non trouvé"
+                    ),
+                    @ApiResponse(
+                            responseCode = "412",
+                            description = "Rôle modifié depuis la version indiquée dans If-Match"
                     )
             }
     )
     @PutMapping("/{id}")
     public ResponseEntity<RoleDTO> updateRole(
             @Parameter(description = "ID du rôle") @PathVariable long id,
+            @Parameter(description = "ETag de la version lue (optionnel)")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody RoleDTO roleDTO) {
-        return ResponseEntity.ok(roleService.modifierRole((int) id, roleDTO));
+        RoleDTO role = roleService.modifierRole((int) id, roleDTO, EnTetesConditionnels.versionAttendue(ifMatch));
+        return EnTetesConditionnels.ok(role, role.getVersion());
     }
 
     /**
@@ -167,6 +245,17 @@ public class RoleController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Gère les modifications dont la version attendue ({@code If-Match}) est obsolète.
+     *
+     * @param ex L’exception levée
+     * @return Une réponse 412 contenant le message de l’exception
+     */
+    @ExceptionHandler(VersionObsoleteException.class)
+    public ResponseEntity<Map<String, String>> handleVersionObsolete(VersionObsoleteException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(Map.of("message", ex.getMessage()));
+    }
+
     /**
      * Gère les exceptions de type RuntimeException en retournant un message d’erreur personnalisé.
      *
@@ -0,0 +1,39 @@
+package sn.uasz.utilisateursapi.web;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import sn.uasz.utilisateursapi.dtos.StatistiquesDTO;
+import sn.uasz.utilisateursapi.services.StatistiquesService;
+
+/**
+ * Contrôleur REST du tableau de bord : effectifs et répartitions des utilisateurs.
+ */
+@Tag(name = "Statistiques", description = "Effectifs et répartitions des utilisateurs")
+@RestController
+@RequestMapping("/api/stats")
+@RequiredArgsConstructor
+public class StatistiquesController {
+
+    private final StatistiquesService statistiquesService;
+
+    /**
+     * Retourne les statistiques courantes, tenues en mémoire et mises à jour à chaque changement.
+     *
+     * @return effectifs et répartitions par grade, spécialité, lieu et année de naissance, et rôle
+     */
+    @Operation(summary = "Consulter les statistiques des utilisateurs")
+    @ApiResponse(responseCode = "200", description = "Statistiques des utilisateurs",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = StatistiquesDTO.class)))
+    @GetMapping
+    public StatistiquesDTO consulter() {
+        return statistiquesService.consulter();
+    }
+}
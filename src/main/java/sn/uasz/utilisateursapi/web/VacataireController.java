@@ -1,5 +1,6 @@
 package sn.uasz.utilisateursapi.web;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -7,14 +8,28 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import sn.uasz.utilisateursapi.dtos.LotResultatDTO;
+import sn.uasz.utilisateursapi.dtos.ResultatMasseDTO;
+import sn.uasz.utilisateursapi.dtos.SelectionMasseDTO;
 import sn.uasz.utilisateursapi.dtos.VacataireDTO;
+import sn.uasz.utilisateursapi.enums.ModeRecherche;
+import sn.uasz.utilisateursapi.exceptions.ChampsInvalidesException;
+import sn.uasz.utilisateursapi.exceptions.ConflitEtatException;
+import sn.uasz.utilisateursapi.exceptions.CurseurInvalideException;
+import sn.uasz.utilisateursapi.exceptions.LotInvalideException;
+import sn.uasz.utilisateursapi.exceptions.VacataireException;
 import sn.uasz.utilisateursapi.exceptions.VacataireNotFoundException;
+import sn.uasz.utilisateursapi.exceptions.VersionObsoleteException;
 import sn.uasz.utilisateursapi.services.VacataireService;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 
@@ -33,9 +48,11 @@ import java.util.List;
 @Tag(name = "Vacataires", description = "API pour la gestion des vacataires")
 public class VacataireController {
     private final VacataireService vacataireService;
+    private final ObjectMapper objectMapper;
 
-    public VacataireController(VacataireService vacataireService) {
+    public VacataireController(VacataireService vacataireService, ObjectMapper objectMapper) {
         this.vacataireService = vacataireService;
+        this.objectMapper = objectMapper;
     }
 
     @ExceptionHandler(VacataireNotFoundException.class)
@@ -44,6 +61,48 @@ public class VacataireController {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(CurseurInvalideException.class)
+    public ResponseEntity<String> handleCurseurInvalideException(CurseurInvalideException ex) {
+        log.warn("Curseur de pagination rejeté : {}", ex.getMessage());
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ChampsInvalidesException.class)
+    public ResponseEntity<String> handleChampsInvalidesException(ChampsInvalidesException ex) {
+        log.warn("Paramètre fields rejeté : {}", ex.getMessage());
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(VacataireException.class)
+    public ResponseEntity<String> handleVacataireException(VacataireException ex) {
+        log.warn("Opération sur un vacataire refusée : {}", ex.getMessage());
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ConflitEtatException.class)
+    public ResponseEntity<String> handleConflitEtatException(ConflitEtatException ex) {
+        log.warn("Transition de statut refusée : {}", ex.getMessage());
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(VersionObsoleteException.class)
+    public ResponseEntity<String> handleVersionObsoleteException(VersionObsoleteException ex) {
+        log.warn("Modification conditionnelle refusée : {}", ex.getMessage());
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(LotInvalideException.class)
+    public ResponseEntity<String> handleLotInvalideException(LotInvalideException ex) {
+        log.warn("Lecture groupée rejetée : {}", ex.getMessage());
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<String> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        log.warn("Paramètre {} rejeté : {}", ex.getName(), ex.getValue());
+        return new ResponseEntity<>("Valeur invalide pour " + ex.getName() + " : " + ex.getValue(), HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleException(Exception ex) {
         log.error("Erreur inattendue : {}", ex.getMessage(), ex);
@@ -72,29 +131,73 @@ public class VacataireController {
      * Récupère un vacataire par son ID.
      * 
      * @param id L'identifiant du vacataire
-     * @return Le DTO du vacataire trouvé ou 404 si non trouvé
+     * @param entetes En-têtes de la requête (If-None-Match, If-Modified-Since)
+     * @return Le DTO du vacataire trouvé, 304 si le client en possède déjà la version courante, ou 404 si non trouvé
      */
     @Operation(summary = "Récupérer un vacataire par ID")
     @ApiResponse(responseCode = "200", description = "Vacataire trouvé",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = VacataireDTO.class)))
+    @ApiResponse(responseCode = "304", description = "Vacataire inchangé depuis la version détenue par le client")
     @ApiResponse(responseCode = "404", description = "Vacataire non trouvé")
     @GetMapping("/{id}")
     public ResponseEntity<VacataireDTO> getVacataire(
             @Parameter(description = "ID du vacataire à récupérer")
-            @PathVariable Long id) {
-        try {
-            VacataireDTO vacataire = vacataireService.getVacataire(id);
-            if (vacataire == null) {
-                log.warn("Vacataire non trouvé avec l'ID : {}", id);
+            @PathVariable Long id,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.detail(entetes, vacataireService.validateur(id), () -> {
+            try {
+                VacataireDTO vacataire = vacataireService.getVacataire(id);
+                if (vacataire == null) {
+                    log.warn("Vacataire non trouvé avec l'ID : {}", id);
+                    return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+                }
+                log.info("Vacataire récupéré avec succès : {}", id);
+                return EnTetesConditionnels.ok(vacataire, vacataire.getVersion());
+            } catch (VacataireNotFoundException e) {
+                log.error("Erreur lors de la récupération du vacataire : {}", e.getMessage());
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
-            log.info("Vacataire récupéré avec succès : {}", id);
-            return new ResponseEntity<>(vacataire, HttpStatus.OK);
-        } catch (VacataireNotFoundException e) {
-            log.error("Erreur lors de la récupération du vacataire : {}", e.getMessage());
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
+        });
+    }
+
+    /**
+     * Récupère plusieurs vacataires actifs en une seule requête.
+     * Les identifiants sans vacataire actif sont listés dans {@code manquants}.
+     *
+     * @param ids Les identifiants demandés
+     * @return Les vacataires trouvés, dans l'ordre de la requête, et les identifiants manquants
+     */
+    @Operation(summary = "Récupérer plusieurs vacataires par leurs IDs")
+    @ApiResponse(responseCode = "200", description = "Vacataires trouvés et identifiants manquants")
+    @ApiResponse(responseCode = "400", description = "Identifiant nul ou lot trop grand")
+    @PostMapping("/batch-get")
+    public ResponseEntity<LotResultatDTO<VacataireDTO>> getVacatairesParIds(@RequestBody List<Long> ids) {
+        return new ResponseEntity<>(vacataireService.getVacataires(ids), HttpStatus.OK);
+    }
+
+    /**
+     * Récupère uniquement les champs demandés d'un vacataire actif (ex. {@code ?fields=id,nom,email}).
+     *
+     * @param id L'identifiant du vacataire
+     * @param fields Les champs demandés, séparés par des virgules
+     * @param entetes En-têtes de la requête (If-None-Match, If-Modified-Since)
+     * @return Les valeurs des champs demandés ou 404 si non trouvé
+     */
+    @Operation(summary = "Récupérer les champs choisis d'un vacataire")
+    @ApiResponse(responseCode = "200", description = "Champs demandés du vacataire")
+    @ApiResponse(responseCode = "304", description = "Vacataire inchangé depuis la version détenue par le client")
+    @ApiResponse(responseCode = "400", description = "Champ inconnu")
+    @ApiResponse(responseCode = "404", description = "Vacataire non trouvé")
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getVacataireChamps(
+            @Parameter(description = "ID du vacataire à récupérer")
+            @PathVariable Long id,
+            @Parameter(description = "Champs demandés, séparés par des virgules")
+            @RequestParam String fields,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.detail(entetes, vacataireService.validateur(id),
+                () -> new ResponseEntity<>(vacataireService.getVacataire(id, fields), HttpStatus.OK));
     }
 
     /**
@@ -109,14 +212,18 @@ public class VacataireController {
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = VacataireDTO.class)))
     @ApiResponse(responseCode = "404", description = "Vacataire non trouvé")
+    @ApiResponse(responseCode = "412", description = "Vacataire modifié depuis la version indiquée dans If-Match")
     @PutMapping("/{id}")
     public ResponseEntity<VacataireDTO> mettreAJourVacataire(
             @Parameter(description = "ID du vacataire à mettre à jour")
             @PathVariable Long id,
+            @Parameter(description = "ETag de la version lue (optionnel)")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "Nouvelles données du vacataire")
             @RequestBody @Validated VacataireDTO vacataireDTO) {
-        VacataireDTO updatedVacataire = vacataireService.mettreAJourVacataire(id, vacataireDTO);
-        return new ResponseEntity<>(updatedVacataire, HttpStatus.OK);
+        VacataireDTO updatedVacataire = vacataireService.mettreAJourVacataire(id, vacataireDTO,
+                EnTetesConditionnels.versionAttendue(ifMatch));
+        return EnTetesConditionnels.ok(updatedVacataire, updatedVacataire.getVersion());
     }
 
     /**
@@ -140,32 +247,150 @@ public class VacataireController {
     }
 
     /**
-     * Récupère tous les vacataires actifs.
+     * Récupère une page de vacataires actifs triés par nom.
+     * Le curseur de la page suivante est renvoyé dans l'en-tête X-Next-Cursor.
      * 
-     * @return La liste des vacataires actifs
+     * @param curseur Curseur opaque de la page précédente (absent pour la première page)
+     * @param taille Taille de page souhaitée (bornée côté serveur)
+     * @param entetes En-têtes de la requête (If-None-Match, If-Modified-Since)
+     * @return La page de vacataires actifs, ou 304 si aucun vacataire n'a changé
      */
-    @Operation(summary = "Lister tous les vacataires actifs")
+    @Operation(summary = "Lister les vacataires actifs page par page")
     @ApiResponse(responseCode = "200", description = "Liste des vacataires actifs",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = VacataireDTO.class)))
+    @ApiResponse(responseCode = "304", description = "Aucun vacataire modifié depuis la version détenue par le client")
     @GetMapping
-    public ResponseEntity<List<VacataireDTO>> getAllVacatairesActifs() {
-        List<VacataireDTO> vacataires = vacataireService.getAllVacatairesActifs();
-        return new ResponseEntity<>(vacataires, HttpStatus.OK);
+    public ResponseEntity<List<VacataireDTO>> getAllVacatairesActifs(
+            @Parameter(description = "Curseur opaque de la page précédente")
+            @RequestParam(required = false) String curseur,
+            @Parameter(description = "Taille de page (bornée côté serveur)")
+            @RequestParam(required = false) Integer taille,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.collection(entetes, vacataireService.validateurListe(),
+                () -> ReponsePaginee.ok(vacataireService.getVacatairesActifsParPage(curseur, taille)));
+    }
+
+    /**
+     * Récupère une page de vacataires actifs réduite aux champs demandés.
+     * Seules les colonnes demandées sont lues en base.
+     *
+     * @param curseur Curseur opaque de la page précédente (absent pour la première page)
+     * @param taille Taille de page souhaitée (bornée côté serveur)
+     * @param fields Les champs demandés, séparés par des virgules
+     * @param entetes En-têtes de la requête (If-None-Match, If-Modified-Since)
+     * @return La page de projections, ou 304 si aucun vacataire n'a changé
+     */
+    @Operation(summary = "Lister les vacataires actifs page par page, champs choisis")
+    @ApiResponse(responseCode = "200", description = "Page de projections")
+    @ApiResponse(responseCode = "400", description = "Champ inconnu")
+    @ApiResponse(responseCode = "304", description = "Aucun vacataire modifié depuis la version détenue par le client")
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllVacatairesActifsChamps(
+            @Parameter(description = "Curseur opaque de la page précédente")
+            @RequestParam(required = false) String curseur,
+            @Parameter(description = "Taille de page (bornée côté serveur)")
+            @RequestParam(required = false) Integer taille,
+            @Parameter(description = "Champs demandés, séparés par des virgules")
+            @RequestParam String fields,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.collection(entetes, vacataireService.validateurListe(),
+                () -> ReponsePaginee.ok(vacataireService.getVacatairesActifsParPage(curseur, taille, fields)));
+    }
+
+    /**
+     * Recherche des vacataires par clé normalisée (sans accents ni casse) : nom, prénom ou email
+     * égal au texte (mode exact) ou commençant par lui (mode prefixe, par défaut), ou nom ou prénom
+     * qui se prononce comme lui (mode phonetique).
+     *
+     * @param nom Texte recherché
+     * @param mode Mode de comparaison (exact, prefixe, phonetique)
+     * @param taille Nombre maximal de résultats (borné côté serveur)
+     * @param entetes En-têtes de la requête (If-None-Match, If-Modified-Since)
+     * @return Les vacataires trouvés, triés par nom puis prénom
+     */
+    @Operation(summary = "Rechercher des vacataires par nom, prénom ou email normalisé")
+    @ApiResponse(responseCode = "200", description = "Vacataires trouvés",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = VacataireDTO.class)))
+    @ApiResponse(responseCode = "400", description = "Mode inconnu")
+    @GetMapping("/recherche")
+    public ResponseEntity<List<VacataireDTO>> rechercherVacataires(
+            @Parameter(description = "Texte recherché") @RequestParam String nom,
+            @Parameter(description = "Mode de comparaison : exact, prefixe ou phonetique")
+            @RequestParam(defaultValue = "prefixe") ModeRecherche mode,
+            @Parameter(description = "Nombre maximal de résultats (borné côté serveur)")
+            @RequestParam(required = false) Integer taille,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.collection(entetes, vacataireService.validateurListe(),
+                () -> ResponseEntity.ok(vacataireService.rechercherVacatairesParCle(nom, mode, taille)));
     }
 
     /**
-     * Récupère tous les vacataires (actifs et inactifs).
-     * @return La liste des vacataires
+     * Récupère une page de vacataires (actifs et inactifs) triés par nom.
+     * @param curseur Curseur opaque de la page précédente (absent pour la première page)
+     * @param taille Taille de page souhaitée (bornée côté serveur)
+     * @param entetes En-têtes de la requête (If-None-Match, If-Modified-Since)
+     * @return La page de vacataires, ou 304 si aucun vacataire n'a changé
      */
-    @Operation(summary = "Lister tous les vacataires (actifs et inactifs)")
+    @Operation(summary = "Lister les vacataires (actifs et inactifs) page par page")
     @ApiResponse(responseCode = "200", description = "Liste de tous les vacataires",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = VacataireDTO.class)))
+    @ApiResponse(responseCode = "304", description = "Aucun vacataire modifié depuis la version détenue par le client")
     @GetMapping("/all")
-    public ResponseEntity<List<VacataireDTO>> getAllVacataires() {
-        List<VacataireDTO> vacataires = vacataireService.getAllVacataires();
-        return new ResponseEntity<>(vacataires, HttpStatus.OK);
+    public ResponseEntity<List<VacataireDTO>> getAllVacataires(
+            @Parameter(description = "Curseur opaque de la page précédente")
+            @RequestParam(required = false) String curseur,
+            @Parameter(description = "Taille de page (bornée côté serveur)")
+            @RequestParam(required = false) Integer taille,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.collection(entetes, vacataireService.validateurListe(),
+                () -> ReponsePaginee.ok(vacataireService.getVacatairesParPage(curseur, taille)));
+    }
+
+    /**
+     * Récupère une page de vacataires (actifs et inactifs) réduite aux champs demandés.
+     *
+     * @param curseur Curseur opaque de la page précédente (absent pour la première page)
+     * @param taille Taille de page souhaitée (bornée côté serveur)
+     * @param fields Les champs demandés, séparés par des virgules
+     * @param entetes En-têtes de la requête (If-None-Match, If-Modified-Since)
+     * @return La page de projections, ou 304 si aucun vacataire n'a changé
+     */
+    @Operation(summary = "Lister les vacataires (actifs et inactifs) page par page, champs choisis")
+    @ApiResponse(responseCode = "200", description = "Page de projections")
+    @ApiResponse(responseCode = "400", description = "Champ inconnu")
+    @ApiResponse(responseCode = "304", description = "Aucun vacataire modifié depuis la version détenue par le client")
+    @GetMapping(value = "/all", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllVacatairesChamps(
+            @Parameter(description = "Curseur opaque de la page précédente")
+            @RequestParam(required = false) String curseur,
+            @Parameter(description = "Taille de page (bornée côté serveur)")
+            @RequestParam(required = false) Integer taille,
+            @Parameter(description = "Champs demandés, séparés par des virgules")
+            @RequestParam String fields,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.collection(entetes, vacataireService.validateurListe(),
+                () -> ReponsePaginee.ok(vacataireService.getVacatairesParPage(curseur, taille, fields)));
+    }
+
+    /**
+     * Exporte tous les vacataires (actifs et inactifs) au format NDJSON.
+     * Les vacataires sont écrits en flux, un objet JSON par ligne.
+     * @param entetes En-têtes de la requête (If-None-Match, If-Modified-Since)
+     * @return Le flux NDJSON des vacataires
+     */
+    @Operation(summary = "Exporter tous les vacataires (NDJSON)")
+    @ApiResponse(responseCode = "200", description = "Flux NDJSON des vacataires",
+            content = @Content(mediaType = ExportNdjson.MEDIA_TYPE))
+    @ApiResponse(responseCode = "304", description = "Aucun vacataire modifié depuis la version détenue par le client")
+    @GetMapping(value = "/export", produces = ExportNdjson.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exporterVacataires(
+            @Parameter(hidden = true) @RequestHeader HttpHeaders entetes) {
+        return EnTetesConditionnels.collection(entetes, vacataireService.validateurListe(),
+                () -> ExportNdjson.<VacataireDTO>reponse(objectMapper, "vacataires.ndjson",
+                        vacataireService::exporterVacataires));
     }
 
     /**
@@ -179,6 +404,7 @@ public class VacataireController {
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = VacataireDTO.class)))
     @ApiResponse(responseCode = "404", description = "Vacataire non trouvé")
+    @ApiResponse(responseCode = "409", description = "Vacataire déjà inactif")
     @PostMapping("/{id}/desactiver")
     public ResponseEntity<VacataireDTO> desactiverVacataire(
             @Parameter(description = "ID du vacataire à désactiver")
@@ -187,6 +413,35 @@ public class VacataireController {
         return new ResponseEntity<>(vacataire, HttpStatus.OK);
     }
 
+    /**
+     * Désactive en masse les vacataires désignés par identifiants ou par spécialité
+     * (ex. fin de semestre), en une seule requête SQL.
+     *
+     * @param selection Les identifiants ou la spécialité visés
+     * @return Le nombre de vacataires effectivement désactivés
+     */
+    @Operation(summary = "Désactiver des vacataires en masse (identifiants ou spécialité)")
+    @ApiResponse(responseCode = "200", description = "Nombre de vacataires désactivés")
+    @ApiResponse(responseCode = "400", description = "Sélection vide, ambiguë ou trop grande")
+    @PostMapping("/desactiver")
+    public ResponseEntity<ResultatMasseDTO> desactiverVacataires(@RequestBody SelectionMasseDTO selection) {
+        return new ResponseEntity<>(vacataireService.modifierActifEnMasse(false, selection), HttpStatus.OK);
+    }
+
+    /**
+     * Active en masse les vacataires désignés par identifiants ou par spécialité, en une seule requête SQL.
+     *
+     * @param selection Les identifiants ou la spécialité visés
+     * @return Le nombre de vacataires effectivement activés
+     */
+    @Operation(summary = "Activer des vacataires en masse (identifiants ou spécialité)")
+    @ApiResponse(responseCode = "200", description = "Nombre de vacataires activés")
+    @ApiResponse(responseCode = "400", description = "Sélection vide, ambiguë ou trop grande")
+    @PostMapping("/activer")
+    public ResponseEntity<ResultatMasseDTO> activerVacataires(@RequestBody SelectionMasseDTO selection) {
+        return new ResponseEntity<>(vacataireService.modifierActifEnMasse(true, selection), HttpStatus.OK);
+    }
+
     /**
      * Réactive un vacataire.
      * 
@@ -198,6 +453,7 @@ public class VacataireController {
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = VacataireDTO.class)))
     @ApiResponse(responseCode = "404", description = "Vacataire non trouvé")
+    @ApiResponse(responseCode = "409", description = "Vacataire déjà actif")
     @PostMapping("/{id}/reactiver")
     public ResponseEntity<VacataireDTO> reactivierVacataire(
             @Parameter(description = "ID du vacataire à réactiver")
@@ -0,0 +1,93 @@
+package sn.uasz.utilisateursapi.benchmarks;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import sn.uasz.utilisateursapi.dtos.EtudiantDTO;
+import sn.uasz.utilisateursapi.repositories.EtudiantRepository;
+import sn.uasz.utilisateursapi.services.EtudiantService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test de charge de l'attribution des emails : 100 000 étudiants homonymes créés en parallèle
+ * par lots reçoivent des emails tous distincts, sans violation de la contrainte d'unicité.
+ *
+ * <p>Le contexte est écarté après le test : les filtres de Bloom et les compteurs d'emails
+ * ont été gonflés par les insertions.</p>
+ *
+ * <p>Désactivé par défaut ; à lancer explicitement :</p>
+ * <pre>
+ * mvn test -Dtest=EtudiantEmailsHomonymesTest -Dbenchmark=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class EtudiantEmailsHomonymesTest {
+
+    private static final int ETUDIANTS = 100_000;
+    private static final int TAILLE_LOT = 1_000;
+    private static final int FILS = 8;
+
+    @Autowired
+    private EtudiantService etudiantService;
+
+    @Autowired
+    private EtudiantRepository etudiantRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from etudiant where nom = 'Homonyme'");
+    }
+
+    private static List<EtudiantDTO> lot(int numero) {
+        List<EtudiantDTO> etudiants = new ArrayList<>(TAILLE_LOT);
+        for (int i = 0; i < TAILLE_LOT; i++) {
+            EtudiantDTO dto = new EtudiantDTO();
+            dto.setNom("Homonyme");
+            dto.setPrenom("Awa");
+            dto.setMatricule("HOM-" + (numero * TAILLE_LOT + i));
+            dto.setDateNaissance(LocalDate.of(2002, 6, 1));
+            dto.setLieuNaissance("Ziguinchor");
+            etudiants.add(dto);
+        }
+        return etudiants;
+    }
+
+    @Test
+    void ajouterEtudiants_shouldAllocateDistinctEmailsForHomonyms() throws Exception {
+        ExecutorService executeur = Executors.newFixedThreadPool(FILS);
+        try {
+            List<Future<List<EtudiantDTO>>> taches = new ArrayList<>();
+            for (int n = 0; n < ETUDIANTS / TAILLE_LOT; n++) {
+                int numero = n;
+                taches.add(executeur.submit(() -> etudiantService.ajouterEtudiants(lot(numero))));
+            }
+            for (Future<List<EtudiantDTO>> tache : taches) {
+                assertEquals(TAILLE_LOT, tache.get().size());
+            }
+        } finally {
+            executeur.shutdown();
+        }
+
+        List<String> emails = etudiantRepository.findEmailsParPrefixe("homonymeah");
+        assertEquals(ETUDIANTS, emails.size());
+        assertEquals(ETUDIANTS, new HashSet<>(emails).size());
+    }
+}
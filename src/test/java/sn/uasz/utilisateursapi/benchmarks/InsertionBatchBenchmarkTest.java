@@ -0,0 +1,218 @@
+package sn.uasz.utilisateursapi.benchmarks;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import sn.uasz.utilisateursapi.entities.Vacataire;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Banc d'essai du débit d'insertion de 100 000 vacataires, avant et après le passage
+ * des identifiants IDENTITY à des séquences pooled avec insertions par lots JDBC.
+ *
+ * <p>Les deux configurations persistent l'entité {@link Vacataire} par un {@link EntityManager},
+ * avec les propriétés JPA de l'application (lots de 50, écouteurs, validation) :</p>
+ * <ul>
+ *     <li><b>avant</b> : identifiant surchargé en IDENTITY par {@code benchmarks/vacataire-identity-orm.xml} ;
+ *     Hibernate émet un {@code INSERT} par ligne pour lire la clé générée ;</li>
+ *     <li><b>après</b> : le mapping de l'application, séquence pooled de 50 et lots de 50 {@code INSERT}.</li>
+ * </ul>
+ * <p>La comparaison est faite sur la base H2 de l'application, puis sur une base H2 distincte en
+ * mode de compatibilité PostgreSQL ({@code MODE=PostgreSQL}). Sur chaque base, chaque configuration
+ * a son propre schéma, créé par Hibernate. Un premier passage, non mesuré,
+ * chauffe la JVM et les pools ; les passages mesurés alternent ensuite l'ordre des deux
+ * configurations, et le débit retenu est la médiane des passages.</p>
+ *
+ * <p>Désactivé par défaut ; à lancer explicitement :</p>
+ * <pre>
+ * mvn test -Dtest=InsertionBatchBenchmarkTest -Dbenchmark=true
+ * </pre>
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+class InsertionBatchBenchmarkTest {
+
+    private static final int NOMBRE_LIGNES = 100_000;
+    private static final int LIGNES_CHAUFFE = 10_000;
+    private static final int PASSAGES = 4;
+    private static final int TAILLE_LOT = 50;
+    private static final String URL_POSTGRESQL = "jdbc:h2:mem:bench_postgresql;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private EntityManagerFactoryBuilder builder;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JpaProperties jpaProperties;
+
+    @Autowired
+    private HibernateProperties hibernateProperties;
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    private HikariDataSource postgresql;
+    private final List<LocalContainerEntityManagerFactoryBean> unites = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        postgresql = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(URL_POSTGRESQL).username("sa").password("").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        unites.forEach(LocalContainerEntityManagerFactoryBean::destroy);
+        postgresql.close();
+    }
+
+    /**
+     * Compare les deux stratégies d'identifiant sur H2, puis sur H2 en mode PostgreSQL.
+     */
+    @Test
+    void comparerDebitInsertion() {
+        comparer("H2", dataSource);
+        comparer("H2 mode PostgreSQL", postgresql);
+    }
+
+    /**
+     * Compare les deux stratégies d'identifiant sur une base, en alternant l'ordre des passages.
+     */
+    private void comparer(String base, DataSource source) {
+        EntityManagerFactory identity = unitePersistance(source, "identity", "bench_identity",
+                "benchmarks/vacataire-identity-orm.xml");
+        EntityManagerFactory sequence = unitePersistance(source, "sequence", "bench_sequence");
+        // La surcharge XML doit bien avoir produit une colonne IDENTITY, et elle seule
+        assertEquals("YES", identiteColonneId(source, "BENCH_IDENTITY"));
+        assertEquals("NO", identiteColonneId(source, "BENCH_SEQUENCE"));
+
+        inserer(identity, LIGNES_CHAUFFE);
+        inserer(sequence, LIGNES_CHAUFFE);
+
+        List<Double> avant = new ArrayList<>();
+        List<Double> apres = new ArrayList<>();
+        for (int passage = 0; passage < PASSAGES; passage++) {
+            if (passage % 2 == 0) {
+                avant.add(inserer(identity, NOMBRE_LIGNES));
+                apres.add(inserer(sequence, NOMBRE_LIGNES));
+            } else {
+                apres.add(inserer(sequence, NOMBRE_LIGNES));
+                avant.add(inserer(identity, NOMBRE_LIGNES));
+            }
+        }
+
+        double medianeAvant = mediane(avant);
+        double medianeApres = mediane(apres);
+        log.info("{} : IDENTITY unitaire {} lignes/s | séquence pooled + lots de {} : {} lignes/s (x{})",
+                base, Math.round(medianeAvant), TAILLE_LOT, Math.round(medianeApres),
+                String.format("%.1f", medianeApres / medianeAvant));
+        log.info("{} : passages IDENTITY {} | séquence {}", base, arrondis(avant), arrondis(apres));
+    }
+
+    /**
+     * Vide la table puis insère les vacataires par lots, une transaction par passage.
+     *
+     * @return le débit de l'insertion, en lignes par seconde
+     */
+    private double inserer(EntityManagerFactory unite, int lignes) {
+        EntityManager entityManager = unite.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            entityManager.createQuery("delete from Vacataire").executeUpdate();
+            entityManager.getTransaction().commit();
+
+            long debut = System.nanoTime();
+            entityManager.getTransaction().begin();
+            for (int i = 0; i < lignes; i++) {
+                entityManager.persist(vacataire(i));
+                if ((i + 1) % TAILLE_LOT == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.getTransaction().commit();
+            double debit = lignes / ((System.nanoTime() - debut) / 1_000_000_000.0);
+
+            assertEquals(lignes, entityManager.createQuery("select count(v) from Vacataire v", Long.class).getSingleResult());
+            return debit;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private EntityManagerFactory unitePersistance(DataSource source, String nom, String schema, String... mappings) {
+        Map<String, Object> proprietes = new HashMap<>(hibernateProperties.determineHibernateProperties(
+                jpaProperties.getProperties(), new HibernateSettings()));
+        proprietes.put("hibernate.resource.beans.container", new SpringBeanContainer(beanFactory));
+        proprietes.put("hibernate.default_schema", schema);
+        proprietes.put("hibernate.hbm2ddl.create_namespaces", true);
+        proprietes.put("hibernate.hbm2ddl.auto", "create-drop");
+        // Cache de second niveau hors mesure : les deux unités partageraient ses régions
+        proprietes.put("hibernate.cache.use_second_level_cache", false);
+        proprietes.put("hibernate.cache.use_query_cache", false);
+        proprietes.put("hibernate.generate_statistics", false);
+
+        LocalContainerEntityManagerFactoryBean unite = builder.dataSource(source)
+                .managedTypes(PersistenceManagedTypes.of(Vacataire.class.getName()))
+                .mappingResources(mappings)
+                .properties(proprietes)
+                .persistenceUnit(nom)
+                .build();
+        unite.afterPropertiesSet();
+        unites.add(unite);
+        return unite.getObject();
+    }
+
+    private static String identiteColonneId(DataSource source, String schema) {
+        return new JdbcTemplate(source).queryForObject("select is_identity from information_schema.columns "
+                + "where table_schema = ? and table_name = 'VACATAIRES' and column_name = 'ID'", String.class, schema);
+    }
+
+    private static Vacataire vacataire(int i) {
+        Vacataire vacataire = new Vacataire();
+        vacataire.setNom("Nom" + i);
+        vacataire.setPrenom("Prenom" + i);
+        vacataire.setEmail("vacataire" + i + "@univ.sn");
+        vacataire.setTelephone("0771112233");
+        vacataire.setSpecialite("Mathématiques");
+        vacataire.setActif(true);
+        return vacataire;
+    }
+
+    private static List<Long> arrondis(List<Double> debits) {
+        return debits.stream().map(Math::round).toList();
+    }
+
+    private static double mediane(List<Double> debits) {
+        double[] tries = debits.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        int milieu = tries.length / 2;
+        return tries.length % 2 == 0 ? (tries[milieu - 1] + tries[milieu]) / 2 : tries[milieu];
+    }
+}
@@ -0,0 +1,107 @@
+package sn.uasz.utilisateursapi.benchmarks;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import sn.uasz.utilisateursapi.entities.Etudiant;
+import sn.uasz.utilisateursapi.entities.Role;
+import sn.uasz.utilisateursapi.repositories.EtudiantRepository;
+import sn.uasz.utilisateursapi.repositories.RoleRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Banc d'essai de la liste des étudiants complète ({@code GET /api/etudiants}) face à la même
+ * liste réduite par {@code ?fields=id,nom,prenom,email} : taille de la réponse et latence par page.
+ *
+ * <p>Désactivé par défaut ; à lancer explicitement :</p>
+ * <pre>
+ * mvn test -Dtest=ProjectionChampsBenchmarkTest -Dbenchmark=true
+ * </pre>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProjectionChampsBenchmarkTest {
+
+    private static final int NOMBRE_ETUDIANTS = 2_000;
+    private static final int ITERATIONS = 200;
+    private static final String TAILLE_PAGE = "200";
+    private static final String CHAMPS = "id,nom,prenom,email";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EtudiantRepository etudiantRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private final List<Etudiant> crees = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        etudiantRepository.deleteAll(crees);
+    }
+
+    @Test
+    void comparerListeCompleteEtProjection() throws Exception {
+        creerEtudiants();
+        MockHttpServletRequestBuilder complete = get("/api/etudiants").param("taille", TAILLE_PAGE);
+        MockHttpServletRequestBuilder projection = get("/api/etudiants").param("taille", TAILLE_PAGE).param("fields", CHAMPS);
+
+        // Préchauffage
+        mesurer(complete);
+        mesurer(projection);
+
+        long[] mesureComplete = mesurer(complete);
+        long[] mesureProjection = mesurer(projection);
+
+        System.out.printf("Page de %s étudiants - complète : %d octets, %.2f ms | fields=%s : %d octets, %.2f ms "
+                        + "(octets -%.0f %%, latence x%.1f)%n",
+                TAILLE_PAGE, mesureComplete[0], mesureComplete[1] / 1e6, CHAMPS, mesureProjection[0],
+                mesureProjection[1] / 1e6, 100.0 * (mesureComplete[0] - mesureProjection[0]) / mesureComplete[0],
+                (double) mesureComplete[1] / mesureProjection[1]);
+        assertTrue(mesureProjection[0] < mesureComplete[0]);
+    }
+
+    /**
+     * @return taille de la réponse en octets et latence moyenne en nanosecondes
+     */
+    private long[] mesurer(MockHttpServletRequestBuilder requete) throws Exception {
+        long octets = 0;
+        long debut = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            octets = mockMvc.perform(requete).andReturn().getResponse().getContentAsByteArray().length;
+        }
+        return new long[]{octets, (System.nanoTime() - debut) / ITERATIONS};
+    }
+
+    private void creerEtudiants() {
+        List<Role> roles = roleRepository.findAll();
+        List<Etudiant> etudiants = new ArrayList<>();
+        for (int i = 0; i < NOMBRE_ETUDIANTS; i++) {
+            Etudiant etudiant = new Etudiant();
+            etudiant.setNom("Bench" + i);
+            etudiant.setPrenom("Projection");
+            etudiant.setMatricule("BENCH-" + i);
+            etudiant.setEmail("bench" + i + "@zig.univ.sn");
+            etudiant.setDateNaissance(LocalDate.of(2000, 1, 1));
+            etudiant.setLieuNaissance("Ziguinchor");
+            etudiant.setRoles(new ArrayList<>(roles.subList(0, Math.min(1, roles.size()))));
+            etudiants.add(etudiant);
+        }
+        crees.addAll(etudiantRepository.saveAll(etudiants));
+    }
+}
@@ -0,0 +1,82 @@
+package sn.uasz.utilisateursapi.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import sn.uasz.utilisateursapi.entities.Role;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de {@link CacheNiveau2Config}.
+ */
+class CacheNiveau2ConfigTest {
+
+    private final CacheNiveau2Config config = new CacheNiveau2Config();
+    private final CacheManager cacheManager = config.cacheNiveau2Manager();
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
+    /**
+     * Toutes les régions utilisées par Hibernate sont créées au démarrage.
+     */
+    @Test
+    void cacheNiveau2Manager_shouldDeclareAllRegions() {
+        for (String region : CacheNiveau2Config.REGIONS.keySet()) {
+            Cache<Object, Object> cache = cacheManager.getCache(region);
+            assertNotNull(cache, region);
+        }
+        assertTrue(CacheNiveau2Config.REGIONS.containsKey(Role.REGION_CACHE));
+        assertTrue(CacheNiveau2Config.REGIONS.containsKey(Role.REGION_CACHE_LIBELLE));
+    }
+
+    /**
+     * Deux contextes obtiennent des gestionnaires distincts (pas de régions partagées).
+     */
+    @Test
+    void cacheNiveau2Manager_shouldBeIsolatedPerContext() {
+        CacheManager autre = new CacheNiveau2Config().cacheNiveau2Manager();
+        try {
+            assertNotSame(cacheManager, autre);
+            assertNotEquals(cacheManager.getURI(), autre.getURI());
+        } finally {
+            autre.close();
+        }
+    }
+
+    /**
+     * Le gestionnaire est transmis à Hibernate via ses propriétés.
+     */
+    @Test
+    void cacheNiveau2Hibernate_shouldRegisterCacheManager() {
+        Map<String, Object> proprietes = new HashMap<>();
+
+        config.cacheNiveau2Hibernate(cacheManager).customize(proprietes);
+
+        assertSame(cacheManager, proprietes.get(ConfigSettings.CACHE_MANAGER));
+    }
+
+    /**
+     * Les évictions, accès et insertions de chaque région sont publiés comme métriques.
+     */
+    @Test
+    void cacheNiveau2Metriques_shouldBindEachRegion() {
+        SimpleMeterRegistry registre = new SimpleMeterRegistry();
+
+        config.cacheNiveau2Metriques(cacheManager).bindTo(registre);
+
+        for (String region : CacheNiveau2Config.REGIONS.keySet()) {
+            assertNotNull(registre.find("cache.evictions").tag("cache", region).meter(), region);
+            assertNotNull(registre.find("cache.gets").tag("cache", region).tag("result", "hit").meter(), region);
+        }
+    }
+}
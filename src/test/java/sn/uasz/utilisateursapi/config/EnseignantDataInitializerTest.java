@@ -3,10 +3,12 @@ package sn.uasz.utilisateursapi.config;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import sn.uasz.utilisateursapi.dtos.EnseignantDTO;
+import sn.uasz.utilisateursapi.enums.CleUnique;
 import sn.uasz.utilisateursapi.enums.Grade;
 import sn.uasz.utilisateursapi.entities.Role;
 import sn.uasz.utilisateursapi.repositories.EnseignantRepository;
 import sn.uasz.utilisateursapi.services.EnseignantService;
+import sn.uasz.utilisateursapi.services.RegistreClesUniques;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -16,13 +18,17 @@ class EnseignantDataInitializerTest {
 
     private EnseignantService enseignantService;
     private EnseignantRepository enseignantRepository;
+    private RegistreClesUniques registreClesUniques;
     private EnseignantDataInitializer initializer;
 
     @BeforeEach
     void setUp() {
         enseignantService = mock(EnseignantService.class);
         enseignantRepository = mock(EnseignantRepository.class);
-        initializer = new EnseignantDataInitializer(enseignantService, enseignantRepository);
+        registreClesUniques = mock(RegistreClesUniques.class);
+        // Par défaut, le filtre de Bloom ne peut rien écarter : la base est interrogée
+        when(registreClesUniques.peutExister(eq(CleUnique.ENSEIGNANT_EMAIL), anyString())).thenReturn(true);
+        initializer = new EnseignantDataInitializer(enseignantService, enseignantRepository, registreClesUniques);
     }
 
     @Test
@@ -39,6 +45,20 @@ class EnseignantDataInitializerTest {
         verify(enseignantService, times(1)).ajouterEnseignant(any(EnseignantDTO.class));
     }
 
+    @Test
+    void testCreerEnseignantTest_absentDuFiltre_sansRequete() {
+        when(registreClesUniques.peutExister(CleUnique.ENSEIGNANT_EMAIL, "nouveau@uasz.sn")).thenReturn(false);
+
+        boolean result = invokeCreerEnseignant(
+                "Sarr", "Fatou", "nouveau@uasz.sn", "+221771112244",
+                "123457/A", Grade.ASSISTANT, List.of(), "testuser"
+        );
+
+        assertTrue(result);
+        verify(enseignantRepository, never()).existsByEmail(any());
+        verify(enseignantService, times(1)).ajouterEnseignant(any(EnseignantDTO.class));
+    }
+
     @Test
     void testCreerEnseignantTest_alreadyExists() {
         when(enseignantRepository.existsByEmail("exist@uasz.sn")).thenReturn(true);
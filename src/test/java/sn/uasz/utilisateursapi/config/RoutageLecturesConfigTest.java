@@ -0,0 +1,147 @@
+package sn.uasz.utilisateursapi.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import sn.uasz.utilisateursapi.dtos.VacataireDTO;
+import sn.uasz.utilisateursapi.entities.Vacataire;
+import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+import sn.uasz.utilisateursapi.services.VacataireService;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Routage des lectures avec deux bases H2 en mémoire : la primaire et une réplique.
+ *
+ * <p>La réplication est simulée en recopiant la primaire sur la réplique ({@code SCRIPT}) ; une
+ * valeur modifiée directement sur la réplique permet ensuite de savoir quelle base a servi une
+ * lecture. Les vérifications périodiques sont désactivées (intervalle d'une heure) : chaque test
+ * mesure le retard explicitement.</p>
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routage-primaire;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "lecture.replicas.urls=" + RoutageLecturesConfigTest.URL_REPLIQUE,
+        "lecture.replicas.retard-max=5000",
+        "lecture.replicas.intervalle-verification=3600000"
+})
+@AutoConfigureMockMvc
+class RoutageLecturesConfigTest {
+
+    static final String URL_REPLIQUE = "jdbc:h2:mem:routage-replique;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("sourcePrimaire")
+    private DataSource sourcePrimaire;
+
+    @Autowired
+    private SurveillanceReplicas surveillanceReplicas;
+
+    @Autowired
+    private VacataireRepository vacataireRepository;
+
+    @Autowired
+    private VacataireService vacataireService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final JdbcTemplate replique = new JdbcTemplate(new DriverManagerDataSource(URL_REPLIQUE, "sa", ""));
+
+    private Long id;
+
+    /**
+     * Crée un vacataire sur la primaire, réplique, puis le renomme sur la réplique seule.
+     */
+    @BeforeEach
+    void setUp() {
+        Vacataire vacataire = new Vacataire();
+        vacataire.setNom("Primaire");
+        vacataire.setPrenom("Routage");
+        vacataire.setEmail("routage" + System.nanoTime() + "@zig.univ.sn");
+        vacataire.setSpecialite("Informatique");
+        id = vacataireRepository.save(vacataire).getId();
+
+        surveillanceReplicas.verifier();
+        repliquer();
+        surveillanceReplicas.verifier();
+        replique.update("update vacataires set nom = 'Replique' where id = ?", id);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        new JdbcTemplate(sourcePrimaire).update("delete from vacataires where id = ?", id);
+    }
+
+    @Test
+    void readOnlyTransaction_isServedByUpToDateReplica() throws Exception {
+        double avant = meterRegistry.get("replicas.lectures").tag("cible", "replique").functionCounter().count();
+
+        mockMvc.perform(get("/api/vacataires/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nom").value("Replique"));
+
+        assertTrue(meterRegistry.get("replicas.lectures").tag("cible", "replique").functionCounter().count() > avant);
+        assertEquals(1.0, meterRegistry.get("replicas.disponible").tag("replique", "replique-1").gauge().value());
+    }
+
+    @Test
+    void laggingReplica_readsFallBackToPrimary() throws Exception {
+        // Dernier battement reçu par la réplique vieux d'une minute
+        replique.update("update battement_replication set horodatage = horodatage - 60000");
+        surveillanceReplicas.verifier();
+
+        mockMvc.perform(get("/api/vacataires/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nom").value("Primaire"));
+        assertEquals(0.0, meterRegistry.get("replicas.disponible").tag("replique", "replique-1").gauge().value());
+    }
+
+    @Test
+    void writeInRequest_keepsLaterReadsOfSameRequestOnPrimary() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertEquals("Replique", vacataireService.getVacataire(id).getNom());
+
+        VacataireDTO modification = vacataireService.getVacataire(id);
+        modification.setNom("Modifie");
+        vacataireService.mettreAJourVacataire(id, modification, null);
+
+        // La réplique n'a pas reçu l'écriture : la requête continue de lire sur la primaire
+        assertEquals("Modifie", vacataireService.getVacataire(id).getNom());
+
+        // Une autre requête, sans écriture, lit de nouveau sur la réplique
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertEquals("Replique", vacataireService.getVacataire(id).getNom());
+    }
+
+    /**
+     * Recopie intégralement la primaire sur la réplique (schéma et données).
+     */
+    private void repliquer() {
+        List<String> script = new JdbcTemplate(sourcePrimaire)
+                .queryForList("script nopasswords nosettings", String.class);
+        replique.execute("drop all objects");
+        script.forEach(replique::execute);
+    }
+}
@@ -52,7 +52,8 @@ class EnseignantMapperTest {
                 roles,
                 "admin",
                 LocalDate.of(2024, 12, 1),
-                true
+                true,
+                3L
         );
 
         // Mapping vers entité
@@ -138,7 +139,8 @@ class EnseignantMapperTest {
                 roles,
                 "modifieur",
                 LocalDate.of(2025, 5, 1),
-                false
+                false,
+                null
         );
 
         // Mise à jour de l'entité
@@ -0,0 +1,119 @@
+package sn.uasz.utilisateursapi.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import sn.uasz.utilisateursapi.repositories.EtudiantRepository;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires de l'allocateur d'emails étudiants.
+ */
+@ExtendWith(MockitoExtension.class)
+class AllocateurEmailsTest {
+
+    @Mock
+    private EtudiantRepository etudiantRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AllocateurEmails allocateur;
+
+    @BeforeEach
+    void setUp() {
+        allocateur = new AllocateurEmails(etudiantRepository, transactionManager);
+    }
+
+    /**
+     * Avant l'initialisation, un préfixe inconnu repart du plus grand suffixe présent en base.
+     */
+    @Test
+    void allouer_shouldContinueAfterLargestSuffixOfPrefix() {
+        when(etudiantRepository.findEmailsParPrefixe("dialload")).thenReturn(List.of(
+                "dialload7@zig.univ.sn", "dialload12@zig.univ.sn", "dialloadama99@zig.univ.sn", "dialload@zig.univ.sn"));
+
+        assertEquals("dialload13@zig.univ.sn", allocateur.allouer("Diallo", "Awa"));
+        assertEquals("dialload14@zig.univ.sn", allocateur.allouer("Diallo", "Aminata"));
+        verify(etudiantRepository, times(1)).findEmailsParPrefixe("dialload");
+    }
+
+    /**
+     * L'initialisation relève le plus grand suffixe de chaque préfixe en un seul parcours ;
+     * les préfixes absents de la base démarrent ensuite à 1 sans requête.
+     */
+    @Test
+    void initialiser_shouldSeedCountersFromExistingEmails() {
+        when(etudiantRepository.streamEmails()).thenReturn(Stream.of(
+                "sarrbs3@zig.univ.sn", "sarrbs41@zig.univ.sn", "faye@zig.univ.sn", "jean.dupont@exemple.com", null));
+
+        allocateur.initialiser();
+
+        assertEquals(1, allocateur.nombrePrefixes());
+        assertEquals("sarrbs42@zig.univ.sn", allocateur.allouer("Sarr", "Bineta"));
+        assertEquals("fayemf1@zig.univ.sn", allocateur.allouer("Faye", "Moussa"));
+        verify(etudiantRepository, never()).findEmailsParPrefixe(anyString());
+    }
+
+    /**
+     * Des appels concurrents sur un même préfixe ne reçoivent jamais le même email.
+     */
+    @Test
+    void allouer_shouldNeverReturnTheSameEmailUnderContention() throws Exception {
+        when(etudiantRepository.streamEmails()).thenReturn(Stream.empty());
+        allocateur.initialiser();
+
+        Set<String> emails = ConcurrentHashMap.newKeySet();
+        ExecutorService executeur = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> taches = IntStream.range(0, 8)
+                    .mapToObj(t -> executeur.submit(() -> {
+                        for (int i = 0; i < 12_500; i++) {
+                            emails.add(allocateur.allouer("Ndiaye", "Mamadou"));
+                        }
+                    }))
+                    .<Future<?>>map(f -> f)
+                    .toList();
+            for (Future<?> tache : taches) {
+                tache.get();
+            }
+        } finally {
+            executeur.shutdown();
+        }
+
+        assertEquals(100_000, emails.size());
+        assertTrue(emails.contains("ndiayemn100000@zig.univ.sn"));
+    }
+
+    /**
+     * Un email n'est reconnu que s'il est le préfixe du nom suivi d'un suffixe numérique.
+     */
+    @Test
+    void correspond_shouldRecognizeAllocatedEmails() {
+        assertTrue(AllocateurEmails.correspond("dupontjd7@zig.univ.sn", "Dupont", "Jean"));
+        assertFalse(AllocateurEmails.correspond("dupontjd@zig.univ.sn", "Dupont", "Jean"));
+        assertFalse(AllocateurEmails.correspond("dupontjd7@zig.univ.sn", "Dupont", "Marie"));
+        assertFalse(AllocateurEmails.correspond("dupontjd7@exemple.com", "Dupont", "Jean"));
+        assertFalse(AllocateurEmails.correspond(null, "Dupont", "Jean"));
+    }
+}
@@ -0,0 +1,102 @@
+package sn.uasz.utilisateursapi.services;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import sn.uasz.utilisateursapi.entities.CompteurMatricule;
+import sn.uasz.utilisateursapi.enums.TypeMatricule;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests de l'allocateur de matricules sur la base H2 (réservation des blocs sur le compteur partagé).
+ * Chaque test utilise sa propre année pour disposer d'un compteur neuf.
+ */
+@SpringBootTest
+class AllocateurMatriculesTest {
+
+    @Autowired
+    private AllocateurMatricules allocateur;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Le premier bloc d'une année commence après les matricules saisis à la main
+     * (jeu de données initial : 202202898 à 202202902).
+     */
+    @Test
+    void allouer_shouldStartAfterExistingMatricules() {
+        assertEquals("202202951", allocateur.allouer(TypeMatricule.ETUDIANT, 2022));
+        assertEquals("202202952", allocateur.allouer(TypeMatricule.ETUDIANT, 2022));
+    }
+
+    /**
+     * Les matricules enseignants suivent le format année sur 2 chiffres, numéro sur 4 chiffres, /D.
+     */
+    @Test
+    void allouer_shouldFormatEnseignantMatricules() {
+        assertEquals("310001/D", allocateur.allouer(TypeMatricule.ENSEIGNANT, 2031));
+        assertEquals("310002/D", allocateur.allouer(TypeMatricule.ENSEIGNANT, 2031));
+    }
+
+    /**
+     * Des allocations concurrentes sont toutes distinctes et ne réservent qu'un bloc par tranche de 50.
+     */
+    @Test
+    void allouer_shouldHandOutDistinctNumbersWithOneReservationPerBlock() throws Exception {
+        Set<String> matricules = ConcurrentHashMap.newKeySet();
+        ExecutorService executeur = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> taches = IntStream.range(0, 8)
+                    .<Future<?>>mapToObj(t -> executeur.submit(() -> {
+                        for (int i = 0; i < 1_000; i++) {
+                            matricules.add(allocateur.allouer(TypeMatricule.ETUDIANT, 2030));
+                        }
+                    }))
+                    .toList();
+            for (Future<?> tache : taches) {
+                tache.get();
+            }
+        } finally {
+            executeur.shutdown();
+        }
+
+        assertEquals(8_000, matricules.size());
+        assertTrue(matricules.contains("203000001") && matricules.contains("203008000"));
+        CompteurMatricule compteur = entityManager.find(CompteurMatricule.class, "ETUDIANT-2030");
+        assertEquals(8_000 / 50, compteur.getProchainBloc());
+    }
+
+    /**
+     * L'année universitaire commence en octobre.
+     */
+    @Test
+    void anneeUniversitaire_shouldSwitchInOctober() {
+        assertEquals(2024, AllocateurMatricules.anneeUniversitaire(LocalDate.of(2025, 9, 30)));
+        assertEquals(2025, AllocateurMatricules.anneeUniversitaire(LocalDate.of(2025, 10, 1)));
+    }
+
+    /**
+     * Seuls les matricules au format exact de l'année livrent un numéro d'ordre.
+     */
+    @Test
+    void numero_shouldParseOnlyMatchingMatricules() {
+        assertEquals(2898, TypeMatricule.ETUDIANT.numero(2022, "202202898"));
+        assertEquals(1185, TypeMatricule.ENSEIGNANT.numero(2018, "181185/D"));
+        assertEquals(-1, TypeMatricule.ETUDIANT.numero(2022, "2022028981"));
+        assertEquals(-1, TypeMatricule.ETUDIANT.numero(2022, "20220289A"));
+        assertEquals(-1, TypeMatricule.ENSEIGNANT.numero(2018, "181185"));
+    }
+}
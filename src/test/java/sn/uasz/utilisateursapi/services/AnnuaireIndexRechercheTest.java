@@ -0,0 +1,196 @@
+package sn.uasz.utilisateursapi.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import sn.uasz.utilisateursapi.dtos.EnseignantDTO;
+import sn.uasz.utilisateursapi.dtos.EtudiantDTO;
+import sn.uasz.utilisateursapi.dtos.PageCurseurDTO;
+import sn.uasz.utilisateursapi.dtos.ResultatAnnuaireDTO;
+import sn.uasz.utilisateursapi.dtos.VacataireDTO;
+import sn.uasz.utilisateursapi.enums.Grade;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.exceptions.CurseurInvalideException;
+import sn.uasz.utilisateursapi.repositories.EnseignantRepository;
+import sn.uasz.utilisateursapi.repositories.EtudiantRepository;
+import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongFunction;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires de {@link AnnuaireIndexRecherche} sur un index Lucene temporaire : analyse,
+ * classement, pagination, ordre des changements et reconstruction parallèle.
+ * Hors transaction, les changements sont écrits immédiatement ; les tests rafraîchissent l'index
+ * explicitement.
+ */
+@ExtendWith(MockitoExtension.class)
+class AnnuaireIndexRechercheTest {
+
+    @Mock
+    private EnseignantRepository enseignantRepository;
+
+    @Mock
+    private EtudiantRepository etudiantRepository;
+
+    @Mock
+    private VacataireRepository vacataireRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AnnuaireIndexRecherche annuaire;
+
+    @BeforeEach
+    void setUp() {
+        annuaire = new AnnuaireIndexRecherche(enseignantRepository, etudiantRepository, vacataireRepository,
+                transactionManager, "", false, 3, 10, 200, 10_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        annuaire.arreter();
+    }
+
+    /**
+     * Recherche sans casse ni accents, par fragment, à une faute près ; un nom pèse plus qu'un
+     * lieu de naissance, et un email complet passe en tête.
+     */
+    @Test
+    void rechercher_shouldFoldAccentsAndRankByField() {
+        annuaire.enregistrer(TypeAgregat.ENSEIGNANT, 1L, 0L, enseignant(1L, "Sène", "Fatou", "fatou.sene@zig.univ.sn"));
+        annuaire.enregistrer(TypeAgregat.ETUDIANT, 2L, 0L, etudiant(2L, "Diallo", "Sene", "Sène"));
+        annuaire.enregistrer(TypeAgregat.VACATAIRE, 3L, 0L, vacataire(3L, "Ndiaye", "Informatique", "moussa.ndiaye@zig.univ.sn"));
+        annuaire.rafraichir();
+
+        List<ResultatAnnuaireDTO> sene = annuaire.rechercher("sene", null, null, null).elements();
+        assertEquals(2, sene.size());
+        assertEquals(TypeAgregat.ENSEIGNANT, sene.get(0).type());
+        assertEquals("PROFESSEUR", sene.get(0).detail());
+        assertTrue(sene.get(0).score() > sene.get(1).score());
+
+        assertEquals(3L, annuaire.rechercher("infor", null, null, null).elements().get(0).id());
+        assertEquals(3L, annuaire.rechercher("Ndiay", null, null, null).elements().get(0).id());
+        assertEquals(3L, annuaire.rechercher("Ndiyae moussa", null, null, null).elements().get(0).id());
+        assertEquals(1L, annuaire.rechercher("FATOU.SENE@zig.univ.sn", null, null, null).elements().get(0).id());
+        assertEquals(List.of(2L), annuaire.rechercher("sene", TypeAgregat.ETUDIANT, null, null).elements()
+                .stream().map(ResultatAnnuaireDTO::id).toList());
+        assertTrue(annuaire.rechercher("  ;; ", null, null, null).elements().isEmpty());
+    }
+
+    /**
+     * Un changement d'une version antérieure, validé en retard, est ignoré ; une suppression retire
+     * l'utilisateur.
+     */
+    @Test
+    void enregistrer_shouldIgnoreStaleVersionsAndApplyDeletions() {
+        annuaire.enregistrer(TypeAgregat.VACATAIRE, 3L, 2L, vacataire(3L, "Faye", "Droit", null));
+        annuaire.enregistrer(TypeAgregat.VACATAIRE, 3L, 1L, vacataire(3L, "Fall", "Droit", null));
+        annuaire.rafraichir();
+        assertEquals("Faye", annuaire.rechercher("droit", null, null, null).elements().get(0).nom());
+        assertTrue(annuaire.rechercher("fall", null, null, null).elements().isEmpty());
+
+        annuaire.enregistrer(TypeAgregat.VACATAIRE, 3L, 2L, null);
+        annuaire.rafraichir();
+        assertTrue(annuaire.rechercher("droit", null, null, null).elements().isEmpty());
+    }
+
+    /**
+     * Les pages s'enchaînent par curseur sans doublon ni oubli ; un curseur illisible est refusé.
+     */
+    @Test
+    void rechercher_shouldPageWithCursor() {
+        for (long id = 1; id <= 7; id++) {
+            annuaire.enregistrer(TypeAgregat.VACATAIRE, id, 0L, vacataire(id, "Sarr", "Gestion", null));
+        }
+        annuaire.rafraichir();
+
+        Set<Long> vus = new HashSet<>();
+        String curseur = null;
+        int pages = 0;
+        do {
+            PageCurseurDTO<ResultatAnnuaireDTO> page = annuaire.rechercher("sarr", null, curseur, 3);
+            page.elements().forEach(resultat -> assertTrue(vus.add(resultat.id())));
+            curseur = page.suivant();
+            pages++;
+        } while (curseur != null);
+        assertEquals(7, vus.size());
+        assertEquals(3, pages);
+        assertThrows(CurseurInvalideException.class, () -> annuaire.rechercher("sarr", null, "!!", 3));
+    }
+
+    /**
+     * La reconstruction lit chaque type par tranches, en parallèle, et remplace le contenu de l'index.
+     */
+    @Test
+    void reconstruire_shouldIndexAllRowsFromParallelSlices() {
+        annuaire.enregistrer(TypeAgregat.VACATAIRE, 999L, 0L, vacataire(999L, "Obsolete", "Supprime", null));
+        when(enseignantRepository.idMin()).thenReturn(1L);
+        when(enseignantRepository.idMax()).thenReturn(45L);
+        when(enseignantRepository.findPourAnnuaire(anyLong(), anyLong())).thenAnswer(invocation -> lignes(
+                invocation.getArgument(0), invocation.getArgument(1),
+                id -> new Object[]{id, 0L, "Gueye", "Enseignant" + id, "e" + id + "@zig.univ.sn", "M" + id, Grade.PROFESSEUR}));
+        when(etudiantRepository.idMin()).thenReturn(null);
+        when(etudiantRepository.idMax()).thenReturn(null);
+        when(vacataireRepository.idMin()).thenReturn(100L);
+        when(vacataireRepository.idMax()).thenReturn(104L);
+        when(vacataireRepository.findPourAnnuaire(anyLong(), anyLong())).thenAnswer(invocation -> lignes(
+                invocation.getArgument(0), invocation.getArgument(1),
+                id -> new Object[]{id, 0L, "Gueye", "Vacataire" + id, null, "Physique"}));
+
+        assertEquals(50, annuaire.reconstruire());
+
+        assertEquals(50, annuaire.rechercher("gueye", null, null, 200).elements().size());
+        assertTrue(annuaire.rechercher("obsolete", null, null, null).elements().isEmpty());
+        ResultatAnnuaireDTO matricule = annuaire.rechercher("m17", null, null, null).elements().get(0);
+        assertEquals(17L, matricule.id());
+        assertNull(annuaire.rechercher("gueye", TypeAgregat.VACATAIRE, null, 10).suivant());
+        assertNotNull(annuaire.rechercher("gueye", TypeAgregat.ENSEIGNANT, null, 10).suivant());
+    }
+
+    private static List<Object[]> lignes(long debut, long fin, LongFunction<Object[]> ligne) {
+        List<Object[]> lignes = new ArrayList<>();
+        LongStream.rangeClosed(debut, fin).forEach(id -> lignes.add(ligne.apply(id)));
+        return lignes;
+    }
+
+    private static EnseignantDTO enseignant(Long id, String nom, String prenom, String email) {
+        return new EnseignantDTO(id, nom, prenom, email, null, "ENS-" + id, Grade.PROFESSEUR, List.of(),
+                null, null, true, 0L);
+    }
+
+    private static EtudiantDTO etudiant(Long id, String nom, String prenom, String lieuNaissance) {
+        EtudiantDTO etudiant = new EtudiantDTO();
+        etudiant.setId(id);
+        etudiant.setNom(nom);
+        etudiant.setPrenom(prenom);
+        etudiant.setLieuNaissance(lieuNaissance);
+        return etudiant;
+    }
+
+    private static VacataireDTO vacataire(Long id, String nom, String specialite, String email) {
+        VacataireDTO vacataire = new VacataireDTO();
+        vacataire.setId(id);
+        vacataire.setNom(nom);
+        vacataire.setPrenom("Moussa");
+        vacataire.setEmail(email);
+        vacataire.setSpecialite(specialite);
+        return vacataire;
+    }
+}
@@ -5,17 +5,34 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import sn.uasz.utilisateursapi.dtos.EnseignantDTO;
+import sn.uasz.utilisateursapi.dtos.LotResultatDTO;
+import sn.uasz.utilisateursapi.dtos.PageCurseurDTO;
+import sn.uasz.utilisateursapi.dtos.ResultatMasseDTO;
+import sn.uasz.utilisateursapi.dtos.SelectionMasseDTO;
 import sn.uasz.utilisateursapi.entities.Enseignant;
 import sn.uasz.utilisateursapi.entities.Role;
+import sn.uasz.utilisateursapi.enums.CleUnique;
 import sn.uasz.utilisateursapi.enums.Grade;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.enums.TypeEvenement;
+import sn.uasz.utilisateursapi.enums.TypeMatricule;
 import sn.uasz.utilisateursapi.exceptions.ConflitEtatException;
+import sn.uasz.utilisateursapi.exceptions.EnseignantException;
 import sn.uasz.utilisateursapi.exceptions.EnseignantNotFoundException;
+import sn.uasz.utilisateursapi.exceptions.LotInvalideException;
+import sn.uasz.utilisateursapi.exceptions.VersionObsoleteException;
 import sn.uasz.utilisateursapi.mappers.EnseignantMapper;
 import sn.uasz.utilisateursapi.repositories.EnseignantRepository;
+import sn.uasz.utilisateursapi.utils.PaginationKeyset;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,6 +51,33 @@ class EnseignantServiceTest {
     @Mock
     private EnseignantMapper enseignantMapper;
 
+    @Mock
+    private EnseignantIndexRecherche indexRecherche;
+
+    @Mock
+    private LectureKeyset lectureKeyset;
+
+    @Mock
+    private RegistreClesUniques registreClesUniques;
+
+    @Mock
+    private AllocateurMatricules allocateurMatricules;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private JournalAudit journalAudit;
+
+    @Mock
+    private StatistiquesService statistiques;
+
+    @Mock
+    private AnnuaireIndexRecherche annuaire;
+
+    @Mock
+    private IndexAutocompletion autocompletion;
+
     @InjectMocks
     private EnseignantService enseignantService;
 
@@ -73,7 +117,8 @@ class EnseignantServiceTest {
                 List.of(role),
                 "admin",
                 LocalDate.now(),
-                true
+                true,
+                0L
         );
     }
 
@@ -91,6 +136,67 @@ class EnseignantServiceTest {
         assertNotNull(result);
         assertEquals("Diop", result.nom());
         verify(enseignantRepository).save(any());
+        verify(indexRecherche).enregistrer(enseignantDTO);
+        // Le filtre de Bloom écarte l'email : aucune requête d'existence
+        verify(enseignantRepository, never()).existsByEmail(any());
+    }
+
+    /**
+     * Test de la méthode {@code ajouterEnseignant} sans matricule : le serveur en attribue un.
+     */
+    @Test
+    void testAjouterEnseignantSansMatricule() {
+        enseignant.setMatricule("");
+        when(enseignantMapper.toEntity(any())).thenReturn(enseignant);
+        when(allocateurMatricules.allouer(TypeMatricule.ENSEIGNANT)).thenReturn("250001/D");
+        when(enseignantRepository.save(any())).thenReturn(enseignant);
+        when(enseignantMapper.toDTO(any())).thenReturn(enseignantDTO);
+
+        enseignantService.ajouterEnseignant(enseignantDTO);
+
+        assertEquals("250001/D", enseignant.getMatricule());
+        verify(allocateurMatricules).allouer(TypeMatricule.ENSEIGNANT);
+    }
+
+    /**
+     * Test de la méthode {@code ajouterEnseignant} quand le filtre de Bloom ne peut pas écarter l'email
+     * et que la base confirme qu'il est pris (doit lever une exception).
+     */
+    @Test
+    void testAjouterEnseignantEmailDejaUtilise() {
+        when(registreClesUniques.peutExister(CleUnique.ENSEIGNANT_EMAIL, enseignantDTO.email())).thenReturn(true);
+        when(enseignantRepository.existsByEmail(enseignantDTO.email())).thenReturn(true);
+
+        assertThrows(EnseignantException.class, () -> enseignantService.ajouterEnseignant(enseignantDTO));
+        verify(enseignantRepository, never()).save(any());
+    }
+
+    /**
+     * Test de la méthode {@code ajouterEnseignants} : le lot est vérifié en une requête puis sauvegardé d'un bloc.
+     */
+    @Test
+    void testAjouterEnseignants() {
+        when(registreClesUniques.existantes(eq(CleUnique.ENSEIGNANT_EMAIL), any())).thenReturn(List.of());
+        when(enseignantMapper.toEntity(any())).thenReturn(enseignant);
+        when(enseignantRepository.saveAll(any())).thenReturn(List.of(enseignant));
+        when(enseignantMapper.toDTO(any())).thenReturn(enseignantDTO);
+
+        List<EnseignantDTO> result = enseignantService.ajouterEnseignants(List.of(enseignantDTO));
+
+        assertEquals(1, result.size());
+        verify(enseignantRepository).saveAll(any());
+        verify(enseignantRepository, never()).save(any());
+    }
+
+    /**
+     * Test de la méthode {@code ajouterEnseignants} avec un email répété dans le lot (doit lever une exception).
+     */
+    @Test
+    void testAjouterEnseignantsEmailEnDouble() {
+        List<EnseignantDTO> lot = List.of(enseignantDTO, enseignantDTO);
+
+        assertThrows(EnseignantException.class, () -> enseignantService.ajouterEnseignants(lot));
+        verify(enseignantRepository, never()).saveAll(any());
     }
 
     /**
@@ -117,13 +223,32 @@ class EnseignantServiceTest {
     }
 
     /**
-     * Test de la méthode {@code supprimerEnseignant} pour vérifier que la suppression est effectuée.
+     * Test de la méthode {@code obtenirEnseignantsParIds} : une seule requête, doublons retirés,
+     * identifiants inconnus signalés sans exception.
+     */
+    @Test
+    void testObtenirEnseignantsParIds() {
+        when(enseignantRepository.findByIdIn(List.of(1L, 7L))).thenReturn(List.of(enseignant));
+        when(enseignantMapper.toDTO(enseignant)).thenReturn(enseignantDTO);
+
+        LotResultatDTO<EnseignantDTO> result = enseignantService.obtenirEnseignantsParIds(List.of(1L, 7L, 1L));
+
+        assertEquals(List.of(enseignantDTO), result.trouves());
+        assertEquals(List.of(7L), result.manquants());
+        verify(enseignantRepository, never()).findById(any());
+    }
+
+    /**
+     * Test de la méthode {@code supprimerEnseignant} pour vérifier que la suppression est effectuée
+     * et qu'un événement de suppression est écrit dans l'outbox.
      */
     @Test
     void testSupprimerEnseignant() {
-        doNothing().when(enseignantRepository).deleteById(1L);
+        when(enseignantRepository.findById(1L)).thenReturn(Optional.of(enseignant));
         enseignantService.supprimerEnseignant(1L);
-        verify(enseignantRepository).deleteById(1L);
+        verify(enseignantRepository).delete(enseignant);
+        verify(outboxService).enregistrer(eq(TypeAgregat.ENSEIGNANT), eq(1L), any(), eq(TypeEvenement.SUPPRESSION), any());
+        verify(indexRecherche).retirer(1L);
     }
 
     /**
@@ -131,9 +256,10 @@ class EnseignantServiceTest {
      */
     @Test
     void testDesactiverEnseignantDejaInactif() {
-        enseignant.setActif(false);
-        when(enseignantRepository.findById(1L)).thenReturn(Optional.of(enseignant));
+        when(enseignantRepository.modifierActif(eq(1L), eq(false), any())).thenReturn(0);
+        when(enseignantRepository.existsById(1L)).thenReturn(true);
         assertThrows(ConflitEtatException.class, () -> enseignantService.desactiverEnseignant(1L));
+        verify(enseignantRepository, never()).findById(any());
     }
 
     /**
@@ -141,46 +267,81 @@ class EnseignantServiceTest {
      */
     @Test
     void testActiverEnseignantNonExistant() {
-        when(enseignantRepository.findById(1L)).thenReturn(Optional.empty());
+        when(enseignantRepository.modifierActif(eq(1L), eq(true), any())).thenReturn(0);
+        when(enseignantRepository.existsById(1L)).thenReturn(false);
         assertThrows(EnseignantNotFoundException.class, () -> enseignantService.activerEnseignant(1L));
     }
 
     /**
-     * Test de la méthode {@code rechercherEnseignantsParNom} avec un nom existant.
+     * Test de la méthode {@code listerEnseignantsParPage} : la taille est bornée et le curseur suivant est fourni.
      */
     @Test
-    void testRechercherEnseignantsParNom() {
-        when(enseignantRepository.findByNomContainingIgnoreCase("Diop")).thenReturn(List.of(enseignant));
+    void testListerEnseignantsParPage() {
+        // Une ligne de plus que la limite : il existe une page suivante
+        List<Enseignant> lignes = new ArrayList<>(Collections.nCopies(PaginationKeyset.TAILLE_MAX, enseignant));
+        lignes.add(new Enseignant());
+        when(lectureKeyset.lire(eq(Enseignant.class), eq("nom"), any(), eq(Limit.of(PaginationKeyset.TAILLE_MAX)), eq(Map.of())))
+                .thenReturn(lignes);
         when(enseignantMapper.toDTO(any())).thenReturn(enseignantDTO);
 
+        PageCurseurDTO<EnseignantDTO> page = enseignantService.listerEnseignantsParPage(null, 10_000);
+
+        assertEquals(PaginationKeyset.TAILLE_MAX, page.elements().size());
+        assertEquals(PaginationKeyset.encoder("Diop", 1L), page.suivant());
+    }
+
+    /**
+     * Test de la méthode {@code rechercherEnseignantsParNom} : réponse servie par l'index en mémoire.
+     */
+    @Test
+    void testRechercherEnseignantsParNom() {
+        when(indexRecherche.rechercher("Diop")).thenReturn(Optional.of(List.of(enseignantDTO)));
+
         List<EnseignantDTO> result = enseignantService.rechercherEnseignantsParNom("Diop");
 
         assertEquals(1, result.size());
         assertEquals("Diop", result.get(0).nom());
-        verify(enseignantRepository).findByNomContainingIgnoreCase("Diop");
+        verifyNoInteractions(enseignantRepository);
+    }
+
+    /**
+     * Test de la méthode {@code rechercherEnseignantsParNom} pendant la construction de l'index :
+     * la recherche est déléguée à la base.
+     */
+    @Test
+    void testRechercherEnseignantsParNom_indexEnConstruction() {
+        when(indexRecherche.rechercher("Diop")).thenReturn(Optional.empty());
+        when(enseignantRepository.findByNomContainingIgnoreCaseOrPrenomContainingIgnoreCase("Diop", "Diop"))
+                .thenReturn(List.of(enseignant));
+        when(enseignantMapper.toDTO(any())).thenReturn(enseignantDTO);
+
+        List<EnseignantDTO> result = enseignantService.rechercherEnseignantsParNom("Diop");
+
+        assertEquals(1, result.size());
+        verify(enseignantRepository).findByNomContainingIgnoreCaseOrPrenomContainingIgnoreCase("Diop", "Diop");
     }
 
     /**
-     * Test de la méthode {@code modifierEnseignant} pour vérifier la mise à jour des données.
+     * Test de la méthode {@code modifierEnseignant} pour vérifier la mise à jour des données :
+     * l'entité chargée est modifiée puis écrite par le flush, sans appel à {@code save}.
      */
     @Test
     void testModifierEnseignant() {
+        Enseignant valeurs = new Enseignant();
+        valeurs.setNom("Ndiaye");
+        valeurs.setPrenom("Awa");
+        valeurs.setEmail("awa.ndiaye@example.com");
         when(enseignantRepository.findById(1L)).thenReturn(Optional.of(enseignant));
-        doAnswer(invocation -> {
-            EnseignantDTO dto = invocation.getArgument(0);
-            Enseignant target = invocation.getArgument(1);
-            target.setNom(dto.nom());
-            target.setPrenom(dto.prenom());
-            return null;
-        }).when(enseignantMapper).updateEnseignantFromDTO(any(), any());
-
-        when(enseignantRepository.save(any())).thenReturn(enseignant);
+        when(enseignantMapper.toEntity(enseignantDTO)).thenReturn(valeurs);
         when(enseignantMapper.toDTO(any())).thenReturn(enseignantDTO);
 
-        EnseignantDTO result = enseignantService.modifierEnseignant(1L, enseignantDTO);
+        EnseignantDTO result = enseignantService.modifierEnseignant(1L, enseignantDTO, 0L);
 
         assertNotNull(result);
-        assertEquals("Diop", result.nom());
+        assertEquals("Ndiaye", enseignant.getNom());
+        assertEquals("awa.ndiaye@example.com", enseignant.getEmail());
+        verify(enseignantRepository).flush();
+        verify(enseignantRepository, never()).save(any());
     }
 
     /**
@@ -189,7 +350,34 @@ class EnseignantServiceTest {
     @Test
     void testModifierEnseignantNonExistant() {
         when(enseignantRepository.findById(1L)).thenReturn(Optional.empty());
-        assertThrows(RuntimeException.class, () -> enseignantService.modifierEnseignant(1L, enseignantDTO));
+        assertThrows(EnseignantNotFoundException.class, () -> enseignantService.modifierEnseignant(1L, enseignantDTO, 0L));
+        verify(enseignantRepository, never()).flush();
+    }
+
+    /**
+     * Test de la méthode {@code modifierEnseignant} avec une version obsolète : l'enseignant a été
+     * modifié par un autre client, sa version ne correspond plus et rien n'est écrit.
+     */
+    @Test
+    void testModifierEnseignantVersionObsolete() {
+        enseignant.setVersion(3);
+        when(enseignantRepository.findById(1L)).thenReturn(Optional.of(enseignant));
+        assertThrows(VersionObsoleteException.class, () -> enseignantService.modifierEnseignant(1L, enseignantDTO, 0L));
+        verify(enseignantRepository, never()).flush();
+    }
+
+    /**
+     * Test de la méthode {@code modifierEnseignant} quand une autre transaction modifie
+     * l'enseignant entre la lecture et le flush : le conflit de version devient une version obsolète.
+     */
+    @Test
+    void testModifierEnseignantConflitAuFlush() {
+        when(enseignantRepository.findById(1L)).thenReturn(Optional.of(enseignant));
+        when(enseignantMapper.toEntity(enseignantDTO)).thenReturn(new Enseignant());
+        doThrow(new ObjectOptimisticLockingFailureException(Enseignant.class, 1L)).when(enseignantRepository).flush();
+
+        assertThrows(VersionObsoleteException.class, () -> enseignantService.modifierEnseignant(1L, enseignantDTO, 0L));
+        verify(enseignantMapper, never()).toDTO(any());
     }
 
     /**
@@ -197,15 +385,15 @@ class EnseignantServiceTest {
      */
     @Test
     void testActiverEnseignant() throws EnseignantNotFoundException {
-        enseignant.setActif(false);
+        when(enseignantRepository.modifierActif(eq(1L), eq(true), any())).thenReturn(1);
         when(enseignantRepository.findById(1L)).thenReturn(Optional.of(enseignant));
-        when(enseignantRepository.save(any())).thenReturn(enseignant);
         when(enseignantMapper.toDTO(any())).thenReturn(enseignantDTO);
 
         EnseignantDTO result = enseignantService.activerEnseignant(1L);
 
         assertTrue(result.actif());
-        verify(enseignantRepository).save(any());
+        verify(enseignantRepository, never()).save(any());
+        verify(enseignantRepository, never()).existsById(any());
     }
 
     /**
@@ -213,9 +401,8 @@ class EnseignantServiceTest {
      */
     @Test
     void testDesactiverEnseignant() throws EnseignantNotFoundException {
-        enseignant.setActif(true);
+        when(enseignantRepository.modifierActif(eq(1L), eq(false), any())).thenReturn(1);
         when(enseignantRepository.findById(1L)).thenReturn(Optional.of(enseignant));
-        when(enseignantRepository.save(any())).thenReturn(enseignant);
 
         EnseignantDTO enseignantDesactive = new EnseignantDTO(
                 enseignant.getId(),
@@ -228,7 +415,8 @@ class EnseignantServiceTest {
                 enseignantDTO.roles(),
                 enseignant.getCreateBy(),
                 enseignant.getCreateAt(),
-                false
+                false,
+                1L
         );
 
         when(enseignantMapper.toDTO(any())).thenReturn(enseignantDesactive);
@@ -236,6 +424,39 @@ class EnseignantServiceTest {
         EnseignantDTO result = enseignantService.desactiverEnseignant(1L);
 
         assertFalse(result.actif());
-        verify(enseignantRepository).save(any());
+        verify(enseignantRepository, never()).save(any());
+    }
+
+    /**
+     * Test de la désactivation en masse par grade : sélection des identifiants à modifier, une seule
+     * requête UPDATE sur ces identifiants, puis relecture par identifiant pour l'outbox et l'index de recherche.
+     */
+    @Test
+    void testModifierActifEnMasseParGrade() {
+        Enseignant autre = new Enseignant();
+        autre.setId(2L);
+        when(enseignantRepository.findIdsAModifierParGrade(Grade.VACATAIRE, false)).thenReturn(List.of(1L, 2L));
+        when(enseignantRepository.modifierActifParIds(eq(List.of(1L, 2L)), eq(false), any())).thenReturn(2);
+        when(enseignantRepository.findByIdIn(List.of(1L, 2L))).thenReturn(List.of(enseignant, autre));
+        when(enseignantMapper.toDTO(any())).thenReturn(enseignantDTO);
+
+        ResultatMasseDTO resultat = enseignantService.modifierActifEnMasse(false,
+                new SelectionMasseDTO(null, null, Grade.VACATAIRE));
+
+        assertEquals(2, resultat.lignesModifiees());
+        verify(outboxService, times(2)).enregistrer(eq(TypeAgregat.ENSEIGNANT), any(), any(),
+                eq(TypeEvenement.DESACTIVATION), any());
+        verify(indexRecherche).relire(List.of(1L, 2L));
+        verify(enseignantRepository, never()).save(any());
+    }
+
+    /**
+     * Test de l'activation en masse sans sélection : refusée pour ne pas modifier toute la table.
+     */
+    @Test
+    void testModifierActifEnMasseSansSelection() {
+        assertThrows(LotInvalideException.class, () -> enseignantService.modifierActifEnMasse(true,
+                new SelectionMasseDTO(null, null, null)));
+        verifyNoInteractions(enseignantRepository);
     }
 }
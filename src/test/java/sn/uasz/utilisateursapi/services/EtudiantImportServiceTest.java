@@ -0,0 +1,262 @@
+package sn.uasz.utilisateursapi.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import sn.uasz.utilisateursapi.dtos.EtudiantDTO;
+import sn.uasz.utilisateursapi.dtos.RapportImportDTO;
+import sn.uasz.utilisateursapi.entities.Etudiant;
+import sn.uasz.utilisateursapi.exceptions.EtudiantException;
+import sn.uasz.utilisateursapi.repositories.EnseignantRepository;
+import sn.uasz.utilisateursapi.repositories.EtudiantRepository;
+import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires du service d'import en masse des étudiants.
+ */
+@ExtendWith(MockitoExtension.class)
+class EtudiantImportServiceTest {
+
+    @Mock
+    private EtudiantRepository etudiantRepository;
+
+    @Mock
+    private EtudiantService etudiantService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private EtudiantImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        // Registre réel dont les filtres ne sont pas construits : toutes les vérifications vont en base
+        RegistreClesUniques registreClesUniques = new RegistreClesUniques(mock(EnseignantRepository.class),
+                etudiantRepository, mock(VacataireRepository.class), transactionManager, 1000, 0.01);
+        importService = new EtudiantImportService(etudiantRepository, etudiantService, registreClesUniques,
+                validator, transactionManager, 2);
+        ReflectionTestUtils.setField(importService, "entityManager", entityManager);
+
+        lenient().when(etudiantService.preparerNouvelEtudiant(any(EtudiantDTO.class), anyString()))
+                .thenAnswer(invocation -> {
+                    EtudiantDTO dto = invocation.getArgument(0);
+                    Etudiant etudiant = new Etudiant();
+                    etudiant.setNom(dto.getNom());
+                    etudiant.setMatricule(dto.getMatricule());
+                    etudiant.setEmail(invocation.getArgument(1));
+                    return etudiant;
+                });
+        lenient().when(etudiantRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Etudiant> etudiants = invocation.getArgument(0);
+            etudiants.forEach(e -> e.setId(sequence.incrementAndGet()));
+            return new ArrayList<>(etudiants);
+        });
+    }
+
+    private static EtudiantDTO etudiant(String nom, String prenom, String matricule) {
+        EtudiantDTO dto = new EtudiantDTO();
+        dto.setNom(nom);
+        dto.setPrenom(prenom);
+        dto.setMatricule(matricule);
+        dto.setDateNaissance(LocalDate.of(2001, 3, 12));
+        dto.setLieuNaissance("Ziguinchor");
+        return dto;
+    }
+
+    /**
+     * Les lignes valides sont insérées par paquets et reçoivent chacune un identifiant et un email.
+     */
+    @Test
+    void importer_shouldInsertValidRowsInChunks() {
+        when(etudiantService.genererEmail(anyString(), anyString()))
+                .thenReturn("diattaaa1@zig.univ.sn", "sarrbs2@zig.univ.sn", "faye3@zig.univ.sn");
+
+        RapportImportDTO rapport = importService.importer(List.of(
+                etudiant("Diatta", "Awa", "M1"),
+                etudiant("Sarr", "Bineta", "M2"),
+                etudiant("Faye", "Moussa", "M3")));
+
+        assertEquals(3, rapport.total());
+        assertEquals(3, rapport.succes());
+        assertEquals(0, rapport.echecs());
+        assertTrue(rapport.lignes().stream().allMatch(l -> l.id() != null && l.erreurs().isEmpty()));
+        assertEquals("sarrbs2@zig.univ.sn", rapport.lignes().get(1).email());
+        assertTrue(rapport.lignesParSeconde() > 0);
+        // taille de paquet = 2 → deux transactions, chacune écrite puis vidée avant sa validation
+        verify(etudiantRepository, times(2)).saveAll(anyList());
+        InOrder ordre = inOrder(etudiantRepository, entityManager, transactionManager);
+        for (int paquet = 0; paquet < 2; paquet++) {
+            ordre.verify(etudiantRepository).saveAll(anyList());
+            ordre.verify(etudiantRepository).flush();
+            ordre.verify(entityManager).clear();
+            ordre.verify(transactionManager).commit(any());
+        }
+    }
+
+    /**
+     * Une ligne invalide ou un matricule en double est rejeté sans bloquer les autres lignes.
+     */
+    @Test
+    void importer_shouldReportInvalidAndDuplicateRows() {
+        when(etudiantRepository.findMatriculesExistants(any())).thenReturn(List.of("M9"));
+        when(etudiantService.genererEmail(anyString(), anyString())).thenReturn("diattaaa1@zig.univ.sn");
+
+        EtudiantDTO sansNom = etudiant("", "Awa", "M2");
+        RapportImportDTO rapport = importService.importer(List.of(
+                etudiant("Diatta", "Awa", "M1"),
+                sansNom,
+                etudiant("Sarr", "Bineta", "M1"),
+                etudiant("Faye", "Moussa", "M9")));
+
+        assertEquals(1, rapport.succes());
+        assertEquals(3, rapport.echecs());
+        assertTrue(rapport.lignes().get(0).succes());
+        assertFalse(rapport.lignes().get(1).erreurs().isEmpty());
+        assertTrue(rapport.lignes().get(2).erreurs().get(0).contains("ligne 1"));
+        assertTrue(rapport.lignes().get(3).erreurs().get(0).contains("déjà utilisé"));
+    }
+
+    /**
+     * Deux lignes homonymes ne reçoivent jamais le même email, et un email déjà en base est régénéré.
+     */
+    @Test
+    void importer_shouldAllocateCollisionFreeEmails() {
+        when(etudiantService.genererEmail(anyString(), anyString()))
+                .thenReturn("ndiayemn1@zig.univ.sn", "ndiayemn1@zig.univ.sn", "ndiayemn2@zig.univ.sn", "ndiayemn3@zig.univ.sn");
+        when(etudiantRepository.findEmailsExistants(any()))
+                .thenAnswer(invocation -> {
+                    List<String> emails = new ArrayList<>(invocation.getArgument(0));
+                    return emails.contains("ndiayemn2@zig.univ.sn") ? List.of("ndiayemn2@zig.univ.sn") : List.of();
+                });
+
+        RapportImportDTO rapport = importService.importer(List.of(
+                etudiant("Ndiaye", "Mamadou", "M1"),
+                etudiant("Ndiaye", "Mariama", "M2")));
+
+        assertEquals(2, rapport.succes());
+        assertEquals("ndiayemn1@zig.univ.sn", rapport.lignes().get(0).email());
+        assertEquals("ndiayemn3@zig.univ.sn", rapport.lignes().get(1).email());
+    }
+
+    /**
+     * Si un paquet échoue, ses lignes sont rejouées une à une et seule la fautive est rejetée.
+     */
+    @Test
+    void importer_shouldRetryRowByRowWhenChunkFails() {
+        when(etudiantService.genererEmail(anyString(), anyString()))
+                .thenReturn("diattaaa1@zig.univ.sn", "sarrbs2@zig.univ.sn");
+        when(etudiantRepository.saveAll(anyList())).thenThrow(new IllegalStateException("contrainte violée"));
+        when(etudiantRepository.save(any(Etudiant.class))).thenAnswer(invocation -> {
+            Etudiant e = invocation.getArgument(0);
+            if ("M2".equals(e.getMatricule())) {
+                throw new IllegalStateException("contrainte violée");
+            }
+            e.setId(42L);
+            return e;
+        });
+
+        RapportImportDTO rapport = importService.importer(List.of(
+                etudiant("Diatta", "Awa", "M1"),
+                etudiant("Sarr", "Bineta", "M2")));
+
+        assertEquals(1, rapport.succes());
+        assertEquals(42L, rapport.lignes().get(0).id());
+        assertTrue(rapport.lignes().get(1).erreurs().get(0).startsWith("Échec de l'insertion"));
+    }
+
+    /**
+     * Le CSV est lu d'après son en-tête ; les dates mal formées sont signalées sur leur ligne.
+     */
+    @Test
+    void importerCsv_shouldParseHeaderAndReportBadDates() {
+        when(etudiantService.genererEmail(anyString(), anyString())).thenReturn("diattaaa1@zig.univ.sn");
+        String csv = """
+                matricule;nom;prenom;dateNaissance;lieuNaissance
+                M1;Diatta;Awa;12/03/2001;Ziguinchor
+
+                M2;"Sarr";Bineta;2001-13-45;Dakar
+                """;
+
+        RapportImportDTO rapport = importService.importerCsv(new StringReader(csv));
+
+        assertEquals(2, rapport.total());
+        assertEquals(1, rapport.succes());
+        assertTrue(rapport.lignes().get(1).erreurs().contains("Date de naissance illisible : 2001-13-45"));
+    }
+
+    /**
+     * Les champs CSV entre guillemets peuvent contenir le séparateur, des guillemets doublés
+     * et des sauts de ligne (RFC 4180).
+     */
+    @Test
+    void importerCsv_shouldHandleQuotedFields() {
+        when(etudiantService.genererEmail(anyString(), anyString()))
+                .thenReturn("baa1@zig.univ.sn", "sarrbs2@zig.univ.sn");
+        String csv = """
+                nom,prenom,matricule,dateNaissance,lieuNaissance
+                "Ba, Aminata",Awa,M1,2001-03-12,"Ziguinchor, ""Boucotte""\"
+                Sarr,Bineta,M2,12/03/2001,"Oussouye
+                Kagnout"
+                """;
+
+        RapportImportDTO rapport = importService.importerCsv(new StringReader(csv));
+
+        assertEquals(2, rapport.total());
+        assertEquals(2, rapport.succes());
+        ArgumentCaptor<EtudiantDTO> lignes = ArgumentCaptor.forClass(EtudiantDTO.class);
+        verify(etudiantService, times(2)).preparerNouvelEtudiant(lignes.capture(), anyString());
+        assertEquals("Ba, Aminata", lignes.getAllValues().get(0).getNom());
+        assertEquals("M1", lignes.getAllValues().get(0).getMatricule());
+        assertEquals("Ziguinchor, \"Boucotte\"", lignes.getAllValues().get(0).getLieuNaissance());
+        assertEquals("Oussouye\nKagnout", lignes.getAllValues().get(1).getLieuNaissance());
+    }
+
+    /**
+     * Un champ entre guillemets jamais refermé rend le CSV illisible.
+     */
+    @Test
+    void importerCsv_shouldRejectUnterminatedQuote() {
+        StringReader csv = new StringReader("nom;prenom;matricule;dateNaissance;lieuNaissance\n\"Ba;Awa;M1;2001-03-12;Dakar\n");
+
+        assertThrows(EtudiantException.class, () -> importService.importerCsv(csv));
+        verifyNoInteractions(etudiantRepository);
+    }
+
+    /**
+     * Un CSV sans les colonnes attendues est refusé d'emblée.
+     */
+    @Test
+    void importerCsv_shouldRejectMissingColumns() {
+        StringReader csv = new StringReader("nom,prenom\nDiatta,Awa\n");
+
+        assertThrows(EtudiantException.class, () -> importService.importerCsv(csv));
+        verifyNoInteractions(etudiantRepository);
+    }
+}
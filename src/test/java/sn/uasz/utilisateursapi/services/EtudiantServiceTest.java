@@ -6,9 +6,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import sn.uasz.utilisateursapi.dtos.EtudiantDTO;
 import sn.uasz.utilisateursapi.entities.Etudiant;
+import sn.uasz.utilisateursapi.enums.CleUnique;
+import sn.uasz.utilisateursapi.enums.TypeMatricule;
+import sn.uasz.utilisateursapi.exceptions.ConflitEtatException;
+import sn.uasz.utilisateursapi.exceptions.EtudiantException;
 import sn.uasz.utilisateursapi.exceptions.EtudiantNotFoundException;
+import sn.uasz.utilisateursapi.exceptions.VersionObsoleteException;
 import sn.uasz.utilisateursapi.mappers.EtudiantMapper;
 import sn.uasz.utilisateursapi.repositories.EtudiantRepository;
 
@@ -21,6 +27,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -38,6 +45,30 @@ class EtudiantServiceTest {
     @Mock
     private EntityManager entityManager; // Mock de l'EntityManager (non utilisé dans les tests)
 
+    @Mock
+    private RegistreClesUniques registreClesUniques; // Filtres de Bloom (aucune clé connue par défaut)
+
+    @Mock
+    private AllocateurEmails allocateurEmails; // Attribution des emails
+
+    @Mock
+    private AllocateurMatricules allocateurMatricules; // Attribution des matricules laissés vides
+
+    @Mock
+    private OutboxService outboxService; // Événements de changement (outbox)
+
+    @Mock
+    private JournalAudit journalAudit; // Journal d'audit
+
+    @Mock
+    private StatistiquesService statistiques; // Compteurs des statistiques
+
+    @Mock
+    private AnnuaireIndexRecherche annuaire; // Index de l'annuaire
+
+    @Mock
+    private IndexAutocompletion autocompletion; // Autocomplétion
+
     @InjectMocks
     private EtudiantService etudiantService; // Service à tester
 
@@ -90,6 +121,41 @@ class EtudiantServiceTest {
         verify(etudiantMapper, times(1)).toEntity(any(EtudiantDTO.class));
         verify(etudiantRepository, times(1)).save(any(Etudiant.class));
         verify(etudiantMapper, times(1)).toDTO(any(Etudiant.class));
+        verify(etudiantRepository, never()).findMatriculesExistants(any());
+    }
+
+    /**
+     * Test de la méthode ajouterEtudiant sans matricule : le serveur attribue le premier numéro libre.
+     */
+    @Test
+    void ajouterEtudiant_withoutMatricule_shouldAllocateOne() {
+        etudiantDTO.setMatricule(" ");
+        when(allocateurMatricules.allouer(TypeMatricule.ETUDIANT)).thenReturn("202500001", "202500002");
+        // 202500001 a été saisi à la main : il est sauté
+        when(registreClesUniques.peutExister(eq(CleUnique.ETUDIANT_MATRICULE), any())).thenReturn(true);
+        when(etudiantRepository.findMatriculesExistants(List.of("202500001"))).thenReturn(List.of("202500001"));
+        when(etudiantRepository.findMatriculesExistants(List.of("202500002"))).thenReturn(List.of());
+        when(etudiantMapper.toEntity(any(EtudiantDTO.class))).thenReturn(etudiant);
+        when(etudiantRepository.save(any(Etudiant.class))).thenReturn(etudiant);
+        when(etudiantMapper.toDTO(any(Etudiant.class))).thenReturn(etudiantDTO);
+
+        etudiantService.ajouterEtudiant(etudiantDTO);
+
+        assertEquals("202500002", etudiantDTO.getMatricule());
+        verify(allocateurMatricules, times(2)).allouer(TypeMatricule.ETUDIANT);
+    }
+
+    /**
+     * Test de la méthode ajouterEtudiant avec un matricule déjà attribué : doit lever une exception.
+     */
+    @Test
+    void ajouterEtudiant_whenMatriculeExists_shouldThrowException() {
+        when(registreClesUniques.peutExister(CleUnique.ETUDIANT_MATRICULE, etudiantDTO.getMatricule())).thenReturn(true);
+        when(etudiantRepository.findMatriculesExistants(List.of(etudiantDTO.getMatricule())))
+                .thenReturn(List.of(etudiantDTO.getMatricule()));
+
+        assertThrows(EtudiantException.class, () -> etudiantService.ajouterEtudiant(etudiantDTO));
+        verify(etudiantRepository, never()).save(any(Etudiant.class));
     }
 
     /**
@@ -99,7 +165,59 @@ class EtudiantServiceTest {
     void modifierEtudiant_shouldThrowExceptionWhenEtudiantNotFound() {
         when(etudiantRepository.findById(1L)).thenReturn(Optional.empty());
 
-        assertThrows(EtudiantNotFoundException.class, () -> etudiantService.modifierEtudiant(1, etudiantDTO));
+        assertThrows(EtudiantNotFoundException.class, () -> etudiantService.modifierEtudiant(1, etudiantDTO, null));
+        verify(etudiantRepository, never()).flush();
+    }
+
+    /**
+     * Test de la méthode modifierEtudiant : une version attendue obsolète est refusée
+     * avant toute modification de l'entité chargée.
+     */
+    @Test
+    void modifierEtudiant_shouldThrowWhenVersionIsStale() {
+        etudiant.setVersion(3);
+        when(etudiantRepository.findById(1L)).thenReturn(Optional.of(etudiant));
+
+        assertThrows(VersionObsoleteException.class, () -> etudiantService.modifierEtudiant(1, etudiantDTO, 2L));
+        assertEquals("Dupont", etudiant.getNom());
+        verify(etudiantRepository, never()).flush();
+        verify(etudiantRepository, never()).save(any(Etudiant.class));
+    }
+
+    /**
+     * Test de la méthode modifierEtudiant : une modification concurrente détectée au flush
+     * est signalée comme un conflit quand aucune version n'était attendue.
+     */
+    @Test
+    void modifierEtudiant_shouldThrowConflictWhenFlushFails() {
+        etudiant.setEmail("dupontjd7@zig.univ.sn");
+        when(etudiantRepository.findById(1L)).thenReturn(Optional.of(etudiant));
+        when(etudiantMapper.toEntity(etudiantDTO)).thenReturn(new Etudiant());
+        doThrow(new ObjectOptimisticLockingFailureException(Etudiant.class, 1L)).when(etudiantRepository).flush();
+
+        assertThrows(ConflitEtatException.class, () -> etudiantService.modifierEtudiant(1, etudiantDTO, null));
+    }
+
+    /**
+     * Test de la méthode modifierEtudiant : l'email est conservé si le nom et les initiales ne changent pas.
+     */
+    @Test
+    void modifierEtudiant_shouldKeepEmailWhenNameUnchanged() {
+        etudiant.setEmail("dupontjd7@zig.univ.sn");
+        etudiant.setVersion(2);
+        Etudiant valeurs = new Etudiant();
+        valeurs.setNom(etudiantDTO.getNom());
+        valeurs.setPrenom(etudiantDTO.getPrenom());
+        when(etudiantRepository.findById(1L)).thenReturn(Optional.of(etudiant));
+        when(etudiantMapper.toEntity(etudiantDTO)).thenReturn(valeurs);
+        when(etudiantMapper.toDTO(etudiant)).thenReturn(etudiantDTO);
+
+        etudiantService.modifierEtudiant(1, etudiantDTO, 2L);
+
+        assertEquals("dupontjd7@zig.univ.sn", etudiant.getEmail());
+        assertEquals("202202898", etudiant.getMatricule());
+        verify(allocateurEmails, never()).allouer(any(), any());
+        verify(etudiantRepository).flush();
     }
 
     /**
@@ -178,6 +296,8 @@ class EtudiantServiceTest {
      */
     @Test
     void genererEmail_shouldGenerateValidEmail() {
+        when(allocateurEmails.allouer("Dupont", "Jean")).thenReturn("dupontjd1@zig.univ.sn");
+
         String email = etudiantService.genererEmail("Dupont", "Jean");
 
         assertNotNull(email);
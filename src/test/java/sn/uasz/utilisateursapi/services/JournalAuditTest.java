@@ -0,0 +1,136 @@
+package sn.uasz.utilisateursapi.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import sn.uasz.utilisateursapi.entities.EntreeAudit;
+import sn.uasz.utilisateursapi.enums.PolitiqueDebordement;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.enums.TypeEvenement;
+import sn.uasz.utilisateursapi.repositories.EntreeAuditRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires de {@link JournalAudit} : calcul des modifications et politiques de débordement.
+ * Le thread d'écriture n'est pas démarré ; les tests écrivent la file explicitement.
+ */
+@ExtendWith(MockitoExtension.class)
+class JournalAuditTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private EntreeAuditRepository entreeAuditRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Les modifications sont calculées par rapport à l'état de l'entrée précédente, relu dans le
+     * journal la première fois puis gardé en mémoire ; la version n'y figure pas.
+     */
+    @Test
+    void ecrireEnAttente_shouldRecordFieldDiffsAgainstPreviousState() throws Exception {
+        JournalAudit journal = journal(10, PolitiqueDebordement.REJETER);
+        when(entreeAuditRepository.trouverDernierEtat(TypeAgregat.VACATAIRE, 7L))
+                .thenReturn(Optional.of("{\"id\":7,\"nom\":\"Ndiaye\",\"actif\":true,\"version\":2}"));
+
+        journal.enregistrer(TypeAgregat.VACATAIRE, 7L, 3L, TypeEvenement.MODIFICATION,
+                Map.of("id", 7, "nom", "Sarr", "actif", true, "version", 3));
+        journal.enregistrer(TypeAgregat.VACATAIRE, 7L, 4L, TypeEvenement.DESACTIVATION,
+                Map.of("id", 7, "nom", "Sarr", "actif", false, "version", 4));
+        journal.enregistrer(TypeAgregat.VACATAIRE, 7L, 4L, TypeEvenement.SUPPRESSION, null);
+        assertEquals(3, journal.ecrireEnAttente());
+
+        List<EntreeAudit> entrees = ecrites();
+        assertEquals(objectMapper.readTree("{\"nom\":{\"avant\":\"Ndiaye\",\"apres\":\"Sarr\"}}"),
+                objectMapper.readTree(entrees.get(0).getModifications()));
+        assertEquals(objectMapper.readTree("{\"actif\":{\"avant\":true,\"apres\":false}}"),
+                objectMapper.readTree(entrees.get(1).getModifications()));
+        JsonNode suppression = objectMapper.readTree(entrees.get(2).getModifications());
+        assertEquals("Sarr", suppression.path("nom").path("avant").asText());
+        assertTrue(suppression.path("nom").path("apres").isNull());
+        assertNull(entrees.get(2).getEtat());
+        assertEquals(JournalAudit.AUTEUR_SYSTEME, entrees.get(0).getAuteur());
+        // État précédent relu une seule fois, puis tenu en mémoire
+        verify(entreeAuditRepository, times(1)).trouverDernierEtat(any(), any());
+    }
+
+    /**
+     * Politique REJETER : la nouvelle entrée est écartée et comptée.
+     */
+    @Test
+    void deposer_rejeter_shouldDropNewestAndCount() {
+        JournalAudit journal = journal(2, PolitiqueDebordement.REJETER);
+        SimpleMeterRegistry registre = new SimpleMeterRegistry();
+        journal.bindTo(registre);
+
+        for (long id = 1; id <= 3; id++) {
+            journal.enregistrer(TypeAgregat.ROLE, id, 0L, TypeEvenement.CREATION, Map.of("id", id));
+        }
+        journal.ecrireEnAttente();
+
+        assertEquals(List.of(1L, 2L), ecrites().stream().map(EntreeAudit::getIdEntite).toList());
+        assertEquals(1.0, registre.get("audit.entrees").tag("issue", "ecartee").functionCounter().count());
+        assertEquals(2.0, registre.get("audit.entrees").tag("issue", "ecrite").functionCounter().count());
+    }
+
+    /**
+     * Politique ECARTER_ANCIENNE : les entrées les plus anciennes cèdent la place aux nouvelles.
+     */
+    @Test
+    void deposer_ecarterAncienne_shouldKeepNewest() {
+        JournalAudit journal = journal(2, PolitiqueDebordement.ECARTER_ANCIENNE);
+
+        for (long id = 1; id <= 3; id++) {
+            journal.enregistrer(TypeAgregat.ROLE, id, 0L, TypeEvenement.CREATION, Map.of("id", id));
+        }
+        journal.ecrireEnAttente();
+
+        assertEquals(List.of(2L, 3L), ecrites().stream().map(EntreeAudit::getIdEntite).toList());
+    }
+
+    /**
+     * Politique ATTENDRE : sans écriture pour libérer la file, la nouvelle entrée est écartée après l'attente maximale.
+     */
+    @Test
+    void deposer_attendre_shouldGiveUpAfterMaxWait() {
+        JournalAudit journal = journal(1, PolitiqueDebordement.ATTENDRE);
+
+        journal.enregistrer(TypeAgregat.ROLE, 1L, 0L, TypeEvenement.CREATION, Map.of("id", 1));
+        long debut = System.nanoTime();
+        journal.enregistrer(TypeAgregat.ROLE, 2L, 0L, TypeEvenement.CREATION, Map.of("id", 2));
+
+        assertTrue(System.nanoTime() - debut >= 20_000_000L);
+        journal.ecrireEnAttente();
+        assertEquals(List.of(1L), ecrites().stream().map(EntreeAudit::getIdEntite).toList());
+    }
+
+    private JournalAudit journal(int capacite, PolitiqueDebordement politique) {
+        return new JournalAudit(entreeAuditRepository, objectMapper, transactionManager,
+                capacite, politique, 20, 100, 3_600_000, 100);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EntreeAudit> ecrites() {
+        ArgumentCaptor<List<EntreeAudit>> lots = ArgumentCaptor.forClass(List.class);
+        verify(entreeAuditRepository, atLeastOnce()).saveAll(lots.capture());
+        List<EntreeAudit> entrees = new ArrayList<>();
+        lots.getAllValues().forEach(entrees::addAll);
+        return entrees;
+    }
+}
@@ -0,0 +1,99 @@
+package sn.uasz.utilisateursapi.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import sn.uasz.utilisateursapi.dtos.EnseignantDTO;
+import sn.uasz.utilisateursapi.dtos.PageCurseurDTO;
+import sn.uasz.utilisateursapi.entities.Enseignant;
+import sn.uasz.utilisateursapi.repositories.EnseignantRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration de la pagination keyset lorsque la clé de tri est nulle, sur la base H2 de test.
+ */
+@SpringBootTest
+class LectureKeysetTest {
+
+    @Autowired
+    private EnseignantService enseignantService;
+
+    @Autowired
+    private ProjectionService projectionService;
+
+    @Autowired
+    private EnseignantRepository enseignantRepository;
+
+    private final List<Enseignant> crees = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        List<Enseignant> enseignants = new ArrayList<>();
+        for (String nom : Arrays.asList(null, "Aakeyset", null, "Aakeyset", null, "Abkeyset", null)) {
+            enseignants.add(Enseignant.builder().nom(nom).prenom("Keyset").build());
+        }
+        crees.addAll(enseignantRepository.saveAll(enseignants));
+    }
+
+    @AfterEach
+    void tearDown() {
+        enseignantRepository.deleteAll(crees);
+    }
+
+    /**
+     * Parcourue par petites pages, la liste renvoie chaque enseignant une seule fois, noms nuls
+     * compris : d'abord les noms nuls par identifiant, puis les noms non nuls.
+     */
+    @Test
+    void listerEnseignantsParPage_shouldVisitNullNamesOnce() {
+        List<Long> vus = new ArrayList<>();
+        String curseur = null;
+        do {
+            PageCurseurDTO<EnseignantDTO> page = enseignantService.listerEnseignantsParPage(curseur, 2);
+            page.elements().forEach(e -> vus.add(e.id()));
+            curseur = page.suivant();
+        } while (curseur != null);
+
+        verifierParcours(vus);
+    }
+
+    /**
+     * Les projections suivent le même parcours et partagent les mêmes curseurs.
+     */
+    @Test
+    void projection_shouldVisitNullNamesOnce() {
+        List<Long> vus = new ArrayList<>();
+        String curseur = null;
+        do {
+            PageCurseurDTO<Map<String, Object>> page = projectionService.page(Enseignant.class, List.of("id"),
+                    "nom", curseur, 3, Map.of());
+            page.elements().forEach(ligne -> vus.add((Long) ligne.get("id")));
+            curseur = page.suivant();
+        } while (curseur != null);
+
+        verifierParcours(vus);
+    }
+
+    private void verifierParcours(List<Long> vus) {
+        assertEquals(vus.size(), new HashSet<>(vus).size(), "enseignant renvoyé deux fois");
+        Set<Long> attendus = new HashSet<>();
+        crees.forEach(e -> attendus.add(e.getId()));
+        assertTrue(vus.containsAll(attendus), "enseignant sauté");
+
+        List<Long> ordre = vus.stream().filter(attendus::contains).toList();
+        List<Long> nuls = crees.stream().filter(e -> e.getNom() == null).map(Enseignant::getId).toList();
+        assertEquals(nuls, ordre.subList(0, nuls.size()));
+        assertEquals(List.of(crees.get(1).getId(), crees.get(3).getId(), crees.get(5).getId()),
+                ordre.subList(nuls.size(), ordre.size()));
+    }
+}
@@ -0,0 +1,102 @@
+package sn.uasz.utilisateursapi.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import sn.uasz.utilisateursapi.dtos.PageCurseurDTO;
+import sn.uasz.utilisateursapi.entities.Vacataire;
+import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration de {@link ProjectionService} sur la base H2 de test.
+ */
+@SpringBootTest
+class ProjectionServiceTest {
+
+    private static final String PREFIXE = "Zprojection";
+
+    @Autowired
+    private ProjectionService projectionService;
+
+    @Autowired
+    private VacataireRepository vacataireRepository;
+
+    private final List<Vacataire> crees = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        List<Vacataire> vacataires = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Vacataire vacataire = new Vacataire();
+            vacataire.setNom(PREFIXE + i);
+            vacataire.setPrenom("Test");
+            vacataire.setEmail("projection" + i + "@univ-zig.sn");
+            vacataire.setTelephone("0612345678");
+            vacataire.setSpecialite("Informatique");
+            vacataire.setActif(i != 2);
+            vacataires.add(vacataire);
+        }
+        crees.addAll(vacataireRepository.saveAll(vacataires));
+    }
+
+    @AfterEach
+    void tearDown() {
+        vacataireRepository.deleteAll(crees);
+    }
+
+    /**
+     * Chaque ligne ne contient que les champs demandés, dans l'ordre demandé.
+     */
+    @Test
+    void parId_shouldReturnOnlyRequestedFields() {
+        Vacataire vacataire = crees.get(0);
+
+        Optional<Map<String, Object>> projection = projectionService.parId(Vacataire.class,
+                List.of("email", "nom"), vacataire.getId(), Map.of());
+
+        assertTrue(projection.isPresent());
+        assertEquals(List.of("email", "nom"), new ArrayList<>(projection.get().keySet()));
+        assertEquals(vacataire.getEmail(), projection.get().get("email"));
+    }
+
+    /**
+     * Les filtres d'égalité s'appliquent à la lecture par identifiant.
+     */
+    @Test
+    void parId_shouldApplyFilters() {
+        Long inactif = crees.get(2).getId();
+
+        assertTrue(projectionService.parId(Vacataire.class, List.of("id"), inactif, Map.of("actif", true)).isEmpty());
+    }
+
+    /**
+     * Les pages s'enchaînent par curseur sans doublon ni omission, filtre compris.
+     */
+    @Test
+    void page_shouldFollowCursorAndApplyFilters() {
+        List<Object> noms = new ArrayList<>();
+        String curseur = null;
+        do {
+            PageCurseurDTO<Map<String, Object>> page = projectionService.page(Vacataire.class, List.of("nom"),
+                    "nom", curseur, 2, Map.of("actif", true));
+            page.elements().forEach(ligne -> {
+                assertEquals(1, ligne.size());
+                if (ligne.get("nom").toString().startsWith(PREFIXE)) {
+                    noms.add(ligne.get("nom"));
+                }
+            });
+            curseur = page.suivant();
+        } while (curseur != null);
+
+        assertEquals(List.of(PREFIXE + 0, PREFIXE + 1, PREFIXE + 3, PREFIXE + 4), noms);
+    }
+}
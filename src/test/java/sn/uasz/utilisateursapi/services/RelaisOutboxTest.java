@@ -0,0 +1,159 @@
+package sn.uasz.utilisateursapi.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.uasz.utilisateursapi.dtos.EvenementDTO;
+import sn.uasz.utilisateursapi.dtos.VacataireDTO;
+import sn.uasz.utilisateursapi.entities.EvenementOutbox;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.enums.TypeEvenement;
+import sn.uasz.utilisateursapi.repositories.EvenementOutboxRepository;
+import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Outbox sur la base H2 : événements écrits dans la transaction des modifications, puis publiés
+ * par le relais dans l'ordre de chaque utilisateur. Les tours périodiques sont désactivés dans la
+ * configuration de test : chaque test appelle le relais explicitement.
+ */
+@SpringBootTest
+class RelaisOutboxTest {
+
+    @Autowired
+    private RelaisOutbox relaisOutbox;
+
+    @Autowired
+    private VacataireService vacataireService;
+
+    @Autowired
+    private VacataireRepository vacataireRepository;
+
+    @Autowired
+    private EvenementOutboxRepository evenementOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private PublicateurEvenements publicateur;
+
+    private final List<EvenementDTO> publies = Collections.synchronizedList(new ArrayList<>());
+    private final List<Long> vacatairesCrees = new ArrayList<>();
+    private volatile Long idEnEchec;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        doAnswer(invocation -> {
+            EvenementDTO evenement = invocation.getArgument(0);
+            if (evenement.idAgregat().equals(idEnEchec)) {
+                throw new IOException("Destinataire indisponible");
+            }
+            publies.add(evenement);
+            return null;
+        }).when(publicateur).publier(any());
+        // Événements des jeux de données initiaux
+        relaisOutbox.relayer();
+        publies.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        idEnEchec = null;
+        relaisOutbox.relayer();
+        vacataireRepository.deleteAllById(vacataireRepository.findAllById(vacatairesCrees).stream()
+                .map(v -> v.getId()).toList());
+    }
+
+    @Test
+    void mutations_arePublishedInOrderThenRemovedFromOutbox() {
+        Long id = creer("ordre");
+        VacataireDTO modification = vacataireService.getVacataire(id);
+        modification.setNom("Renomme");
+        vacataireService.mettreAJourVacataire(id, modification, null);
+        vacataireService.desactiverVacataire(id);
+        vacataireService.reactivierVacataire(id);
+        vacataireService.supprimerVacataire(id);
+        assertEquals(5, evenementOutboxRepository.count());
+
+        assertEquals(5, relaisOutbox.relayer());
+
+        assertEquals(0, evenementOutboxRepository.count());
+        assertEquals(List.of(TypeEvenement.CREATION, TypeEvenement.MODIFICATION, TypeEvenement.DESACTIVATION,
+                TypeEvenement.ACTIVATION, TypeEvenement.SUPPRESSION), publies.stream().map(EvenementDTO::type).toList());
+        assertTrue(publies.stream().allMatch(e -> e.agregat() == TypeAgregat.VACATAIRE && e.idAgregat().equals(id)));
+        assertEquals(List.of(0L, 1L, 2L, 3L, 3L), publies.stream().map(EvenementDTO::version).toList());
+        assertTrue(publies.get(1).donnees().contains("\"nom\":\"Renomme\""));
+    }
+
+    @Test
+    void rolledBackMutation_writesNoEvent() {
+        long avant = evenementOutboxRepository.count();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(statut -> {
+            creer("annule");
+            statut.setRollbackOnly();
+        });
+        assertEquals(avant, evenementOutboxRepository.count());
+    }
+
+    @Test
+    void failingUser_keepsItsEventsWhileOthersArePublished() {
+        Long enEchec = creer("echec");
+        Long autre = creer("autre");
+        vacataireService.desactiverVacataire(enEchec);
+        vacataireService.desactiverVacataire(autre);
+        idEnEchec = enEchec;
+        double echecsAvant = meterRegistry.get("outbox.evenements.echecs").functionCounter().count();
+
+        assertEquals(2, relaisOutbox.relayer());
+
+        assertEquals(List.of(autre, autre), publies.stream().map(EvenementDTO::idAgregat).toList());
+        List<EvenementOutbox> restants = evenementOutboxRepository.findAll();
+        assertEquals(List.of(TypeEvenement.CREATION, TypeEvenement.DESACTIVATION),
+                restants.stream().map(EvenementOutbox::getType).toList());
+        assertEquals(1, restants.get(0).getTentatives());
+        assertEquals("Destinataire indisponible", restants.get(0).getDerniereErreur());
+        assertEquals(0, restants.get(1).getTentatives());
+        assertEquals(echecsAvant + 1, meterRegistry.get("outbox.evenements.echecs").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("outbox.en.attente").gauge().value());
+
+        // Destinataire rétabli : les événements en attente partent dans l'ordre
+        idEnEchec = null;
+        publies.clear();
+        assertEquals(2, relaisOutbox.relayer());
+        assertEquals(List.of(TypeEvenement.CREATION, TypeEvenement.DESACTIVATION),
+                publies.stream().map(EvenementDTO::type).toList());
+        assertEquals(0.0, meterRegistry.get("outbox.en.attente").gauge().value());
+    }
+
+    private Long creer(String suffixe) {
+        VacataireDTO dto = new VacataireDTO();
+        dto.setNom("Outbox");
+        dto.setPrenom(suffixe);
+        dto.setEmail("outbox." + suffixe + System.nanoTime() + "@zig.univ.sn");
+        dto.setSpecialite("Informatique");
+        dto.setActif(true);
+        Long id = vacataireService.creerVacataire(dto).getId();
+        vacatairesCrees.add(id);
+        return id;
+    }
+}
@@ -9,10 +9,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import sn.uasz.utilisateursapi.dtos.RoleDTO;
 import sn.uasz.utilisateursapi.entities.Role;
 import sn.uasz.utilisateursapi.exceptions.RoleNotFoundException;
+import sn.uasz.utilisateursapi.exceptions.VersionObsoleteException;
 import sn.uasz.utilisateursapi.mappers.RoleMapper;
 import sn.uasz.utilisateursapi.repositories.RoleRepository;
 
-import jakarta.persistence.EntityManager;
 
 import java.util.Arrays;
 import java.util.List;
@@ -20,6 +20,8 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -37,9 +39,12 @@ class RoleServiceTest {
     @Mock
     private RoleMapper roleMapper;
 
-    // Simule un gestionnaire d'entités JPA (non utilisé directement ici).
+    // Simule le journal d'audit (écriture en arrière-plan).
     @Mock
-    private EntityManager entityManager;
+    private JournalAudit journalAudit;
+
+    @Mock
+    private StatistiquesService statistiques;
 
     // Injecte les mocks dans une instance de RoleService.
     @InjectMocks
@@ -88,9 +93,39 @@ class RoleServiceTest {
      */
     @Test
     void modifierRole_shouldThrowExceptionWhenRoleNotFound() {
-        when(roleRepository.findById(1L)).thenReturn(Optional.empty());
+        when(roleRepository.modifierSiVersion(eq(1L), isNull(), eq(roleDTO.getLibelle()), eq(roleDTO.getDescription()), any())).thenReturn(0);
+
+        assertThrows(RoleNotFoundException.class, () -> roleService.modifierRole(1, roleDTO, null));
+        verify(roleRepository, never()).existsById(any());
+    }
+
+    /**
+     * Teste la modification versionnée : une seule requête UPDATE, sans lecture préalable,
+     * puis relecture du rôle modifié.
+     */
+    @Test
+    void modifierRole_shouldUpdateWithoutReadingFirst() {
+        role.setVersion(4);
+        when(roleRepository.modifierSiVersion(eq(1L), eq(3L), eq(roleDTO.getLibelle()), eq(roleDTO.getDescription()), any())).thenReturn(1);
+        when(roleRepository.relireDepuisBase(1L)).thenReturn(Optional.of(role));
+        when(roleMapper.toDTO(role)).thenReturn(roleDTO);
+
+        RoleDTO result = roleService.modifierRole(1, roleDTO, 3L);
+
+        assertEquals(roleDTO, result);
+        verify(roleRepository, never()).save(any(Role.class));
+    }
+
+    /**
+     * Teste la modification d'un rôle modifié entre-temps par un autre client : la version attendue est obsolète.
+     */
+    @Test
+    void modifierRole_shouldThrowWhenVersionIsStale() {
+        when(roleRepository.modifierSiVersion(eq(1L), eq(3L), eq(roleDTO.getLibelle()), eq(roleDTO.getDescription()), any())).thenReturn(0);
+        when(roleRepository.existsById(1L)).thenReturn(true);
 
-        assertThrows(RoleNotFoundException.class, () -> roleService.modifierRole(1, roleDTO));
+        assertThrows(VersionObsoleteException.class, () -> roleService.modifierRole(1, roleDTO, 3L));
+        verify(roleRepository, never()).relireDepuisBase(any());
     }
 
     /**
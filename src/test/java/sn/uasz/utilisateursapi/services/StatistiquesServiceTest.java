@@ -0,0 +1,147 @@
+package sn.uasz.utilisateursapi.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import sn.uasz.utilisateursapi.dtos.EnseignantDTO;
+import sn.uasz.utilisateursapi.dtos.EtudiantDTO;
+import sn.uasz.utilisateursapi.dtos.StatistiquesDTO;
+import sn.uasz.utilisateursapi.dtos.VacataireDTO;
+import sn.uasz.utilisateursapi.entities.Role;
+import sn.uasz.utilisateursapi.enums.Grade;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.repositories.EnseignantRepository;
+import sn.uasz.utilisateursapi.repositories.EtudiantRepository;
+import sn.uasz.utilisateursapi.repositories.RoleRepository;
+import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires de {@link StatistiquesService} : tenue des compteurs à chaque changement et
+ * réconciliation avec la base. Hors transaction, les changements sont comptés immédiatement.
+ */
+@ExtendWith(MockitoExtension.class)
+class StatistiquesServiceTest {
+
+    @Mock
+    private EnseignantRepository enseignantRepository;
+
+    @Mock
+    private EtudiantRepository etudiantRepository;
+
+    @Mock
+    private VacataireRepository vacataireRepository;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Role admin = Role.builder().id(1L).libelle("ADMIN").version(0L).build();
+
+    private StatistiquesService statistiques;
+
+    @BeforeEach
+    void setUp() {
+        statistiques = new StatistiquesService(enseignantRepository, etudiantRepository, vacataireRepository,
+                roleRepository, transactionManager, 60_000);
+        when(roleRepository.findAll()).thenReturn(List.of(admin));
+        when(enseignantRepository.streamRoles()).thenAnswer(invocation -> Stream.empty());
+        when(enseignantRepository.streamGrades()).thenAnswer(invocation -> Stream.empty());
+        when(etudiantRepository.streamRoles()).thenAnswer(invocation -> Stream.empty());
+        when(etudiantRepository.streamNaissances()).thenAnswer(invocation -> Stream.empty());
+        when(vacataireRepository.streamSpecialites()).thenAnswer(invocation -> Stream.empty());
+    }
+
+    /**
+     * Chaque changement déplace la contribution de l'entité ; un changement d'une version
+     * antérieure, validé en retard, est ignoré.
+     */
+    @Test
+    void enregistrer_shouldMoveContributionAndIgnoreStaleVersions() {
+        assertEquals(0, statistiques.consulter().enseignants());
+
+        statistiques.enregistrer(TypeAgregat.ENSEIGNANT, 5L, 0L, enseignant(Grade.PROFESSEUR, List.of(admin)));
+        statistiques.enregistrer(TypeAgregat.ENSEIGNANT, 5L, 2L, enseignant(Grade.PROFESSEUR_TITULAIRE, List.of()));
+        statistiques.enregistrer(TypeAgregat.ENSEIGNANT, 5L, 1L, enseignant(Grade.VACATAIRE, List.of(admin)));
+        statistiques.enregistrer(TypeAgregat.VACATAIRE, 6L, 0L, vacataire("Informatique", true));
+        statistiques.enregistrer(TypeAgregat.VACATAIRE, 6L, 1L, vacataire("Informatique", false));
+        statistiques.enregistrer(TypeAgregat.ETUDIANT, 7L, 0L, etudiant("Ziguinchor", LocalDate.of(2003, 4, 1)));
+        statistiques.enregistrer(TypeAgregat.ETUDIANT, 8L, 0L, etudiant(null, LocalDate.of(2003, 9, 9)));
+        statistiques.enregistrer(TypeAgregat.ETUDIANT, 8L, 0L, null);
+
+        StatistiquesDTO resultat = statistiques.consulter();
+        assertEquals(1, resultat.enseignants());
+        assertEquals(Map.of("PROFESSEUR_TITULAIRE", 1L), resultat.enseignantsParGrade());
+        assertEquals(0, resultat.vacatairesActifs());
+        assertEquals(Map.of("Informatique", 1L), resultat.vacatairesInactifsParSpecialite());
+        assertEquals(1, resultat.etudiants());
+        assertEquals(Map.of("Ziguinchor", 1L), resultat.etudiantsParLieuNaissance());
+        assertEquals(Map.of("2003", 1L), resultat.etudiantsParAnneeNaissance());
+        assertEquals(Map.of("ADMIN", 0L), resultat.membresParRole());
+        // Réponse réutilisée tant que rien ne change ; base lue une seule fois
+        assertSame(resultat, statistiques.consulter());
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    /**
+     * Une écriture faite hors des services n'est vue qu'à la réconciliation, qui corrige
+     * les compteurs et compte l'écart.
+     */
+    @Test
+    void reconcilier_shouldReplaceCountersWithDatabaseAndCountDrift() {
+        SimpleMeterRegistry registre = new SimpleMeterRegistry();
+        statistiques.bindTo(registre);
+        statistiques.reconcilier();
+        statistiques.enregistrer(TypeAgregat.ENSEIGNANT, 5L, 0L, enseignant(Grade.PROFESSEUR, List.of()));
+
+        // En base, l'enseignant a été promu par une requête SQL directe
+        when(enseignantRepository.streamGrades())
+                .thenReturn(Stream.<Object[]>of(new Object[]{5L, 1L, Grade.PROFESSEUR_TITULAIRE}));
+        when(enseignantRepository.streamRoles()).thenReturn(Stream.<Object[]>of(new Object[]{5L, 1L}));
+        statistiques.reconcilier();
+
+        StatistiquesDTO resultat = statistiques.consulter();
+        assertEquals(Map.of("PROFESSEUR_TITULAIRE", 1L), resultat.enseignantsParGrade());
+        assertEquals(Map.of("ADMIN", 1L), resultat.membresParRole());
+        assertNotNull(resultat.derniereReconciliation());
+        // Un grade retiré, un grade ajouté, un membre ajouté
+        assertEquals(3.0, registre.get("statistiques.reconciliation.ecarts").functionCounter().count());
+        assertEquals(2, registre.get("statistiques.reconciliation.duree").timer().count());
+    }
+
+    private static EnseignantDTO enseignant(Grade grade, List<Role> roles) {
+        return new EnseignantDTO(5L, "Diouf", "Awa", "awa.diouf@zig.univ.sn", null, null, grade, roles,
+                null, null, true, null);
+    }
+
+    private static VacataireDTO vacataire(String specialite, boolean actif) {
+        VacataireDTO vacataire = new VacataireDTO();
+        vacataire.setSpecialite(specialite);
+        vacataire.setActif(actif);
+        return vacataire;
+    }
+
+    private static EtudiantDTO etudiant(String lieuNaissance, LocalDate dateNaissance) {
+        EtudiantDTO etudiant = new EtudiantDTO();
+        etudiant.setLieuNaissance(lieuNaissance);
+        etudiant.setDateNaissance(dateNaissance);
+        return etudiant;
+    }
+}
@@ -0,0 +1,147 @@
+package sn.uasz.utilisateursapi.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import sn.uasz.utilisateursapi.entities.Enseignant;
+import sn.uasz.utilisateursapi.entities.Vacataire;
+import sn.uasz.utilisateursapi.enums.Grade;
+import sn.uasz.utilisateursapi.exceptions.ConflitEtatException;
+import sn.uasz.utilisateursapi.repositories.EnseignantRepository;
+import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Transitions d'état concurrentes sur la base H2 : 1 000 activations et désactivations lancées
+ * en parallèle sur un même enregistrement. Chaque appel réussit ou échoue en conflit, et le
+ * nombre de transitions réussies est cohérent avec l'état final en base.
+ */
+@SpringBootTest
+class TransitionsEtatConcurrentesTest {
+
+    private static final int APPELS = 1_000;
+
+    @Autowired
+    private EnseignantService enseignantService;
+
+    @Autowired
+    private VacataireService vacataireService;
+
+    @Autowired
+    private EnseignantRepository enseignantRepository;
+
+    @Autowired
+    private VacataireRepository vacataireRepository;
+
+    private final List<Long> enseignantsCrees = new ArrayList<>();
+    private final List<Long> vacatairesCrees = new ArrayList<>();
+
+    @AfterEach
+    void nettoyer() {
+        enseignantRepository.deleteAllById(enseignantsCrees);
+        vacataireRepository.deleteAllById(vacatairesCrees);
+    }
+
+    @Test
+    void enseignant_shouldApplyEachTransitionAtMostOnce() throws Exception {
+        Enseignant enseignant = new Enseignant();
+        enseignant.setNom("Concurrence");
+        enseignant.setPrenom("Test");
+        enseignant.setEmail("concurrence.enseignant@zig.univ.sn");
+        enseignant.setMatricule("990001/D");
+        enseignant.setGrade(Grade.ASSISTANT);
+        Long id = enseignantRepository.save(enseignant).getId();
+        enseignantsCrees.add(id);
+
+        Bilan bilan = basculer(activer -> {
+            if (activer) {
+                enseignantService.activerEnseignant(id);
+            } else {
+                enseignantService.desactiverEnseignant(id);
+            }
+        });
+
+        verifier(bilan, enseignantRepository.findById(id).orElseThrow().isActif());
+    }
+
+    @Test
+    void vacataire_shouldApplyEachTransitionAtMostOnce() throws Exception {
+        Vacataire vacataire = new Vacataire();
+        vacataire.setNom("Concurrence");
+        vacataire.setPrenom("Test");
+        vacataire.setEmail("concurrence.vacataire@zig.univ.sn");
+        vacataire.setSpecialite("Informatique");
+        Long id = vacataireRepository.save(vacataire).getId();
+        vacatairesCrees.add(id);
+
+        Bilan bilan = basculer(activer -> {
+            if (activer) {
+                vacataireService.reactivierVacataire(id);
+            } else {
+                vacataireService.desactiverVacataire(id);
+            }
+        });
+
+        verifier(bilan, vacataireRepository.findById(id).orElseThrow().isActif());
+    }
+
+    /**
+     * Partant d'un enregistrement actif, les désactivations et activations réussies alternent :
+     * leur différence vaut 1 si l'état final est inactif, 0 sinon.
+     */
+    private static void verifier(Bilan bilan, boolean actifFinal) {
+        assertEquals(0, bilan.erreurs.get(), "Aucune autre erreur que les conflits d'état");
+        assertEquals(APPELS, bilan.activations.get() + bilan.desactivations.get() + bilan.conflits.get());
+        assertTrue(bilan.desactivations.get() >= 1, "Au moins une désactivation réussit");
+        assertEquals(actifFinal ? 0 : 1, bilan.desactivations.get() - bilan.activations.get());
+    }
+
+    private static Bilan basculer(Transition transition) throws Exception {
+        Bilan bilan = new Bilan();
+        ExecutorService executeur = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> taches = new ArrayList<>();
+            for (int i = 0; i < APPELS; i++) {
+                boolean activer = i % 2 == 0;
+                taches.add(executeur.submit(() -> {
+                    try {
+                        transition.appliquer(activer);
+                        (activer ? bilan.activations : bilan.desactivations).incrementAndGet();
+                    } catch (ConflitEtatException e) {
+                        bilan.conflits.incrementAndGet();
+                    } catch (Exception e) {
+                        bilan.erreurs.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> tache : taches) {
+                tache.get();
+            }
+        } finally {
+            executeur.shutdown();
+        }
+        return bilan;
+    }
+
+    @FunctionalInterface
+    private interface Transition {
+        void appliquer(boolean activer) throws Exception;
+    }
+
+    private static final class Bilan {
+        private final AtomicInteger activations = new AtomicInteger();
+        private final AtomicInteger desactivations = new AtomicInteger();
+        private final AtomicInteger conflits = new AtomicInteger();
+        private final AtomicInteger erreurs = new AtomicInteger();
+    }
+}
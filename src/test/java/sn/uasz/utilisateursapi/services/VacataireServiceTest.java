@@ -31,13 +31,24 @@ package sn.uasz.utilisateursapi.services;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import sn.uasz.utilisateursapi.dtos.ResultatMasseDTO;
+import sn.uasz.utilisateursapi.dtos.SelectionMasseDTO;
 import sn.uasz.utilisateursapi.dtos.VacataireDTO;
 import sn.uasz.utilisateursapi.entities.Vacataire;
 import sn.uasz.utilisateursapi.repositories.VacataireRepository;
 import sn.uasz.utilisateursapi.exceptions.VacataireNotFoundException;
+import sn.uasz.utilisateursapi.enums.CleUnique;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.enums.TypeEvenement;
+import sn.uasz.utilisateursapi.exceptions.VacataireException;
+import sn.uasz.utilisateursapi.exceptions.LotInvalideException;
+import sn.uasz.utilisateursapi.exceptions.ConflitEtatException;
+import sn.uasz.utilisateursapi.exceptions.VersionObsoleteException;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -50,6 +61,24 @@ class VacataireServiceTest {
     @Mock
     private VacataireRepository vacataireRepository;
 
+    @Mock
+    private RegistreClesUniques registreClesUniques;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private JournalAudit journalAudit;
+
+    @Mock
+    private StatistiquesService statistiques;
+
+    @Mock
+    private AnnuaireIndexRecherche annuaire;
+
+    @Mock
+    private IndexAutocompletion autocompletion;
+
     @InjectMocks
     private VacataireService vacataireService;
 
@@ -97,6 +126,18 @@ class VacataireServiceTest {
         assertEquals(vacataireDTO.getPrenom(), result.getPrenom());
         assertEquals(vacataireDTO.getEmail(), result.getEmail());
         verify(vacataireRepository, times(1)).save(any(Vacataire.class));
+        verify(vacataireRepository, never()).findByEmail(any());
+    }
+
+    @Test
+    void testCreerVacataireEmailDejaUtilise() {
+        // Given: le filtre ne peut pas écarter l'email et la base le connaît
+        when(registreClesUniques.peutExister(CleUnique.VACATAIRE_EMAIL, vacataireDTO.getEmail())).thenReturn(true);
+        when(vacataireRepository.findByEmail(vacataireDTO.getEmail())).thenReturn(vacataireTest);
+
+        // When / Then
+        assertThrows(VacataireException.class, () -> vacataireService.creerVacataire(vacataireDTO));
+        verify(vacataireRepository, never()).save(any(Vacataire.class));
     }
 
     @Test
@@ -193,12 +234,9 @@ class VacataireServiceTest {
     @Test
     void testDesactiverVacataire() {
         // Given
-        when(vacataireRepository.findByIdAndActif(1L, true)).thenReturn(Optional.of(vacataireTest));
-        doAnswer(invocation -> {
-            Vacataire saved = invocation.getArgument(0);
-            saved.setActif(false);
-            return saved;
-        }).when(vacataireRepository).save(any(Vacataire.class));
+        when(vacataireRepository.modifierActif(eq(1L), eq(false), any(Date.class))).thenReturn(1);
+        vacataireTest.setActif(false);
+        when(vacataireRepository.findById(1L)).thenReturn(Optional.of(vacataireTest));
 
         // When
         VacataireDTO result = vacataireService.desactiverVacataire(1L);
@@ -206,39 +244,39 @@ class VacataireServiceTest {
         // Then
         assertNotNull(result);
         assertFalse(result.isActif());
-        verify(vacataireRepository, times(1)).findByIdAndActif(1L, true);
-        verify(vacataireRepository, times(1)).save(any(Vacataire.class));
+        verify(vacataireRepository, never()).existsById(anyLong());
+        verify(vacataireRepository, never()).save(any(Vacataire.class));
     }
 
     @Test
     void testDesactiverVacataireNonExistant() {
         // Given
-        when(vacataireRepository.findByIdAndActif(1L, true)).thenReturn(Optional.empty());
+        when(vacataireRepository.modifierActif(eq(1L), eq(false), any(Date.class))).thenReturn(0);
+        when(vacataireRepository.existsById(1L)).thenReturn(false);
 
         // When & Then
         assertThrows(VacataireNotFoundException.class, () -> vacataireService.desactiverVacataire(1L));
-        verify(vacataireRepository, times(1)).findByIdAndActif(1L, true);
         verify(vacataireRepository, never()).save(any(Vacataire.class));
     }
 
+    @Test
+    void testDesactiverVacataireDejaInactif() {
+        // Given : aucune ligne modifiée mais le vacataire existe
+        when(vacataireRepository.modifierActif(eq(1L), eq(false), any(Date.class))).thenReturn(0);
+        when(vacataireRepository.existsById(1L)).thenReturn(true);
+
+        // When & Then
+        assertThrows(ConflitEtatException.class, () -> vacataireService.desactiverVacataire(1L));
+        verify(vacataireRepository, never()).findById(anyLong());
+    }
+
     @Test
     void testMettreAJourVacataire() {
-        // Given
-        when(vacataireRepository.findByIdAndActif(1L, true)).thenReturn(Optional.of(vacataireTest));
-        doAnswer(invocation -> {
-            Vacataire saved = invocation.getArgument(0);
-            saved.setNom(vacataireDTO.getNom());
-            saved.setPrenom(vacataireDTO.getPrenom());
-            saved.setEmail(vacataireDTO.getEmail());
-            saved.setTelephone(vacataireDTO.getTelephone());
-            saved.setSpecialite(vacataireDTO.getSpecialite());
-            saved.setActif(vacataireDTO.isActif());
-            saved.setDateModification(new Date());
-            return saved;
-        }).when(vacataireRepository).save(any(Vacataire.class));
+        // Given : le vacataire actif est chargé puis modifié, la version étant vérifiée au flush
+        when(vacataireRepository.findById(1L)).thenReturn(Optional.of(vacataireTest));
 
         // When
-        VacataireDTO result = vacataireService.mettreAJourVacataire(1L, vacataireDTO);
+        VacataireDTO result = vacataireService.mettreAJourVacataire(1L, vacataireDTO, 0L);
 
         // Then
         assertNotNull(result);
@@ -248,8 +286,51 @@ class VacataireServiceTest {
         assertEquals(vacataireDTO.getTelephone(), result.getTelephone());
         assertEquals(vacataireDTO.getSpecialite(), result.getSpecialite());
         assertEquals(vacataireDTO.isActif(), result.isActif());
-        verify(vacataireRepository, times(1)).findByIdAndActif(1L, true);
-        verify(vacataireRepository, times(1)).save(any(Vacataire.class));
+        assertEquals(vacataireDTO.getNom(), vacataireTest.getNom());
+        verify(vacataireRepository).flush();
+        verify(vacataireRepository, never()).save(any(Vacataire.class));
+    }
+
+    @Test
+    void testMettreAJourVacataireVersionObsolete() {
+        // Given : le vacataire a été modifié depuis la version attendue
+        vacataireTest.setVersion(2);
+        when(vacataireRepository.findById(1L)).thenReturn(Optional.of(vacataireTest));
+
+        // When & Then
+        assertThrows(VersionObsoleteException.class, () -> vacataireService.mettreAJourVacataire(1L, vacataireDTO, 0L));
+        assertEquals("Test", vacataireTest.getNom());
+        verify(vacataireRepository, never()).flush();
+    }
+
+    @Test
+    void testMettreAJourVacataireConflitAuFlush() {
+        // Given : une autre transaction modifie le vacataire entre la lecture et le flush
+        when(vacataireRepository.findById(1L)).thenReturn(Optional.of(vacataireTest));
+        doThrow(new ObjectOptimisticLockingFailureException(Vacataire.class, 1L)).when(vacataireRepository).flush();
+
+        // When & Then
+        assertThrows(VersionObsoleteException.class, () -> vacataireService.mettreAJourVacataire(1L, vacataireDTO, 0L));
+    }
+
+    @Test
+    void testMettreAJourVacataireNonExistant() {
+        // Given
+        when(vacataireRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(VacataireNotFoundException.class, () -> vacataireService.mettreAJourVacataire(1L, vacataireDTO, null));
+        verify(vacataireRepository, never()).flush();
+    }
+
+    @Test
+    void testMettreAJourVacataireInactif() {
+        // Given : un vacataire désactivé n'est plus modifiable
+        vacataireTest.setActif(false);
+        when(vacataireRepository.findById(1L)).thenReturn(Optional.of(vacataireTest));
+
+        // When & Then
+        assertThrows(VacataireNotFoundException.class, () -> vacataireService.mettreAJourVacataire(1L, vacataireDTO, null));
     }
 
     @Test
@@ -284,30 +365,28 @@ class VacataireServiceTest {
     @Test
     void testActiverVacataireExiste() {
         // Given
+        when(vacataireRepository.modifierActif(eq(1L), eq(true), any(Date.class))).thenReturn(1);
         when(vacataireRepository.findById(1L)).thenReturn(Optional.of(vacataireTest));
-        when(vacataireRepository.save(any(Vacataire.class))).thenAnswer(invocation -> {
-            Vacataire saved = invocation.getArgument(0);
-            saved.setActif(true);
-            saved.setDateModification(new Date());
-            return saved;
-        });
 
         // When
         vacataireService.activerVacataire(1L);
 
-        // Then
-        verify(vacataireRepository, times(1)).findById(1L);
-        verify(vacataireRepository, times(1)).save(any(Vacataire.class));
+        // Then : une seule requête UPDATE, sans lecture préalable ; relecture pour l'outbox
+        InOrder ordre = inOrder(vacataireRepository);
+        ordre.verify(vacataireRepository).modifierActif(eq(1L), eq(true), any(Date.class));
+        ordre.verify(vacataireRepository).findById(1L);
+        verify(outboxService).enregistrer(eq(TypeAgregat.VACATAIRE), eq(1L), any(), eq(TypeEvenement.ACTIVATION), any());
+        verify(vacataireRepository, never()).save(any(Vacataire.class));
     }
 
     @Test
     void testActiverVacataireNonExistant() {
         // Given
-        when(vacataireRepository.findById(1L)).thenReturn(Optional.empty());
+        when(vacataireRepository.modifierActif(eq(1L), eq(true), any(Date.class))).thenReturn(0);
+        when(vacataireRepository.existsById(1L)).thenReturn(false);
 
         // When & Then
         assertThrows(VacataireNotFoundException.class, () -> vacataireService.activerVacataire(1L));
-        verify(vacataireRepository, times(1)).findById(1L);
         verify(vacataireRepository, never()).save(any(Vacataire.class));
     }
 
@@ -315,13 +394,8 @@ class VacataireServiceTest {
     @Test
     void testReactivierVacataire() {
         // Given
+        when(vacataireRepository.modifierActif(eq(1L), eq(true), any(Date.class))).thenReturn(1);
         when(vacataireRepository.findById(1L)).thenReturn(Optional.of(vacataireTest));
-        doAnswer(invocation -> {
-            Vacataire saved = invocation.getArgument(0);
-            saved.setActif(true);
-            saved.setDateModification(new Date());
-            return saved;
-        }).when(vacataireRepository).save(any(Vacataire.class));
 
         // When
         VacataireDTO result = vacataireService.reactivierVacataire(1L);
@@ -329,20 +403,56 @@ class VacataireServiceTest {
         // Then
         assertNotNull(result);
         assertTrue(result.isActif());
-        verify(vacataireRepository, times(1)).findById(1L);
-        verify(vacataireRepository, times(1)).save(any(Vacataire.class));
+        verify(vacataireRepository, never()).save(any(Vacataire.class));
         verify(vacataireRepository, never()).findByIdAndActif(anyLong(), anyBoolean());
     }
 
+    @Test
+    void testReactivierVacataireDejaActif() {
+        // Given
+        when(vacataireRepository.modifierActif(eq(1L), eq(true), any(Date.class))).thenReturn(0);
+        when(vacataireRepository.existsById(1L)).thenReturn(true);
+
+        // When & Then
+        assertThrows(ConflitEtatException.class, () -> vacataireService.reactivierVacataire(1L));
+    }
+
     @Test
     void testReactivierVacataireNonExistant() {
         // Given
-        when(vacataireRepository.findById(1L)).thenReturn(Optional.empty());
+        when(vacataireRepository.modifierActif(eq(1L), eq(true), any(Date.class))).thenReturn(0);
+        when(vacataireRepository.existsById(1L)).thenReturn(false);
 
         // When & Then
         assertThrows(VacataireNotFoundException.class, () -> vacataireService.reactivierVacataire(1L));
-        verify(vacataireRepository, times(1)).findById(1L);
         verify(vacataireRepository, never()).save(any(Vacataire.class));
     }
-}
 
+    @Test
+    void testModifierActifEnMasseParSpecialite() {
+        // Given : seul le vacataire encore actif est à désactiver
+        when(vacataireRepository.findIdsAModifierParSpecialite("Mathématiques", false)).thenReturn(List.of(1L));
+        when(vacataireRepository.modifierActifParIds(eq(List.of(1L)), eq(false), any(Date.class))).thenReturn(1);
+        when(vacataireRepository.findAllById(List.of(1L))).thenReturn(List.of(vacataireTest));
+
+        // When
+        ResultatMasseDTO resultat = vacataireService.modifierActifEnMasse(false,
+                new SelectionMasseDTO(null, "Mathématiques", null));
+
+        // Then : mise à jour et relecture limitées aux identifiants sélectionnés, un événement chacun
+        assertFalse(resultat.actif());
+        assertEquals(1, resultat.lignesModifiees());
+        verify(outboxService).enregistrer(eq(TypeAgregat.VACATAIRE), eq(1L), any(), eq(TypeEvenement.DESACTIVATION), any());
+        verify(vacataireRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testModifierActifEnMasseSelectionAmbigue() {
+        // Une sélection doit porter soit sur des identifiants, soit sur une spécialité
+        assertThrows(LotInvalideException.class, () -> vacataireService.modifierActifEnMasse(false,
+                new SelectionMasseDTO(List.of(1L), "Mathématiques", null)));
+        assertThrows(LotInvalideException.class, () -> vacataireService.modifierActifEnMasse(false,
+                new SelectionMasseDTO(List.of(), null, null)));
+        verifyNoInteractions(vacataireRepository);
+    }
+}
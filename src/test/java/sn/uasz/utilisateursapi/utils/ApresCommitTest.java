@@ -0,0 +1,57 @@
+package sn.uasz.utilisateursapi.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de {@link ApresCommit}.
+ */
+class ApresCommitTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Hors transaction, l'action est exécutée immédiatement.
+     */
+    @Test
+    void executer_shouldRunNowWithoutTransaction() {
+        AtomicInteger executions = new AtomicInteger();
+
+        ApresCommit.executer(executions::incrementAndGet);
+
+        assertEquals(1, executions.get());
+    }
+
+    /**
+     * Dans une transaction, l'action attend le commit et n'est pas exécutée après un rollback.
+     */
+    @Test
+    void executer_shouldWaitForCommit() {
+        AtomicInteger executions = new AtomicInteger();
+
+        TransactionSynchronizationManager.initSynchronization();
+        ApresCommit.executer(executions::incrementAndGet);
+        assertEquals(0, executions.get());
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertEquals(1, executions.get());
+        TransactionSynchronizationManager.clearSynchronization();
+
+        TransactionSynchronizationManager.initSynchronization();
+        ApresCommit.executer(executions::incrementAndGet);
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(1, executions.get());
+    }
+}
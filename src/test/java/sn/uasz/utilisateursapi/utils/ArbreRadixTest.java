@@ -0,0 +1,80 @@
+package sn.uasz.utilisateursapi.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de {@link ArbreRadix}.
+ */
+class ArbreRadixTest {
+
+    /**
+     * Les chaînes partageant un préfixe sont trouvées par leur début commun, au milieu d'une
+     * étiquette comme à la fin, des meilleurs scores aux moins bons.
+     */
+    @Test
+    void meilleurs_shouldReturnBestScoresForPrefix() {
+        ArbreRadix arbre = new ArbreRadix();
+        arbre.ajouter("fatou sene", 1, 10);
+        arbre.ajouter("fatou sarr", 2, 30);
+        arbre.ajouter("fatoumata diop", 3, 20);
+        arbre.ajouter("moussa ba", 4, 40);
+
+        assertArrayEquals(new long[]{2, 3, 1}, arbre.meilleurs("fat", 10));
+        assertArrayEquals(new long[]{2, 1}, arbre.meilleurs("fatou s", 10));
+        assertArrayEquals(new long[]{2}, arbre.meilleurs("fatou", 1));
+        assertArrayEquals(new long[]{4, 2, 3, 1}, arbre.meilleurs("", 10));
+        assertArrayEquals(new long[0], arbre.meilleurs("fatoux", 10));
+        assertArrayEquals(new long[0], arbre.meilleurs("fatou sene diop", 10));
+        assertEquals(4, arbre.entrees());
+    }
+
+    /**
+     * Une référence associée à plusieurs chaînes du préfixe n'est renvoyée qu'une fois, et un nouvel
+     * ajout met à jour son score.
+     */
+    @Test
+    void meilleurs_shouldNotRepeatReferences() {
+        ArbreRadix arbre = new ArbreRadix();
+        arbre.ajouter("sene fatou", 1, 10);
+        arbre.ajouter("sene@zig.univ.sn", 1, 10);
+        arbre.ajouter("sene moussa", 2, 5);
+
+        assertArrayEquals(new long[]{1, 2}, arbre.meilleurs("sene", 10));
+
+        arbre.ajouter("sene moussa", 2, 50);
+
+        assertArrayEquals(new long[]{2, 1}, arbre.meilleurs("sene", 10));
+        assertEquals(3, arbre.entrees());
+    }
+
+    /**
+     * Le retrait supprime les nœuds devenus inutiles et recalcule les meilleurs scores : l'arbre
+     * revient à l'état qu'il aurait sans la chaîne retirée.
+     */
+    @Test
+    void retirer_shouldCompactTreeAndUpdateScores() {
+        ArbreRadix arbre = new ArbreRadix();
+        arbre.ajouter("diop", 1, 10);
+        int noeuds = arbre.noeuds();
+        long empreinte = arbre.empreinteMemoire();
+        arbre.ajouter("diouf", 2, 90);
+        arbre.ajouter("dia", 3, 50);
+
+        assertTrue(arbre.noeuds() > noeuds);
+        assertTrue(arbre.retirer("diouf", 2));
+        assertFalse(arbre.retirer("diouf", 2));
+        assertFalse(arbre.retirer("di", 1));
+        assertArrayEquals(new long[]{3, 1}, arbre.meilleurs("di", 10));
+        assertTrue(arbre.retirer("dia", 3));
+
+        assertEquals(noeuds, arbre.noeuds());
+        assertEquals(empreinte, arbre.empreinteMemoire());
+        assertEquals(1, arbre.entrees());
+        assertArrayEquals(new long[]{1}, arbre.meilleurs("d", 10));
+        assertTrue(arbre.retirer("diop", 1));
+        assertArrayEquals(new long[0], arbre.meilleurs("", 10));
+        assertEquals(1, arbre.noeuds());
+    }
+}
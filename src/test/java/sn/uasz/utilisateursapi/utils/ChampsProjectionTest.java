@@ -0,0 +1,45 @@
+package sn.uasz.utilisateursapi.utils;
+
+import org.junit.jupiter.api.Test;
+import sn.uasz.utilisateursapi.exceptions.ChampsInvalidesException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de {@link ChampsProjection}.
+ */
+class ChampsProjectionTest {
+
+    private static final List<String> AUTORISES = List.of("id", "nom", "prenom", "email");
+
+    /**
+     * Les champs sont restitués dans l'ordre demandé, sans espaces ni doublons.
+     */
+    @Test
+    void lire_shouldKeepOrderAndRemoveDuplicates() {
+        assertEquals(List.of("email", "id", "nom"), ChampsProjection.lire(" email, id,,nom,email ", AUTORISES));
+    }
+
+    /**
+     * Un champ inconnu est rejeté et le message liste les champs disponibles.
+     */
+    @Test
+    void lire_shouldRejectUnknownField() {
+        ChampsInvalidesException exception = assertThrows(ChampsInvalidesException.class,
+                () -> ChampsProjection.lire("id,roles", AUTORISES));
+
+        assertTrue(exception.getMessage().contains("roles"));
+        assertTrue(exception.getMessage().contains(AUTORISES.toString()));
+    }
+
+    /**
+     * Une liste vide ou absente est rejetée.
+     */
+    @Test
+    void lire_shouldRejectEmptyList() {
+        assertThrows(ChampsInvalidesException.class, () -> ChampsProjection.lire(" , ", AUTORISES));
+        assertThrows(ChampsInvalidesException.class, () -> ChampsProjection.lire(null, AUTORISES));
+    }
+}
@@ -0,0 +1,57 @@
+package sn.uasz.utilisateursapi.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de {@link ClesRecherche}.
+ */
+class ClesRechercheTest {
+
+    /**
+     * Accents, casse et blancs n'affectent pas la clé.
+     */
+    @Test
+    void normaliser_shouldFoldAccentsCaseAndWhitespace() {
+        assertEquals("sene", ClesRecherche.normaliser("Sène"));
+        assertEquals("sene", ClesRecherche.normaliser("SÈNE"));
+        assertEquals("ndeye fatou", ClesRecherche.normaliser("  Ndèye \t  FATOU "));
+        assertEquals("francois", ClesRecherche.normaliser("François"));
+        assertEquals("coeur", ClesRecherche.normaliser("Cœur"));
+        assertEquals("fatou.sene@zig.univ.sn", ClesRecherche.normaliser("Fatou.Sene@ZIG.univ.sn"));
+        assertEquals("", ClesRecherche.normaliser(" \n "));
+        assertNull(ClesRecherche.normaliser(null));
+        assertEquals("a b", ClesRecherche.normaliser("a\uffffb"));
+        assertEquals(ClesRecherche.LONGUEUR_MAX, ClesRecherche.normaliser("é".repeat(300)).length());
+    }
+
+    /**
+     * La borne de fin encadre exactement les clés commençant par le préfixe.
+     */
+    @Test
+    void finPrefixe_shouldBoundKeysStartingWithPrefix() {
+        String fin = ClesRecherche.finPrefixe("sen");
+
+        assertEquals("seo", fin);
+        assertTrue("sene".compareTo(fin) < 0);
+        assertTrue("sen\ufffe".compareTo(fin) < 0);
+        assertTrue("seo".compareTo(fin) >= 0);
+        assertTrue("se".compareTo("sen") < 0);
+    }
+
+    /**
+     * Les résultats de plusieurs colonnes sont dédoublonnés, triés et limités.
+     */
+    @Test
+    void fusionner_shouldDeduplicateSortAndLimit() {
+        List<String> fusion = ClesRecherche.fusionner(Stream.of("3:c", "1:a", "3:c", "2:b", "4:d"),
+                valeur -> Long.valueOf(valeur.substring(0, 1)), Comparator.reverseOrder(), 3);
+
+        assertEquals(List.of("4:d", "3:c", "2:b"), fusion);
+    }
+}
@@ -0,0 +1,35 @@
+package sn.uasz.utilisateursapi.utils;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires de {@link ExportFlux}.
+ */
+class ExportFluxTest {
+
+    /**
+     * Chaque élément est converti puis transmis, et le contexte de persistance
+     * est vidé une fois par lot complet.
+     */
+    @Test
+    void parcourir_shouldMapEveryElementAndClearPerBatch() {
+        EntityManager entityManager = mock(EntityManager.class);
+        List<String> recus = new ArrayList<>();
+        int nombre = ExportFlux.TAILLE_LOT * 2 + 3;
+
+        long total = ExportFlux.parcourir(IntStream.range(0, nombre).boxed(), i -> "#" + i, recus::add, entityManager);
+
+        assertEquals(nombre, total);
+        assertEquals(nombre, recus.size());
+        assertEquals("#0", recus.get(0));
+        verify(entityManager, times(2)).clear();
+    }
+}
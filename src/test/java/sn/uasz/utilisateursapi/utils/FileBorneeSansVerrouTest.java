@@ -0,0 +1,86 @@
+package sn.uasz.utilisateursapi.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de {@link FileBorneeSansVerrou}.
+ */
+class FileBorneeSansVerrouTest {
+
+    /**
+     * Les éléments sortent dans l'ordre d'entrée ; un ajout échoue quand la file est pleine.
+     */
+    @Test
+    void offrir_shouldKeepOrderAndRefuseWhenFull() {
+        FileBorneeSansVerrou<Integer> file = new FileBorneeSansVerrou<>(3);
+        assertTrue(file.offrir(1));
+        assertTrue(file.offrir(2));
+        assertTrue(file.offrir(3));
+        assertFalse(file.offrir(4));
+        assertEquals(3, file.taille());
+
+        assertEquals(1, file.retirer());
+        assertTrue(file.offrir(4));
+        List<Integer> lot = new ArrayList<>();
+        assertEquals(2, file.retirer(lot, 2));
+        assertEquals(List.of(2, 3), lot);
+        assertEquals(4, file.retirer());
+        assertNull(file.retirer());
+        assertEquals(0, file.taille());
+    }
+
+    /**
+     * Des producteurs concurrents ne dépassent jamais la capacité, et chaque ajout accepté est retiré une fois.
+     */
+    @Test
+    void offrir_shouldStayBoundedUnderConcurrency() throws Exception {
+        FileBorneeSansVerrou<Integer> file = new FileBorneeSansVerrou<>(100);
+        AtomicInteger tailleMax = new AtomicInteger();
+        LongAdder acceptes = new LongAdder();
+        LongAdder retires = new LongAdder();
+        AtomicBoolean produire = new AtomicBoolean(true);
+        CountDownLatch depart = new CountDownLatch(1);
+        ExecutorService producteurs = Executors.newFixedThreadPool(8);
+        for (int p = 0; p < 8; p++) {
+            producteurs.submit(() -> {
+                depart.await();
+                for (int i = 0; i < 50_000; i++) {
+                    if (file.offrir(i)) {
+                        acceptes.increment();
+                    }
+                    tailleMax.accumulateAndGet(file.taille(), Math::max);
+                }
+                return null;
+            });
+        }
+        Thread consommateur = new Thread(() -> {
+            while (produire.get() || file.taille() > 0) {
+                if (file.retirer() != null) {
+                    retires.increment();
+                }
+            }
+        });
+        consommateur.start();
+        depart.countDown();
+        producteurs.shutdown();
+        assertTrue(producteurs.awaitTermination(30, TimeUnit.SECONDS));
+        produire.set(false);
+        consommateur.join(TimeUnit.SECONDS.toMillis(30));
+
+        assertTrue(tailleMax.get() <= 100, "Taille maximale observée : " + tailleMax.get());
+        assertEquals(acceptes.sum(), retires.sum());
+        assertEquals(0, file.taille());
+    }
+}
@@ -0,0 +1,75 @@
+package sn.uasz.utilisateursapi.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de {@link FiltreBloom}.
+ */
+class FiltreBloomTest {
+
+    /**
+     * Toute clé ajoutée est reconnue : aucun faux négatif.
+     */
+    @Test
+    void peutContenir_shouldNeverReturnFalseNegative() {
+        FiltreBloom filtre = new FiltreBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtre.ajouter("etudiant" + i + "@zig.univ.sn");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filtre.peutContenir("etudiant" + i + "@zig.univ.sn"));
+        }
+        assertFalse(filtre.estSature());
+    }
+
+    /**
+     * À pleine capacité, le taux de faux positifs mesuré reste proche du taux visé.
+     */
+    @Test
+    void peutContenir_shouldKeepFalsePositiveRateNearTarget() {
+        FiltreBloom filtre = new FiltreBloom(50_000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            filtre.ajouter("2022" + i);
+        }
+
+        long fauxPositifs = IntStream.range(0, 100_000).filter(i -> filtre.peutContenir("absent-" + i)).count();
+
+        assertTrue(fauxPositifs < 2_000, "Faux positifs : " + fauxPositifs);
+        assertEquals(0.01, filtre.tauxFauxPositifsEstime(), 0.005);
+    }
+
+    /**
+     * Des ajouts concurrents ne perdent aucun bit.
+     */
+    @Test
+    void ajouter_shouldBeSafeUnderConcurrency() {
+        FiltreBloom filtre = new FiltreBloom(100_000, 0.01);
+
+        IntStream.range(0, 100_000).parallel().forEach(i -> filtre.ajouter("cle" + i));
+
+        assertEquals(100_000, filtre.ajouts());
+        assertTrue(IntStream.range(0, 100_000).allMatch(i -> filtre.peutContenir("cle" + i)));
+    }
+
+    /**
+     * La saturation est signalée au-delà de la capacité ; les valeurs nulles sont ignorées.
+     */
+    @Test
+    void estSature_shouldReportOverCapacity() {
+        FiltreBloom filtre = new FiltreBloom(2, 0.01);
+        filtre.ajouter(null);
+        filtre.ajouter("a");
+        filtre.ajouter("b");
+        assertFalse(filtre.estSature());
+
+        filtre.ajouter("c");
+
+        assertTrue(filtre.estSature());
+        assertFalse(filtre.peutContenir(null));
+    }
+}
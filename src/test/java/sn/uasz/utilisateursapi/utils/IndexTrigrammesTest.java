@@ -0,0 +1,119 @@
+package sn.uasz.utilisateursapi.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de {@link IndexTrigrammes}.
+ */
+class IndexTrigrammesTest {
+
+    private IndexTrigrammes<String> index() {
+        IndexTrigrammes<String> index = new IndexTrigrammes<>();
+        index.indexer(3, 0, "Fatou Diop", "Diop", "Fatou");
+        index.indexer(1, 0, "Moussa Ndiaye", "Ndiaye", "Moussa");
+        index.indexer(2, 0, "Awa Diallo", "Diallo", "Awa");
+        return index;
+    }
+
+    /**
+     * Une sous-chaîne est trouvée dans le nom ou le prénom, sans tenir compte de la casse,
+     * et les résultats sont triés par identifiant.
+     */
+    @Test
+    void rechercher_shouldMatchSubstringInAnyField() {
+        IndexTrigrammes<String> index = index();
+
+        assertEquals(List.of("Moussa Ndiaye", "Awa Diallo", "Fatou Diop"), index.rechercher("DI"));
+        assertEquals(List.of("Moussa Ndiaye"), index.rechercher("ouss"));
+        assertEquals(List.of("Fatou Diop"), index.rechercher("IOP"));
+        assertEquals(List.of(), index.rechercher("xyz"));
+    }
+
+    /**
+     * Les requêtes de moins de trois caractères sont servies par les listes d'unigrammes et de
+     * bigrammes, avec la même sémantique de sous-chaîne ; une requête vide renvoie tout.
+     */
+    @Test
+    void rechercher_shouldServeShortQueriesFromIndex() {
+        IndexTrigrammes<String> index = index();
+
+        assertEquals(List.of("Moussa Ndiaye", "Fatou Diop"), index.rechercher("u"));
+        assertEquals(List.of("Awa Diallo"), index.rechercher("AW"));
+        assertEquals(List.of(), index.rechercher("zz"));
+        assertEquals(3, index.rechercher("").size());
+
+        index.indexer(2, 1, "Awa Sow", "Sow", "Awa");
+        assertEquals(List.of(), index.rechercher("ll"));
+        index.retirer(2);
+        assertEquals(List.of(), index.rechercher("aw"));
+    }
+
+    /**
+     * Une mise à jour qui n'est pas plus récente que la version indexée est ignorée, de même
+     * qu'une mise à jour arrivée après le retrait de l'élément.
+     */
+    @Test
+    void indexer_shouldIgnoreOutdatedVersions() {
+        IndexTrigrammes<String> index = new IndexTrigrammes<>();
+
+        assertTrue(index.indexer(1, 2, "Fatou Sarr", "Sarr", "Fatou"));
+        assertFalse(index.indexer(1, 1, "Fatou Diop", "Diop", "Fatou"));
+        assertFalse(index.indexer(1, 2, "Fatou Diop", "Diop", "Fatou"));
+        assertEquals(List.of("Fatou Sarr"), index.rechercher("fatou"));
+        assertEquals(List.of(), index.rechercher("diop"));
+
+        index.retirer(1);
+        assertFalse(index.indexer(1, 3, "Fatou Sarr", "Sarr", "Fatou"));
+        assertEquals(0, index.taille());
+
+        index.vider();
+        assertTrue(index.indexer(1, 0, "Fatou Sarr", "Sarr", "Fatou"));
+    }
+
+    /**
+     * Les trigrammes de la requête doivent se suivre : des trigrammes présents mais
+     * disjoints ne suffisent pas.
+     */
+    @Test
+    void rechercher_shouldVerifyCandidates() {
+        IndexTrigrammes<String> index = new IndexTrigrammes<>();
+        index.indexer(1, 0, "abcxbcd", "abcxbcd");
+
+        assertEquals(List.of(), index.rechercher("abcd"));
+        assertEquals(List.of("abcxbcd"), index.rechercher("cxbc"));
+    }
+
+    /**
+     * Une réindexation remplace les anciens champs, un retrait supprime l'élément.
+     */
+    @Test
+    void indexerEtRetirer_shouldKeepIndexConsistent() {
+        IndexTrigrammes<String> index = index();
+
+        index.indexer(3, 1, "Fatou Sarr", "Sarr", "Fatou");
+        assertEquals(List.of(), index.rechercher("diop"));
+        assertEquals(List.of("Fatou Sarr"), index.rechercher("sarr"));
+
+        index.retirer(3);
+        assertEquals(List.of(), index.rechercher("fatou"));
+        assertEquals(2, index.taille());
+
+        index.vider();
+        assertEquals(0, index.taille());
+    }
+
+    /**
+     * Un champ nul est indexé comme une chaîne vide.
+     */
+    @Test
+    void indexer_shouldIgnoreNullFields() {
+        IndexTrigrammes<String> index = new IndexTrigrammes<>();
+        index.indexer(1, 0, "Sans prénom", "Faye", null);
+
+        assertEquals(List.of("Sans prénom"), index.rechercher("fay"));
+    }
+}
@@ -0,0 +1,51 @@
+package sn.uasz.utilisateursapi.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de {@link LecteurCsv}.
+ */
+class LecteurCsvTest {
+
+    /**
+     * Un champ entre guillemets garde le séparateur, les sauts de ligne et les guillemets doublés.
+     */
+    @Test
+    void lire_shouldHandleQuotedFields() {
+        LecteurCsv csv = new LecteurCsv(new StringReader(
+                "\"Ba, Aminata\",\"Dit \"\"Mina\"\"\",M1\r\n"
+                        + "Sarr,\"Quartier\nEscale\",\r\n"
+                        + "\n"
+                        + "Faye,  \"Moussa\" ,M3"), ',');
+
+        assertEquals(List.of("Ba, Aminata", "Dit \"Mina\"", "M1"), csv.lire());
+        assertEquals(List.of("Sarr", "Quartier\nEscale", ""), csv.lire());
+        assertEquals(List.of(""), csv.lire());
+        assertEquals(List.of("Faye", "Moussa", "M3"), csv.lire());
+        assertNull(csv.lire());
+    }
+
+    /**
+     * Hors guillemets, les champs sont gardés tels quels, guillemets intérieurs compris.
+     */
+    @Test
+    void decouper_shouldKeepUnquotedFieldsVerbatim() {
+        assertEquals(List.of("nom", " prenom ", "l'\"ile\""), LecteurCsv.decouper("nom; prenom ;l'\"ile\"", ';'));
+        assertEquals(List.of("", ""), LecteurCsv.decouper(";", ';'));
+    }
+
+    /**
+     * Un guillemet ouvrant sans guillemet fermant est une erreur de format.
+     */
+    @Test
+    void lire_shouldRejectUnterminatedQuote() {
+        LecteurCsv csv = new LecteurCsv(new StringReader("\"Ba, Aminata;M1\n"), ';');
+
+        assertThrows(IllegalArgumentException.class, csv::lire);
+    }
+}
@@ -0,0 +1,55 @@
+package sn.uasz.utilisateursapi.utils;
+
+import org.junit.jupiter.api.Test;
+import sn.uasz.utilisateursapi.dtos.LotResultatDTO;
+import sn.uasz.utilisateursapi.exceptions.LotInvalideException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de {@link LectureParLot}.
+ */
+class LectureParLotTest {
+
+    /**
+     * Les doublons sont retirés en conservant l'ordre de la première occurrence.
+     */
+    @Test
+    void identifiants_shouldRemoveDuplicatesAndKeepOrder() {
+        assertEquals(List.of(3L, 1L, 2L), LectureParLot.identifiants(List.of(3L, 1L, 3L, 2L, 1L)));
+        assertEquals(List.of(), LectureParLot.identifiants(null));
+    }
+
+    /**
+     * Un identifiant nul ou un lot trop grand est rejeté.
+     */
+    @Test
+    void identifiants_shouldRejectNullIdAndOversizedBatch() {
+        assertThrows(LotInvalideException.class, () -> LectureParLot.identifiants(Arrays.asList(1L, null)));
+
+        List<Long> tropGrand = LongStream.rangeClosed(1, LectureParLot.TAILLE_MAX + 1).boxed().toList();
+        assertThrows(LotInvalideException.class, () -> LectureParLot.identifiants(tropGrand));
+    }
+
+    /**
+     * Les éléments trouvés suivent l'ordre de la requête, quel que soit l'ordre renvoyé par la base ;
+     * les identifiants absents sont listés à part.
+     */
+    @Test
+    void assembler_shouldRestoreRequestOrderAndReportMissingIds() {
+        List<Long> lus = new ArrayList<>(List.of(10L, 30L, 20L));
+        Collections.shuffle(lus);
+
+        LotResultatDTO<String> resultat = LectureParLot.assembler(List.of(30L, 99L, 10L, 20L, 42L), lus,
+                id -> id, id -> "e" + id);
+
+        assertEquals(List.of("e30", "e10", "e20"), resultat.trouves());
+        assertEquals(List.of(99L, 42L), resultat.manquants());
+    }
+}
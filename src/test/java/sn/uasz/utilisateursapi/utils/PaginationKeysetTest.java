@@ -0,0 +1,110 @@
+package sn.uasz.utilisateursapi.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
+import sn.uasz.utilisateursapi.dtos.PageCurseurDTO;
+import sn.uasz.utilisateursapi.exceptions.CurseurInvalideException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de {@link PaginationKeyset}.
+ */
+class PaginationKeysetTest {
+
+    /**
+     * La taille demandée est bornée par la taille maximale du serveur.
+     */
+    @Test
+    void limite_shouldClampRequestedSize() {
+        assertEquals(Limit.of(PaginationKeyset.TAILLE_DEFAUT), PaginationKeyset.limite(null));
+        assertEquals(Limit.of(PaginationKeyset.TAILLE_DEFAUT), PaginationKeyset.limite(0));
+        assertEquals(Limit.of(10), PaginationKeyset.limite(10));
+        assertEquals(Limit.of(PaginationKeyset.TAILLE_MAX), PaginationKeyset.limite(100_000));
+    }
+
+    /**
+     * Un curseur encodé puis décodé restitue la clé de tri et l'identifiant.
+     */
+    @Test
+    void position_shouldDecodeEncodedCursor() {
+        String curseur = PaginationKeyset.encoder("Sène:Ndiaye", 42L);
+
+        KeysetScrollPosition position = PaginationKeyset.position(curseur, "nom");
+
+        assertEquals("Sène:Ndiaye", position.getKeys().get("nom"));
+        assertEquals(42L, position.getKeys().get("id"));
+        assertTrue(position.scrollsForward());
+    }
+
+    /**
+     * Une clé de tri nulle est restituée nulle, distincte d'une chaîne vide.
+     */
+    @Test
+    void position_shouldDistinguishNullFromEmptySortKey() {
+        KeysetScrollPosition nulle = PaginationKeyset.position(PaginationKeyset.encoder(null, 7L), "nom");
+        KeysetScrollPosition vide = PaginationKeyset.position(PaginationKeyset.encoder("", 7L), "nom");
+
+        assertTrue(nulle.getKeys().containsKey("nom"));
+        assertNull(nulle.getKeys().get("nom"));
+        assertEquals(7L, nulle.getKeys().get("id"));
+        assertEquals("", vide.getKeys().get("nom"));
+        assertEquals(7L, vide.getKeys().get("id"));
+    }
+
+    /**
+     * Sans curseur, la lecture démarre au début de la liste.
+     */
+    @Test
+    void position_shouldStartAtBeginningWithoutCursor() {
+        assertTrue(PaginationKeyset.position(null, "nom").isInitial());
+        assertTrue(PaginationKeyset.position(" ", "nom").isInitial());
+    }
+
+    /**
+     * Un curseur altéré est rejeté par une exception dédiée.
+     */
+    @Test
+    void position_shouldRejectTamperedCursor() {
+        assertThrows(CurseurInvalideException.class, () -> PaginationKeyset.position("@@@", "nom"));
+        assertThrows(CurseurInvalideException.class, () -> PaginationKeyset.position("YWJj", "nom"));
+    }
+
+    /**
+     * Le curseur suivant pointe sur le dernier élément de la page, et disparaît en fin de liste.
+     */
+    @Test
+    void page_shouldExposeCursorOfLastElement() {
+        Window<String> fenetre = Window.from(List.of("a", "b"), i -> null, true);
+
+        PageCurseurDTO<String> page = PaginationKeyset.page(fenetre, String::toUpperCase, s -> s, s -> 7L);
+
+        assertEquals(List.of("A", "B"), page.elements());
+        assertEquals(PaginationKeyset.encoder("b", 7L), page.suivant());
+
+        PageCurseurDTO<String> derniere = PaginationKeyset.page(
+                Window.from(List.of("c"), i -> null, false), s -> s, s -> s, s -> 8L);
+        assertFalse(derniere.aSuivant());
+    }
+
+    /**
+     * Lue avec une ligne de plus que la limite, la page est tronquée et son curseur pointe
+     * sur le dernier élément gardé, y compris lorsque sa clé de tri est nulle.
+     */
+    @Test
+    void page_shouldTrimExtraRow() {
+        List<String> lignes = Arrays.asList(null, "a", "b");
+
+        PageCurseurDTO<String> page = PaginationKeyset.page(lignes, Limit.of(1), s -> s, s -> s, s -> 3L);
+        assertEquals(Collections.singletonList(null), page.elements());
+        assertEquals(PaginationKeyset.encoder(null, 3L), page.suivant());
+
+        assertFalse(PaginationKeyset.page(lignes, Limit.of(3), s -> s, s -> s, s -> 3L).aSuivant());
+    }
+}
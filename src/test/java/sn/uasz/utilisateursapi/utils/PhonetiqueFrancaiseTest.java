@@ -0,0 +1,60 @@
+package sn.uasz.utilisateursapi.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de {@link PhonetiqueFrancaise}.
+ */
+class PhonetiqueFrancaiseTest {
+
+    /**
+     * Les graphies d'un même nom, telles que saisies à l'oreille, partagent une clé.
+     */
+    @Test
+    void cle_shouldMatchSpellingsOfTheSameName() {
+        assertMemeCle("Ndiaye", "N'Diaye", "Diaye", "NDIAYE", "N’Diaye");
+        assertMemeCle("Thiongane", "Tiongane");
+        assertMemeCle("Mbaye", "Baye");
+        assertMemeCle("Cissé", "Sissé", "Cisse");
+        assertMemeCle("Djibril", "Jibril");
+        assertMemeCle("Gueye", "Guèye");
+        assertMemeCle("Seck", "Sek");
+        assertMemeCle("Cheikh", "Cheick", "Cheik");
+        assertMemeCle("Seynabou", "Zeinabou");
+        assertMemeCle("Diallo", "Dialo");
+        assertMemeCle("Kouyaté", "Couyaté");
+    }
+
+    /**
+     * Des noms qui se prononcent différemment gardent des clés différentes.
+     */
+    @Test
+    void cle_shouldKeepDistinctNamesApart() {
+        assertNotEquals(PhonetiqueFrancaise.cle("Ndiaye"), PhonetiqueFrancaise.cle("Diop"));
+        assertNotEquals(PhonetiqueFrancaise.cle("Ndiaye"), PhonetiqueFrancaise.cle("Dieye"));
+        assertNotEquals(PhonetiqueFrancaise.cle("Gueye"), PhonetiqueFrancaise.cle("Gaye"));
+        assertNotEquals(PhonetiqueFrancaise.cle("Fall"), PhonetiqueFrancaise.cle("Faye"));
+        assertNotEquals(PhonetiqueFrancaise.cle("Sène"), PhonetiqueFrancaise.cle("Seck"));
+    }
+
+    /**
+     * Chaque mot a sa clé ; un texte sans lettre donne une clé vide.
+     */
+    @Test
+    void cle_shouldEncodeEachWord() {
+        assertEquals(PhonetiqueFrancaise.cle("Diédhiou") + " " + PhonetiqueFrancaise.cle("Kane"),
+                PhonetiqueFrancaise.cle("Diédhiou-Kâné"));
+        assertEquals("", PhonetiqueFrancaise.cle(" -' "));
+        assertNull(PhonetiqueFrancaise.cle(null));
+    }
+
+    private static void assertMemeCle(String reference, String... variantes) {
+        String cle = PhonetiqueFrancaise.cle(reference);
+        assertFalse(cle.isEmpty());
+        for (String variante : variantes) {
+            assertEquals(cle, PhonetiqueFrancaise.cle(variante), variante);
+        }
+    }
+}
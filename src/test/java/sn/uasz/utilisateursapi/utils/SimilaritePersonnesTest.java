@@ -0,0 +1,78 @@
+package sn.uasz.utilisateursapi.utils;
+
+import org.junit.jupiter.api.Test;
+import sn.uasz.utilisateursapi.dtos.FichePersonneDTO;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.utils.SimilaritePersonnes.Profil;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de {@link SimilaritePersonnes}.
+ */
+class SimilaritePersonnesTest {
+
+    /**
+     * Les clés de blocage rapprochent les graphies voisines, les emails à suffixe numérique et les
+     * téléphones avec ou sans indicatif.
+     */
+    @Test
+    void clesBlocage_shouldGroupVariantSpellingsEmailsAndPhones() {
+        Profil etudiant = profil(TypeAgregat.ETUDIANT, "N'Diaye", "Fatou", "fatou.ndiaye2@zig.univ.sn", null,
+                LocalDate.of(2001, 3, 14));
+        Profil vacataire = profil(TypeAgregat.VACATAIRE, "Diaye", "Fatou", "Fatou.Ndiaye@zig.univ.sn",
+                "+221 77 123 45 67", null);
+
+        assertEquals(List.of("D:diai 2001-03-14", "E:fatou.ndiaye", "N:diai fatu"), etudiant.clesBlocage());
+        assertEquals(List.of("E:fatou.ndiaye", "N:diai fatu", "T:771234567"), vacataire.clesBlocage());
+        assertEquals(List.of("T:771234567"),
+                profil(TypeAgregat.ENSEIGNANT, null, " ", null, "77-123-45-67", null).clesBlocage());
+    }
+
+    /**
+     * Même personne sous une graphie voisine, ou nom et prénom intervertis : score élevé ; simples
+     * homonymes sans autre indice commun : sous le seuil.
+     */
+    @Test
+    void comparer_shouldScoreSamePersonAboveHomonyms() {
+        Profil enseignant = profil(TypeAgregat.ENSEIGNANT, "Cissé", "Mamadou", "mamadou.cisse@zig.univ.sn",
+                "771234567", null);
+        Profil vacataire = profil(TypeAgregat.VACATAIRE, "Sissé", "Mamadou", "mamadou.cisse1@zig.univ.sn",
+                "+221771234567", null);
+        Profil inverse = profil(TypeAgregat.VACATAIRE, "Mamadou", "Cisse", null, "771234567", null);
+        Profil homonyme1 = profil(TypeAgregat.ETUDIANT, "Diop", "Awa", "awa.diop@zig.univ.sn", null,
+                LocalDate.of(2000, 1, 1));
+        Profil homonyme2 = profil(TypeAgregat.ETUDIANT, "Diop", "Awa", "awa.diop3@zig.univ.sn", null,
+                LocalDate.of(2002, 6, 30));
+
+        SimilaritePersonnes.Resultat memePersonne = SimilaritePersonnes.comparer(enseignant, vacataire);
+        SimilaritePersonnes.Resultat intervertis = SimilaritePersonnes.comparer(enseignant, inverse);
+        SimilaritePersonnes.Resultat homonymes = SimilaritePersonnes.comparer(homonyme1, homonyme2);
+
+        assertTrue(memePersonne.score() > 0.9, "score " + memePersonne.score());
+        assertEquals(List.of("nom", "prenom", "email", "telephone"), memePersonne.criteres());
+        assertTrue(intervertis.score() > 0.85, "score " + intervertis.score());
+        assertTrue(homonymes.score() < 0.85, "score " + homonymes.score());
+        assertFalse(homonymes.criteres().contains("dateNaissance"));
+    }
+
+    /**
+     * Valeurs de référence de Jaro-Winkler.
+     */
+    @Test
+    void jaroWinkler_shouldMatchReferenceValues() {
+        assertEquals(1.0, SimilaritePersonnes.jaroWinkler("sene", "sene"));
+        assertEquals(0.961, SimilaritePersonnes.jaroWinkler("martha", "marhta"), 0.001);
+        assertEquals(0.813, SimilaritePersonnes.jaroWinkler("dixon", "dicksonx"), 0.001);
+        assertEquals(0.0, SimilaritePersonnes.jaroWinkler("abc", "xyz"));
+        assertEquals(0.0, SimilaritePersonnes.jaroWinkler("", "sene"));
+    }
+
+    private static Profil profil(TypeAgregat type, String nom, String prenom, String email, String telephone,
+                                 LocalDate dateNaissance) {
+        return Profil.de(new FichePersonneDTO(type, 1L, nom, prenom, email, telephone, dateNaissance));
+    }
+}
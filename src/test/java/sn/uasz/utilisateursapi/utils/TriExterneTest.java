@@ -0,0 +1,65 @@
+package sn.uasz.utilisateursapi.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de {@link TriExterne}.
+ */
+class TriExterneTest {
+
+    @TempDir
+    Path repertoire;
+
+    /**
+     * Au-delà du tampon, les séries écrites sur disque sont fusionnées dans l'ordre, doublons compris.
+     */
+    @Test
+    void parcourir_shouldMergeSeriesInOrder() throws IOException {
+        List<String> lignes = new ArrayList<>(IntStream.range(0, 1000).mapToObj(i -> "cle-" + (i % 300)).toList());
+        Collections.shuffle(lignes, new Random(42));
+        List<String> triees = new ArrayList<>();
+
+        try (TriExterne tri = new TriExterne(repertoire, 64)) {
+            lignes.forEach(tri::ajouter);
+
+            assertEquals(1000, tri.parcourir(triees::add));
+            assertTrue(tri.series() > 1);
+            assertEquals(1000, tri.lignes());
+        }
+
+        assertEquals(lignes.stream().sorted().toList(), triees);
+        try (Stream<Path> fichiers = Files.list(repertoire)) {
+            assertEquals(0, fichiers.count());
+        }
+    }
+
+    /**
+     * Sous la taille du tampon, aucun fichier n'est écrit.
+     */
+    @Test
+    void parcourir_shouldSortInMemoryWhenBufferIsNotFull() {
+        List<String> triees = new ArrayList<>();
+
+        try (TriExterne tri = new TriExterne(repertoire, 10)) {
+            List.of("sene", "ba", "diop").forEach(tri::ajouter);
+            tri.parcourir(triees::add);
+
+            assertEquals(0, tri.series());
+        }
+
+        assertEquals(List.of("ba", "diop", "sene"), triees);
+    }
+}
@@ -0,0 +1,115 @@
+package sn.uasz.utilisateursapi.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import sn.uasz.utilisateursapi.dtos.VacataireDTO;
+import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+import sn.uasz.utilisateursapi.services.AnnuaireIndexRecherche;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Annuaire de bout en bout sur la base H2 : les changements faits par l'API sont indexés à leur
+ * validation et visibles après rafraîchissement (ici explicite) ; la reconstruction relit la base.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AnnuaireControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AnnuaireIndexRecherche annuaireIndexRecherche;
+
+    @Autowired
+    private VacataireRepository vacataireRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long id;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MvcResult creation = mockMvc.perform(post("/api/vacataires")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(vacataire("Thiongane"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        id = objectMapper.readValue(creation.getResponse().getContentAsString(), VacataireDTO.class).getId();
+        annuaireIndexRecherche.rafraichir();
+    }
+
+    @AfterEach
+    void tearDown() {
+        vacataireRepository.deleteById(id);
+        annuaireIndexRecherche.reconstruire();
+    }
+
+    @Test
+    void apiChanges_areSearchableAcrossTypes() throws Exception {
+        mockMvc.perform(get("/api/annuaire/search").param("q", "thiong ethnomusicologie"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].type").value("VACATAIRE"))
+                .andExpect(jsonPath("$[0].id").value(id))
+                .andExpect(jsonPath("$[0].detail").value("Ethnomusicologie"));
+
+        mockMvc.perform(put("/api/vacataires/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(vacataire("Tine"))))
+                .andExpect(status().isOk());
+        annuaireIndexRecherche.rafraichir();
+
+        mockMvc.perform(get("/api/annuaire/search").param("q", "thiongane"))
+                .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/annuaire/search").param("q", "tine").param("type", "VACATAIRE"))
+                .andExpect(jsonPath("$[0].id").value(id));
+    }
+
+    @Test
+    void reconstruction_readsDatabaseWritesMadeOutsideTheApi() throws Exception {
+        jdbcTemplate.update("update vacataires set nom = 'Coly' where id = ?", id);
+
+        mockMvc.perform(post("/api/annuaire/reconstruction"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.documents").isNumber());
+
+        mockMvc.perform(get("/api/annuaire/search").param("q", "coly ethnomusicologie"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].nom").value("Coly"));
+    }
+
+    @Test
+    void unknownType_isRejected() throws Exception {
+        mockMvc.perform(get("/api/annuaire/search").param("q", "sarr").param("type", "SALLE"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static VacataireDTO vacataire(String nom) {
+        VacataireDTO vacataire = new VacataireDTO();
+        vacataire.setNom(nom);
+        vacataire.setPrenom("Annuaire");
+        vacataire.setEmail("annuaire." + System.identityHashCode(AnnuaireControllerTest.class) + "@zig.univ.sn");
+        vacataire.setSpecialite("Ethnomusicologie");
+        vacataire.setActif(true);
+        return vacataire;
+    }
+}
@@ -0,0 +1,135 @@
+package sn.uasz.utilisateursapi.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import sn.uasz.utilisateursapi.dtos.VacataireDTO;
+import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+import sn.uasz.utilisateursapi.services.JournalAudit;
+
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Journal d'audit de bout en bout sur la base H2 : les changements faits par l'API sont écrits
+ * en arrière-plan (ici explicitement) puis consultés, champ par champ, via {@code GET /api/audit}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuditControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JournalAudit journalAudit;
+
+    @Autowired
+    private VacataireRepository vacataireRepository;
+
+    private Long id;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        journalAudit.ecrireEnAttente();
+        VacataireDTO vacataire = vacataire("Ndiaye");
+        MvcResult creation = mockMvc.perform(post("/api/vacataires")
+                        .header(JournalAudit.EN_TETE_AUTEUR, "secretariat")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(vacataire)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        id = objectMapper.readValue(creation.getResponse().getContentAsString(), VacataireDTO.class).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        vacataireRepository.deleteById(id);
+    }
+
+    @Test
+    void mutations_areListedNewestFirstWithFieldDiffs() throws Exception {
+        mockMvc.perform(put("/api/vacataires/{id}", id)
+                        .header(JournalAudit.EN_TETE_AUTEUR, "drh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(vacataire("Sarr"))))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/vacataires/{id}/desactiver", id))
+                .andExpect(status().isOk());
+        journalAudit.ecrireEnAttente();
+
+        mockMvc.perform(get("/api/audit").param("entity", "VACATAIRE").param("id", id.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].action").value("DESACTIVATION"))
+                .andExpect(jsonPath("$[0].auteur").value("anonyme"))
+                .andExpect(jsonPath("$[0].modifications.actif.avant").value(true))
+                .andExpect(jsonPath("$[0].modifications.actif.apres").value(false))
+                .andExpect(jsonPath("$[0].modifications.nom").doesNotExist())
+                .andExpect(jsonPath("$[1].action").value("MODIFICATION"))
+                .andExpect(jsonPath("$[1].auteur").value("drh"))
+                .andExpect(jsonPath("$[1].modifications.nom.avant").value("Ndiaye"))
+                .andExpect(jsonPath("$[1].modifications.nom.apres").value("Sarr"))
+                .andExpect(jsonPath("$[2].action").value("CREATION"))
+                .andExpect(jsonPath("$[2].auteur").value("secretariat"))
+                .andExpect(jsonPath("$[2].modifications.nom.avant").value(nullValue()));
+    }
+
+    @Test
+    void history_isPagedWithCursor() throws Exception {
+        for (String nom : new String[]{"Sarr", "Fall"}) {
+            mockMvc.perform(put("/api/vacataires/{id}", id)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(vacataire(nom))))
+                    .andExpect(status().isOk());
+        }
+        journalAudit.ecrireEnAttente();
+
+        String curseur = mockMvc.perform(get("/api/audit")
+                        .param("entity", "VACATAIRE").param("id", id.toString()).param("taille", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].modifications.nom.apres").value("Fall"))
+                .andReturn().getResponse().getHeader(ReponsePaginee.EN_TETE_CURSEUR_SUIVANT);
+        assertNotNull(curseur);
+
+        mockMvc.perform(get("/api/audit").param("entity", "VACATAIRE").param("id", id.toString())
+                        .param("taille", "2").param("curseur", curseur))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].action").value("CREATION"))
+                .andExpect(header().doesNotExist(ReponsePaginee.EN_TETE_CURSEUR_SUIVANT));
+    }
+
+    @Test
+    void unknownEntity_isRejected() throws Exception {
+        mockMvc.perform(get("/api/audit").param("entity", "SALLE"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static VacataireDTO vacataire(String nom) {
+        VacataireDTO vacataire = new VacataireDTO();
+        vacataire.setNom(nom);
+        vacataire.setPrenom("Audit");
+        vacataire.setEmail("audit." + System.identityHashCode(AuditControllerTest.class) + "@zig.univ.sn");
+        vacataire.setSpecialite("Informatique");
+        vacataire.setActif(true);
+        return vacataire;
+    }
+}
@@ -0,0 +1,139 @@
+package sn.uasz.utilisateursapi.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import sn.uasz.utilisateursapi.dtos.VacataireDTO;
+import sn.uasz.utilisateursapi.services.IndexAutocompletion;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Autocomplétion de bout en bout sur la base H2 : les changements faits par l'API sont suggérés
+ * dès leur validation ; le rechargement relit la base.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AutocompletionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IndexAutocompletion indexAutocompletion;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Long id;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MvcResult creation = mockMvc.perform(post("/api/vacataires")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(vacataire("Kéïta"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        id = objectMapper.readValue(creation.getResponse().getContentAsString(), VacataireDTO.class).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from vacataires where id = ?", id);
+        indexAutocompletion.recharger();
+    }
+
+    @Test
+    void apiChanges_areSuggestedByFullNameOrEmailPrefix() throws Exception {
+        mockMvc.perform(get("/api/autocomplete").param("q", "Sékou KEI"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].type").value("VACATAIRE"))
+                .andExpect(jsonPath("$[0].id").value(id))
+                .andExpect(jsonPath("$[0].nom").value("Kéïta"));
+        mockMvc.perform(get("/api/autocomplete").param("q", "keita sek"))
+                .andExpect(jsonPath("$[0].id").value(id));
+        mockMvc.perform(get("/api/autocomplete").param("q", "sekou.autocompletion@"))
+                .andExpect(jsonPath("$[0].id").value(id));
+
+        mockMvc.perform(put("/api/vacataires/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(vacataire("Camara"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/autocomplete").param("q", "sekou k"))
+                .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/autocomplete").param("q", "sekou c").param("type", "VACATAIRE"))
+                .andExpect(jsonPath("$[0].nom").value("Camara"));
+        mockMvc.perform(get("/api/autocomplete").param("q", "sekou c").param("type", "ETUDIANT"))
+                .andExpect(jsonPath("$.length()").value(0));
+
+        mockMvc.perform(delete("/api/vacataires/{id}", id))
+                .andExpect(status().is2xxSuccessful());
+
+        mockMvc.perform(get("/api/autocomplete").param("q", "sekou"))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void recharger_readsDatabaseWritesMadeOutsideTheApi() throws Exception {
+        jdbcTemplate.update("update vacataires set nom = 'Coly', version = version + 1 where id = ?", id);
+
+        assertTrue(indexAutocompletion.recharger() >= 1);
+
+        mockMvc.perform(get("/api/autocomplete").param("q", "sekou coly"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].nom").value("Coly"));
+    }
+
+    @Test
+    void suggestions_arePublishedInMetrics() throws Exception {
+        mockMvc.perform(get("/api/autocomplete").param("q", "sek").param("k", "1"))
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(get("/api/autocomplete").param("q", " "))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        assertTrue(meterRegistry.get("autocompletion.suggestion").timer().count() >= 1);
+        assertTrue(meterRegistry.get("autocompletion.entrees").gauge().value() >= 3);
+        assertTrue(meterRegistry.get("autocompletion.memoire").tag("structure", "arbres").gauge().value() > 0);
+        assertTrue(meterRegistry.get("autocompletion.memoire").tag("structure", "fiches").gauge().value() > 0);
+    }
+
+    @Test
+    void unknownType_isRejected() throws Exception {
+        mockMvc.perform(get("/api/autocomplete").param("q", "sek").param("type", "SALLE"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static VacataireDTO vacataire(String nom) {
+        VacataireDTO vacataire = new VacataireDTO();
+        vacataire.setNom(nom);
+        vacataire.setPrenom("Sékou");
+        vacataire.setEmail("sekou.autocompletion@zig.univ.sn");
+        vacataire.setSpecialite("Linguistique");
+        vacataire.setActif(true);
+        return vacataire;
+    }
+}
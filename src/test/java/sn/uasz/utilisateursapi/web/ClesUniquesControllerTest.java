@@ -0,0 +1,84 @@
+package sn.uasz.utilisateursapi.web;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import sn.uasz.utilisateursapi.entities.Vacataire;
+import sn.uasz.utilisateursapi.enums.CleUnique;
+import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+import sn.uasz.utilisateursapi.services.RegistreClesUniques;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests d'intégration du contrôle groupé d'existence des clés uniques
+ * et de la mise à jour des filtres de Bloom à l'écriture.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ClesUniquesControllerTest {
+
+    private static final String EMAIL = "bloom.test@univ-zig.sn";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RegistreClesUniques registreClesUniques;
+
+    @Autowired
+    private VacataireRepository vacataireRepository;
+
+    private Vacataire cree;
+
+    @AfterEach
+    void tearDown() {
+        if (cree != null) {
+            vacataireRepository.delete(cree);
+        }
+    }
+
+    @Test
+    void existantes_shouldReturnKeysPresentInDatabase() throws Exception {
+        // Les étudiants de démonstration sont chargés au démarrage et présents dans le filtre
+        mockMvc.perform(post("/api/cles-uniques/{cle}/existantes", CleUnique.ETUDIANT_MATRICULE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"inconnu-1\", \"202202898\", \"inconnu-2\", \"202202898\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.demandees", is(3)))
+                .andExpect(jsonPath("$.existantes.size()", is(1)))
+                .andExpect(jsonPath("$.existantes[0]", is("202202898")));
+    }
+
+    @Test
+    void enregistrement_shouldAddKeyToFilter() {
+        assertTrue(registreClesUniques.estPret(CleUnique.VACATAIRE_EMAIL));
+        assertFalse(registreClesUniques.peutExister(CleUnique.VACATAIRE_EMAIL, EMAIL));
+
+        Vacataire vacataire = new Vacataire();
+        vacataire.setNom("Bloom");
+        vacataire.setPrenom("Test");
+        vacataire.setEmail(EMAIL);
+        vacataire.setTelephone("0612345678");
+        cree = vacataireRepository.save(vacataire);
+
+        assertTrue(registreClesUniques.peutExister(CleUnique.VACATAIRE_EMAIL, EMAIL));
+    }
+
+    @Test
+    void existantes_withUnknownKey_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/cles-uniques/{cle}/existantes", "TELEPHONE")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"0612345678\"]"))
+                .andExpect(status().isBadRequest());
+    }
+}
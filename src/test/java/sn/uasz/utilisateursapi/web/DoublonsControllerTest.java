@@ -0,0 +1,126 @@
+package sn.uasz.utilisateursapi.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import sn.uasz.utilisateursapi.dtos.DoublonDTO;
+import sn.uasz.utilisateursapi.dtos.VacataireDTO;
+import sn.uasz.utilisateursapi.entities.Enseignant;
+import sn.uasz.utilisateursapi.enums.Grade;
+import sn.uasz.utilisateursapi.enums.TypeAgregat;
+import sn.uasz.utilisateursapi.repositories.EnseignantRepository;
+import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+import sn.uasz.utilisateursapi.services.DetectionDoublons;
+
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Détection des doublons de bout en bout sur la base H2 : une personne saisie comme enseignant et
+ * comme vacataire sous une graphie voisine figure dans le rapport.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class DoublonsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DetectionDoublons detectionDoublons;
+
+    @Autowired
+    private EnseignantRepository enseignantRepository;
+
+    @Autowired
+    private VacataireRepository vacataireRepository;
+
+    private Long enseignantId;
+    private Long vacataireId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        enseignantId = enseignantRepository.save(Enseignant.builder()
+                .nom("Cissé")
+                .prenom("Mamadou Lamine")
+                .email("mamadou-lamine.cisse@doublons.univ.sn")
+                .telephone("+221771112233")
+                .grade(Grade.PROFESSEUR)
+                .actif(true)
+                .build()).getId();
+        VacataireDTO vacataire = new VacataireDTO();
+        vacataire.setNom("Sissé");
+        vacataire.setPrenom("Mamadou Lamine");
+        vacataire.setEmail("mamadou-lamine.cisse2@doublons.univ.sn");
+        vacataire.setTelephone("0771112233");
+        vacataire.setSpecialite("Géographie");
+        vacataire.setActif(true);
+        MvcResult creation = mockMvc.perform(post("/api/vacataires")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(vacataire)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        vacataireId = objectMapper.readValue(creation.getResponse().getContentAsString(), VacataireDTO.class).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        enseignantRepository.deleteById(enseignantId);
+        vacataireRepository.deleteById(vacataireId);
+    }
+
+    @Test
+    void detection_reportsSamePersonAcrossTypes() throws Exception {
+        Files.deleteIfExists(detectionDoublons.fichierRapport());
+        mockMvc.perform(get("/api/doublons/rapport"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/api/doublons/detection"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.personnes").isNumber())
+                .andExpect(jsonPath("$.doublons").isNumber())
+                .andExpect(jsonPath("$.fichier").isString());
+
+        String rapport = mockMvc.perform(get("/api/doublons/rapport"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<DoublonDTO> doublons = rapport.lines()
+                .map(ligne -> {
+                    try {
+                        return objectMapper.readValue(ligne, DoublonDTO.class);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+        List<DoublonDTO> trouves = doublons.stream()
+                .filter(doublon -> doublon.premiere().type() == TypeAgregat.ENSEIGNANT
+                        && doublon.premiere().id().equals(enseignantId)
+                        && doublon.seconde().type() == TypeAgregat.VACATAIRE
+                        && doublon.seconde().id().equals(vacataireId))
+                .toList();
+
+        assertEquals(1, trouves.size());
+        assertTrue(trouves.get(0).criteres().containsAll(List.of("nom", "prenom", "email", "telephone")));
+        for (int i = 1; i < doublons.size(); i++) {
+            assertTrue(doublons.get(i - 1).score() >= doublons.get(i).score());
+        }
+    }
+}
@@ -8,11 +8,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import sn.uasz.utilisateursapi.dtos.EnseignantDTO;
+import sn.uasz.utilisateursapi.dtos.PageCurseurDTO;
 import sn.uasz.utilisateursapi.entities.Role;
 import sn.uasz.utilisateursapi.enums.Grade;
+import sn.uasz.utilisateursapi.exceptions.VersionObsoleteException;
 import sn.uasz.utilisateursapi.services.EnseignantService;
 
 import java.time.LocalDate;
@@ -68,7 +71,8 @@ class EnseignantControllerTest {
                 roles,
                 "admin",
                 LocalDate.now(),
-                true
+                true,
+                2L
         );
     }
 
@@ -96,10 +100,12 @@ class EnseignantControllerTest {
     void testListerEnseignants() throws Exception {
         List<EnseignantDTO> enseignants = List.of(enseignantDTO);
         // Simulation du service pour lister les enseignants
-        Mockito.when(enseignantService.listerTousEnseignants()).thenReturn(enseignants);
+        Mockito.when(enseignantService.listerEnseignantsParPage(null, null))
+                .thenReturn(new PageCurseurDTO<>(enseignants, null));
 
-        mockMvc.perform(get("/api/enseignants"))  // Requête GET pour récupérer tous les enseignants
+        mockMvc.perform(get("/api/enseignants"))  // Requête GET pour récupérer la première page d'enseignants
                 .andExpect(status().isOk())  // Vérifie que le code de statut HTTP est 200 (OK)
+                .andExpect(header().doesNotExist("X-Next-Cursor"))  // Dernière page : pas de curseur suivant
                 .andExpect(jsonPath("$[0].email", is("moussa.fall@uasz.sn")));  // Vérifie que l'email du premier enseignant est correct
     }
 
@@ -124,15 +130,45 @@ class EnseignantControllerTest {
     @Test
     void testModifierEnseignant() throws Exception {
         // Simulation du service pour modifier un enseignant
-        Mockito.when(enseignantService.modifierEnseignant(eq(1L), any(EnseignantDTO.class))).thenReturn(enseignantDTO);
+        Mockito.when(enseignantService.modifierEnseignant(eq(1L), any(EnseignantDTO.class), eq(1L))).thenReturn(enseignantDTO);
 
         mockMvc.perform(put("/api/enseignants/1")  // Requête PUT pour modifier un enseignant avec ID 1
+                        .header(HttpHeaders.IF_MATCH, "\"1\"")  // Version lue par le client
                         .contentType(MediaType.APPLICATION_JSON)  // Spécifie le type de contenu JSON
                         .content(objectMapper.writeValueAsString(enseignantDTO)))  // Sérialise l'enseignant modifié en JSON
                 .andExpect(status().isOk())  // Vérifie que le code de statut HTTP est 200 (OK)
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))  // ETag de la nouvelle version
                 .andExpect(jsonPath("$.matricule", is("MAT123")));  // Vérifie que le matricule de l'enseignant est correct
     }
 
+    /**
+     * Test d'une modification dont la version attendue est obsolète : réponse 412.
+     */
+    @Test
+    void testModifierEnseignantVersionObsolete() throws Exception {
+        Mockito.when(enseignantService.modifierEnseignant(eq(1L), any(EnseignantDTO.class), eq(1L)))
+                .thenThrow(new VersionObsoleteException("L'enseignant 1 a été modifié depuis la version 1"));
+
+        mockMvc.perform(put("/api/enseignants/1")
+                        .header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(enseignantDTO)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    /**
+     * Un If-Match qui n'est pas un ETag émis par l'API ne peut correspondre à aucune version : 412.
+     */
+    @Test
+    void testModifierEnseignantIfMatchInvalide() throws Exception {
+        mockMvc.perform(put("/api/enseignants/1")
+                        .header(HttpHeaders.IF_MATCH, "W/\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(enseignantDTO)))
+                .andExpect(status().isPreconditionFailed());
+        Mockito.verify(enseignantService, Mockito.never()).modifierEnseignant(any(), any(), any());
+    }
+
     /**
      * Test de la suppression d'un enseignant.
      * Vérifie que l'enseignant est supprimé correctement.
@@ -190,7 +226,8 @@ class EnseignantControllerTest {
                 enseignantDTO.roles(),
                 enseignantDTO.createBy(),
                 enseignantDTO.createAt(),
-                false
+                false,
+                enseignantDTO.version()
         );
 
         // Simulation du service pour désactiver un enseignant
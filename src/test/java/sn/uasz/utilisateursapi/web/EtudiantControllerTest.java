@@ -6,6 +6,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import sn.uasz.utilisateursapi.dtos.EtudiantDTO;
@@ -55,7 +56,7 @@ class EtudiantControllerTest {
     void getEtudiantById_shouldReturnEtudiant() {
         when(etudiantService.obtenirEtudiant(1)).thenReturn(etudiantDTO);
 
-        ResponseEntity<EtudiantDTO> response = etudiantController.getEtudiantById(1L);
+        ResponseEntity<EtudiantDTO> response = etudiantController.getEtudiantById(1L, new HttpHeaders());
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -96,14 +97,17 @@ class EtudiantControllerTest {
         updatedEtudiant.setDateNaissance(LocalDate.of(2000, 2, 2));
         updatedEtudiant.setLieuNaissance("Thiès");
 
-        when(etudiantService.modifierEtudiant(anyInt(), any(EtudiantDTO.class))).thenReturn(updatedEtudiant);
+        updatedEtudiant.setVersion(1L);
 
-        ResponseEntity<EtudiantDTO> response = etudiantController.updateEtudiant(1L, updatedEtudiant);
+        when(etudiantService.modifierEtudiant(anyInt(), any(EtudiantDTO.class), isNull())).thenReturn(updatedEtudiant);
+
+        ResponseEntity<EtudiantDTO> response = etudiantController.updateEtudiant(1L, null, updatedEtudiant);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("Dupont-Updated", response.getBody().getNom());
-        verify(etudiantService, times(1)).modifierEtudiant(anyInt(), any(EtudiantDTO.class));
+        assertEquals("\"1\"", response.getHeaders().getETag());
+        verify(etudiantService, times(1)).modifierEtudiant(anyInt(), any(EtudiantDTO.class), isNull());
     }
 
     /**
@@ -0,0 +1,99 @@
+package sn.uasz.utilisateursapi.web;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import sn.uasz.utilisateursapi.entities.Etudiant;
+import sn.uasz.utilisateursapi.entities.Role;
+import sn.uasz.utilisateursapi.repositories.EtudiantRepository;
+import sn.uasz.utilisateursapi.repositories.RoleRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie que la liste des étudiants n'émet pas une requête par ligne pour charger les rôles (N+1) :
+ * le nombre d'ordres SQL de {@code GET /api/etudiants} ne dépend pas du nombre d'étudiants renvoyés.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class EtudiantListeRequetesSqlTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EtudiantRepository etudiantRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistiques;
+    private final List<Etudiant> crees = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistiques.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        etudiantRepository.deleteAll(crees);
+        statistiques.setStatisticsEnabled(false);
+    }
+
+    private void creerEtudiants(int nombre) {
+        List<Role> roles = roleRepository.findAll();
+        List<Etudiant> etudiants = new ArrayList<>();
+        for (int i = 0; i < nombre; i++) {
+            Etudiant etudiant = new Etudiant();
+            etudiant.setNom("Sql" + crees.size() + i);
+            etudiant.setPrenom("Test");
+            etudiant.setMatricule("SQL-" + (crees.size() + i));
+            etudiant.setEmail("sql" + (crees.size() + i) + "@zig.univ.sn");
+            etudiant.setDateNaissance(LocalDate.of(2000, 1, 1));
+            etudiant.setLieuNaissance("Ziguinchor");
+            etudiant.setRoles(new ArrayList<>(roles));
+            etudiants.add(etudiant);
+        }
+        crees.addAll(etudiantRepository.saveAll(etudiants));
+    }
+
+    private long requetesPourLister() throws Exception {
+        statistiques.clear();
+        mockMvc.perform(get("/api/etudiants").param("taille", "200"))
+                .andExpect(status().isOk());
+        return statistiques.getPrepareStatementCount();
+    }
+
+    @Test
+    void listerEtudiants_shouldIssueConstantNumberOfStatements() throws Exception {
+        creerEtudiants(5);
+        long avecPeuDeLignes = requetesPourLister();
+
+        creerEtudiants(120);
+        long avecBeaucoupDeLignes = requetesPourLister();
+
+        assertEquals(avecPeuDeLignes, avecBeaucoupDeLignes);
+        // deux agrégats pour les validateurs (étudiants, rôles), une requête pour la page,
+        // une requête groupée pour les rôles
+        assertTrue(avecBeaucoupDeLignes <= 4, "Requêtes émises : " + avecBeaucoupDeLignes);
+    }
+}
@@ -0,0 +1,166 @@
+package sn.uasz.utilisateursapi.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import sn.uasz.utilisateursapi.dtos.VacataireDTO;
+import sn.uasz.utilisateursapi.entities.Vacataire;
+import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Lectures conditionnelles ({@code If-None-Match}, {@code If-Modified-Since}) de bout en bout sur
+ * la base H2 : un client qui possède déjà la représentation courante reçoit 304 sans qu'aucune
+ * entité ne soit chargée, et toute écriture (modification, insertion, suppression) invalide
+ * l'ETag concerné.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class LectureConditionnelleTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private VacataireRepository vacataireRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> vacatairesCrees = new ArrayList<>();
+
+    @AfterEach
+    void nettoyer() {
+        vacataireRepository.deleteAllById(vacatairesCrees);
+    }
+
+    @Test
+    void detail_unchangedRecordIsNotModifiedWithoutLoadingEntity() throws Exception {
+        Long id = creerVacataire();
+
+        String lastModified = mockMvc.perform(get("/api/vacataires/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+        assertNotNull(lastModified);
+
+        Statistics statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistiques.setStatisticsEnabled(true);
+        statistiques.clear();
+        try {
+            mockMvc.perform(get("/api/vacataires/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                    .andExpect(content().string(""));
+            // Seule la projection des validateurs est exécutée
+            assertEquals(0, statistiques.getEntityLoadCount());
+            assertEquals(1, statistiques.getPrepareStatementCount());
+        } finally {
+            statistiques.setStatisticsEnabled(false);
+        }
+
+        mockMvc.perform(get("/api/vacataires/{id}", id).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/vacataires/{id}", id).param("fields", "id,nom")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"0\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void detail_updateInvalidatesEtag() throws Exception {
+        Long id = creerVacataire();
+
+        mockMvc.perform(put("/api/vacataires/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(vacataire("Modifie"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/vacataires/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+
+    @Test
+    void detail_unknownRecordStillAnswersNotFound() throws Exception {
+        mockMvc.perform(get("/api/vacataires/{id}", Long.MAX_VALUE).header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void collection_etagChangesOnInsertUpdateAndDelete() throws Exception {
+        Long id = creerVacataire();
+
+        String etag = etagListe();
+        mockMvc.perform(get("/api/vacataires/all").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/vacataires/export").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/vacataires/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(vacataire("Liste"))))
+                .andExpect(status().isOk());
+        String apresModification = etagListe();
+        assertNotEquals(etag, apresModification);
+
+        Long autre = creerVacataire();
+        String apresInsertion = etagListe();
+        assertNotEquals(apresModification, apresInsertion);
+
+        vacataireRepository.deleteById(autre);
+        vacatairesCrees.remove(autre);
+        mockMvc.perform(get("/api/vacataires/all").header(HttpHeaders.IF_NONE_MATCH, apresInsertion))
+                .andExpect(status().isOk());
+    }
+
+    private String etagListe() throws Exception {
+        return mockMvc.perform(get("/api/vacataires/all"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private Long creerVacataire() {
+        Vacataire vacataire = new Vacataire();
+        vacataire.setNom("Conditionnel");
+        vacataire.setPrenom("Test");
+        vacataire.setEmail("lecture" + System.nanoTime() + "@zig.univ.sn");
+        vacataire.setSpecialite("Chimie");
+        Long id = vacataireRepository.save(vacataire).getId();
+        vacatairesCrees.add(id);
+        return id;
+    }
+
+    private VacataireDTO vacataire(String nom) {
+        VacataireDTO dto = new VacataireDTO();
+        dto.setNom(nom);
+        dto.setPrenom("Test");
+        dto.setEmail(nom.toLowerCase() + System.nanoTime() + "@zig.univ.sn");
+        dto.setSpecialite("Chimie");
+        dto.setActif(true);
+        return dto;
+    }
+}
@@ -0,0 +1,222 @@
+package sn.uasz.utilisateursapi.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import sn.uasz.utilisateursapi.dtos.EtudiantDTO;
+import sn.uasz.utilisateursapi.dtos.RoleDTO;
+import sn.uasz.utilisateursapi.dtos.VacataireDTO;
+import sn.uasz.utilisateursapi.entities.Etudiant;
+import sn.uasz.utilisateursapi.entities.Role;
+import sn.uasz.utilisateursapi.entities.Vacataire;
+import sn.uasz.utilisateursapi.repositories.EtudiantRepository;
+import sn.uasz.utilisateursapi.repositories.RoleRepository;
+import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Modifications conditionnelles ({@code If-Match}) de bout en bout sur la base H2 : l'ETag suit la
+ * version de l'enregistrement, et une écriture fondée sur une version obsolète est refusée (412)
+ * par la requête {@code UPDATE} versionnée elle-même, sans lecture préalable ni mise à jour perdue.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ModificationConditionnelleTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private VacataireRepository vacataireRepository;
+
+    @Autowired
+    private EtudiantRepository etudiantRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> vacatairesCrees = new ArrayList<>();
+    private final List<Long> etudiantsCrees = new ArrayList<>();
+    private final List<Long> rolesCrees = new ArrayList<>();
+
+    @AfterEach
+    void nettoyer() {
+        vacataireRepository.deleteAllById(vacatairesCrees);
+        etudiantRepository.deleteAllById(etudiantsCrees);
+        roleRepository.deleteAllById(rolesCrees);
+    }
+
+    /**
+     * Deux clients lisent la même version ; le premier écrit, le second reçoit 412 et sa
+     * modification n'écrase pas celle du premier.
+     */
+    @Test
+    void vacataire_secondWriterWithStaleVersionGetsPreconditionFailed() throws Exception {
+        Long id = creerVacataire();
+
+        mockMvc.perform(get("/api/vacataires/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+
+        mockMvc.perform(put("/api/vacataires/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(vacataire("Premier"))))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.version").value(1));
+
+        Statistics statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistiques.setStatisticsEnabled(true);
+        statistiques.clear();
+        try {
+            mockMvc.perform(put("/api/vacataires/{id}", id)
+                            .header(HttpHeaders.IF_MATCH, "\"0\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(vacataire("Second"))))
+                    .andExpect(status().isPreconditionFailed());
+            // Le vacataire est lu, sa version comparée, et rien n'est écrit
+            assertEquals(1, statistiques.getEntityLoadCount());
+            assertEquals(1, statistiques.getPrepareStatementCount());
+            assertEquals(0, statistiques.getEntityUpdateCount());
+        } finally {
+            statistiques.setStatisticsEnabled(false);
+        }
+
+        Vacataire enBase = vacataireRepository.findById(id).orElseThrow();
+        assertEquals("Premier", enBase.getNom());
+        assertEquals(1, enBase.getVersion());
+    }
+
+    @Test
+    void vacataire_ifMatchWildcardOrAbsentUpdatesUnconditionally() throws Exception {
+        Long id = creerVacataire();
+
+        mockMvc.perform(put("/api/vacataires/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(vacataire("Joker"))))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        mockMvc.perform(put("/api/vacataires/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(vacataire("SansCondition"))))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+    }
+
+    /**
+     * Un changement de nom régénère l'email dans la même transaction ; l'ETag renvoyé est
+     * celui de la version finale en base.
+     */
+    @Test
+    void etudiant_renamingReturnsFinalVersion() throws Exception {
+        Etudiant etudiant = new Etudiant();
+        etudiant.setNom("Versionne");
+        etudiant.setPrenom("Awa");
+        etudiant.setMatricule("VER-0001");
+        etudiant.setEmail("versionneav1@zig.univ.sn");
+        etudiant.setDateNaissance(LocalDate.of(2001, 3, 4));
+        etudiant.setLieuNaissance("Ziguinchor");
+        Long id = etudiantRepository.save(etudiant).getId();
+        etudiantsCrees.add(id);
+
+        EtudiantDTO modification = new EtudiantDTO();
+        modification.setNom("Renomme");
+        modification.setPrenom("Awa");
+        modification.setEmail("versionneav1@zig.univ.sn");
+        modification.setDateNaissance(LocalDate.of(2001, 3, 4));
+        modification.setLieuNaissance("Bignona");
+
+        String reponse = mockMvc.perform(put("/api/etudiants/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(modification)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matricule").value("VER-0001"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        Etudiant enBase = etudiantRepository.findById(id).orElseThrow();
+        assertEquals("\"" + enBase.getVersion() + "\"", reponse);
+        assertNotEquals("versionneav1@zig.univ.sn", enBase.getEmail());
+        assertEquals("Bignona", enBase.getLieuNaissance());
+
+        mockMvc.perform(put("/api/etudiants/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(modification)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void role_staleVersionIsRejected() throws Exception {
+        Long id = roleRepository.save(Role.builder().libelle("VERSIONNE").description("Avant").build()).getId();
+        rolesCrees.add(id);
+
+        RoleDTO modification = new RoleDTO();
+        modification.setLibelle("VERSIONNE");
+        modification.setDescription("Après");
+
+        mockMvc.perform(put("/api/roles/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(modification)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        mockMvc.perform(put("/api/roles/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(modification)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/api/roles/{id}", id))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.description").value("Après"));
+    }
+
+    private Long creerVacataire() {
+        Vacataire vacataire = new Vacataire();
+        vacataire.setNom("Initial");
+        vacataire.setPrenom("Test");
+        vacataire.setEmail("conditionnel" + System.nanoTime() + "@zig.univ.sn");
+        vacataire.setSpecialite("Physique");
+        Long id = vacataireRepository.save(vacataire).getId();
+        vacatairesCrees.add(id);
+        return id;
+    }
+
+    private VacataireDTO vacataire(String nom) {
+        VacataireDTO dto = new VacataireDTO();
+        dto.setNom(nom);
+        dto.setPrenom("Test");
+        dto.setEmail(nom.toLowerCase() + System.nanoTime() + "@zig.univ.sn");
+        dto.setSpecialite("Physique");
+        dto.setActif(true);
+        return dto;
+    }
+}
@@ -0,0 +1,261 @@
+package sn.uasz.utilisateursapi.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import sn.uasz.utilisateursapi.entities.Enseignant;
+import sn.uasz.utilisateursapi.entities.Etudiant;
+import sn.uasz.utilisateursapi.entities.Vacataire;
+import sn.uasz.utilisateursapi.enums.Grade;
+import sn.uasz.utilisateursapi.repositories.EnseignantRepository;
+import sn.uasz.utilisateursapi.repositories.EtudiantRepository;
+import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+import sn.uasz.utilisateursapi.services.RattrapageClesRecherche;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Recherches exactes, par préfixe et phonétiques sur les clés normalisées, de bout en bout sur la base H2 :
+ * clés tenues par l'écouteur JPA, lectures par les index, rattrapage des lignes écrites hors JPA.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class RechercheClesNormaliseesTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EnseignantRepository enseignantRepository;
+
+    @Autowired
+    private EtudiantRepository etudiantRepository;
+
+    @Autowired
+    private VacataireRepository vacataireRepository;
+
+    @Autowired
+    private RattrapageClesRecherche rattrapage;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> enseignants = new ArrayList<>();
+    private final List<Long> etudiants = new ArrayList<>();
+    private final List<Long> vacataires = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        enseignantRepository.deleteAllById(enseignants);
+        etudiantRepository.deleteAllById(etudiants);
+        vacataireRepository.deleteAllById(vacataires);
+    }
+
+    /**
+     * Sans accents ni casse, par préfixe (par défaut) ou à l'identique, sur le nom, le prénom ou l'email.
+     */
+    @Test
+    void search_matchesFoldedKeysExactlyOrByPrefix() throws Exception {
+        Long kane = vacataire("Kâné", "Zoé Ébrié", "zoe.kane@zig.univ.sn");
+        Long kaneton = vacataire("KANETON", "Aïssatou", null);
+
+        mockMvc.perform(get("/api/vacataires/recherche").param("nom", "KANE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(kane))
+                .andExpect(jsonPath("$[1].id").value(kaneton));
+        mockMvc.perform(get("/api/vacataires/recherche").param("nom", "kane").param("mode", "EXACT"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].nom").value("Kâné"));
+        mockMvc.perform(get("/api/vacataires/recherche").param("nom", "zoe  ebr").param("mode", "prefix"))
+                .andExpect(jsonPath("$[0].id").value(kane));
+        mockMvc.perform(get("/api/vacataires/recherche").param("nom", "Zoe.Kane@ZIG.univ.sn").param("mode", "exact"))
+                .andExpect(jsonPath("$[0].id").value(kane));
+        mockMvc.perform(get("/api/vacataires/recherche").param("nom", "kane").param("taille", "1"))
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(get("/api/vacataires/recherche").param("nom", "kane").param("mode", "sonore"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Un renommage par l'API remplace les clés : l'ancien nom n'est plus trouvé, le nouveau l'est,
+     * pour les vacataires comme pour les étudiants.
+     */
+    @Test
+    void search_followsRenameThroughApi() throws Exception {
+        Long id = vacataire("Kâné", "Zoé", "zoe.kane@zig.univ.sn");
+
+        mockMvc.perform(put("/api/vacataires/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("nom", "Sèye", "prenom", "Zoé",
+                                "email", "zoe.seye@zig.univ.sn", "actif", true))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/vacataires/recherche").param("nom", "kane").param("mode", "exact"))
+                .andExpect(jsonPath("$[?(@.id == " + id + ")]").doesNotExist());
+        mockMvc.perform(get("/api/vacataires/recherche").param("nom", "zoe.kane"))
+                .andExpect(jsonPath("$[?(@.id == " + id + ")]").doesNotExist());
+        mockMvc.perform(get("/api/vacataires/recherche").param("nom", "SEYE").param("mode", "exact"))
+                .andExpect(jsonPath("$[?(@.id == " + id + ")].nom").value("Sèye"));
+        mockMvc.perform(get("/api/vacataires/recherche").param("nom", "zoe.sey"))
+                .andExpect(jsonPath("$[?(@.id == " + id + ")]").exists());
+
+        Long etudiant = etudiant("Diédhiou", "Ousmane", "CLE-0002");
+        mockMvc.perform(put("/api/etudiants/{id}", etudiant)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("nom", "Badji", "prenom", "Ousmane",
+                                "email", "ousmane.badji@zig.univ.sn", "dateNaissance", "2002-05-06", "lieuNaissance", "Oussouye"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/etudiants/recherche").param("nom", "diedhiou"))
+                .andExpect(jsonPath("$[?(@.id == " + etudiant + ")]").doesNotExist());
+        mockMvc.perform(get("/api/etudiants/recherche").param("nom", "badj"))
+                .andExpect(jsonPath("$[?(@.id == " + etudiant + ")].matricule").value("CLE-0002"));
+    }
+
+    /**
+     * En mode phonétique, un nom saisi à l'oreille trouve ses autres graphies, sur le nom ou le prénom.
+     */
+    @Test
+    void phoneticSearch_matchesNamesAsHeard() throws Exception {
+        Long ndiaye = vacataire("N'Diaye", "Thiané", null);
+        Long diop = vacataire("Diop", "Ndèye", null);
+
+        mockMvc.perform(get("/api/vacataires/recherche").param("nom", "ndiaye").param("mode", "phonetic"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == " + ndiaye + ")]").exists())
+                .andExpect(jsonPath("$[?(@.id == " + diop + ")]").doesNotExist());
+        mockMvc.perform(get("/api/vacataires/recherche").param("nom", "Tiane").param("mode", "phonetique"))
+                .andExpect(jsonPath("$[?(@.id == " + ndiaye + ")].nom").value("N'Diaye"));
+        mockMvc.perform(get("/api/vacataires/recherche").param("nom", "Ndeye").param("mode", "phonetic"))
+                .andExpect(jsonPath("$[?(@.id == " + diop + ")]").exists());
+    }
+
+    /**
+     * Les clés phonétiques suivent aussi un renommage par l'API, pour les vacataires comme pour les enseignants.
+     */
+    @Test
+    void phoneticSearch_followsRenameThroughApi() throws Exception {
+        Long id = vacataire("Sèye", "Thiané", null);
+        mockMvc.perform(put("/api/vacataires/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("nom", "N'Diaye", "prenom", "Thiané", "actif", true))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/vacataires/recherche").param("nom", "Seye").param("mode", "phonetic"))
+                .andExpect(jsonPath("$[?(@.id == " + id + ")]").doesNotExist());
+        mockMvc.perform(get("/api/vacataires/recherche").param("nom", "ndiaye").param("mode", "phonetic"))
+                .andExpect(jsonPath("$[?(@.id == " + id + ")].nom").value("N'Diaye"));
+
+        Enseignant enseignant = Enseignant.builder().nom("Cissé").prenom("Lamine").email("lamine.cisse@zig.univ.sn")
+                .matricule("ENS-CLE-2").grade(Grade.PROFESSEUR).build();
+        Long enseignantId = enseignantRepository.save(enseignant).getId();
+        enseignants.add(enseignantId);
+        mockMvc.perform(put("/api/enseignants/{id}", enseignantId)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("nom", "Sagna", "prenom", "Lamine",
+                                "email", "lamine.cisse@zig.univ.sn", "matricule", "ENS-CLE-2", "grade", "PROFESSEUR"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/enseignants/recherche").param("nom", "Sisse").param("mode", "phonetic"))
+                .andExpect(jsonPath("$[?(@.id == " + enseignantId + ")]").doesNotExist());
+        mockMvc.perform(get("/api/enseignants/recherche").param("nom", "Sania").param("mode", "phonetic"))
+                .andExpect(jsonPath("$[?(@.id == " + enseignantId + ")].nom").value("Sagna"));
+    }
+
+    /**
+     * Les étudiants et les enseignants sont recherchés de la même façon ; la recherche existante
+     * des enseignants (sans mode) reste servie par l'index de trigrammes.
+     */
+    @Test
+    void search_coversEtudiantsAndEnseignants() throws Exception {
+        etudiant("Diédhiou-Kâné", "Ousmane", "CLE-0001");
+        Enseignant enseignant = Enseignant.builder().nom("Ébrié").prenom("Lamine").email("lamine.ebrie@zig.univ.sn")
+                .matricule("ENS-CLE-1").grade(Grade.PROFESSEUR).build();
+        enseignants.add(enseignantRepository.save(enseignant).getId());
+
+        mockMvc.perform(get("/api/etudiants/recherche").param("nom", "diedhiou-ka"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].matricule").value("CLE-0001"));
+        mockMvc.perform(get("/api/enseignants/recherche").param("nom", "EBRIE").param("mode", "exact"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].prenom").value("Lamine"));
+    }
+
+    /**
+     * Les recherches par préfixe sont des parcours bornés de l'index de la clé.
+     */
+    @Test
+    void prefixSearch_usesKeyIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "explain select id from vacataires where nom_normalise >= 'kan' and nom_normalise < 'kao'", String.class);
+
+        assertTrue(plan.toLowerCase().contains("idx_vacataire_nom_normalise"), plan);
+    }
+
+    /**
+     * Le rattrapage complète les lignes écrites sans clés, sans changer leur version.
+     */
+    @Test
+    void rattrapage_fillsMissingKeysWithoutBumpingVersion() throws Exception {
+        Long id = vacataire("Sèye", "Rokhaya", null);
+        jdbcTemplate.update("update vacataires set nom = 'Ndiàye', nom_normalise = null, prenom_normalise = null, nom_phonetique = null where id = ?", id);
+        long version = vacataireRepository.findById(id).orElseThrow().getVersion();
+
+        assertTrue(rattrapage.rattraper() >= 1);
+
+        assertEquals(0, rattrapage.rattraper());
+        assertEquals(version, vacataireRepository.findById(id).orElseThrow().getVersion());
+        assertEquals("diai", vacataireRepository.findById(id).orElseThrow().getNomPhonetique());
+        mockMvc.perform(get("/api/vacataires/recherche").param("nom", "ndiaye").param("mode", "exact"))
+                .andExpect(jsonPath("$[?(@.id == " + id + ")].prenom").value("Rokhaya"));
+    }
+
+    private Long vacataire(String nom, String prenom, String email) {
+        Vacataire vacataire = new Vacataire();
+        vacataire.setNom(nom);
+        vacataire.setPrenom(prenom);
+        vacataire.setEmail(email);
+        vacataire.setActif(true);
+        Long id = vacataireRepository.save(vacataire).getId();
+        vacataires.add(id);
+        return id;
+    }
+
+    private Long etudiant(String nom, String prenom, String matricule) {
+        Etudiant etudiant = new Etudiant();
+        etudiant.setNom(nom);
+        etudiant.setPrenom(prenom);
+        etudiant.setMatricule(matricule);
+        etudiant.setEmail(matricule.toLowerCase() + "@zig.univ.sn");
+        etudiant.setDateNaissance(LocalDate.of(2002, 5, 6));
+        etudiant.setLieuNaissance("Oussouye");
+        Long id = etudiantRepository.save(etudiant).getId();
+        etudiants.add(id);
+        return id;
+    }
+}
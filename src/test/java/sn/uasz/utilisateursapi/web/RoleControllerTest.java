@@ -6,8 +6,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import sn.uasz.utilisateursapi.dtos.PageCurseurDTO;
 import sn.uasz.utilisateursapi.dtos.RoleDTO;
 import sn.uasz.utilisateursapi.services.RoleService;
 
@@ -51,7 +53,7 @@ class RoleControllerTest {
     void getRoleById_shouldReturnRole() {
         when(roleService.obtenirRole(1)).thenReturn(roleDTO);
 
-        ResponseEntity<RoleDTO> response = roleController.getRoleById(1L);
+        ResponseEntity<RoleDTO> response = roleController.getRoleById(1L, new HttpHeaders());
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -67,17 +69,18 @@ class RoleControllerTest {
     void getAllRoles_shouldReturnListOfRoles() {
         List<RoleDTO> roles = Arrays.asList(
                 roleDTO,
-                new RoleDTO(2L, "USER", "Utilisateur du système")
+                new RoleDTO(2L, "USER", "Utilisateur du système", 0L)
         );
 
-        when(roleService.findAll()).thenReturn(roles);
+        when(roleService.findPage(null, null)).thenReturn(new PageCurseurDTO<>(roles, "c3VpdmFudA"));
 
-        ResponseEntity<List<RoleDTO>> response = roleController.getAllRole();
+        ResponseEntity<List<RoleDTO>> response = roleController.getAllRole(null, null, new HttpHeaders());
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(2, response.getBody().size());
-        verify(roleService, times(1)).findAll();
+        assertEquals("c3VpdmFudA", response.getHeaders().getFirst("X-Next-Cursor"));
+        verify(roleService, times(1)).findPage(null, null);
     }
 
     /**
@@ -105,15 +108,17 @@ class RoleControllerTest {
         RoleDTO updatedRole = new RoleDTO();
         updatedRole.setLibelle("ADMIN-UPDATED");
         updatedRole.setDescription("Administrateur mis à jour");
+        updatedRole.setVersion(3L);
 
-        when(roleService.modifierRole(anyInt(), any(RoleDTO.class))).thenReturn(updatedRole);
+        when(roleService.modifierRole(anyInt(), any(RoleDTO.class), eq(2L))).thenReturn(updatedRole);
 
-        ResponseEntity<RoleDTO> response = roleController.updateRole(1L, updatedRole);
+        ResponseEntity<RoleDTO> response = roleController.updateRole(1L, "\"2\"", updatedRole);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("ADMIN-UPDATED", response.getBody().getLibelle());
-        verify(roleService, times(1)).modifierRole(anyInt(), any(RoleDTO.class));
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        verify(roleService, times(1)).modifierRole(anyInt(), any(RoleDTO.class), eq(2L));
     }
 
     /**
@@ -0,0 +1,106 @@
+package sn.uasz.utilisateursapi.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import sn.uasz.utilisateursapi.dtos.VacataireDTO;
+import sn.uasz.utilisateursapi.repositories.VacataireRepository;
+import sn.uasz.utilisateursapi.services.StatistiquesService;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statistiques de bout en bout sur la base H2 : les changements faits par l'API sont comptés
+ * dès leur validation ; une écriture faite hors de l'API n'est vue qu'à la réconciliation
+ * (déclenchée ici explicitement).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class StatistiquesControllerTest {
+
+    private static final String SPECIALITE = "Statistique";
+    private static final String SPECIALITE_MODIFIEE = "Statistique appliquée";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StatistiquesService statistiquesService;
+
+    @Autowired
+    private VacataireRepository vacataireRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long id;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        statistiquesService.reconcilier();
+        VacataireDTO vacataire = new VacataireDTO();
+        vacataire.setNom("Ba");
+        vacataire.setPrenom("Stats");
+        vacataire.setEmail("stats." + System.nanoTime() + "@zig.univ.sn");
+        vacataire.setSpecialite(SPECIALITE);
+        vacataire.setActif(true);
+        MvcResult creation = mockMvc.perform(post("/api/vacataires")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(vacataire)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        id = objectMapper.readValue(creation.getResponse().getContentAsString(), VacataireDTO.class).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        vacataireRepository.deleteById(id);
+        statistiquesService.reconcilier();
+    }
+
+    @Test
+    void apiChanges_areCountedImmediately() throws Exception {
+        mockMvc.perform(get("/api/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.vacatairesActifsParSpecialite['" + SPECIALITE + "']").value(1))
+                .andExpect(jsonPath("$.vacatairesInactifsParSpecialite['" + SPECIALITE + "']").doesNotExist());
+
+        mockMvc.perform(post("/api/vacataires/{id}/desactiver", id))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.vacatairesActifsParSpecialite['" + SPECIALITE + "']").doesNotExist())
+                .andExpect(jsonPath("$.vacatairesInactifsParSpecialite['" + SPECIALITE + "']").value(1));
+    }
+
+    @Test
+    void directDatabaseWrite_isCorrectedByReconciliation() throws Exception {
+        jdbcTemplate.update("update vacataires set specialite = ? where id = ?", SPECIALITE_MODIFIEE, id);
+
+        mockMvc.perform(get("/api/stats"))
+                .andExpect(jsonPath("$.vacatairesActifsParSpecialite['" + SPECIALITE + "']").value(1));
+
+        statistiquesService.reconcilier();
+
+        mockMvc.perform(get("/api/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.vacatairesActifsParSpecialite['" + SPECIALITE + "']").doesNotExist())
+                .andExpect(jsonPath("$.vacatairesActifsParSpecialite['" + SPECIALITE_MODIFIEE + "']").value(1))
+                .andExpect(jsonPath("$.derniereReconciliation").exists());
+    }
+}
@@ -7,19 +7,33 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
+import sn.uasz.utilisateursapi.dtos.LotResultatDTO;
+import sn.uasz.utilisateursapi.dtos.ResultatMasseDTO;
+import sn.uasz.utilisateursapi.dtos.SelectionMasseDTO;
+import sn.uasz.utilisateursapi.dtos.PageCurseurDTO;
 import sn.uasz.utilisateursapi.dtos.VacataireDTO;
+import sn.uasz.utilisateursapi.exceptions.ChampsInvalidesException;
+import sn.uasz.utilisateursapi.exceptions.LotInvalideException;
 import sn.uasz.utilisateursapi.exceptions.VacataireNotFoundException;
+import sn.uasz.utilisateursapi.exceptions.VersionObsoleteException;
 import sn.uasz.utilisateursapi.services.VacataireService;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given; // Style BDD pour Mockito
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -141,28 +155,47 @@ class VacataireControllerTest {
     void mettreAJourVacataire_whenExists_shouldReturnOkAndUpdatedDTO() throws Exception {
         // Arrange
         long vacataireId = 1L;
-        given(vacataireService.mettreAJourVacataire(eq(vacataireId), any(VacataireDTO.class)))
+        vacataireDTOUpdated.setVersion(5L);
+        given(vacataireService.mettreAJourVacataire(eq(vacataireId), any(VacataireDTO.class), eq(4L)))
                 .willReturn(vacataireDTOUpdated);
 
         // Act
         ResultActions response = mockMvc.perform(put("/api/vacataires/{id}", vacataireId)
+                .header(HttpHeaders.IF_MATCH, "\"4\"")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(vacataireDTOUpdated)));
 
         // Assert
         response.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id", is(vacataireDTOUpdated.getId().intValue())))
                 .andExpect(jsonPath("$.prenom", is(vacataireDTOUpdated.getPrenom()))) // Vérifier le champ mis à jour
                 .andExpect(jsonPath("$.email", is(vacataireDTOUpdated.getEmail())));
     }
 
+    @Test
+    void mettreAJourVacataire_whenVersionIsStale_shouldReturnPreconditionFailed() throws Exception {
+        // Arrange
+        given(vacataireService.mettreAJourVacataire(eq(1L), any(VacataireDTO.class), eq(4L)))
+                .willThrow(new VersionObsoleteException("Le vacataire 1 a été modifié depuis la version 4"));
+
+        // Act
+        ResultActions response = mockMvc.perform(put("/api/vacataires/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "\"4\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(vacataireDTO)));
+
+        // Assert
+        response.andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void mettreAJourVacataire_whenNotFound_shouldReturnNotFound() throws Exception {
         // Arrange: Test de l'exception handler via le service
         long vacataireId = 99L;
         String errorMessage = "Impossible de mettre à jour, vacataire non trouvé: " + vacataireId;
-        given(vacataireService.mettreAJourVacataire(eq(vacataireId), any(VacataireDTO.class)))
+        given(vacataireService.mettreAJourVacataire(eq(vacataireId), any(VacataireDTO.class), isNull()))
                 .willThrow(new VacataireNotFoundException(errorMessage));
 
         // Act
@@ -209,18 +242,99 @@ class VacataireControllerTest {
     void getAllVacatairesActifs_shouldReturnOkAndListOfDTOs() throws Exception {
         // Arrange
         List<VacataireDTO> listVacataires = Collections.singletonList(vacataireDTO);
-        given(vacataireService.getAllVacatairesActifs()).willReturn(listVacataires);
+        given(vacataireService.getVacatairesActifsParPage("abc", 10))
+                .willReturn(new PageCurseurDTO<>(listVacataires, "ZGVm"));
 
         // Act
-        ResultActions response = mockMvc.perform(get("/api/vacataires"));
+        ResultActions response = mockMvc.perform(get("/api/vacataires").param("curseur", "abc").param("taille", "10"));
 
         // Assert
         response.andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "ZGVm")) // Curseur de la page suivante
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.size()", is(listVacataires.size()))) // Vérifie la taille de la liste JSON
                 .andExpect(jsonPath("$[0].id", is(vacataireDTO.getId().intValue()))); // Vérifie l'ID du premier élément
     }
 
+    @Test
+    void getAllVacatairesActifs_withFields_shouldReturnOnlyRequestedFields() throws Exception {
+        // Arrange: le service renvoie des projections réduites aux champs demandés
+        given(vacataireService.getVacatairesActifsParPage(null, null, "id,nom"))
+                .willReturn(new PageCurseurDTO<>(List.of(Map.of("id", 1L, "nom", "Diop")), "ZGVm"));
+
+        // Act
+        ResultActions response = mockMvc.perform(get("/api/vacataires").param("fields", "id,nom"));
+
+        // Assert
+        response.andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "ZGVm"))
+                .andExpect(jsonPath("$[0].nom", is("Diop")))
+                .andExpect(jsonPath("$[0].email").doesNotExist());
+    }
+
+    @Test
+    void getVacataire_withUnknownField_shouldReturnBadRequest() throws Exception {
+        // Arrange
+        given(vacataireService.getVacataire(1L, "id,roles"))
+                .willThrow(new ChampsInvalidesException("Champ inconnu : roles"));
+
+        // Act
+        ResultActions response = mockMvc.perform(get("/api/vacataires/{id}", 1L).param("fields", "id,roles"));
+
+        // Assert
+        response.andExpect(status().isBadRequest())
+                .andExpect(content().string("Champ inconnu : roles"));
+    }
+
+    @Test
+    void getVacatairesParIds_shouldReturnFoundAndMissingIds() throws Exception {
+        // Arrange
+        given(vacataireService.getVacataires(List.of(1L, 99L)))
+                .willReturn(new LotResultatDTO<>(List.of(vacataireDTO), List.of(99L)));
+
+        // Act
+        ResultActions response = mockMvc.perform(post("/api/vacataires/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 99]"));
+
+        // Assert
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.trouves[0].id", is(1)))
+                .andExpect(jsonPath("$.manquants[0]", is(99)));
+    }
+
+    @Test
+    void getVacatairesParIds_whenBatchInvalid_shouldReturnBadRequest() throws Exception {
+        // Arrange
+        given(vacataireService.getVacataires(any())).willThrow(new LotInvalideException("Lot trop grand"));
+
+        // Act
+        ResultActions response = mockMvc.perform(post("/api/vacataires/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1]"));
+
+        // Assert
+        response.andExpect(status().isBadRequest())
+                .andExpect(content().string("Lot trop grand"));
+    }
+
+    @Test
+    void desactiverVacataires_bySpecialite_shouldReturnAffectedRows() throws Exception {
+        // Arrange
+        given(vacataireService.modifierActifEnMasse(false, new SelectionMasseDTO(null, "Informatique", null)))
+                .willReturn(new ResultatMasseDTO(false, 12));
+
+        // Act
+        ResultActions response = mockMvc.perform(post("/api/vacataires/desactiver")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"specialite\": \"Informatique\"}"));
+
+        // Assert
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.actif", is(false)))
+                .andExpect(jsonPath("$.lignesModifiees", is(12)));
+    }
+
     @Test
     void desactiverVacataire_whenExists_shouldReturnOkAndDTO() throws Exception {
         // Arrange
@@ -303,6 +417,33 @@ class VacataireControllerTest {
                 .andExpect(content().string("Une erreur inattendue est survenue")); // Vérifie le message générique
     }
 
+    @Test
+    void exporterVacataires_shouldStreamOneJsonObjectPerLine() throws Exception {
+        // Arrange: le service pousse deux vacataires vers le consommateur fourni
+        VacataireDTO autre = new VacataireDTO();
+        autre.setId(2L);
+        autre.setNom("Sarr");
+        given(vacataireService.exporterVacataires(any())).willAnswer(invocation -> {
+            Consumer<VacataireDTO> consommateur = invocation.getArgument(0);
+            consommateur.accept(vacataireDTO);
+            consommateur.accept(autre);
+            return 2L;
+        });
+
+        // Act
+        MvcResult resultat = mockMvc.perform(get("/api/vacataires/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        String[] lignes = mockMvc.perform(asyncDispatch(resultat))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertEquals(2, lignes.length);
+        assertTrue(lignes[1].contains("\"nom\":\"Sarr\""));
+    }
+
     @Test
     void contextLoads() {
         // Test vide pour vérifier le chargement du contexte Spring